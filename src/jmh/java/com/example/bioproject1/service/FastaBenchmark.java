@@ -0,0 +1,105 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaAnalysisResult;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * FastaService 핫패스 벤치마크 (파싱 / GC / 코돈), 1 kb ~ 100 Mb 합성 유전체
+ * 실행: ./gradlew jmh  (할당량은 gc 프로파일러의 gc.alloc.rate.norm 으로 확인)
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class FastaBenchmark {
+
+    @Param({"1000", "100000", "10000000", "100000000"})
+    private int genomeLength;
+
+    private byte[] fastaFile;
+    private byte[] sequence;
+    private PackedSequence packed;
+    private FastaService fastaService;
+
+    private final BaseCountKernel scalarKernel = new ScalarBaseCountKernel();
+    private final BaseCountKernel bestKernel = BaseCountKernel.best();
+    // 결과에 서열 문자열을 넣지 않음 (문자열 변환 비용은 측정 대상이 아님)
+    private final FastaAnalysisOptions options = new FastaAnalysisOptions(false, false, 0);
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        fastaFile = syntheticGenome(genomeLength, 42);
+        try (FastaStreamReader reader = new FastaStreamReader(new ByteArrayInputStream(fastaFile))) {
+            sequence = reader.next().sequence();
+        }
+        packed = PackedSequence.pack(sequence);
+        fastaService = new FastaService(1, 1);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fastaService.shutdown();
+    }
+
+    // 60열 줄바꿈, 약 1%는 N 구간이 섞인 단일 레코드 유전체
+    static byte[] syntheticGenome(int length, long seed) {
+        Random random = new Random(seed);
+        String header = ">synthetic_" + length + "\n";
+        byte[] out = new byte[header.length() + length + length / 60 + 1];
+        int pos = 0;
+        for (int i = 0; i < header.length(); i++) out[pos++] = (byte) header.charAt(i);
+        byte[] bases = {'A', 'C', 'G', 'T'};
+        int nRun = 0;
+        for (int i = 0; i < length; i++) {
+            if (nRun == 0 && random.nextInt(10_000) == 0) nRun = 100;
+            out[pos++] = nRun > 0 ? (byte) 'N' : bases[random.nextInt(4)];
+            if (nRun > 0) nRun--;
+            if (i % 60 == 59) out[pos++] = '\n';
+        }
+        out[pos++] = '\n';
+        return Arrays.copyOf(out, pos);
+    }
+
+    @Benchmark
+    public void parse(Blackhole bh) throws IOException {
+        try (FastaStreamReader reader = new FastaStreamReader(new ByteArrayInputStream(fastaFile))) {
+            FastaRecord record;
+            while ((record = reader.next()) != null) bh.consume(record);
+        }
+    }
+
+    @Benchmark
+    public NucleotideCounts gcContent() {
+        return bestKernel.count(sequence);
+    }
+
+    @Benchmark
+    public NucleotideCounts gcContentScalar() {
+        return scalarKernel.count(sequence);
+    }
+
+    @Benchmark
+    public PackedSequence pack() {
+        return PackedSequence.pack(sequence);
+    }
+
+    @Benchmark
+    public BaseComposition codonUsage() {
+        BaseComposition composition = new BaseComposition();
+        composition.countCodons(packed);
+        return composition;
+    }
+
+    /** 파싱 + GC + 코돈 + 결과 DTO (캐시 없음, 순차) */
+    @Benchmark
+    public List<FastaAnalysisResult> analyzeFasta() throws IOException {
+        return fastaService.analyzeFasta(new ByteArrayInputStream(fastaFile), options);
+    }
+}
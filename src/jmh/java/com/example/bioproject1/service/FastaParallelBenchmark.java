@@ -0,0 +1,82 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaAnalysisResult;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 여러 레코드 FASTA의 순차 경로(parallel=false)와 병렬 경로(parallel=true) 처리량 비교
+ * - 합성 multi-FASTA: contigs개 레코드, 길이 1 ~ 10 kb (평균 약 5 kb), 60열 줄바꿈
+ * - parallelism: 분석 풀 크기 (0 = CPU 코어 수), maxInFlight: 메모리에 올려 둘 레코드 수 (0 = 풀 크기 * 2)
+ * - sequential은 두 값과 무관 (같은 파일에 대한 기준값)
+ * - 연산 1회 = 파일 전체 분석, MB/s = ops/s * 파일 크기(setUp 로그)
+ * 실행: ./gradlew jmh -PjmhIncludes=FastaParallelBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class FastaParallelBenchmark {
+
+    @Param({"5000"})
+    private int contigs;
+
+    @Param({"1", "0"})
+    private int parallelism;
+
+    @Param({"0", "256"})
+    private int maxInFlight;
+
+    private byte[] fastaFile;
+    private FastaService fastaService;
+
+    // 결과에 서열 문자열을 넣지 않음 (문자열 변환 비용은 측정 대상이 아님)
+    private final FastaAnalysisOptions sequential = new FastaAnalysisOptions(false, false, 0);
+    private final FastaAnalysisOptions parallel = sequential.withParallel(true);
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        fastaFile = syntheticMultiFasta(contigs, 43);
+        fastaService = new FastaService(parallelism, maxInFlight);
+        System.out.printf("multi-FASTA: %d contigs, %.1f MB%n", contigs, fastaFile.length / 1e6);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        fastaService.shutdown();
+    }
+
+    // contig_0 ~ contig_(n-1), 길이 1 ~ 10 kb
+    static byte[] syntheticMultiFasta(int contigs, long seed) {
+        Random random = new Random(seed);
+        byte[] bases = {'A', 'C', 'G', 'T'};
+        byte[] out = new byte[contigs * (10_000 + 10_000 / 60 + 32)];
+        int pos = 0;
+        for (int c = 0; c < contigs; c++) {
+            String header = ">contig_" + c + "\n";
+            for (int i = 0; i < header.length(); i++) out[pos++] = (byte) header.charAt(i);
+            int length = 1 + random.nextInt(10_000);
+            for (int i = 0; i < length; i++) {
+                out[pos++] = bases[random.nextInt(4)];
+                if (i % 60 == 59) out[pos++] = '\n';
+            }
+            out[pos++] = '\n';
+        }
+        return Arrays.copyOf(out, pos);
+    }
+
+    @Benchmark
+    public List<FastaAnalysisResult> analyzeSequential() throws IOException {
+        return fastaService.analyzeFasta(new ByteArrayInputStream(fastaFile), sequential);
+    }
+
+    @Benchmark
+    public List<FastaAnalysisResult> analyzeParallel() throws IOException {
+        return fastaService.analyzeFasta(new ByteArrayInputStream(fastaFile), parallel);
+    }
+}
@@ -0,0 +1,138 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.Location;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * HighlightEngine 이전의 하이라이트 경로 (할당량 비교용 기준선, 벤치마크 전용)
+ * int[] 구간 리스트 -> 비교자 정렬 + LinkedList 병합 -> substring + replace 세 번 렌더링
+ */
+final class LegacyHighlighter {
+
+    private static final String HIGHLIGHT_START = "<mark class='highlight'>";
+    private static final String HIGHLIGHT_END = "</mark>";
+
+    record MergeResult(String combinedText, List<int[]> intervals) {}
+
+    String highlight(List<BioCPassage> abstractPassages) {
+        MergeResult merged = buildCombinedAbstractAndIntervals(abstractPassages);
+        return renderHighlight(merged.combinedText(), merged.intervals());
+    }
+
+    MergeResult buildCombinedAbstractAndIntervals(List<BioCPassage> abstractPassages) {
+        StringBuilder sb = new StringBuilder();
+        List<int[]> allIntervals = new ArrayList<>();
+        int baseOffset = 0;
+        boolean firstPassage = true;
+
+        for (BioCPassage passage : abstractPassages) {
+            String passageText = Optional.ofNullable(passage.text()).orElse("");
+            if (passageText.isEmpty() && (passage.annotations() == null || passage.annotations().isEmpty())) {
+                continue;
+            }
+            if (!firstPassage) {
+                sb.append(" ");
+                baseOffset += 1;
+            }
+            firstPassage = false;
+
+            int currentPassageBase = baseOffset;
+            sb.append(passageText);
+
+            if (passage.annotations() != null) {
+                for (Annotation ann : passage.annotations()) {
+                    if (!isHighlightCandidate(ann)) continue;
+                    if (ann.locations() == null) continue;
+                    for (Location loc : ann.locations()) {
+                        Integer off = loc.offset();
+                        Integer len = loc.length();
+                        if (off == null || len == null || len <= 0) continue;
+                        int start = currentPassageBase + off;
+                        allIntervals.add(new int[]{start, start + len});
+                    }
+                }
+            }
+            baseOffset = sb.length();
+        }
+        return new MergeResult(sb.toString(), mergeOverlaps(allIntervals, sb.length()));
+    }
+
+    static boolean isHighlightCandidate(Annotation ann) {
+        String type = ann.infons() != null ? ann.infons().type() : null;
+        Boolean valid = (ann.infons() != null && ann.infons().valid() != null) ? ann.infons().valid() : true;
+        String annText = ann.text();
+        String identifier = ann.infons() != null ? ann.infons().identifier() : null;
+
+        if (type == null || !isCoreType(type)) return false;
+        if (annText == null || annText.trim().length() <= 2) return false;
+        if (!valid) return false;
+        return identifier != null && !identifier.equals("-");
+    }
+
+    static boolean isCoreType(String type) {
+        return "Gene".equalsIgnoreCase(type)
+                || "Disease".equalsIgnoreCase(type)
+                || "Chemical".equalsIgnoreCase(type)
+                || "Species".equalsIgnoreCase(type)
+                || "Phenotype".equalsIgnoreCase(type)
+                || "Mutation".equalsIgnoreCase(type)
+                || "CellLine".equalsIgnoreCase(type)
+                || "SequenceVariant".equalsIgnoreCase(type)
+                || "Protein".equalsIgnoreCase(type);
+    }
+
+    List<int[]> mergeOverlaps(List<int[]> intervals, int textLen) {
+        if (intervals == null || intervals.isEmpty()) return Collections.emptyList();
+
+        intervals.sort(Comparator.comparingInt(a -> a[0]));
+
+        LinkedList<int[]> merged = new LinkedList<>();
+        for (int[] cur : intervals) {
+            if (merged.isEmpty() || cur[0] >= merged.getLast()[1]) {
+                merged.add(new int[]{cur[0], cur[1]});
+            } else {
+                merged.getLast()[1] = Math.max(merged.getLast()[1], cur[1]);
+            }
+        }
+        for (int[] iv : merged) {
+            iv[0] = Math.max(0, Math.min(iv[0], textLen));
+            iv[1] = Math.max(0, Math.min(iv[1], textLen));
+        }
+        return merged;
+    }
+
+    String renderHighlight(String text, List<int[]> intervals) {
+        if (text == null || text.isEmpty()) return "";
+        if (intervals == null || intervals.isEmpty()) return escapeHtml(text);
+
+        StringBuilder out = new StringBuilder();
+        int last = 0;
+        for (int[] iv : intervals) {
+            int s = iv[0];
+            int e = iv[1];
+            if (s < last) s = last;
+            if (s >= e) continue;
+
+            out.append(escapeHtml(text.substring(last, s)));
+            out.append(HIGHLIGHT_START).append(escapeHtml(text.substring(s, e))).append(HIGHLIGHT_END);
+            last = e;
+        }
+        if (last < text.length()) out.append(escapeHtml(text.substring(last)));
+        return out.toString();
+    }
+
+    private static String escapeHtml(String s) {
+        if (s == null) return "";
+        return s.replace("&", "&amp;")
+                .replace("<", "&lt;")
+                .replace(">", "&gt;");
+    }
+}
@@ -0,0 +1,99 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.HighlightedAbstract;
+import com.example.bioproject1.dto.PubTator3ExportResponse;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * PubTator 병합/하이라이트 경로 벤치마크 (네트워크 없이 BioC JSON 픽스처 사용)
+ * - fixtures/pubtator3-export.json: /publications/export/biocjson 응답 형식의 문서 6건
+ * - 연산 1회 = 픽스처의 모든 문서 처리
+ * - highlightLegacy / highlightEngine의 gc.alloc.rate.norm(B/op)으로 하이라이트 경로 할당량을 비교
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class PubTatorHighlightBenchmark {
+
+    private static final String FIXTURE = "/fixtures/pubtator3-export.json";
+
+    private final PubTatorService service = new PubTatorService();
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+    private final BioCJsonStreamParser streamParser = new BioCJsonStreamParser(objectMapper);
+
+    private final LegacyHighlighter legacy = new LegacyHighlighter();
+    private final HighlightEngine engine = new HighlightEngine();
+
+    private byte[] exportBody;
+    private List<BioCDocument> documents;
+    private List<List<BioCPassage>> abstractPassages;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        try (InputStream in = PubTatorHighlightBenchmark.class.getResourceAsStream(FIXTURE)) {
+            if (in == null) throw new IllegalStateException("픽스처가 없습니다: " + FIXTURE);
+            exportBody = in.readAllBytes();
+        }
+        documents = objectMapper.readValue(exportBody, PubTator3ExportResponse.class).documents();
+
+        abstractPassages = new ArrayList<>();
+        for (BioCDocument doc : documents) {
+            List<BioCPassage> passages = new ArrayList<>();
+            for (BioCPassage passage : doc.passages()) {
+                if (passage.infons() != null && "abstract".equalsIgnoreCase(passage.infons().type())) {
+                    passages.add(passage);
+                }
+            }
+            abstractPassages.add(passages);
+        }
+    }
+
+    @Benchmark
+    public PubTator3ExportResponse parseExport() throws IOException {
+        return objectMapper.readValue(exportBody, PubTator3ExportResponse.class);
+    }
+
+    /** export 경로에서 쓰는 스트리밍 파싱 (문서 하나씩 바인딩) */
+    @Benchmark
+    public void parseExportStreaming(Blackhole bh) throws IOException {
+        streamParser.parse(new ByteArrayInputStream(exportBody), bh::consume);
+    }
+
+    /** 기준선: int[] 리스트 + 비교자 정렬 + LinkedList 병합 + substring/replace 렌더링 */
+    @Benchmark
+    public void highlightLegacy(Blackhole bh) {
+        for (List<BioCPassage> passages : abstractPassages) {
+            bh.consume(legacy.highlight(passages));
+        }
+    }
+
+    /** HighlightEngine: 배열 구간 + 원시 정렬 + 버퍼 하나에 이스케이프 렌더링 (타입별 마크업 + 개체 목록) */
+    @Benchmark
+    public void highlightEngine(Blackhole bh) {
+        for (List<BioCPassage> passages : abstractPassages) {
+            bh.consume(engine.highlight(passages, EntityTypeFilter.CORE));
+        }
+    }
+
+    /** title/abstract 분리 + 병합 + 렌더링 (searchAndHighlight 3단계 전체) */
+    @Benchmark
+    public void highlightDocuments(Blackhole bh) {
+        for (BioCDocument doc : documents) {
+            HighlightedAbstract highlighted = service.highlightDocument(doc);
+            bh.consume(highlighted);
+        }
+    }
+}
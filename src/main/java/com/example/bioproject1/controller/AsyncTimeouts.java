@@ -0,0 +1,39 @@
+package com.example.bioproject1.controller;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.async.AsyncWebRequest;
+import org.springframework.web.context.request.async.CallableProcessingInterceptor;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+
+import java.util.concurrent.Callable;
+
+/**
+ * 스트리밍 응답(NDJSON, SSE)에만 async 타임아웃을 없애는 도우미
+ * - 전역 spring.mvc.async.request-timeout은 유한하게 두고, 이 요청의 StreamingResponseBody만 타임아웃 없이 씁니다.
+ * - async 처리가 시작되기 직전에 이 요청의 WebAsyncManager 인터셉터에서 타임아웃을 바꿉니다.
+ */
+final class AsyncTimeouts {
+
+    private static final String INTERCEPTOR_KEY = AsyncTimeouts.class.getName() + ".NO_TIMEOUT";
+
+    // 0 이하 = 만료 없음 (Servlet AsyncContext.setTimeout)
+    private static final long NO_TIMEOUT = -1L;
+
+    private static final CallableProcessingInterceptor NO_TIMEOUT_INTERCEPTOR = new CallableProcessingInterceptor() {
+        @Override
+        public <T> void beforeConcurrentHandling(NativeWebRequest request, Callable<T> task) {
+            if (request instanceof AsyncWebRequest asyncRequest) {
+                asyncRequest.setTimeout(NO_TIMEOUT);
+            }
+        }
+    };
+
+    private AsyncTimeouts() {
+    }
+
+    /** 이 요청이 시작하는 async 처리(StreamingResponseBody)에 타임아웃을 두지 않습니다. */
+    static void disableFor(HttpServletRequest request) {
+        WebAsyncUtils.getAsyncManager(request).registerCallableInterceptor(INTERCEPTOR_KEY, NO_TIMEOUT_INTERCEPTOR);
+    }
+}
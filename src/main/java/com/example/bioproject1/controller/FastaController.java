@@ -1,29 +1,204 @@
 package com.example.bioproject1.controller;
 import com.example.bioproject1.dto.FastaAnalysisResult;
+import com.example.bioproject1.dto.FastaBatchResult;
+import com.example.bioproject1.dto.FastaCacheStats;
+import com.example.bioproject1.dto.GcProfileResult;
+import com.example.bioproject1.dto.KmerSpectrumResult;
+import com.example.bioproject1.service.FastaAnalysisCache;
+import com.example.bioproject1.service.FastaAnalysisOptions;
+import com.example.bioproject1.service.FastaBatchService;
+import com.example.bioproject1.service.FastaFormatException;
+import com.example.bioproject1.service.FastaRecordTooLargeException;
 import com.example.bioproject1.service.FastaService;
+import com.example.bioproject1.service.KmerMemoryBusyException;
+import com.example.bioproject1.service.KmerService;
+import com.example.bioproject1.service.KmerTableTooLargeException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/fasta")
 public class FastaController {
 
+    private static final String NDJSON = "application/x-ndjson";
+
     private final FastaService fastaService;
+    private final FastaAnalysisCache fastaAnalysisCache;
+    private final KmerService kmerService;
+    private final FastaBatchService fastaBatchService;
+    private final ObjectMapper objectMapper;
+    // k-mer 응답 크기 상한 (top은 힙 크기, histogramMax는 히스토그램 배열 길이가 됨)
+    private final int maxKmerTop;
+    private final int maxKmerHistogram;
 
-    public FastaController(FastaService fastaService) {
+    public FastaController(FastaService fastaService, FastaAnalysisCache fastaAnalysisCache,
+                           KmerService kmerService, FastaBatchService fastaBatchService, ObjectMapper objectMapper,
+                           @Value("${fasta.kmer.max-top:1000}") int maxKmerTop,
+                           @Value("${fasta.kmer.max-histogram:10000}") int maxKmerHistogram) {
         this.fastaService = fastaService;
+        this.fastaAnalysisCache = fastaAnalysisCache;
+        this.kmerService = kmerService;
+        this.fastaBatchService = fastaBatchService;
+        this.objectMapper = objectMapper;
+        this.maxKmerTop = Math.max(0, maxKmerTop);
+        this.maxKmerHistogram = Math.max(1, maxKmerHistogram);
     }
 
+    /**
+     * sixFrame=true 이면 6개 frame 코돈 사용과 minOrfLength(염기) 이상의 ORF를 함께 반환합니다.
+     */
     @PostMapping("/analyze")
-    public ResponseEntity<List<FastaAnalysisResult>> analyzeFasta(@RequestParam("file") MultipartFile file) {
-        try {
-            List<FastaAnalysisResult> results = fastaService.analyzeFasta(file.getBytes());
+    public ResponseEntity<List<FastaAnalysisResult>> analyzeFasta(@RequestParam("file") MultipartFile file,
+                                                                  @RequestParam(defaultValue = "false") boolean parallel,
+                                                                  @RequestParam(defaultValue = "true") boolean includeSequence,
+                                                                  @RequestParam(defaultValue = "0") int maxSequenceLength,
+                                                                  @RequestParam(defaultValue = "false") boolean sixFrame,
+                                                                  @RequestParam(defaultValue = "300") int minOrfLength) {
+        FastaAnalysisOptions options = new FastaAnalysisOptions(parallel, includeSequence, maxSequenceLength,
+                sixFrame, minOrfLength);
+        // file.getBytes()로 전체를 메모리에 올리지 않고 스트림으로 바로 분석
+        try (InputStream in = file.getInputStream()) {
+            List<FastaAnalysisResult> results = fastaService.analyzeFasta(in, options);
             return ResponseEntity.ok(results);
+        } catch (FastaFormatException e) {
+            // 잘못된 입력만 400, 그 외(입출력 오류 등)는 서버 오류로 구분
+            return ResponseEntity.badRequest().build();
+        } catch (FastaRecordTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 스트리밍(NDJSON) 버전: 레코드 하나가 분석될 때마다 결과 한 줄을 바로 내보냅니다.
+     * Accept: application/x-ndjson 으로 /analyze 를 호출하거나 /analyze/stream 을 호출합니다.
+     * 처리 도중 오류가 나면 {"error": "..."} 줄을 마지막으로 쓰고 종료합니다.
+     * 큰 유전체는 오래 걸리므로 이 응답만 async 타임아웃을 두지 않습니다.
+     */
+    @PostMapping(value = {"/analyze", "/analyze/stream"}, produces = NDJSON)
+    public ResponseEntity<StreamingResponseBody> analyzeFastaStream(@RequestParam("file") MultipartFile file,
+                                                                    @RequestParam(defaultValue = "false") boolean parallel,
+                                                                    @RequestParam(defaultValue = "true") boolean includeSequence,
+                                                                    @RequestParam(defaultValue = "0") int maxSequenceLength,
+                                                                    @RequestParam(defaultValue = "false") boolean sixFrame,
+                                                                    @RequestParam(defaultValue = "300") int minOrfLength,
+                                                                    HttpServletRequest request) {
+        FastaAnalysisOptions options = new FastaAnalysisOptions(parallel, includeSequence, maxSequenceLength,
+                sixFrame, minOrfLength);
+        AsyncTimeouts.disableFor(request);
+        StreamingResponseBody body = out -> {
+            try (InputStream in = file.getInputStream()) {
+                fastaService.analyzeFasta(in, options, result -> writeLine(out, result));
+            } catch (Exception e) {
+                writeLine(out, Map.of("error", String.valueOf(e.getMessage())));
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.parseMediaType(NDJSON)).body(body);
+    }
+
+    /**
+     * FASTA 파일 여러 개를 묶은 zip / tar / tar.gz 한 번에 분석 (안의 파일은 .gz여도 됨)
+     * 파일별 결과(압축 파일 안의 순서)와 전체 합계(염기 수, GC 비율, 코돈 사용)를 반환합니다.
+     * 서열은 기본으로 생략합니다. (includeSequence=true 이면 포함)
+     */
+    @PostMapping("/analyze/batch")
+    public ResponseEntity<FastaBatchResult> analyzeBatch(@RequestParam("file") MultipartFile file,
+                                                         @RequestParam(defaultValue = "false") boolean includeSequence,
+                                                         @RequestParam(defaultValue = "0") int maxSequenceLength,
+                                                         @RequestParam(defaultValue = "false") boolean sixFrame,
+                                                         @RequestParam(defaultValue = "300") int minOrfLength) {
+        FastaAnalysisOptions options = new FastaAnalysisOptions(false, includeSequence, maxSequenceLength,
+                sixFrame, minOrfLength);
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(fastaBatchService.analyzeArchive(in, options));
+        } catch (FastaFormatException e) {
+            // 압축 파일 형식이 아닌 경우만 400 (안의 파일 오류는 파일별 error로 응답에 포함)
+            return ResponseEntity.badRequest().build();
+        } catch (FastaRecordTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
         } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 슬라이딩 윈도우 GC 함량 / GC skew 프로파일 (GC island, 복제 원점 탐색용)
+     * 창 수가 maxPoints를 넘으면 연속한 창을 평균 내서 maxPoints개 이하로 줄입니다.
+     */
+    @PostMapping("/profile")
+    public ResponseEntity<List<GcProfileResult>> gcProfile(@RequestParam("file") MultipartFile file,
+                                                           @RequestParam(defaultValue = "1000") int window,
+                                                           @RequestParam(defaultValue = "100") int step,
+                                                           @RequestParam(defaultValue = "2000") int maxPoints) {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(fastaService.profileGc(in, window, step, maxPoints));
+        } catch (FastaFormatException | IllegalArgumentException e) {
             return ResponseEntity.badRequest().build();
+        } catch (FastaRecordTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
         }
     }
+
+    /**
+     * canonical k-mer 스펙트럼 (k <= 31): 상위 k-mer와 등장 횟수 히스토그램
+     * top은 0 ~ fasta.kmer.max-top, histogramMax는 1 ~ fasta.kmer.max-histogram 으로 잘라서 사용합니다.
+     */
+    @PostMapping("/kmers")
+    public ResponseEntity<KmerSpectrumResult> kmerSpectrum(@RequestParam("file") MultipartFile file,
+                                                           @RequestParam(defaultValue = "21") int k,
+                                                           @RequestParam(defaultValue = "20") int top,
+                                                           @RequestParam(defaultValue = "100") int histogramMax) {
+        try (InputStream in = file.getInputStream()) {
+            return ResponseEntity.ok(kmerService.countKmers(in, k, clamp(top, 0, maxKmerTop),
+                    clamp(histogramMax, 1, maxKmerHistogram)));
+        } catch (FastaFormatException | IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (FastaRecordTooLargeException | KmerTableTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.CONTENT_TOO_LARGE).build();
+        } catch (KmerMemoryBusyException e) {
+            // 다른 요청들이 공유 예산을 쓰는 중 (잠시 뒤 재시도 가능)
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "30").build();
+        } catch (Exception e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    /**
+     * 서열 캐시 적중/미스 통계
+     */
+    @GetMapping("/cache/stats")
+    public ResponseEntity<FastaCacheStats> cacheStats() {
+        return ResponseEntity.ok(fastaAnalysisCache.stats());
+    }
+
+    private void writeLine(OutputStream out, Object value) {
+        try {
+            out.write(objectMapper.writeValueAsBytes(value));
+            out.write('\n');
+            out.flush(); // 한 줄씩 바로 클라이언트로 전송
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static int clamp(int value, int min, int max) {
+        return Math.max(min, Math.min(value, max));
+    }
 }
@@ -0,0 +1,83 @@
+package com.example.bioproject1.controller;
+
+import com.example.bioproject1.dto.FastaJobResultPage;
+import com.example.bioproject1.dto.FastaJobStatus;
+import com.example.bioproject1.service.FastaAnalysisOptions;
+import com.example.bioproject1.service.FastaJob;
+import com.example.bioproject1.service.FastaJobService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.concurrent.RejectedExecutionException;
+
+/**
+ * 비동기 FASTA 분석 작업 API
+ * POST 로 작업을 등록하고 jobId로 진행률/결과를 조회하거나 취소합니다.
+ */
+@RestController
+@RequestMapping("/api/fasta/jobs")
+public class FastaJobController {
+
+    private final FastaJobService fastaJobService;
+
+    public FastaJobController(FastaJobService fastaJobService) {
+        this.fastaJobService = fastaJobService;
+    }
+
+    /**
+     * 작업 등록 (202 Accepted). 대기열이 가득 차면 429 Too Many Requests.
+     * 결과는 작업이 끝날 때까지 서버 메모리에 쌓이므로 sequence는 기본적으로 생략합니다.
+     */
+    @PostMapping
+    public ResponseEntity<FastaJobStatus> submit(@RequestParam("file") MultipartFile file,
+                                                 @RequestParam(defaultValue = "false") boolean parallel,
+                                                 @RequestParam(defaultValue = "false") boolean includeSequence,
+                                                 @RequestParam(defaultValue = "0") int maxSequenceLength,
+                                                 @RequestParam(defaultValue = "false") boolean sixFrame,
+                                                 @RequestParam(defaultValue = "300") int minOrfLength) {
+        FastaAnalysisOptions options = new FastaAnalysisOptions(parallel, includeSequence, maxSequenceLength,
+                sixFrame, minOrfLength);
+        try {
+            FastaJob job = fastaJobService.submit(file, options);
+            return ResponseEntity.accepted()
+                    .header("Location", "/api/fasta/jobs/" + job.getId())
+                    .body(job.toStatus());
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).header("Retry-After", "30").build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{jobId}")
+    public ResponseEntity<FastaJobStatus> status(@PathVariable String jobId) {
+        return fastaJobService.find(jobId)
+                .map(job -> ResponseEntity.ok(job.toStatus()))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/{jobId}/results")
+    public ResponseEntity<FastaJobResultPage> results(@PathVariable String jobId,
+                                                      @RequestParam(defaultValue = "0") int page,
+                                                      @RequestParam(defaultValue = "100") int size) {
+        if (page < 0 || size <= 0 || size > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        return fastaJobService.find(jobId)
+                .map(job -> ResponseEntity.ok(job.resultPage(page, size)))
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @DeleteMapping("/{jobId}")
+    public ResponseEntity<FastaJobStatus> cancel(@PathVariable String jobId) {
+        return fastaJobService.find(jobId)
+                .map(job -> {
+                    job.cancel();
+                    return ResponseEntity.ok(job.toStatus());
+                })
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+}
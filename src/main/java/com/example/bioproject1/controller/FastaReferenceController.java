@@ -0,0 +1,78 @@
+package com.example.bioproject1.controller;
+
+import com.example.bioproject1.dto.FastaReferenceInfo;
+import com.example.bioproject1.dto.FastaRegionResult;
+import com.example.bioproject1.service.FastaFormatException;
+import com.example.bioproject1.service.IndexedFastaService;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.NoSuchElementException;
+
+/**
+ * 참조 FASTA 등록(.fai 인덱스 생성)과 영역 질의 API
+ * 예) GET /api/fasta/references/hg38/region?region=chr1:10000-20000
+ */
+@RestController
+@RequestMapping("/api/fasta/references")
+public class FastaReferenceController {
+
+    private final IndexedFastaService indexedFastaService;
+
+    public FastaReferenceController(IndexedFastaService indexedFastaService) {
+        this.indexedFastaService = indexedFastaService;
+    }
+
+    @PostMapping
+    public ResponseEntity<FastaReferenceInfo> register(@RequestParam("name") String name,
+                                                       @RequestParam("file") MultipartFile file) {
+        try {
+            return ResponseEntity.ok(indexedFastaService.register(name, file));
+        } catch (IllegalArgumentException | FastaFormatException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping
+    public ResponseEntity<List<FastaReferenceInfo>> list() {
+        try {
+            return ResponseEntity.ok(indexedFastaService.list());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{name}")
+    public ResponseEntity<FastaReferenceInfo> info(@PathVariable String name) {
+        try {
+            return ResponseEntity.ok(indexedFastaService.info(name));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/{name}/region")
+    public ResponseEntity<FastaRegionResult> region(@PathVariable String name,
+                                                    @RequestParam String region,
+                                                    @RequestParam(defaultValue = "true") boolean includeSequence) {
+        try {
+            return ResponseEntity.ok(indexedFastaService.queryRegion(name, region, includeSequence));
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.example.bioproject1.controller;
+
+import com.example.bioproject1.dto.EntitySummary;
+import com.example.bioproject1.dto.IngestionStatus;
+import com.example.bioproject1.dto.LocalPaper;
+import com.example.bioproject1.service.BioCIngestionService;
+import com.example.bioproject1.service.LiteratureIndexService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+
+/**
+ * 로컬 코퍼스(H2에 색인된 PubTator 문서) 조회 API - NCBI를 호출하지 않습니다.
+ * 예) GET /api/local/papers?identifier=348&type=Gene   (유전자 348을 언급한 논문)
+ *     GET /api/local/papers?mention=APOE4              (언급 텍스트 기준, 대소문자/공백 무시)
+ *     GET /api/local/papers/12345678/entities          (논문의 개체 목록)
+ *     GET /api/local/search?q=alzheimer                (키워드: 언급 텍스트 접두어 또는 식별자)
+ *     POST /api/local/ingest?file=BioCXML.0.tar.gz      (pubtator.ingest.dir의 덤프 적재, file 생략 시 전체)
+ */
+@RestController
+@RequestMapping("/api/local")
+public class LocalCorpusController {
+
+    private final LiteratureIndexService literatureIndex;
+    private final BioCIngestionService ingestionService;
+    private final int maxLimit;
+
+    public LocalCorpusController(LiteratureIndexService literatureIndex,
+                                 BioCIngestionService ingestionService,
+                                 @Value("${pubtator.search.max-limit:500}") int maxLimit) {
+        this.literatureIndex = literatureIndex;
+        this.ingestionService = ingestionService;
+        this.maxLimit = Math.max(1, maxLimit);
+    }
+
+    @GetMapping("/papers")
+    public ResponseEntity<List<LocalPaper>> papers(@RequestParam(required = false) String identifier,
+                                                   @RequestParam(required = false) String mention,
+                                                   @RequestParam(required = false) String type,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        boolean byIdentifier = identifier != null && !identifier.isBlank();
+        boolean byMention = mention != null && !mention.isBlank();
+        if (byIdentifier == byMention) {
+            // identifier와 mention 중 정확히 하나만 지정해야 함
+            return ResponseEntity.badRequest().build();
+        }
+        return ResponseEntity.ok(byIdentifier
+                ? literatureIndex.papersByIdentifier(identifier, type, clamp(limit))
+                : literatureIndex.papersByMention(mention, type, clamp(limit)));
+    }
+
+    @GetMapping("/papers/{pmid}/entities")
+    public ResponseEntity<List<EntitySummary>> entities(@PathVariable String pmid) {
+        return literatureIndex.entitiesInPaper(pmid)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<LocalPaper>> search(@RequestParam String q,
+                                                   @RequestParam(defaultValue = "20") int limit) {
+        if (q.isBlank()) return ResponseEntity.badRequest().build();
+        return ResponseEntity.ok(literatureIndex.search(q, clamp(limit)));
+    }
+
+    @GetMapping("/stats")
+    public Map<String, Object> stats() {
+        return Map.of("enabled", literatureIndex.isEnabled(), "papers", literatureIndex.paperCount());
+    }
+
+    /**
+     * 덤프 적재 시작 (백그라운드), 중지 후 다시 호출하면 체크포인트부터 이어서 적재합니다.
+     */
+    @PostMapping("/ingest")
+    public ResponseEntity<IngestionStatus> ingest(@RequestParam(required = false) String file) {
+        try {
+            return ResponseEntity.accepted().body(ingestionService.start(file));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().build();
+        } catch (NoSuchElementException e) {
+            return ResponseEntity.notFound().build();
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).body(ingestionService.status());
+        } catch (IOException e) {
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).build();
+        }
+    }
+
+    @GetMapping("/ingest")
+    public IngestionStatus ingestStatus() {
+        return ingestionService.status();
+    }
+
+    @PostMapping("/ingest/stop")
+    public IngestionStatus stopIngest() {
+        return ingestionService.stop();
+    }
+
+    private int clamp(int limit) {
+        return Math.max(1, Math.min(limit, maxLimit));
+    }
+}
@@ -1,15 +1,33 @@
 package com.example.bioproject1.controller;
 
+import com.example.bioproject1.dto.CooccurrenceResult;
+import com.example.bioproject1.dto.DocumentCacheStats;
 import com.example.bioproject1.dto.HighlightedAbstract;
-import com.example.bioproject1.service.PubTatorService;
+import com.example.bioproject1.dto.SearchSummary;
+import com.example.bioproject1.service.BioCDocumentCache;
+import com.example.bioproject1.service.CooccurrenceService;
+import com.example.bioproject1.service.EntityTypeFilter;
+import com.example.bioproject1.service.NcbiUnavailableException;
+import com.example.bioproject1.service.SearchCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.servlet.http.HttpServletRequest;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.List;
+import java.util.Map;
 
 /**
  * PubTator API 검색을 위한 REST 컨트롤러
@@ -19,32 +37,143 @@ import java.util.List;
 @RequestMapping("/api") // 이 클래스의 모든 경로는 /api 로 시작합니다.
 public class PubTatorController {
 
-    private final PubTatorService pubTatorService;
+    private static final Logger log = LoggerFactory.getLogger(PubTatorController.class);
 
-    // @Autowired를 통해 PubTatorService를 주입받습니다.
+    private final SearchCoalescer searchCoalescer;
+    private final BioCDocumentCache documentCache;
+    private final CooccurrenceService cooccurrenceService;
+    private final ObjectMapper objectMapper;
+
+    // 같은 키워드의 동시 요청은 SearchCoalescer가 NCBI 호출 한 번으로 합칩니다.
     @Autowired
-    public PubTatorController(PubTatorService pubTatorService) {
-        this.pubTatorService = pubTatorService;
+    public PubTatorController(SearchCoalescer searchCoalescer, BioCDocumentCache documentCache,
+                              CooccurrenceService cooccurrenceService, ObjectMapper objectMapper) {
+        this.searchCoalescer = searchCoalescer;
+        this.documentCache = documentCache;
+        this.cooccurrenceService = cooccurrenceService;
+        this.objectMapper = objectMapper;
     }
 
     /**
      * /api/search 경로로 GET 요청을 처리합니다.
      * @param keywords 'keywords'라는 쿼리 파라미터를 받습니다.
+     * @param limit 가져올 논문 수 (생략 시 pubtator.search.default-limit, 최대 pubtator.search.max-limit)
+     * @param types 하이라이트할 주석 타입 (쉼표 구분, 예: Gene,Disease / 생략 시 기본 9개 타입)
      * @return 하이라이트된 초록 리스트를 JSON 형태로 반환합니다.
      */
     @GetMapping("/search")
-    public ResponseEntity<List<HighlightedAbstract>> search(@RequestParam String keywords) {
+    public ResponseEntity<List<HighlightedAbstract>> search(@RequestParam String keywords,
+                                                            @RequestParam(required = false) Integer limit,
+                                                            @RequestParam(required = false) String types) {
         try {
-            List<HighlightedAbstract> results = pubTatorService.searchAndHighlight(keywords);
+            List<HighlightedAbstract> results = searchCoalescer.search(keywords, limit, EntityTypeFilter.parse(types));
             if (results.isEmpty()) {
                 // 결과는 있으나 내용이 없는 경우 (200 OK와 빈 리스트 반환)
                 return ResponseEntity.ok(results);
             }
             return ResponseEntity.ok(results);
+        } catch (NcbiUnavailableException e) {
+            return serviceUnavailable(e);
         } catch (Exception e) {
             // API 호출 실패 등 서버 오류가 발생한 경우 (500 Internal Server Error)
-            e.printStackTrace(); // 서버 로그에 에러 출력
+            log.error("검색 실패: {}", keywords, e); // 서버 로그에 에러 출력
             return ResponseEntity.status(500).body(null); // 클라이언트에게는 null 반환
         }
     }
+
+    /**
+     * 스트리밍(SSE) 버전: 논문 하나가 하이라이트될 때마다 바로 보냅니다.
+     * Accept: text/event-stream 으로 /api/search 를 호출하거나 /api/search/stream 을 호출합니다.
+     * 같은 검색이 진행 중이면 SearchCoalescer로 합류해서 이미 도착한 결과부터 받습니다. (TTL 안이면 캐시에서 바로)
+     * - event: progress -> SearchProgress (PMID 목록이 정해진 직후, 첫 이벤트)
+     * - event: result  -> HighlightedAbstract (도착 순서, 캐시 적중분이 먼저)
+     * - event: summary -> SearchSummary (마지막 이벤트)
+     * - event: failure -> {"error": "..."} (도중에 실패한 경우 마지막 이벤트, EventSource 자체의 error 이벤트와 구분)
+     * 논문 수가 많으면 오래 걸리므로 이 응답만 async 타임아웃을 두지 않습니다.
+     */
+    @GetMapping(value = {"/search", "/search/stream"}, produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public ResponseEntity<StreamingResponseBody> searchStream(@RequestParam String keywords,
+                                                              @RequestParam(required = false) Integer limit,
+                                                              @RequestParam(required = false) String types,
+                                                              HttpServletRequest request) {
+        EntityTypeFilter typeFilter = EntityTypeFilter.parse(types);
+        AsyncTimeouts.disableFor(request);
+        StreamingResponseBody body = out -> {
+            try {
+                SearchSummary summary = searchCoalescer.stream(keywords, limit, typeFilter,
+                        progress -> writeEvent(out, "progress", progress),
+                        result -> writeEvent(out, "result", result));
+                writeEvent(out, "summary", summary);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                writeEvent(out, "failure", Map.of("error", "검색이 중단되었습니다."));
+            } catch (Exception e) {
+                writeEvent(out, "failure", Map.of("error", String.valueOf(e.getMessage())));
+            }
+        };
+        return ResponseEntity.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .header("Cache-Control", "no-cache")
+                .header("X-Accel-Buffering", "no") // 프록시(nginx) 버퍼링 방지
+                .body(body);
+    }
+
+    /**
+     * 검색 결과 문서들의 개체 동시 출현 집계 (문장/구절/문서 단위로 횟수 순, PMI 순 상위 쌍)
+     * 예) /api/search/cooccurrence?keywords=alzheimer&limit=2000&types=Gene,Disease&crossType=true
+     * @param limit 논문 수 (생략 시 pubtator.cooccurrence.default-limit, 최대 pubtator.cooccurrence.max-limit)
+     * @param types 집계할 주석 타입 (쉼표 구분, 생략 시 기본 9개 타입)
+     * @param top 단계마다 돌려줄 상위 쌍 수
+     * @param minCount PMI 순위에 넣을 최소 동시 출현 수
+     * @param crossType true면 타입이 다른 쌍만 (예: Gene-Disease)
+     */
+    @GetMapping("/search/cooccurrence")
+    public ResponseEntity<CooccurrenceResult> cooccurrence(@RequestParam String keywords,
+                                                           @RequestParam(required = false) Integer limit,
+                                                           @RequestParam(required = false) String types,
+                                                           @RequestParam(defaultValue = "20") int top,
+                                                           @RequestParam(defaultValue = "2") int minCount,
+                                                           @RequestParam(defaultValue = "false") boolean crossType) {
+        if (top < 1 || top > 1000) {
+            return ResponseEntity.badRequest().build();
+        }
+        try {
+            return ResponseEntity.ok(cooccurrenceService.aggregate(keywords, limit, EntityTypeFilter.parse(types),
+                    crossType, top, minCount));
+        } catch (NcbiUnavailableException e) {
+            return serviceUnavailable(e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return ResponseEntity.status(500).body(null);
+        } catch (Exception e) {
+            log.error("동시 출현 집계 실패: {}", keywords, e);
+            return ResponseEntity.status(500).body(null);
+        }
+    }
+
+    /**
+     * PMID별 문서 캐시 적중/미스/제거 통계 (캐시 크기 조정용)
+     */
+    @GetMapping("/search/cache/stats")
+    public ResponseEntity<DocumentCacheStats> cacheStats() {
+        return ResponseEntity.ok(documentCache.stats());
+    }
+
+    // NCBI 사용 불가 (서킷 브레이커 OPEN / 재시도 실패) + 로컬 코퍼스에도 결과 없음 (503, 다시 시도할 시간 안내)
+    private static <T> ResponseEntity<T> serviceUnavailable(NcbiUnavailableException e) {
+        log.warn("NCBI 사용 불가: {}", e.getMessage());
+        long retryAfterSeconds = Math.max(1, e.retryAfter().toSeconds());
+        return ResponseEntity.status(503).header("Retry-After", String.valueOf(retryAfterSeconds)).body(null);
+    }
+
+    private void writeEvent(OutputStream out, String event, Object data) {
+        try {
+            out.write(("event: " + event + "\ndata: ").getBytes(StandardCharsets.UTF_8));
+            out.write(objectMapper.writeValueAsBytes(data)); // 한 줄 JSON (개행 없음)
+            out.write("\n\n".getBytes(StandardCharsets.UTF_8));
+            out.flush(); // 이벤트 하나씩 바로 클라이언트로 전송
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
 }
@@ -0,0 +1,14 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+
+/**
+ * 동시 출현 집계 단위(sentence, passage, document) 하나의 결과
+ */
+public record CooccurrenceLevel(
+        String level,
+        long units,                       // 단위 수 (개체가 없는 단위 포함, PMI의 N)
+        int distinctPairs,                // 한 번 이상 함께 나온 쌍의 수
+        List<CooccurrencePair> topByCount,
+        List<CooccurrencePair> topByPmi   // minCount번 이상 함께 나온 쌍 중 PMI 순
+) {}
@@ -0,0 +1,15 @@
+package com.example.bioproject1.dto;
+
+/**
+ * 함께 나온 개체 쌍 하나 (A, B는 타입 -> 식별자 순)
+ */
+public record CooccurrencePair(
+        String typeA,       // 예: Gene
+        String identifierA, // 예: 348
+        String nameA,       // 처음 본 언급 텍스트 (예: APOE)
+        String typeB,
+        String identifierB,
+        String nameB,
+        int count,          // 함께 나온 단위(문장/구절/문서) 수
+        double pmi          // log2(P(A,B) / (P(A) * P(B)))
+) {}
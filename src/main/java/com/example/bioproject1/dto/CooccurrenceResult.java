@@ -0,0 +1,14 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+
+/**
+ * 검색 결과 문서들의 개체 동시 출현 집계
+ */
+public record CooccurrenceResult(
+        SearchSummary search,           // 문서를 모은 검색 (출처, PMID 수, 받지 못한 PMID 수 등)
+        int documentCount,
+        int entityCount,                // 서로 다른 (타입, 식별자) 수
+        List<CooccurrenceLevel> levels, // sentence, passage, document 순
+        long aggregateMillis            // 문서를 모은 뒤 집계에 걸린 시간
+) {}
@@ -0,0 +1,14 @@
+package com.example.bioproject1.dto;
+
+/**
+ * PMID별 BioCDocument 캐시 적중/미스 통계
+ */
+public record DocumentCacheStats(
+        long memoryHits,     // 메모리 계층 적중
+        long diskHits,       // H2 계층 적중 (메모리에는 없었음)
+        long misses,         // export API로 새로 받아옴
+        long evictions,      // 메모리 계층에서 크기/TTL로 밀려난 항목
+        long memoryEntries,  // 현재 메모리 계층 항목 수
+        long memoryWeightKb, // 현재 메모리 계층 추정 크기 (KB)
+        double hitRate
+) {}
@@ -0,0 +1,13 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+
+/**
+ * 논문 하나에 나오는 개체 (타입 + 식별자 기준으로 묶음)
+ */
+public record EntitySummary(
+        String type,
+        String identifier,
+        List<String> mentions, // 논문에 쓰인 표기들 (등장 순서, 중복 제거)
+        int count
+) {}
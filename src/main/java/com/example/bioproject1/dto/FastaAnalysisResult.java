@@ -1,21 +1,37 @@
 package com.example.bioproject1.dto;
 
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
 import java.util.Map;
 
+// sequence를 생략(null)한 경우 JSON에서 필드 자체를 빼고 보냄
+@JsonInclude(JsonInclude.Include.NON_NULL)
 public class FastaAnalysisResult {
     private String id;
     private int length;
     private double gcContent;
     private String sequence;
     private Map<String, Integer> codonUsage;
+    // 6-frame 단계를 실행한 경우에만 채워짐
+    private Map<String, Map<String, Integer>> frameCodonUsage;
+    private List<OpenReadingFrame> orfs;
 
     public FastaAnalysisResult(String id, int length, double gcContent,
                                String sequence, Map<String, Integer> codonUsage) {
+        this(id, length, gcContent, sequence, codonUsage, null, null);
+    }
+
+    public FastaAnalysisResult(String id, int length, double gcContent,
+                               String sequence, Map<String, Integer> codonUsage,
+                               Map<String, Map<String, Integer>> frameCodonUsage, List<OpenReadingFrame> orfs) {
         this.id = id;
         this.length = length;
         this.gcContent = gcContent;
         this.sequence = sequence;
         this.codonUsage = codonUsage;
+        this.frameCodonUsage = frameCodonUsage;
+        this.orfs = orfs;
     }
 
     public String getId() { return id; }
@@ -23,4 +39,6 @@ public class FastaAnalysisResult {
     public double getGcContent() { return gcContent; }
     public String getSequence() { return sequence; }
     public Map<String, Integer> getCodonUsage() { return codonUsage; }
+    public Map<String, Map<String, Integer>> getFrameCodonUsage() { return frameCodonUsage; }
+    public List<OpenReadingFrame> getOrfs() { return orfs; }
 }
@@ -0,0 +1,19 @@
+package com.example.bioproject1.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.List;
+
+/**
+ * 압축 파일 안의 FASTA 파일 하나의 분석 결과
+ * 읽지 못한 파일(FASTA 형식 아님 등)은 error만 채워지고 합계에서 빠집니다.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FastaBatchFileResult(
+        String name,                      // 압축 파일 안의 경로 (예: run1/sample01.fa.gz)
+        int records,
+        long bases,
+        double gcContent,                 // 파일 전체 GC 비율(%)
+        List<FastaAnalysisResult> results,
+        String error
+) {}
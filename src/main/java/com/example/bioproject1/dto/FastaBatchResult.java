@@ -0,0 +1,12 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+
+/**
+ * 압축 파일(zip, tar.gz) 일괄 분석 결과 (파일은 압축 파일 안의 순서대로)
+ */
+public record FastaBatchResult(
+        List<FastaBatchFileResult> files,
+        FastaBatchTotals totals,
+        long elapsedMillis
+) {}
@@ -0,0 +1,16 @@
+package com.example.bioproject1.dto;
+
+import java.util.Map;
+
+/**
+ * 압축 파일 전체 합계 (파일별 부분 합계를 병합해서 만듦, 서열을 다시 읽지 않음)
+ */
+public record FastaBatchTotals(
+        int files,                   // 분석한 파일 수 (실패 제외)
+        int failedFiles,
+        long records,
+        long totalBases,
+        long gcBases,
+        double gcContent,            // 전체 GC 비율(%) = gcBases / totalBases * 100
+        Map<String, Long> codonUsage // 모든 레코드의 코돈 사용 합 (알파벳순)
+) {}
@@ -0,0 +1,13 @@
+package com.example.bioproject1.dto;
+
+/**
+ * FASTA 분석 캐시 적중/미스 통계
+ */
+public record FastaCacheStats(
+        long memoryHits,    // 메모리 계층 적중
+        long databaseHits,  // H2 계층 적중 (메모리에는 없었음)
+        long misses,        // 새로 계산
+        long evictions,     // 메모리 계층에서 밀려난 항목
+        long memoryEntries, // 현재 메모리 계층 항목 수
+        double hitRate
+) {}
@@ -0,0 +1,23 @@
+package com.example.bioproject1.dto;
+
+/**
+ * samtools faidx 호환 .fai 한 줄
+ * (NAME, LENGTH, OFFSET, LINEBASES, LINEWIDTH)
+ */
+public record FastaIndexEntry(
+        String name,      // 헤더의 첫 단어
+        long length,      // 염기 수
+        long offset,      // 첫 염기의 파일 내 바이트 위치
+        int lineBases,    // 한 줄의 염기 수
+        int lineWidth     // 한 줄의 바이트 수 (개행 포함)
+) {
+
+    /** 0-based 염기 위치 -> 파일 바이트 위치 */
+    public long byteOffset(long position) {
+        return offset + (position / lineBases) * lineWidth + position % lineBases;
+    }
+
+    public String toFaiLine() {
+        return name + '\t' + length + '\t' + offset + '\t' + lineBases + '\t' + lineWidth;
+    }
+}
@@ -0,0 +1,15 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+
+/**
+ * 작업 결과 페이지 (작업이 진행 중이어도 지금까지 나온 결과를 조회할 수 있음)
+ */
+public record FastaJobResultPage(
+        String jobId,
+        String state,
+        int page,
+        int size,
+        long totalRecords,
+        List<FastaAnalysisResult> results
+) {}
@@ -0,0 +1,21 @@
+package com.example.bioproject1.dto;
+
+import java.time.Instant;
+
+/**
+ * 비동기 FASTA 분석 작업의 진행 상태
+ */
+public record FastaJobStatus(
+        String jobId,
+        String state,            // QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+        String fileName,
+        long totalBytes,
+        long bytesProcessed,
+        long recordsProcessed,
+        double progress,         // 0.0 ~ 1.0 (바이트 기준)
+        String errorType,        // INVALID_INPUT, RECORD_TOO_LARGE, INTERNAL (실패 시)
+        String errorMessage,
+        Instant createdAt,
+        Instant startedAt,
+        Instant finishedAt
+) {}
@@ -0,0 +1,12 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+
+/**
+ * 서버에 등록된 참조 FASTA 파일과 그 인덱스
+ */
+public record FastaReferenceInfo(
+        String name,
+        long fileSize,
+        List<FastaIndexEntry> sequences
+) {}
@@ -0,0 +1,20 @@
+package com.example.bioproject1.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.util.Map;
+
+/**
+ * 영역 질의(id:start-end) 결과. 좌표는 samtools와 같이 1-based, 양끝 포함입니다.
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public record FastaRegionResult(
+        String reference,
+        String sequenceName,
+        long start,
+        long end,
+        int length,
+        double gcContent,
+        Map<String, Integer> codonUsage, // 영역 시작 기준 frame +1
+        String sequence                  // includeSequence=false 이면 생략
+) {}
@@ -0,0 +1,16 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+
+/**
+ * 레코드 하나의 슬라이딩 윈도우 GC / GC skew 프로파일
+ */
+public record GcProfileResult(
+        String id,
+        int length,
+        int window,
+        int step,
+        long windowCount,     // 계산된 전체 창 수
+        int windowsPerPoint,  // 점 하나에 평균 낸 창 수 (maxPoints를 넘으면 1보다 큼)
+        List<GcWindow> points
+) {}
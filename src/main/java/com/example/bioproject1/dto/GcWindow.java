@@ -0,0 +1,12 @@
+package com.example.bioproject1.dto;
+
+/**
+ * GC 프로파일의 점 하나 (다운샘플링된 경우 여러 창의 평균)
+ */
+public record GcWindow(
+        long start,              // 1-based, 포함
+        long end,                // 1-based, 포함
+        double gcContent,        // (G+C) / 창 길이 * 100
+        double gcSkew,           // (G-C) / (G+C)
+        long cumulativeGcSkew    // 서열 시작부터 end까지의 누적 (G-C), 최솟값 부근이 복제 원점 후보
+) {}
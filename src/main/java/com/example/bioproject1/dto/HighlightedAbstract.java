@@ -1,10 +1,17 @@
 package com.example.bioproject1.dto;
 
+import java.util.List;
+
 /**
  * 최종적으로 컨트롤러가 반환할 DTO
  */
 public record HighlightedAbstract(
         String pmid,
         String title,
-        String abstractHtml // 하이라이트된 초록 HTML
-) {}
+        String abstractHtml, // 하이라이트된 초록 HTML (<mark class='highlight entity-gene' data-type data-id>)
+        List<HighlightedEntity> entities // 하이라이트한 개체 목록 (등장 순서)
+) {
+    public HighlightedAbstract(String pmid, String title, String abstractHtml) {
+        this(pmid, title, abstractHtml, List.of());
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bioproject1.dto;
+
+/**
+ * 하이라이트한 개체 하나 (HighlightedAbstract의 개체 목록)
+ * start/end는 태그와 이스케이프가 없는 초록 텍스트(abstract 구절을 공백 하나로 이은 것) 기준, end는 제외
+ */
+public record HighlightedEntity(
+        String type,       // 예: Gene
+        String identifier, // 예: 348 (같은 타입끼리 겹쳐서 합친 경우 348;7157)
+        int start,
+        int end
+) {}
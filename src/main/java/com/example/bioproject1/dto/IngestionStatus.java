@@ -0,0 +1,21 @@
+package com.example.bioproject1.dto;
+
+import java.time.Instant;
+
+/**
+ * BioC 덤프 대량 적재 진행 상태
+ */
+public record IngestionStatus(
+        String state,               // IDLE, RUNNING, STOPPING, COMPLETED, STOPPED, FAILED
+        String currentFile,
+        int filesTotal,
+        int filesDone,              // 이번 실행에서 끝낸 파일 수 (이전에 끝나서 건너뛴 파일 포함)
+        long documentsParsed,
+        long documentsSkipped,      // 체크포인트 이전이라 색인하지 않은 문서
+        long documentsIndexed,
+        long annotationsKept,
+        long annotationsDropped,    // 하이라이트 규칙(핵심 타입/valid/식별자)에 걸러진 주석
+        String errorMessage,
+        Instant startedAt,
+        Instant finishedAt
+) {}
@@ -0,0 +1,6 @@
+package com.example.bioproject1.dto;
+
+public record KmerCount(
+        String kmer, // canonical k-mer (정방향/역상보 중 사전순으로 앞선 것)
+        long count
+) {}
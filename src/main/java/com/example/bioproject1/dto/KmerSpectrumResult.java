@@ -0,0 +1,16 @@
+package com.example.bioproject1.dto;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 업로드 파일 전체의 canonical k-mer 스펙트럼
+ */
+public record KmerSpectrumResult(
+        int k,
+        long records,
+        long totalKmers,        // 전체 k-mer 수 (중복 포함)
+        long distinctKmers,     // 서로 다른 canonical k-mer 수
+        List<KmerCount> top,    // 가장 많이 나온 k-mer
+        Map<Integer, Long> histogram // 등장 횟수 -> 그 횟수만큼 나온 k-mer 수 (마지막 키는 "이상")
+) {}
@@ -0,0 +1,10 @@
+package com.example.bioproject1.dto;
+
+/**
+ * 로컬 코퍼스 조회 결과의 논문 한 건
+ */
+public record LocalPaper(
+        String pmid,
+        String title,
+        long mentions // 조회한 개체/키워드가 이 논문에 나온 횟수
+) {}
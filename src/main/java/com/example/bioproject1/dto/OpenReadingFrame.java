@@ -0,0 +1,13 @@
+package com.example.bioproject1.dto;
+
+/**
+ * ORF 하나 (ATG ~ 종결 코돈)
+ * 좌표는 정방향 가닥 기준 1-based, 양끝 포함이며 역방향 frame도 start <= end 입니다.
+ */
+public record OpenReadingFrame(
+        String frame,   // +1, +2, +3, -1, -2, -3
+        long start,
+        long end,
+        int length,     // 염기 수 (종결 코돈 포함)
+        String protein  // 번역된 아미노산 서열 (종결 코돈 제외)
+) {}
@@ -1,14 +1,19 @@
 package com.example.bioproject1.dto;
 
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+
 import java.util.List;
 
 /**
  * PubTator3 '/search/' API의 응답을 매핑하기 위한 DTO입니다.
- * (예: {"total": 123, "results": [ ... ]})
+ * (예: {"results": [ ... ], "count": 123, "page_size": 10, "current": 1, "total_pages": 13})
  */
 @JsonIgnoreProperties(ignoreUnknown = true)
 public record PubTatorSearchResponse(
         int total,
-        List<SearchResult> results
+        List<SearchResult> results,
+        Integer count,                                  // 전체 검색 결과 수
+        @JsonProperty("page_size") Integer pageSize,     // 페이지당 결과 수
+        @JsonProperty("total_pages") Integer totalPages // 전체 페이지 수
 ) {}
@@ -0,0 +1,11 @@
+package com.example.bioproject1.dto;
+
+/**
+ * 검색 진행 상황 (스트리밍 검색의 첫 progress 이벤트, PMID 목록이 정해진 직후)
+ */
+public record SearchProgress(
+        String keywords,
+        int pmidCount,                  // 하이라이트할 논문 후보 수 (이후 result 이벤트는 이 수 이하)
+        int cacheHits,                  // 문서 캐시에서 바로 꺼낼 논문 수 (export 없이 먼저 도착)
+        String source                   // remote, local, fallback (SearchSummary.source와 같음)
+) {}
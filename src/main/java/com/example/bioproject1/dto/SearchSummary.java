@@ -0,0 +1,20 @@
+package com.example.bioproject1.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.List;
+
+/**
+ * 검색 한 번의 요약 (스트리밍 검색의 마지막 summary 이벤트)
+ */
+public record SearchSummary(
+        String keywords,
+        int limit,
+        @JsonIgnore List<String> pmids, // 검색 순위 순서의 PMID (응답에는 개수만)
+        int pmidCount,
+        int resultCount,                // 하이라이트해서 보낸 논문 수 (초록이 없는 논문 제외)
+        int cacheHits,                  // 문서 캐시에서 바로 꺼낸 논문 수
+        int unavailableCount,           // NCBI 사용 불가로 받지 못한 PMID 수 (부분 결과, 로컬 코퍼스로 대체한 것은 제외)
+        String source,                  // remote (NCBI), local (로컬 코퍼스), fallback (NCBI 사용 불가로 로컬 코퍼스 대체)
+        long elapsedMillis
+) {}
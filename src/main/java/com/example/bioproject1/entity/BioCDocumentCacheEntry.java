@@ -0,0 +1,42 @@
+package com.example.bioproject1.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * PubTator3 export 결과(BioCDocument) 캐시 (H2 영속 계층)
+ * 키는 PMID, 값은 파싱된 문서를 다시 직렬화한 JSON입니다.
+ */
+@Entity
+@Table(name = "bioc_document_cache")
+public class BioCDocumentCacheEntry {
+
+    @Id
+    @Column(length = 32)
+    private String pmid;
+
+    @Lob
+    @Column(name = "document_json", nullable = false)
+    private String documentJson;
+
+    @Column(name = "fetched_at", nullable = false)
+    private Instant fetchedAt;
+
+    protected BioCDocumentCacheEntry() {
+    }
+
+    public BioCDocumentCacheEntry(String pmid, String documentJson) {
+        this.pmid = pmid;
+        this.documentJson = documentJson;
+        this.fetchedAt = Instant.now();
+    }
+
+    public String getPmid() { return pmid; }
+    public String getDocumentJson() { return documentJson; }
+    public Instant getFetchedAt() { return fetchedAt; }
+}
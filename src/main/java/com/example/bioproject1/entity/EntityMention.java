@@ -0,0 +1,68 @@
+package com.example.bioproject1.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * 논문 안의 주석(annotation) 위치 하나 ("논문 Y에 나오는 개체" 조회용)
+ */
+@Entity
+@Table(name = "entity_mention", indexes = @Index(name = "idx_mention_pmid", columnList = "pmid"))
+public class EntityMention {
+
+    // 대량 저장 시 JDBC batch insert가 되도록 IDENTITY 대신 시퀀스(할당 크기 100) 사용
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entity_mention_seq")
+    @SequenceGenerator(name = "entity_mention_seq", sequenceName = "entity_mention_seq", allocationSize = 100)
+    private Long id;
+
+    @Column(nullable = false, length = 32)
+    private String pmid;
+
+    @Column(name = "entity_type", nullable = false, length = 64)
+    private String entityType;
+
+    @Column(length = 512)
+    private String identifier;
+
+    @Column(name = "mention_text", nullable = false, length = 1000)
+    private String mentionText;
+
+    @Column(name = "passage_type", length = 64)
+    private String passageType;
+
+    @Column(name = "start_offset", nullable = false)
+    private int startOffset;
+
+    @Column(nullable = false)
+    private int length;
+
+    protected EntityMention() {
+    }
+
+    public EntityMention(String pmid, String entityType, String identifier, String mentionText,
+                         String passageType, int startOffset, int length) {
+        this.pmid = pmid;
+        this.entityType = entityType;
+        this.identifier = identifier;
+        this.mentionText = mentionText;
+        this.passageType = passageType;
+        this.startOffset = startOffset;
+        this.length = length;
+    }
+
+    public Long getId() { return id; }
+    public String getPmid() { return pmid; }
+    public String getEntityType() { return entityType; }
+    public String getIdentifier() { return identifier; }
+    public String getMentionText() { return mentionText; }
+    public String getPassageType() { return passageType; }
+    public int getStartOffset() { return startOffset; }
+    public int getLength() { return length; }
+}
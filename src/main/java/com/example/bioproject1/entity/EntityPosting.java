@@ -0,0 +1,68 @@
+package com.example.bioproject1.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.SequenceGenerator;
+import jakarta.persistence.Table;
+
+/**
+ * 역색인 항목: (식별자 또는 정규화된 언급 텍스트, 개체 타입) -> PMID, 논문 안 등장 횟수
+ * term 인덱스로 "유전자 X를 언급한 논문" / 키워드 조회를 논문 수와 무관하게 빠르게 찾습니다.
+ */
+@Entity
+@Table(name = "entity_posting", indexes = {
+        @Index(name = "idx_posting_term", columnList = "term_kind, term"),
+        @Index(name = "idx_posting_pmid", columnList = "pmid")
+})
+public class EntityPosting {
+
+    public enum TermKind {
+        IDENTIFIER, // 예: 348, MESH:D000544
+        MENTION     // 정규화된 언급 텍스트, 예: apoe4, alzheimer's disease
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entity_posting_seq")
+    @SequenceGenerator(name = "entity_posting_seq", sequenceName = "entity_posting_seq", allocationSize = 100)
+    private Long id;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "term_kind", nullable = false, length = 16)
+    private TermKind termKind;
+
+    @Column(nullable = false, length = 512)
+    private String term;
+
+    @Column(name = "entity_type", nullable = false, length = 64)
+    private String entityType;
+
+    @Column(nullable = false, length = 32)
+    private String pmid;
+
+    @Column(name = "mention_count", nullable = false)
+    private int mentionCount;
+
+    protected EntityPosting() {
+    }
+
+    public EntityPosting(TermKind termKind, String term, String entityType, String pmid, int mentionCount) {
+        this.termKind = termKind;
+        this.term = term;
+        this.entityType = entityType;
+        this.pmid = pmid;
+        this.mentionCount = mentionCount;
+    }
+
+    public Long getId() { return id; }
+    public TermKind getTermKind() { return termKind; }
+    public String getTerm() { return term; }
+    public String getEntityType() { return entityType; }
+    public String getPmid() { return pmid; }
+    public int getMentionCount() { return mentionCount; }
+}
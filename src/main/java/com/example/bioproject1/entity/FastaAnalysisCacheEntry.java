@@ -0,0 +1,51 @@
+package com.example.bioproject1.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * FASTA 레코드 분석 결과 캐시 (H2 영속 계층)
+ * 키는 정규화(대문자)된 서열의 SHA-256 해시입니다.
+ */
+@Entity
+@Table(name = "fasta_analysis_cache")
+public class FastaAnalysisCacheEntry {
+
+    @Id
+    @Column(name = "sequence_hash", length = 64)
+    private String sequenceHash;
+
+    @Column(nullable = false)
+    private int length;
+
+    @Column(name = "gc_content", nullable = false)
+    private double gcContent;
+
+    // 코돈 사용 Map을 JSON 문자열로 저장 (최대 64개 항목)
+    @Column(name = "codon_usage", nullable = false, length = 4096)
+    private String codonUsageJson;
+
+    @Column(name = "created_at", nullable = false)
+    private Instant createdAt;
+
+    protected FastaAnalysisCacheEntry() {
+    }
+
+    public FastaAnalysisCacheEntry(String sequenceHash, int length, double gcContent, String codonUsageJson) {
+        this.sequenceHash = sequenceHash;
+        this.length = length;
+        this.gcContent = gcContent;
+        this.codonUsageJson = codonUsageJson;
+        this.createdAt = Instant.now();
+    }
+
+    public String getSequenceHash() { return sequenceHash; }
+    public int getLength() { return length; }
+    public double getGcContent() { return gcContent; }
+    public String getCodonUsageJson() { return codonUsageJson; }
+    public Instant getCreatedAt() { return createdAt; }
+}
@@ -0,0 +1,58 @@
+package com.example.bioproject1.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Lob;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * 로컬 코퍼스에 저장한 논문 (PMID 하나당 한 행)
+ * 원본 BioCDocument JSON도 함께 저장해서 네트워크 없이 다시 하이라이트할 수 있게 합니다.
+ */
+@Entity
+@Table(name = "paper")
+public class IndexedPaper {
+
+    @Id
+    @Column(length = 32)
+    private String pmid;
+
+    @Column(length = 2000)
+    private String title;
+
+    @Lob
+    @Column(name = "abstract_text")
+    private String abstractText;
+
+    @Lob
+    @Column(name = "document_json", nullable = false)
+    private String documentJson;
+
+    @Column(name = "mention_count", nullable = false)
+    private int mentionCount;
+
+    @Column(name = "indexed_at", nullable = false)
+    private Instant indexedAt;
+
+    protected IndexedPaper() {
+    }
+
+    public IndexedPaper(String pmid, String title, String abstractText, String documentJson, int mentionCount) {
+        this.pmid = pmid;
+        this.title = title;
+        this.abstractText = abstractText;
+        this.documentJson = documentJson;
+        this.mentionCount = mentionCount;
+        this.indexedAt = Instant.now();
+    }
+
+    public String getPmid() { return pmid; }
+    public String getTitle() { return title; }
+    public String getAbstractText() { return abstractText; }
+    public String getDocumentJson() { return documentJson; }
+    public int getMentionCount() { return mentionCount; }
+    public Instant getIndexedAt() { return indexedAt; }
+}
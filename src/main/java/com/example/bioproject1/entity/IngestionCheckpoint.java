@@ -0,0 +1,64 @@
+package com.example.bioproject1.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+
+import java.time.Instant;
+
+/**
+ * BioC 덤프 파일별 적재 체크포인트
+ * documents_committed: 파일 앞에서부터 이 개수까지의 문서는 모두 색인(커밋) 완료
+ * 파일 크기/수정 시각이 바뀌면 다른 파일로 보고 처음부터 다시 적재합니다.
+ */
+@Entity
+@Table(name = "ingest_checkpoint")
+public class IngestionCheckpoint {
+
+    @Id
+    @Column(length = 1024)
+    private String source;
+
+    @Column(name = "file_size", nullable = false)
+    private long fileSize;
+
+    @Column(name = "last_modified", nullable = false)
+    private long lastModified;
+
+    @Column(name = "documents_committed", nullable = false)
+    private long documentsCommitted;
+
+    @Column(nullable = false)
+    private boolean completed;
+
+    @Column(name = "updated_at", nullable = false)
+    private Instant updatedAt;
+
+    protected IngestionCheckpoint() {
+    }
+
+    public IngestionCheckpoint(String source, long fileSize, long lastModified) {
+        this.source = source;
+        this.fileSize = fileSize;
+        this.lastModified = lastModified;
+        this.updatedAt = Instant.now();
+    }
+
+    public boolean matches(long fileSize, long lastModified) {
+        return this.fileSize == fileSize && this.lastModified == lastModified;
+    }
+
+    public void advance(long documentsCommitted, boolean completed) {
+        this.documentsCommitted = documentsCommitted;
+        this.completed = completed;
+        this.updatedAt = Instant.now();
+    }
+
+    public String getSource() { return source; }
+    public long getFileSize() { return fileSize; }
+    public long getLastModified() { return lastModified; }
+    public long getDocumentsCommitted() { return documentsCommitted; }
+    public boolean isCompleted() { return completed; }
+    public Instant getUpdatedAt() { return updatedAt; }
+}
@@ -0,0 +1,7 @@
+package com.example.bioproject1.repository;
+
+import com.example.bioproject1.entity.BioCDocumentCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface BioCDocumentCacheRepository extends JpaRepository<BioCDocumentCacheEntry, String> {
+}
@@ -0,0 +1,19 @@
+package com.example.bioproject1.repository;
+
+import com.example.bioproject1.entity.EntityMention;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EntityMentionRepository extends JpaRepository<EntityMention, Long> {
+
+    List<EntityMention> findByPmidOrderByStartOffset(String pmid);
+
+    @Modifying
+    @Query("delete from EntityMention m where m.pmid in :pmids")
+    int deleteByPmidIn(@Param("pmids") Collection<String> pmids);
+}
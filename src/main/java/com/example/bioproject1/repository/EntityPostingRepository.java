@@ -0,0 +1,72 @@
+package com.example.bioproject1.repository;
+
+import com.example.bioproject1.entity.EntityPosting;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface EntityPostingRepository extends JpaRepository<EntityPosting, Long> {
+
+    /** 역색인 조회 결과 (PMID, 해당 term 등장 횟수 합) */
+    interface PaperHits {
+        String getPmid();
+        Long getMentions();
+    }
+
+    @Query("""
+            select p.pmid as pmid, sum(p.mentionCount) as mentions
+            from EntityPosting p
+            where p.termKind = :kind and p.term = :term
+              and (:entityType is null or lower(p.entityType) = lower(:entityType))
+            group by p.pmid
+            order by sum(p.mentionCount) desc, p.pmid
+            """)
+    List<PaperHits> findPapers(@Param("kind") EntityPosting.TermKind kind,
+                               @Param("term") String term,
+                               @Param("entityType") String entityType,
+                               Pageable pageable);
+
+    /** 키워드 조회: 언급 텍스트 앞부분 일치(prefix는 LIKE 특수문자를 이스케이프해서 전달) 또는 식별자 일치 */
+    @Query("""
+            select p.pmid as pmid, sum(p.mentionCount) as mentions
+            from EntityPosting p
+            where (p.termKind = :mentionKind and p.term like :prefix escape '\\')
+               or (p.termKind = :identifierKind and p.term = :identifier)
+            group by p.pmid
+            order by sum(p.mentionCount) desc, p.pmid
+            """)
+    List<PaperHits> searchPapers(@Param("mentionKind") EntityPosting.TermKind mentionKind,
+                                 @Param("prefix") String prefix,
+                                 @Param("identifierKind") EntityPosting.TermKind identifierKind,
+                                 @Param("identifier") String identifier,
+                                 Pageable pageable);
+
+    /**
+     * 단어 하나로 조회 (여러 단어 키워드의 단어마다): 언급 텍스트의 어느 단어든 그 단어로 시작하거나 식별자가 같은 논문
+     * prefix = "단어%", wordPrefix = "% 단어%" (LIKE 특수문자는 이스케이프해서 전달)
+     */
+    @Query("""
+            select p.pmid as pmid, sum(p.mentionCount) as mentions
+            from EntityPosting p
+            where (p.termKind = :mentionKind
+                   and (p.term like :prefix escape '\\' or p.term like :wordPrefix escape '\\'))
+               or (p.termKind = :identifierKind and p.term = :identifier)
+            group by p.pmid
+            order by sum(p.mentionCount) desc, p.pmid
+            """)
+    List<PaperHits> searchPapersByWord(@Param("mentionKind") EntityPosting.TermKind mentionKind,
+                                       @Param("prefix") String prefix,
+                                       @Param("wordPrefix") String wordPrefix,
+                                       @Param("identifierKind") EntityPosting.TermKind identifierKind,
+                                       @Param("identifier") String identifier,
+                                       Pageable pageable);
+
+    @Modifying
+    @Query("delete from EntityPosting p where p.pmid in :pmids")
+    int deleteByPmidIn(@Param("pmids") Collection<String> pmids);
+}
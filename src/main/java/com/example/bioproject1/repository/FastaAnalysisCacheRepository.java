@@ -0,0 +1,25 @@
+package com.example.bioproject1.repository;
+
+import com.example.bioproject1.entity.FastaAnalysisCacheEntry;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
+
+public interface FastaAnalysisCacheRepository extends JpaRepository<FastaAnalysisCacheEntry, String> {
+
+    /**
+     * 조회 없이 한 번에 저장 (H2 MERGE ... KEY: 같은 해시가 이미 있으면 같은 값으로 덮어씀)
+     * save()는 id가 지정된 엔티티라 merge 전에 SELECT를 한 번 더 하므로 쓰지 않습니다.
+     */
+    @Transactional
+    @Modifying
+    @Query(value = """
+            merge into fasta_analysis_cache (sequence_hash, length, gc_content, codon_usage, created_at)
+            key (sequence_hash)
+            values (:hash, :length, :gcContent, :codonUsage, current_timestamp)
+            """, nativeQuery = true)
+    int upsert(@Param("hash") String hash, @Param("length") int length,
+               @Param("gcContent") double gcContent, @Param("codonUsage") String codonUsageJson);
+}
@@ -0,0 +1,16 @@
+package com.example.bioproject1.repository;
+
+import com.example.bioproject1.entity.IndexedPaper;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
+
+public interface IndexedPaperRepository extends JpaRepository<IndexedPaper, String> {
+
+    /** pmids 중 이미 색인된 PMID (원본 JSON은 읽지 않음) */
+    @Query("select p.pmid from IndexedPaper p where p.pmid in :pmids")
+    List<String> findExistingPmids(@Param("pmids") Collection<String> pmids);
+}
@@ -0,0 +1,7 @@
+package com.example.bioproject1.repository;
+
+import com.example.bioproject1.entity.IngestionCheckpoint;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+public interface IngestionCheckpointRepository extends JpaRepository<IngestionCheckpoint, String> {
+}
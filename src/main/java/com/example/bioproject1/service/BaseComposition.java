@@ -0,0 +1,88 @@
+package com.example.bioproject1.service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * PackedSequence에서 코돈 사용(frame +1)을 세는 카운터
+ * - 염기 조성(A/C/G/T/N)은 원본 바이트에서 BaseCountKernel로 셉니다.
+ *   그래서 레코드 하나를 한 번에 세지 않고 두 번 훑습니다. (커널이 원본 바이트 한 번, pack + 코돈 집계가 한 번)
+ *   조성은 SIMD 커널이 pack 없이 원본에서 바로 세고, pack은 코돈 6비트를 워드에서 꺼내는 데에만 씁니다.
+ * - 코돈은 int[64] 표에 누적하고, 문자열/Map 변환은 결과 DTO를 만들 때만 합니다.
+ * - 순회 중에는 객체를 만들지 않습니다.
+ * - N/IUPAC 코드가 섞인 코돈은 세지 않습니다.
+ */
+public final class BaseComposition {
+
+    public static final int CODON_COUNT = 64;
+
+    private static final String BASES = "ACGT";
+
+    // 코돈 인덱스 = b0 | b1 << 2 | b2 << 4 (packed 워드에서 6비트를 그대로 꺼낸 값)
+    private static final String[] CODON_NAMES = new String[CODON_COUNT];
+    // 알파벳순 (AAA, AAC, ...) 으로 Map을 만들기 위한 인덱스 순서
+    private static final int[] ALPHABETICAL_ORDER = new int[CODON_COUNT];
+
+    static {
+        for (int idx = 0; idx < CODON_COUNT; idx++) {
+            CODON_NAMES[idx] = "" + BASES.charAt(idx & 3) + BASES.charAt((idx >> 2) & 3) + BASES.charAt((idx >> 4) & 3);
+        }
+        int k = 0;
+        for (int b0 = 0; b0 < 4; b0++)
+            for (int b1 = 0; b1 < 4; b1++)
+                for (int b2 = 0; b2 < 4; b2++)
+                    ALPHABETICAL_ORDER[k++] = b0 | b1 << 2 | b2 << 4;
+    }
+
+    private final int[] codons = new int[CODON_COUNT];
+
+    /**
+     * frame +1 코돈만 누적합니다. 6비트씩 꺼내고, 모호 염기 3비트가 모두 0인 것만 셉니다.
+     */
+    public void countCodons(PackedSequence seq) {
+        long[] bases = seq.baseWords();
+        long[] ambiguous = seq.ambiguousWords();
+        int codonCount = seq.length() / 3;
+        int bit = 0;     // bases 비트 위치 (6k)
+        int maskBit = 0; // ambiguous 비트 위치 (3k)
+        for (int k = 0; k < codonCount; k++, bit += 6, maskBit += 3) {
+            if (bits(ambiguous, maskBit, 3) != 0) continue;
+            codons[(int) bits(bases, bit, 6)]++;
+        }
+    }
+
+    // words 배열의 from 비트부터 width 비트를 꺼냄 (워드 경계를 넘어가도 처리)
+    private static long bits(long[] words, int from, int width) {
+        int w = from >>> 6;
+        int off = from & 63;
+        long value = words[w] >>> off;
+        if (off + width > 64) {
+            value |= words[w + 1] << (64 - off);
+        }
+        return value & ((1L << width) - 1);
+    }
+
+    public int codonCount(int codonIndex) {
+        return codons[codonIndex];
+    }
+
+    /**
+     * FastaAnalysisResult 경계에서만 사용하는 Map 변환 (등장한 코돈만, 알파벳순)
+     */
+    public Map<String, Integer> toCodonUsageMap() {
+        return toCodonUsageMap(codons);
+    }
+
+    /** int[64] 코돈 표 (인덱스 = b0 | b1 << 2 | b2 << 4) -> Map 변환 */
+    public static Map<String, Integer> toCodonUsageMap(int[] table) {
+        Map<String, Integer> usage = new LinkedHashMap<>();
+        for (int idx : ALPHABETICAL_ORDER) {
+            if (table[idx] > 0) usage.put(CODON_NAMES[idx], table[idx]);
+        }
+        return usage;
+    }
+
+    public static String codonName(int codonIndex) {
+        return CODON_NAMES[codonIndex];
+    }
+}
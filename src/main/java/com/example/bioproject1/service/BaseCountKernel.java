@@ -0,0 +1,23 @@
+package com.example.bioproject1.service;
+
+/**
+ * 바이트 버퍼 위에서 A/C/G/T/N을 세는 커널 (RNA의 U는 T로 셈)
+ * - jdk.incubator.vector 모듈이 켜져 있으면 SIMD 구현, 아니면 스칼라 구현을 사용합니다.
+ * - 두 구현의 결과(정수 카운트)는 항상 같으므로 GC 비율도 비트 단위로 동일합니다.
+ */
+public interface BaseCountKernel {
+
+    NucleotideCounts count(byte[] sequence, int from, int to);
+
+    default NucleotideCounts count(byte[] sequence) {
+        return count(sequence, 0, sequence.length);
+    }
+
+    /**
+     * 현재 JVM에서 사용할 수 있는 가장 빠른 구현
+     * (-Dbioproject1.simd=false 로 스칼라 구현을 강제할 수 있음)
+     */
+    static BaseCountKernel best() {
+        return BaseCountKernels.BEST;
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.bioproject1.service;
+
+/**
+ * BaseCountKernel 구현 선택 (클래스 초기화 시 한 번만 결정)
+ */
+final class BaseCountKernels {
+
+    static final BaseCountKernel BEST = select();
+
+    private BaseCountKernels() {
+    }
+
+    private static BaseCountKernel select() {
+        boolean simdAllowed = !"false".equalsIgnoreCase(System.getProperty("bioproject1.simd"));
+        if (simdAllowed && ModuleLayer.boot().findModule("jdk.incubator.vector").isPresent()) {
+            try {
+                // 모듈이 없을 때 Vector API 클래스가 로딩되지 않도록 리플렉션으로 생성
+                return (BaseCountKernel) Class.forName("com.example.bioproject1.service.VectorBaseCountKernel")
+                        .getDeclaredConstructor().newInstance();
+            } catch (ReflectiveOperationException | LinkageError e) {
+                // 스칼라 구현으로 대체
+            }
+        }
+        return new ScalarBaseCountKernel();
+    }
+}
@@ -0,0 +1,186 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.DocumentCacheStats;
+import com.example.bioproject1.entity.BioCDocumentCacheEntry;
+import com.example.bioproject1.repository.BioCDocumentCacheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * PMID 기준 BioCDocument 캐시 (export API 앞단)
+ * - 1차: 메모리 (Caffeine W-TinyLFU, 추정 바이트 크기 기준 제거 + TTL)
+ * - 2차: H2 테이블 (bioc_document_cache), 재시작 후에도 유지 (선택)
+ * 출판된 초록은 거의 바뀌지 않으므로 TTL은 길게 잡고, 놓친 PMID만 export API로 요청합니다.
+ */
+@Service
+public class BioCDocumentCache {
+
+    private static final Logger log = LoggerFactory.getLogger(BioCDocumentCache.class);
+
+    private final BioCDocumentCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    // 공유 ObjectMapper 설정은 건드리지 않고, 읽을 때만 모르는 필드를 무시
+    private final ObjectReader documentReader;
+    private final Cache<String, BioCDocument> memory;
+    private final boolean enabled;
+    private final boolean diskEnabled;
+    private final Duration diskTtl;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder diskHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public BioCDocumentCache(BioCDocumentCacheRepository repository,
+                             ObjectMapper objectMapper,
+                             @Value("${pubtator.cache.enabled:true}") boolean enabled,
+                             @Value("${pubtator.cache.max-weight-mb:64}") long maxWeightMb,
+                             @Value("${pubtator.cache.ttl-hours:24}") long ttlHours,
+                             @Value("${pubtator.cache.disk-enabled:true}") boolean diskEnabled,
+                             @Value("${pubtator.cache.disk-ttl-days:30}") long diskTtlDays) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.documentReader = objectMapper.readerFor(BioCDocument.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+        this.enabled = enabled;
+        this.diskEnabled = diskEnabled;
+        this.diskTtl = Duration.ofDays(diskTtlDays);
+        this.memory = Caffeine.newBuilder()
+                .maximumWeight(maxWeightMb * 1024 * 1024)
+                .weigher((String pmid, BioCDocument doc) -> estimateBytes(doc))
+                .expireAfterWrite(Duration.ofHours(ttlHours))
+                .recordStats()
+                .build();
+    }
+
+    /**
+     * @return 캐시에 있는 문서만 (PMID -> 문서), 없는 PMID는 결과에 빠짐
+     */
+    public Map<String, BioCDocument> getAll(Collection<String> pmids) {
+        Map<String, BioCDocument> found = new LinkedHashMap<>();
+        if (!enabled) return found;
+
+        List<String> notInMemory = new ArrayList<>();
+        for (String pmid : pmids) {
+            BioCDocument doc = memory.getIfPresent(pmid);
+            if (doc != null) {
+                memoryHits.increment();
+                found.put(pmid, doc);
+            } else {
+                notInMemory.add(pmid);
+            }
+        }
+        if (diskEnabled && !notInMemory.isEmpty()) {
+            loadFromDisk(notInMemory, found);
+        }
+        misses.add(pmids.size() - found.size());
+        return found;
+    }
+
+    private void loadFromDisk(List<String> pmids, Map<String, BioCDocument> found) {
+        Instant oldest = Instant.now().minus(diskTtl);
+        List<BioCDocumentCacheEntry> entries;
+        try {
+            entries = repository.findAllById(pmids);
+        } catch (RuntimeException e) {
+            // DB 계층 오류는 전부 캐시 미스로 취급 (export API에서 다시 받음)
+            log.warn("문서 캐시(H2) 조회 실패: {}", e.toString());
+            return;
+        }
+        List<String> corrupt = new ArrayList<>();
+        for (BioCDocumentCacheEntry entry : entries) {
+            if (entry.getFetchedAt().isBefore(oldest)) continue; // 오래된 항목은 다시 받아서 덮어씀
+            BioCDocument doc;
+            try {
+                doc = documentReader.readValue(entry.getDocumentJson());
+            } catch (JsonProcessingException e) {
+                // 깨지거나 잘린 항목은 그 PMID만 미스로 보고 지움 (나머지 항목은 계속 읽음)
+                log.warn("깨진 문서 캐시 항목 제거: PMID {} ({})", entry.getPmid(), e.getOriginalMessage());
+                corrupt.add(entry.getPmid());
+                continue;
+            }
+            diskHits.increment();
+            memory.put(entry.getPmid(), doc);
+            found.put(entry.getPmid(), doc);
+        }
+        if (corrupt.isEmpty()) return;
+        try {
+            repository.deleteAllById(corrupt);
+        } catch (RuntimeException e) {
+            // 지우지 못해도 export로 다시 받으면 putAll이 덮어씀
+        }
+    }
+
+    public void putAll(Collection<BioCDocument> documents) {
+        if (!enabled) return;
+        List<BioCDocumentCacheEntry> entries = new ArrayList<>();
+        for (BioCDocument doc : documents) {
+            if (doc == null || doc.id() == null) continue;
+            memory.put(doc.id(), doc);
+            if (diskEnabled) {
+                try {
+                    entries.add(new BioCDocumentCacheEntry(doc.id(), objectMapper.writeValueAsString(doc)));
+                } catch (JsonProcessingException e) {
+                    // 직렬화할 수 없는 문서는 메모리에만 둠
+                }
+            }
+        }
+        if (entries.isEmpty()) return;
+        try {
+            repository.saveAll(entries); // 같은 PMID는 최신 내용으로 덮어씀
+        } catch (RuntimeException e) {
+            // 동시에 같은 PMID를 저장하는 경우(PK 중복) 등은 무시
+        }
+    }
+
+    public DocumentCacheStats stats() {
+        long memoryHitCount = memoryHits.sum();
+        long diskHitCount = diskHits.sum();
+        long missCount = misses.sum();
+        long total = memoryHitCount + diskHitCount + missCount;
+        long weight = memory.policy().eviction()
+                .map(eviction -> eviction.weightedSize().orElse(0L))
+                .orElse(0L);
+        return new DocumentCacheStats(memoryHitCount, diskHitCount, missCount,
+                memory.stats().evictionCount(), memory.estimatedSize(), weight / 1024,
+                total == 0 ? 0.0 : (double) (memoryHitCount + diskHitCount) / total);
+    }
+
+    // 문자열 길이 기준의 대략적인 힙 사용량 (char 2바이트 + 주석/구절 객체 오버헤드)
+    private static int estimateBytes(BioCDocument doc) {
+        long bytes = 64;
+        if (doc.passages() != null) {
+            for (BioCPassage passage : doc.passages()) {
+                bytes += 64 + 2L * length(passage.text());
+                if (passage.annotations() == null) continue;
+                for (Annotation ann : passage.annotations()) {
+                    bytes += 160 + 2L * length(ann.text());
+                }
+            }
+        }
+        return (int) Math.min(Integer.MAX_VALUE, bytes);
+    }
+
+    private static int length(String s) {
+        return s == null ? 0 : s.length();
+    }
+}
@@ -0,0 +1,467 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.IngestionStatus;
+import com.example.bioproject1.entity.IngestionCheckpoint;
+import com.example.bioproject1.repository.IngestionCheckpointRepository;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.NoSuchElementException;
+import java.util.TreeSet;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * PubTator3 대량 덤프(BioC JSON/XML, gzip/tar 가능)를 NCBI 호출 없이 로컬 코퍼스로 적재합니다.
+ * 파일마다 세 단계를 크기가 정해진 대기열로 잇습니다.
+ *   파싱(적재 스레드) -> [parsed] -> 필터(여러 스레드) -> [filtered] -> 색인(한 스레드, batch-size개씩 한 트랜잭션)
+ * - 필터는 색인 규칙(LiteratureIndexService.isIndexedAnnotation, 하이라이트와 같은 기본 타입/valid/식별자)으로 주석을 거릅니다.
+ *   export로 받아 색인하는 문서에도 같은 규칙이 적용됩니다.
+ * - batch를 커밋할 때마다 "앞에서부터 빠짐없이 커밋된 문서 수"를 체크포인트로 저장하고,
+ *   다시 시작하면 그 앞의 문서는 파싱만 하고 건너뜁니다. (재색인은 멱등이라 경계의 중복 적재는 무해)
+ * - 읽을 수 있는 파일은 pubtator.ingest.dir 아래로 제한합니다.
+ */
+@Service
+public class BioCIngestionService {
+
+    private static final Logger log = LoggerFactory.getLogger(BioCIngestionService.class);
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    private static final Item END = new Item(-1, null);
+
+    private final LiteratureIndexService literatureIndex;
+    private final IngestionCheckpointRepository checkpointRepository;
+    private final BioCJsonStreamParser jsonParser;
+    private final BioCXmlStreamParser xmlParser = new BioCXmlStreamParser();
+    private final Path dumpDir;
+    private final int filterThreads;
+    private final int queueCapacity;
+    private final int batchSize;
+
+    private final Object lock = new Object();
+    private Run current; // lock으로 보호, 한 번에 하나만 실행
+
+    public BioCIngestionService(LiteratureIndexService literatureIndex,
+                                IngestionCheckpointRepository checkpointRepository,
+                                @Value("${pubtator.ingest.dir:./data/pubtator-dumps}") String dumpDir,
+                                @Value("${pubtator.ingest.filter-threads:0}") int filterThreads,
+                                @Value("${pubtator.ingest.queue-capacity:1000}") int queueCapacity,
+                                @Value("${pubtator.ingest.batch-size:500}") int batchSize) {
+        this.literatureIndex = literatureIndex;
+        this.checkpointRepository = checkpointRepository;
+        ObjectMapper objectMapper = new ObjectMapper();
+        objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
+        this.jsonParser = new BioCJsonStreamParser(objectMapper);
+        this.dumpDir = Path.of(dumpDir).toAbsolutePath().normalize();
+        this.filterThreads = filterThreads > 0 ? filterThreads : Runtime.getRuntime().availableProcessors();
+        this.queueCapacity = Math.max(1, queueCapacity);
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    /**
+     * 적재를 백그라운드로 시작합니다.
+     * @param file 덤프 디렉터리 기준 상대 경로, 비어 있으면 디렉터리의 모든 파일 (이름순)
+     * @throws IllegalArgumentException 덤프 디렉터리 밖을 가리키는 경우
+     * @throws NoSuchElementException 파일/디렉터리가 없는 경우
+     * @throws IllegalStateException 이미 적재 중인 경우
+     */
+    public IngestionStatus start(String file) throws IOException {
+        List<Path> files = resolveFiles(file);
+        synchronized (lock) {
+            if (current != null && current.isActive()) {
+                throw new IllegalStateException("이미 적재 중입니다.");
+            }
+            Run run = new Run(files.size());
+            current = run;
+            run.thread = Thread.ofPlatform().name("bioc-ingest").daemon(true).start(() -> execute(run, files));
+            return run.snapshot();
+        }
+    }
+
+    /** 적재 중지 요청: 이미 파싱한 문서까지 커밋하고 체크포인트를 남긴 뒤 멈춥니다. */
+    public IngestionStatus stop() {
+        synchronized (lock) {
+            if (current != null && current.isActive()) {
+                current.stopRequested = true;
+                current.state = "STOPPING";
+            }
+            return status();
+        }
+    }
+
+    public IngestionStatus status() {
+        Run run;
+        synchronized (lock) {
+            run = current;
+        }
+        if (run == null) {
+            return new IngestionStatus("IDLE", null, 0, 0, 0, 0, 0, 0, 0, null, null, null);
+        }
+        return run.snapshot();
+    }
+
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        Run run;
+        synchronized (lock) {
+            run = current;
+        }
+        if (run != null && run.isActive()) {
+            run.stopRequested = true;
+            run.thread.join(30_000); // 진행 중인 batch 커밋과 체크포인트 저장을 기다림
+        }
+    }
+
+    private void execute(Run run, List<Path> files) {
+        try {
+            for (Path file : files) {
+                if (run.stopRequested) break;
+                ingestFile(run, file);
+                run.filesDone.incrementAndGet();
+            }
+            run.finish(run.stopRequested ? "STOPPED" : "COMPLETED", null);
+        } catch (Exception e) {
+            log.error("BioC 덤프 적재 실패 ({})", run.currentFile, e);
+            run.finish("FAILED", e.getMessage() != null ? e.getMessage() : e.toString());
+        }
+    }
+
+    private void ingestFile(Run run, Path file) throws Exception {
+        String source = dumpDir.relativize(file).toString();
+        long size = Files.size(file);
+        long modified = Files.getLastModifiedTime(file).toMillis();
+        IngestionCheckpoint checkpoint = checkpointRepository.findById(source)
+                .filter(c -> c.matches(size, modified))
+                .orElseGet(() -> new IngestionCheckpoint(source, size, modified));
+        if (checkpoint.isCompleted()) return; // 이전 실행에서 끝난 파일
+
+        run.currentFile = source;
+        log.info("BioC 덤프 적재: {} (체크포인트 {}개 문서)", source, checkpoint.getDocumentsCommitted());
+        new FilePipeline(run, checkpoint).run(file);
+    }
+
+    /**
+     * 파일 하나의 파싱 -> 필터 -> 색인 파이프라인
+     */
+    private final class FilePipeline {
+
+        private final Run run;
+        private final IngestionCheckpoint checkpoint;
+        private final BlockingQueue<Item> parsed = new ArrayBlockingQueue<>(queueCapacity);
+        private final BlockingQueue<Item> filtered = new ArrayBlockingQueue<>(queueCapacity);
+        private final AtomicReference<Throwable> failure = new AtomicReference<>();
+        private final List<Thread> threads = new ArrayList<>();
+
+        // 색인 스레드만 접근: watermark 앞은 모두 커밋, committed는 watermark 뒤에서 먼저 커밋된 순번
+        private long watermark;
+        private final TreeSet<Long> committed = new TreeSet<>();
+
+        FilePipeline(Run run, IngestionCheckpoint checkpoint) {
+            this.run = run;
+            this.checkpoint = checkpoint;
+            this.watermark = checkpoint.getDocumentsCommitted();
+        }
+
+        void run(Path file) throws Exception {
+            List<Thread> stages = new ArrayList<>();
+            for (int i = 0; i < filterThreads; i++) {
+                stages.add(Thread.ofPlatform().name("bioc-ingest-filter-" + i).daemon(true).unstarted(this::filterLoop));
+            }
+            stages.add(Thread.ofPlatform().name("bioc-ingest-index").daemon(true).unstarted(this::indexLoop));
+            synchronized (threads) {
+                threads.add(Thread.currentThread()); // 다른 단계가 실패하면 put()에서 멈춰 있는 파싱도 깨움
+                threads.addAll(stages);
+            }
+            stages.forEach(Thread::start);
+
+            long resumeFrom = checkpoint.getDocumentsCommitted();
+            boolean exhausted = false;
+            try {
+                long[] ordinal = {0};
+                readDocuments(file, doc -> {
+                    if (run.stopRequested) throw new CancellationException();
+                    run.documentsParsed.increment();
+                    long n = ordinal[0]++;
+                    if (n < resumeFrom) {
+                        run.documentsSkipped.increment();
+                        return;
+                    }
+                    put(parsed, new Item(n, doc));
+                });
+                exhausted = true;
+            } catch (CancellationException e) {
+                // 중지 요청 또는 다른 단계 실패
+            } catch (IOException | RuntimeException e) {
+                fail(e);
+            }
+
+            if (failure.get() == null) {
+                try {
+                    for (int i = 0; i < filterThreads; i++) parsed.put(END);
+                } catch (InterruptedException e) {
+                    // 다른 단계가 실패하면서 깨움, 아래 failure 확인
+                }
+            }
+            for (Thread stage : stages) joinQuietly(stage);
+            Thread.interrupted(); // 실패 시 받은 interrupt는 여기서 지움 (원인은 failure에 있음)
+
+            Throwable error = failure.get();
+            if (error instanceof Exception e) throw e;
+            if (error instanceof Error e) throw e;
+            checkpoint.advance(watermark, exhausted && !run.stopRequested);
+            checkpointRepository.save(checkpoint);
+        }
+
+        private void filterLoop() {
+            try {
+                while (true) {
+                    Item item = parsed.take();
+                    if (item == END) {
+                        filtered.put(END);
+                        return;
+                    }
+                    filtered.put(new Item(item.ordinal(), filterAnnotations(item.document(), run)));
+                }
+            } catch (InterruptedException e) {
+                // 다른 단계 실패로 중단
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        private void indexLoop() {
+            List<Item> batch = new ArrayList<>(batchSize);
+            try {
+                int ended = 0;
+                while (ended < filterThreads) {
+                    Item item = filtered.take();
+                    if (item == END) {
+                        ended++;
+                        continue;
+                    }
+                    batch.add(item);
+                    if (batch.size() >= batchSize) commit(batch);
+                }
+                commit(batch);
+            } catch (InterruptedException e) {
+                // 다른 단계 실패로 중단
+            } catch (RuntimeException e) {
+                fail(e);
+            }
+        }
+
+        // batch 하나를 한 트랜잭션으로 색인하고 체크포인트를 앞으로 옮김
+        private void commit(List<Item> batch) {
+            if (batch.isEmpty()) return;
+            List<BioCDocument> documents = new ArrayList<>(batch.size());
+            for (Item item : batch) documents.add(item.document());
+            literatureIndex.index(documents);
+            run.documentsIndexed.add(batch.size());
+
+            for (Item item : batch) committed.add(item.ordinal());
+            while (committed.remove(watermark)) watermark++;
+            checkpoint.advance(watermark, false);
+            checkpointRepository.save(checkpoint);
+            batch.clear();
+        }
+
+        private void put(BlockingQueue<Item> queue, Item item) {
+            try {
+                queue.put(item);
+            } catch (InterruptedException e) {
+                throw new CancellationException();
+            }
+        }
+
+        // 실패한 단계가 이 스레드를 interrupt해도 나머지 단계가 끝날 때까지 기다림
+        private void joinQuietly(Thread stage) {
+            while (true) {
+                try {
+                    stage.join();
+                    return;
+                } catch (InterruptedException e) {
+                    // failure에 원인이 기록되어 있음
+                }
+            }
+        }
+
+        private void fail(Throwable error) {
+            if (!failure.compareAndSet(null, error)) return;
+            synchronized (threads) {
+                for (Thread thread : threads) {
+                    if (thread != Thread.currentThread()) thread.interrupt();
+                }
+            }
+        }
+    }
+
+    // 색인 규칙을 통과한 주석만 남긴 문서 (원본 문서는 건드리지 않음, 버린 주석 수를 세려고 색인 전에 따로 거름)
+    private static BioCDocument filterAnnotations(BioCDocument doc, Run run) {
+        if (doc.passages() == null) return doc;
+        List<BioCPassage> passages = new ArrayList<>(doc.passages().size());
+        for (BioCPassage passage : doc.passages()) {
+            List<Annotation> kept = new ArrayList<>();
+            if (passage.annotations() != null) {
+                for (Annotation ann : passage.annotations()) {
+                    if (LiteratureIndexService.isIndexedAnnotation(ann)) kept.add(ann);
+                }
+                run.annotationsDropped.add(passage.annotations().size() - kept.size());
+            }
+            run.annotationsKept.add(kept.size());
+            passages.add(new BioCPassage(passage.infons(), passage.text(), kept));
+        }
+        return new BioCDocument(doc.id(), passages);
+    }
+
+    // 파일(.tar/.tar.gz/.tgz면 안의 파일 각각)을 문서 순서대로 읽음
+    private void readDocuments(Path file, Consumer<BioCDocument> sink) throws IOException {
+        String name = file.getFileName().toString().toLowerCase(Locale.ROOT);
+        try (BufferedInputStream in = decompress(new BufferedInputStream(Files.newInputStream(file), BUFFER_SIZE))) {
+            if (name.endsWith(".tar") || name.endsWith(".tar.gz") || name.endsWith(".tgz")) {
+                TarArchiveInputStream tar = new TarArchiveInputStream(in);
+                TarArchiveEntry entry;
+                while ((entry = tar.getNextEntry()) != null) {
+                    if (!entry.isFile()) continue;
+                    parsePayload(decompress(new BufferedInputStream(closeShield(tar), BUFFER_SIZE)), sink);
+                }
+            } else {
+                parsePayload(in, sink);
+            }
+        }
+    }
+
+    // 앞의 2바이트가 gzip 매직이면 풀어서 읽음 (확장자와 무관)
+    private static BufferedInputStream decompress(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int b0 = in.read();
+        int b1 = in.read();
+        in.reset();
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    // 첫 글자(공백/BOM 제외)로 형식 판단: '<' = BioC XML, '{' / '[' = BioC JSON
+    private void parsePayload(BufferedInputStream in, Consumer<BioCDocument> sink) throws IOException {
+        in.mark(1024);
+        int b = in.read();
+        for (int i = 1; i < 1024 && isLeadingNoise(b); i++) b = in.read();
+        in.reset();
+
+        if (b == -1) return; // 빈 파일
+        if (b == '<') {
+            xmlParser.parse(in, sink);
+        } else if (b == '{' || b == '[') {
+            jsonParser.parse(in, sink);
+        } else {
+            throw new IOException("BioC JSON/XML 형식이 아닙니다 (첫 글자 0x" + Integer.toHexString(b) + ")");
+        }
+    }
+
+    private static boolean isLeadingNoise(int b) {
+        return b == ' ' || b == '\t' || b == '\r' || b == '\n' || b == 0xEF || b == 0xBB || b == 0xBF;
+    }
+
+    // 파서가 스트림을 닫아도 tar 전체가 닫히지 않도록 close()를 막음
+    private static InputStream closeShield(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private List<Path> resolveFiles(String file) throws IOException {
+        if (file == null || file.isBlank()) {
+            if (!Files.isDirectory(dumpDir)) {
+                throw new NoSuchElementException("덤프 디렉터리가 없습니다: " + dumpDir);
+            }
+            try (Stream<Path> listing = Files.list(dumpDir)) {
+                return listing.filter(Files::isRegularFile)
+                        .filter(p -> !p.getFileName().toString().startsWith("."))
+                        .sorted()
+                        .toList();
+            }
+        }
+        Path path = dumpDir.resolve(file).normalize();
+        if (!path.startsWith(dumpDir)) {
+            throw new IllegalArgumentException("덤프 디렉터리 밖의 파일은 읽을 수 없습니다: " + file);
+        }
+        if (!Files.isRegularFile(path)) {
+            throw new NoSuchElementException("파일이 없습니다: " + file);
+        }
+        return List.of(path);
+    }
+
+    private record Item(long ordinal, BioCDocument document) {}
+
+    /**
+     * 적재 실행 한 번의 진행 상태 (여러 단계 스레드가 동시에 갱신)
+     */
+    private static final class Run {
+
+        private final int filesTotal;
+        private final AtomicInteger filesDone = new AtomicInteger();
+        private final LongAdder documentsParsed = new LongAdder();
+        private final LongAdder documentsSkipped = new LongAdder();
+        private final LongAdder documentsIndexed = new LongAdder();
+        private final LongAdder annotationsKept = new LongAdder();
+        private final LongAdder annotationsDropped = new LongAdder();
+        private final Instant startedAt = Instant.now();
+
+        private volatile String state = "RUNNING";
+        private volatile String currentFile;
+        private volatile String errorMessage;
+        private volatile Instant finishedAt;
+        private volatile boolean stopRequested;
+        private Thread thread;
+
+        Run(int filesTotal) {
+            this.filesTotal = filesTotal;
+        }
+
+        boolean isActive() {
+            return finishedAt == null;
+        }
+
+        void finish(String state, String errorMessage) {
+            this.errorMessage = errorMessage;
+            this.state = state;
+            this.finishedAt = Instant.now();
+        }
+
+        IngestionStatus snapshot() {
+            return new IngestionStatus(state, currentFile, filesTotal, filesDone.get(),
+                    documentsParsed.sum(), documentsSkipped.sum(), documentsIndexed.sum(),
+                    annotationsKept.sum(), annotationsDropped.sum(), errorMessage, startedAt, finishedAt);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.BioCDocument;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.function.Consumer;
+
+/**
+ * PubTator3 export(BioC JSON) 스트리밍 파서
+ * 응답 전체를 문자열/트리로 올리지 않고 "PubTator3" 배열까지 토큰으로 이동한 뒤
+ * BioCDocument를 하나씩 바인딩해서 바로 넘깁니다. (최상위가 배열인 응답도 허용)
+ * 대량 덤프의 BioC collection 형식({"source": ..., "documents": [...]})도 같은 방식으로 읽습니다.
+ */
+public final class BioCJsonStreamParser {
+
+    public static final String DOCUMENTS_FIELD = "PubTator3";
+    public static final String COLLECTION_DOCUMENTS_FIELD = "documents";
+
+    private final ObjectMapper objectMapper;
+
+    public BioCJsonStreamParser(ObjectMapper objectMapper) {
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * @return 넘긴 문서 수
+     * @throws IOException JSON이 깨졌거나 중간에 끊긴 경우 (그 전까지의 문서는 이미 sink로 넘어감)
+     */
+    public int parse(InputStream in, Consumer<BioCDocument> sink) throws IOException {
+        try (JsonParser parser = objectMapper.getFactory().createParser(in)) {
+            JsonToken token = parser.nextToken();
+            if (token == JsonToken.START_ARRAY) {
+                return readDocuments(parser, sink);
+            }
+            if (token != JsonToken.START_OBJECT) {
+                throw new IOException("BioC JSON 최상위가 객체/배열이 아닙니다: " + token + " " + parser.currentLocation());
+            }
+            int count = 0;
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                boolean documents = DOCUMENTS_FIELD.equals(field) || COLLECTION_DOCUMENTS_FIELD.equals(field);
+                if (documents && value == JsonToken.START_ARRAY) {
+                    count += readDocuments(parser, sink);
+                } else {
+                    parser.skipChildren(); // 다른 최상위 필드는 읽지 않고 건너뜀
+                }
+            }
+            return count;
+        }
+    }
+
+    // 현재 위치가 START_ARRAY, 원소(문서 객체)를 하나씩 바인딩
+    private int readDocuments(JsonParser parser, Consumer<BioCDocument> sink) throws IOException {
+        int count = 0;
+        JsonToken token;
+        while ((token = parser.nextToken()) != JsonToken.END_ARRAY) {
+            if (token == null) {
+                throw new IOException("BioC JSON이 배열 중간에 끝났습니다: " + parser.currentLocation());
+            }
+            if (token != JsonToken.START_OBJECT) {
+                parser.skipChildren();
+                continue;
+            }
+            sink.accept(objectMapper.readValue(parser, BioCDocument.class));
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,142 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.Infons;
+import com.example.bioproject1.dto.Location;
+
+import javax.xml.stream.XMLInputFactory;
+import javax.xml.stream.XMLStreamConstants;
+import javax.xml.stream.XMLStreamException;
+import javax.xml.stream.XMLStreamReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * BioC XML(PubTator3 대량 덤프 BioCXML) 스트리밍 파서
+ * StAX로 <document> 하나를 읽을 때마다 BioCDocument로 만들어 바로 넘깁니다. (파일 전체를 DOM으로 올리지 않음)
+ * - passage: <infon key="type">, <text>, <annotation>
+ * - annotation: <infon key="type|identifier|valid">, <location offset length>, <text>
+ * - offset은 JSON 파서와 마찬가지로 파일에 적힌 값을 그대로 둡니다.
+ * - DTD/외부 엔티티는 읽지 않습니다. (BioC.dtd DOCTYPE 선언은 무시)
+ */
+public final class BioCXmlStreamParser {
+
+    private final XMLInputFactory factory;
+
+    public BioCXmlStreamParser() {
+        this.factory = XMLInputFactory.newFactory();
+        factory.setProperty(XMLInputFactory.SUPPORT_DTD, false);
+        factory.setProperty(XMLInputFactory.IS_SUPPORTING_EXTERNAL_ENTITIES, false);
+        factory.setProperty(XMLInputFactory.IS_COALESCING, true);
+    }
+
+    /**
+     * @return 넘긴 문서 수
+     * @throws IOException XML이 깨졌거나 중간에 끊긴 경우 (그 전까지의 문서는 이미 sink로 넘어감)
+     */
+    public int parse(InputStream in, Consumer<BioCDocument> sink) throws IOException {
+        XMLStreamReader reader = null;
+        try {
+            reader = factory.createXMLStreamReader(in);
+            int count = 0;
+            while (reader.hasNext()) {
+                if (reader.next() == XMLStreamConstants.START_ELEMENT && "document".equals(reader.getLocalName())) {
+                    sink.accept(readDocument(reader));
+                    count++;
+                }
+            }
+            return count;
+        } catch (XMLStreamException e) {
+            throw new IOException("BioC XML 파싱 실패: " + e.getMessage(), e);
+        } finally {
+            if (reader != null) {
+                try {
+                    reader.close(); // 원본 스트림은 닫지 않음 (호출한 쪽 소유)
+                } catch (XMLStreamException ignored) {
+                    // 이미 실패한 경우 원래 예외를 그대로 전달
+                }
+            }
+        }
+    }
+
+    // 현재 위치가 <document>, </document>까지 읽음
+    private BioCDocument readDocument(XMLStreamReader reader) throws XMLStreamException {
+        String id = null;
+        List<BioCPassage> passages = new ArrayList<>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "id" -> id = reader.getElementText().trim();
+                case "passage" -> passages.add(readPassage(reader));
+                default -> skipElement(reader); // infon, relation 등
+            }
+        }
+        return new BioCDocument(id, passages);
+    }
+
+    private BioCPassage readPassage(XMLStreamReader reader) throws XMLStreamException {
+        String type = null;
+        String text = null;
+        List<Annotation> annotations = new ArrayList<>();
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "infon" -> {
+                    String key = reader.getAttributeValue(null, "key");
+                    String value = reader.getElementText();
+                    if ("type".equals(key)) type = value;
+                }
+                case "text" -> text = reader.getElementText();
+                case "annotation" -> annotations.add(readAnnotation(reader));
+                default -> skipElement(reader); // offset, sentence, relation 등
+            }
+        }
+        return new BioCPassage(new Infons(type, null, null), text, annotations);
+    }
+
+    private Annotation readAnnotation(XMLStreamReader reader) throws XMLStreamException {
+        String type = null, identifier = null, text = null;
+        Boolean valid = null;
+        List<Location> locations = new ArrayList<>(1);
+        while (reader.nextTag() == XMLStreamConstants.START_ELEMENT) {
+            switch (reader.getLocalName()) {
+                case "infon" -> {
+                    String key = reader.getAttributeValue(null, "key");
+                    String value = reader.getElementText();
+                    if ("type".equals(key)) type = value;
+                    else if ("identifier".equals(key)) identifier = value;
+                    else if ("valid".equals(key)) valid = Boolean.valueOf(value.trim());
+                }
+                case "location" -> {
+                    locations.add(new Location(intAttribute(reader, "offset"), intAttribute(reader, "length")));
+                    skipElement(reader);
+                }
+                case "text" -> text = reader.getElementText();
+                default -> skipElement(reader);
+            }
+        }
+        return new Annotation(locations, text, new Infons(type, identifier, valid));
+    }
+
+    private static int intAttribute(XMLStreamReader reader, String name) throws XMLStreamException {
+        String value = reader.getAttributeValue(null, name);
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NullPointerException | NumberFormatException e) {
+            throw new XMLStreamException("location의 " + name + " 값이 올바르지 않습니다: " + value, reader.getLocation());
+        }
+    }
+
+    // 현재 START_ELEMENT부터 짝이 되는 END_ELEMENT까지 건너뜀
+    private static void skipElement(XMLStreamReader reader) throws XMLStreamException {
+        int depth = 1;
+        while (depth > 0) {
+            int event = reader.next();
+            if (event == XMLStreamConstants.START_ELEMENT) depth++;
+            else if (event == XMLStreamConstants.END_ELEMENT) depth--;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.example.bioproject1.service;
+
+import java.time.Duration;
+
+/**
+ * NCBI 호출용 서킷 브레이커
+ * - CLOSED: 그대로 보냄. 연속 실패(429/5xx/시간 초과/연결 오류)가 threshold번이면 OPEN
+ * - OPEN: openDuration 동안 보내지 않고 바로 실패 (호출 쪽은 캐시/부분 결과로 대체)
+ * - HALF_OPEN: openDuration이 지나면 요청 하나만 시험으로 보내서, 성공하면 CLOSED, 실패하면 다시 OPEN
+ */
+public final class CircuitBreaker {
+
+    public enum State { CLOSED, OPEN, HALF_OPEN }
+
+    private final int failureThreshold;
+    private final long openNanos;
+
+    private State state = State.CLOSED;
+    private int consecutiveFailures;
+    private long openedAt;
+    private boolean probeInFlight;
+
+    public CircuitBreaker(int failureThreshold, Duration openDuration) {
+        this.failureThreshold = Math.max(1, failureThreshold);
+        this.openNanos = openDuration.toNanos();
+    }
+
+    /**
+     * @return 요청을 보내도 되면 true (HALF_OPEN에서는 시험 요청 하나만 true)
+     */
+    public synchronized boolean tryAcquire() {
+        if (state == State.OPEN && System.nanoTime() - openedAt >= openNanos) {
+            state = State.HALF_OPEN;
+            probeInFlight = false;
+        }
+        return switch (state) {
+            case CLOSED -> true;
+            case OPEN -> false;
+            case HALF_OPEN -> {
+                if (probeInFlight) yield false;
+                probeInFlight = true;
+                yield true;
+            }
+        };
+    }
+
+    public synchronized void onSuccess() {
+        consecutiveFailures = 0;
+        state = State.CLOSED;
+        probeInFlight = false;
+    }
+
+    public synchronized void onFailure() {
+        consecutiveFailures++;
+        if (state == State.HALF_OPEN || consecutiveFailures >= failureThreshold) {
+            state = State.OPEN;
+            openedAt = System.nanoTime();
+            probeInFlight = false;
+        }
+    }
+
+    public synchronized State state() {
+        return state;
+    }
+
+    /** OPEN 상태가 풀리기까지 남은 시간 (OPEN이 아니면 0) */
+    public synchronized Duration remainingOpen() {
+        if (state != State.OPEN) return Duration.ZERO;
+        return Duration.ofNanos(Math.max(0, openNanos - (System.nanoTime() - openedAt)));
+    }
+}
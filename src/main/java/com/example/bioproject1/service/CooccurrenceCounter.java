@@ -0,0 +1,420 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.CooccurrenceLevel;
+import com.example.bioproject1.dto.CooccurrencePair;
+import com.example.bioproject1.dto.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * 문서 집합의 개체(정규화한 식별자) 동시 출현 집계 (문장 / 구절(passage) / 문서 단위)
+ * - 개체는 (타입, 식별자)마다 int id로 인턴하고, 쌍은 (작은 id << 32 | 큰 id) long 키로 LongIntHashMap에 셉니다.
+ * - 단위 하나에 같은 개체가 여러 번 나와도 한 번으로 셉니다. (단위마다 정렬 후 중복 제거)
+ * - PMI = log2(c(x,y) * N / (c(x) * c(y))), N = 단위 수(개체가 없는 단위 포함), c(x) = x가 나온 단위 수
+ * 스레드 안전하지 않습니다. 병렬 집계는 분할마다 하나씩 만들어 add로 채우고 merge로 합칩니다.
+ */
+public final class CooccurrenceCounter {
+
+    public enum Level { SENTENCE, PASSAGE, DOCUMENT }
+
+    private static final int LEVELS = Level.values().length;
+
+    private final EntityTypeFilter types;
+    private final boolean crossTypeOnly;
+
+    // 인턴 표: 타입 id -> (식별자 -> 개체 id)
+    private final List<Map<String, Integer>> idsByType;
+    // 개체 id -> 타입 id / 식별자 / 처음 본 언급 텍스트
+    private int[] typeOf = new int[64];
+    private String[] identifierOf = new String[64];
+    private String[] nameOf = new String[64];
+    private int entityCount;
+
+    private int documentCount;
+    private final long[] units = new long[LEVELS];
+    private final int[][] entityUnits = new int[LEVELS][64]; // 단계별 개체 id -> 나온 단위 수
+    private final LongIntHashMap[] pairs = new LongIntHashMap[LEVELS];
+
+    // 문서 하나를 처리할 때 재사용하는 버퍼
+    private int[] sentenceStarts = new int[16];
+    private long[] mentions = new long[64]; // (문장 번호 << 32 | 개체 id)
+    private int[] unit = new int[64];
+    private int[] documentIds = new int[64];
+
+    public CooccurrenceCounter(EntityTypeFilter types, boolean crossTypeOnly) {
+        this.types = types;
+        this.crossTypeOnly = crossTypeOnly;
+        this.idsByType = new ArrayList<>(types.slots());
+        for (int i = 0; i < types.slots(); i++) idsByType.add(new HashMap<>());
+        for (int level = 0; level < LEVELS; level++) pairs[level] = new LongIntHashMap(1024);
+    }
+
+    /**
+     * 문서 하나의 모든 구절(제목 포함)을 집계합니다.
+     * 주석은 하이라이트와 같은 규칙(HighlightEngine.isCandidate)으로 거르고, 위치는 구절 텍스트 기준 offset으로 봅니다.
+     */
+    public void add(BioCDocument document) {
+        documentCount++;
+        int documentSize = 0;
+        if (document.passages() != null) {
+            for (BioCPassage passage : document.passages()) {
+                int passageSize = addPassage(passage);
+                documentSize = append(documentSize, passageSize);
+            }
+        }
+        emit(Level.DOCUMENT, documentIds, sortDistinct(documentIds, documentSize));
+    }
+
+    // 구절 하나: 문장 단위를 내보내고, 구절 단위 개체 목록(정렬/중복 제거)을 unit에 남김
+    private int addPassage(BioCPassage passage) {
+        int sentences = splitSentences(passage.text());
+        int count = 0;
+        if (passage.annotations() != null) {
+            for (Annotation ann : passage.annotations()) {
+                if (!HighlightEngine.isCandidate(ann, types)) continue;
+                int sentence = sentenceOf(firstOffset(ann), sentences);
+                int typeId = types.indexOf(ann.infons().type());
+                String identifiers = ann.infons().identifier();
+                int start = 0;
+                // 합쳐진 식별자(예: 348;7157)는 개체마다 따로 셈
+                for (int i = 0; i <= identifiers.length(); i++) {
+                    if (i < identifiers.length() && identifiers.charAt(i) != ';' && identifiers.charAt(i) != ',') continue;
+                    String identifier = normalizeIdentifier(identifiers.substring(start, i));
+                    start = i + 1;
+                    if (identifier == null) continue;
+                    if (count == mentions.length) mentions = Arrays.copyOf(mentions, count * 2);
+                    mentions[count++] = ((long) sentence << 32) | intern(typeId, identifier, ann.text());
+                }
+            }
+        }
+
+        // 문장 순으로 정렬한 뒤 문장마다 개체 목록을 내보냄 (같은 문장 안에서는 id 순, 중복은 건너뜀)
+        Arrays.sort(mentions, 0, count);
+        int passageSize = 0;
+        int sentencesWithEntities = 0;
+        for (int i = 0; i < count; ) {
+            int sentence = (int) (mentions[i] >>> 32);
+            int size = 0;
+            for (; i < count && (int) (mentions[i] >>> 32) == sentence; i++) {
+                int id = (int) mentions[i];
+                if (size == 0 || unit[size - 1] != id) {
+                    if (size == unit.length) unit = Arrays.copyOf(unit, size * 2);
+                    unit[size++] = id;
+                }
+            }
+            emit(Level.SENTENCE, unit, size);
+            sentencesWithEntities++;
+            // 구절 단위 목록은 mentions 앞쪽에 모아 둠 (읽은 위치보다 항상 앞이므로 덮어써도 안전)
+            for (int j = 0; j < size; j++) mentions[passageSize++] = unit[j];
+        }
+        units[Level.SENTENCE.ordinal()] += sentences - sentencesWithEntities;
+
+        if (unit.length < passageSize) unit = new int[Math.max(passageSize, unit.length * 2)];
+        for (int j = 0; j < passageSize; j++) unit[j] = (int) mentions[j];
+        int size = sortDistinct(unit, passageSize);
+        emit(Level.PASSAGE, unit, size);
+        return size;
+    }
+
+    // 구절 목록(unit 앞쪽 passageSize개)을 문서 목록 뒤에 붙임
+    private int append(int documentSize, int passageSize) {
+        if (documentSize + passageSize > documentIds.length) {
+            documentIds = Arrays.copyOf(documentIds, Math.max(documentSize + passageSize, documentIds.length * 2));
+        }
+        System.arraycopy(unit, 0, documentIds, documentSize, passageSize);
+        return documentSize + passageSize;
+    }
+
+    private static int sortDistinct(int[] ids, int size) {
+        Arrays.sort(ids, 0, size);
+        int distinct = 0;
+        for (int i = 0; i < size; i++) {
+            if (distinct == 0 || ids[distinct - 1] != ids[i]) ids[distinct++] = ids[i];
+        }
+        return distinct;
+    }
+
+    // 단위 하나 (ids는 정렬/중복 제거된 개체 id)
+    private void emit(Level level, int[] ids, int size) {
+        int l = level.ordinal();
+        units[l]++;
+        int[] counts = entityUnits[l];
+        LongIntHashMap pairCounts = pairs[l];
+        for (int i = 0; i < size; i++) {
+            int a = ids[i];
+            counts[a]++;
+            for (int j = i + 1; j < size; j++) {
+                int b = ids[j];
+                if (crossTypeOnly && typeOf[a] == typeOf[b]) continue;
+                pairCounts.addTo(((long) a << 32) | b, 1);
+            }
+        }
+    }
+
+    /**
+     * 문장 경계: [.?!] 뒤에 공백이 오고 그 다음이 대문자/숫자이면 새 문장 (약어 "e.g. the" 등은 이어짐)
+     * @return 문장 수 (sentenceStarts 앞쪽에 시작 위치)
+     */
+    private int splitSentences(String text) {
+        sentenceStarts[0] = 0;
+        int count = 1;
+        if (text == null) return count;
+        int length = text.length();
+        for (int i = 0; i < length - 2; i++) {
+            char c = text.charAt(i);
+            if (c != '.' && c != '?' && c != '!') continue;
+            int next = i + 1;
+            if (!Character.isWhitespace(text.charAt(next))) continue;
+            while (next < length && Character.isWhitespace(text.charAt(next))) next++;
+            if (next < length && (Character.isUpperCase(text.charAt(next)) || Character.isDigit(text.charAt(next)))) {
+                if (count == sentenceStarts.length) sentenceStarts = Arrays.copyOf(sentenceStarts, count * 2);
+                sentenceStarts[count++] = next;
+                i = next - 1;
+            }
+        }
+        return count;
+    }
+
+    // offset이 들어 있는 문장 번호 (시작 위치가 offset 이하인 마지막 문장)
+    private int sentenceOf(int offset, int sentences) {
+        int low = 0;
+        int high = sentences - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (sentenceStarts[mid] <= offset) low = mid;
+            else high = mid - 1;
+        }
+        return low;
+    }
+
+    private static int firstOffset(Annotation ann) {
+        List<Location> locations = ann.locations();
+        return locations == null || locations.isEmpty() ? 0 : locations.get(0).offset();
+    }
+
+    /** 식별자 정규화: 앞뒤 공백 제거, "MESH:" 접두어 대문자 통일, 비어 있거나 "-"이면 null */
+    static String normalizeIdentifier(String raw) {
+        String identifier = raw.trim();
+        if (identifier.isEmpty() || identifier.equals("-")) return null;
+        if (identifier.regionMatches(true, 0, "MESH:", 0, 5) && !identifier.startsWith("MESH:")) {
+            identifier = "MESH:" + identifier.substring(5);
+        }
+        return identifier;
+    }
+
+    private int intern(int typeId, String identifier, String mention) {
+        Integer id = idsByType.get(typeId).get(identifier);
+        if (id != null) return id;
+        int newId = entityCount++;
+        if (newId == typeOf.length) {
+            int capacity = newId * 2;
+            typeOf = Arrays.copyOf(typeOf, capacity);
+            identifierOf = Arrays.copyOf(identifierOf, capacity);
+            nameOf = Arrays.copyOf(nameOf, capacity);
+            for (int l = 0; l < LEVELS; l++) entityUnits[l] = Arrays.copyOf(entityUnits[l], capacity);
+        }
+        typeOf[newId] = typeId;
+        identifierOf[newId] = identifier;
+        nameOf[newId] = mention == null ? identifier : mention.trim();
+        idsByType.get(typeId).put(identifier, newId);
+        return newId;
+    }
+
+    /**
+     * 다른 분할의 집계를 합칩니다. (other의 개체 id를 이쪽 id로 바꿔서 더함, other는 그대로 둠)
+     * 같은 타입 필터/crossTypeOnly로 만든 집계끼리만 합칠 수 있습니다.
+     */
+    public void merge(CooccurrenceCounter other) {
+        int[] remap = new int[other.entityCount];
+        for (int id = 0; id < other.entityCount; id++) {
+            remap[id] = intern(other.typeOf[id], other.identifierOf[id], other.nameOf[id]);
+        }
+        documentCount += other.documentCount;
+        for (int l = 0; l < LEVELS; l++) {
+            units[l] += other.units[l];
+            for (int id = 0; id < other.entityCount; id++) {
+                entityUnits[l][remap[id]] += other.entityUnits[l][id];
+            }
+            LongIntHashMap from = other.pairs[l];
+            LongIntHashMap to = pairs[l];
+            for (int slot = 0; slot < from.capacity(); slot++) {
+                long key = from.keyAt(slot);
+                if (key == 0) continue;
+                int a = remap[(int) (key >>> 32)];
+                int b = remap[(int) key];
+                to.addTo(a < b ? ((long) a << 32) | b : ((long) b << 32) | a, from.valueAt(slot));
+            }
+        }
+    }
+
+    public int documentCount() {
+        return documentCount;
+    }
+
+    public int entityCount() {
+        return entityCount;
+    }
+
+    /** 단위 수 (개체가 없는 단위 포함) */
+    public long units(Level level) {
+        return units[level.ordinal()];
+    }
+
+    /** 한 번 이상 함께 나온 쌍의 수 */
+    public int distinctPairs(Level level) {
+        return pairs[level.ordinal()].size();
+    }
+
+    /** 두 개체가 함께 나온 단위 수 (타입은 EntityTypeFilter 표기, 식별자는 정규화 전 값도 가능) */
+    public int count(Level level, String typeA, String identifierA, String typeB, String identifierB) {
+        int a = idOf(typeA, identifierA);
+        int b = idOf(typeB, identifierB);
+        if (a < 0 || b < 0 || a == b) return 0;
+        return pairs[level.ordinal()].get(a < b ? ((long) a << 32) | b : ((long) b << 32) | a);
+    }
+
+    private int idOf(String type, String identifier) {
+        int typeId = types.indexOf(type);
+        String normalized = identifier == null ? null : normalizeIdentifier(identifier);
+        if (typeId < 0 || normalized == null) return -1;
+        Integer id = idsByType.get(typeId).get(normalized);
+        return id == null ? -1 : id;
+    }
+
+    /**
+     * 단계 하나의 요약: 횟수 상위 top개, PMI 상위 top개 (PMI는 minCount번 이상 함께 나온 쌍만)
+     */
+    public CooccurrenceLevel summarize(Level level, int top, int minCount) {
+        int[] rank = ranks();
+        return new CooccurrenceLevel(level.name().toLowerCase(Locale.ROOT), units(level), distinctPairs(level),
+                top(level, top, 1, false, rank), top(level, top, Math.max(1, minCount), true, rank));
+    }
+
+    private double pmi(int l, int a, int b, int count) {
+        double expected = (double) entityUnits[l][a] * entityUnits[l][b];
+        return Math.log(count * (double) units[l] / expected) / Math.log(2);
+    }
+
+    /*
+     * 상위 k개: 슬롯 번호를 담는 크기 k의 최소 힙 (쌍 객체는 결과로 나갈 k개만 만듦)
+     * 점수가 같으면 횟수가 많은 쪽, 그래도 같으면 (타입, 식별자) 순 → 병렬 분할 방식과 무관하게 같은 결과
+     */
+    private List<CooccurrencePair> top(Level level, int k, int minCount, boolean byPmi, int[] rank) {
+        int l = level.ordinal();
+        LongIntHashMap map = pairs[l];
+        int[] heap = new int[Math.max(0, k)];
+        double[] scores = new double[heap.length];
+        int size = 0;
+        if (heap.length > 0) {
+            for (int slot = 0; slot < map.capacity(); slot++) {
+                long key = map.keyAt(slot);
+                if (key == 0) continue;
+                int count = map.valueAt(slot);
+                if (count < minCount) continue;
+                double score = byPmi ? pmi(l, (int) (key >>> 32), (int) key, count) : count;
+                if (size < heap.length) {
+                    heap[size] = slot;
+                    scores[size] = score;
+                    siftUp(map, rank, heap, scores, size++);
+                } else if (worse(map, rank, scores[0], heap[0], score, slot)) {
+                    heap[0] = slot;
+                    scores[0] = score;
+                    siftDown(map, rank, heap, scores, size);
+                }
+            }
+        }
+
+        // 힙에서 가장 나쁜 것부터 꺼내 뒤쪽부터 채움
+        CooccurrencePair[] result = new CooccurrencePair[size];
+        for (int n = size - 1; n >= 0; n--) {
+            int slot = heap[0];
+            result[n] = toPair(l, map.keyAt(slot), map.valueAt(slot));
+            heap[0] = heap[n];
+            scores[0] = scores[n];
+            siftDown(map, rank, heap, scores, n);
+        }
+        return List.of(result);
+    }
+
+    // x가 y보다 순위가 낮으면 true
+    private static boolean worse(LongIntHashMap map, int[] rank, double scoreX, int slotX, double scoreY, int slotY) {
+        if (scoreX != scoreY) return scoreX < scoreY;
+        int countX = map.valueAt(slotX);
+        int countY = map.valueAt(slotY);
+        if (countX != countY) return countX < countY;
+        return pairRank(rank, map.keyAt(slotX)) > pairRank(rank, map.keyAt(slotY));
+    }
+
+    private static long pairRank(int[] rank, long key) {
+        int a = rank[(int) (key >>> 32)];
+        int b = rank[(int) key];
+        return a < b ? ((long) a << 32) | b : ((long) b << 32) | a;
+    }
+
+    private static void siftUp(LongIntHashMap map, int[] rank, int[] heap, double[] scores, int i) {
+        while (i > 0) {
+            int parent = (i - 1) >>> 1;
+            if (!worse(map, rank, scores[i], heap[i], scores[parent], heap[parent])) return;
+            swap(heap, scores, i, parent);
+            i = parent;
+        }
+    }
+
+    private static void siftDown(LongIntHashMap map, int[] rank, int[] heap, double[] scores, int size) {
+        int i = 0;
+        while (true) {
+            int child = 2 * i + 1;
+            if (child >= size) return;
+            if (child + 1 < size && worse(map, rank, scores[child + 1], heap[child + 1], scores[child], heap[child])) {
+                child++;
+            }
+            if (!worse(map, rank, scores[child], heap[child], scores[i], heap[i])) return;
+            swap(heap, scores, i, child);
+            i = child;
+        }
+    }
+
+    private static void swap(int[] heap, double[] scores, int i, int j) {
+        int slot = heap[i];
+        heap[i] = heap[j];
+        heap[j] = slot;
+        double score = scores[i];
+        scores[i] = scores[j];
+        scores[j] = score;
+    }
+
+    // 개체 id -> (타입 표기, 식별자) 정렬 순위
+    private int[] ranks() {
+        Integer[] order = new Integer[entityCount];
+        for (int id = 0; id < entityCount; id++) order[id] = id;
+        Arrays.sort(order, (x, y) -> {
+            int byType = types.name(typeOf[x]).compareTo(types.name(typeOf[y]));
+            return byType != 0 ? byType : identifierOf[x].compareTo(identifierOf[y]);
+        });
+        int[] rank = new int[entityCount];
+        for (int r = 0; r < entityCount; r++) rank[order[r]] = r;
+        return rank;
+    }
+
+    // 쌍의 두 개체는 (타입, 식별자) 순으로 A, B
+    private CooccurrencePair toPair(int l, long key, int count) {
+        int a = (int) (key >>> 32);
+        int b = (int) key;
+        int byType = types.name(typeOf[a]).compareTo(types.name(typeOf[b]));
+        if (byType > 0 || (byType == 0 && identifierOf[a].compareTo(identifierOf[b]) > 0)) {
+            int t = a;
+            a = b;
+            b = t;
+        }
+        return new CooccurrencePair(types.name(typeOf[a]), identifierOf[a], nameOf[a],
+                types.name(typeOf[b]), identifierOf[b], nameOf[b], count, pmi(l, a, b, count));
+    }
+}
@@ -0,0 +1,88 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.CooccurrenceLevel;
+import com.example.bioproject1.dto.CooccurrenceResult;
+import com.example.bioproject1.dto.SearchSummary;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
+
+/**
+ * 검색 결과 문서들의 개체 동시 출현 집계 (문장/구절/문서 단위, 횟수 순 + PMI 순 상위 쌍)
+ * 문서는 하이라이트 검색과 같은 경로(로컬 코퍼스, 문서 캐시, export)로 모으고,
+ * 집계는 전용 풀에서 분할마다 CooccurrenceCounter를 하나씩 두고 돌린 뒤 마지막에 합칩니다.
+ */
+@Service
+public class CooccurrenceService {
+
+    private final PubTatorService pubTatorService;
+    private final PipelineMetrics metrics;
+    // 집계용 풀 (문서 단위 CPU 작업)
+    private final ForkJoinPool aggregationPool;
+    private final int defaultLimit;
+    private final int maxLimit;
+
+    @Autowired
+    public CooccurrenceService(PubTatorService pubTatorService,
+                               PipelineMetrics metrics,
+                               @Value("${pubtator.cooccurrence.parallelism:0}") int parallelism,
+                               @Value("${pubtator.cooccurrence.default-limit:200}") int defaultLimit,
+                               @Value("${pubtator.cooccurrence.max-limit:5000}") int maxLimit) {
+        this.pubTatorService = pubTatorService;
+        this.metrics = metrics;
+        this.aggregationPool = new ForkJoinPool(parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors());
+        this.maxLimit = Math.max(1, maxLimit);
+        this.defaultLimit = Math.max(1, Math.min(defaultLimit, this.maxLimit));
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        aggregationPool.shutdownNow();
+    }
+
+    /**
+     * @param limit 논문 수 (생략 시 pubtator.cooccurrence.default-limit, 최대 pubtator.cooccurrence.max-limit)
+     * @param crossTypeOnly true면 타입이 다른 쌍만 셈 (예: Gene-Disease)
+     * @param top 단계마다 돌려줄 상위 쌍 수
+     * @param minCount PMI 순위에 넣을 최소 동시 출현 수 (드문 쌍의 PMI가 과대평가되는 것 방지)
+     */
+    public CooccurrenceResult aggregate(String keywords, Integer limit, EntityTypeFilter types, boolean crossTypeOnly,
+                                        int top, int minCount) throws IOException, InterruptedException {
+        int resolvedLimit = limit == null ? defaultLimit : Math.max(1, Math.min(limit, maxLimit));
+        List<BioCDocument> documents = new ArrayList<>();
+        SearchSummary search = pubTatorService.searchDocuments(keywords, resolvedLimit, Function.identity(), documents::add);
+
+        long started = System.nanoTime();
+        CooccurrenceCounter counter = count(documents, types, crossTypeOnly);
+        List<CooccurrenceLevel> levels = new ArrayList<>();
+        for (CooccurrenceCounter.Level level : CooccurrenceCounter.Level.values()) {
+            levels.add(counter.summarize(level, top, minCount));
+        }
+        long elapsed = System.nanoTime() - started;
+        metrics.recordCooccurrence(elapsed, counter.documentCount());
+        return new CooccurrenceResult(search, counter.documentCount(), counter.entityCount(), levels, elapsed / 1_000_000);
+    }
+
+    /** 문서를 분할마다 따로 센 뒤 합침 (분할 방식과 관계없이 결과는 같음) */
+    public CooccurrenceCounter count(List<BioCDocument> documents, EntityTypeFilter types, boolean crossTypeOnly)
+            throws InterruptedException {
+        try {
+            return aggregationPool.submit(() -> documents.parallelStream().collect(
+                    () -> new CooccurrenceCounter(types, crossTypeOnly),
+                    CooccurrenceCounter::add,
+                    CooccurrenceCounter::merge)).get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException runtime) throw runtime;
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
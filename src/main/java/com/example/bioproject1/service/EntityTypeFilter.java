@@ -0,0 +1,130 @@
+package com.example.bioproject1.service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+import java.util.TreeSet;
+
+/**
+ * 하이라이트할 주석 타입 집합 (대소문자 무시)
+ * 한 번 만들어 두고 주석마다 해시 한 번 + 길이가 같은 후보와 비교 한 번으로 판단합니다. (문자열 생성 없음)
+ * 요청마다 다른 타입을 쓰려면 parse("Gene,Disease")로 만든 필터를 넘깁니다.
+ * 타입마다 작은 정수 id(표의 칸 번호)가 있어서, 엔진은 주석 타입을 문자열 대신 id로 들고 다닙니다.
+ */
+public final class EntityTypeFilter {
+
+    /** PubTator 웹사이트가 하이라이트하는 주요 타입들 (기본값) */
+    public static final List<String> CORE_TYPES = List.of(
+            "Gene", "Disease", "Chemical", "Species",
+            "Phenotype", // (예: amyloid accumulation)
+            "Mutation", "CellLine", "SequenceVariant", "Protein");
+
+    public static final EntityTypeFilter CORE = of(CORE_TYPES);
+
+    private final String[] table;      // open addressing, 크기는 2의 거듭제곱 (칸 번호 = 타입 id)
+    private final String[] cssClasses; // 타입 id -> "entity-gene" 등
+    private final int mask;
+    private final String key;          // 소문자 정렬 목록 (캐시 키용)
+
+    private EntityTypeFilter(Collection<String> types) {
+        TreeSet<String> names = new TreeSet<>(String.CASE_INSENSITIVE_ORDER);
+        for (String type : types) {
+            if (type != null && !type.isBlank()) names.add(canonicalName(type.trim()));
+        }
+        int size = Integer.highestOneBit(Math.max(1, names.size()) * 4 - 1) << 1;
+        this.table = new String[size];
+        this.cssClasses = new String[size];
+        this.mask = size - 1;
+        List<String> lower = new ArrayList<>(names.size());
+        for (String name : names) {
+            int i = hash(name) & mask;
+            while (table[i] != null) i = (i + 1) & mask;
+            table[i] = name;
+            cssClasses[i] = "entity-" + name.toLowerCase(Locale.ROOT).replaceAll("[^a-z0-9]+", "-");
+            lower.add(name.toLowerCase(Locale.ROOT));
+        }
+        this.key = String.join(",", lower);
+    }
+
+    public static EntityTypeFilter of(Collection<String> types) {
+        return new EntityTypeFilter(types);
+    }
+
+    /**
+     * 쉼표로 구분한 타입 목록 (예: "Gene, Disease"), 비어 있으면 기본값(CORE)
+     */
+    public static EntityTypeFilter parse(String types) {
+        if (types == null || types.isBlank()) return CORE;
+        EntityTypeFilter filter = new EntityTypeFilter(List.of(types.split(",")));
+        return filter.key.equals(CORE.key) ? CORE : filter;
+    }
+
+    public boolean matches(String type) {
+        return indexOf(type) >= 0;
+    }
+
+    /**
+     * @return 타입 id (0 ~ slots()-1), 집합에 없으면 -1
+     */
+    public int indexOf(String type) {
+        if (type == null) return -1;
+        int length = type.length();
+        for (int i = hash(type) & mask; ; i = (i + 1) & mask) {
+            String candidate = table[i];
+            if (candidate == null) return -1;
+            if (candidate.length() == length && candidate.regionMatches(true, 0, type, 0, length)) return i;
+        }
+    }
+
+    /** 타입 id의 범위 (id별 배열 크기) */
+    public int slots() {
+        return table.length;
+    }
+
+    /** 타입 id의 표기 (기본 타입은 CORE_TYPES 표기, 예: gene -> Gene) */
+    public String name(int typeId) {
+        return table[typeId];
+    }
+
+    /** 타입 id의 CSS 클래스 (예: entity-gene) */
+    public String cssClass(int typeId) {
+        return cssClasses[typeId];
+    }
+
+    /** 같은 타입 집합이면 같은 값 (대소문자/순서 무시) */
+    public String key() {
+        return key;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof EntityTypeFilter other && key.equals(other.key);
+    }
+
+    @Override
+    public int hashCode() {
+        return key.hashCode();
+    }
+
+    @Override
+    public String toString() {
+        return key;
+    }
+
+    private static String canonicalName(String type) {
+        for (String core : CORE_TYPES) {
+            if (core.equalsIgnoreCase(type)) return core;
+        }
+        return type;
+    }
+
+    // equalsIgnoreCase로 같은 문자열은 같은 해시 (toUpperCase 후 toLowerCase, String.CASE_INSENSITIVE_ORDER와 같은 기준)
+    private static int hash(String s) {
+        int h = 0;
+        for (int i = 0; i < s.length(); i++) {
+            h = 31 * h + Character.toLowerCase(Character.toUpperCase(s.charAt(i)));
+        }
+        return h ^ (h >>> 16);
+    }
+}
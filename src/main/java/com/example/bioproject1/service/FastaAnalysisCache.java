@@ -0,0 +1,142 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaCacheStats;
+import com.example.bioproject1.entity.FastaAnalysisCacheEntry;
+import com.example.bioproject1.repository.FastaAnalysisCacheRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Collections;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 서열 내용 기반(content-addressed) FASTA 분석 결과 캐시
+ * - 키: 대문자로 정규화한 서열의 SHA-256
+ * - 1차: 메모리 (Caffeine, 항목 수 기준 제거)
+ * - 2차: H2 테이블 (fasta_analysis_cache), 재시작 후에도 유지
+ * 같은 참조 서열을 다시 올리면 해시 계산 비용만 들고 GC/코돈 계산은 건너뜁니다.
+ */
+@Service
+public class FastaAnalysisCache {
+
+    private static final int HASH_CHUNK = 8 * 1024;
+
+    /** 캐시에 저장되는 레코드 분석 값 (id, sequence는 업로드마다 다르므로 제외) */
+    public record Stats(int length, double gcContent, Map<String, Integer> codonUsage) {}
+
+    private final FastaAnalysisCacheRepository repository;
+    private final ObjectMapper objectMapper;
+    private final Cache<String, Stats> memory;
+    private final boolean enabled;
+    private final int minLength;
+
+    private final LongAdder memoryHits = new LongAdder();
+    private final LongAdder databaseHits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public FastaAnalysisCache(FastaAnalysisCacheRepository repository,
+                              ObjectMapper objectMapper,
+                              @Value("${fasta.cache.enabled:true}") boolean enabled,
+                              @Value("${fasta.cache.min-length:1000}") int minLength,
+                              @Value("${fasta.cache.max-entries:10000}") long maxEntries) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.minLength = minLength;
+        this.memory = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .recordStats()
+                .build();
+    }
+
+    /** 너무 짧은 레코드는 해시/DB 비용이 계산 비용보다 커서 캐시하지 않음 */
+    public boolean isCacheable(FastaRecord record) {
+        return enabled && record.length() >= minLength;
+    }
+
+    public Optional<Stats> get(String hash) {
+        Stats stats = memory.getIfPresent(hash);
+        if (stats != null) {
+            memoryHits.increment();
+            return Optional.of(stats);
+        }
+        try {
+            Optional<Stats> stored = repository.findById(hash).map(this::toStats);
+            if (stored.isPresent()) {
+                databaseHits.increment();
+                memory.put(hash, stored.get());
+                return stored;
+            }
+        } catch (RuntimeException e) {
+            // DB 계층 오류는 캐시 미스로 취급 (분석 자체는 계속 진행)
+        }
+        misses.increment();
+        return Optional.empty();
+    }
+
+    public void put(String hash, Stats stats) {
+        Stats immutable = new Stats(stats.length(), stats.gcContent(),
+                Collections.unmodifiableMap(new LinkedHashMap<>(stats.codonUsage())));
+        memory.put(hash, immutable);
+        try {
+            // 존재 확인 없이 MERGE 한 번 (같은 해시면 값도 같으므로 덮어써도 무방)
+            repository.upsert(hash, stats.length(), stats.gcContent(),
+                    objectMapper.writeValueAsString(stats.codonUsage()));
+        } catch (JsonProcessingException | RuntimeException e) {
+            // DB 계층 오류는 무시 (메모리 계층에는 이미 저장됨)
+        }
+    }
+
+    public FastaCacheStats stats() {
+        long memoryHitCount = memoryHits.sum();
+        long databaseHitCount = databaseHits.sum();
+        long missCount = misses.sum();
+        long total = memoryHitCount + databaseHitCount + missCount;
+        return new FastaCacheStats(memoryHitCount, databaseHitCount, missCount,
+                memory.stats().evictionCount(), memory.estimatedSize(),
+                total == 0 ? 0.0 : (double) (memoryHitCount + databaseHitCount) / total);
+    }
+
+    /**
+     * 정규화된 서열의 SHA-256 (소문자 a-z만 대문자로 바꿔서 해시, 원본 배열은 건드리지 않음)
+     */
+    public static String hash(byte[] sequence) {
+        MessageDigest digest;
+        try {
+            digest = MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+        byte[] chunk = new byte[Math.min(HASH_CHUNK, Math.max(1, sequence.length))];
+        for (int from = 0; from < sequence.length; from += chunk.length) {
+            int n = Math.min(chunk.length, sequence.length - from);
+            for (int i = 0; i < n; i++) {
+                byte b = sequence[from + i];
+                chunk[i] = (b >= 'a' && b <= 'z') ? (byte) (b - 32) : b;
+            }
+            digest.update(chunk, 0, n);
+        }
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private Stats toStats(FastaAnalysisCacheEntry entry) {
+        try {
+            Map<String, Integer> codonUsage = objectMapper.readValue(entry.getCodonUsageJson(),
+                    new TypeReference<LinkedHashMap<String, Integer>>() {});
+            return new Stats(entry.getLength(), entry.getGcContent(), Collections.unmodifiableMap(codonUsage));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("캐시 항목을 읽을 수 없습니다: " + entry.getSequenceHash(), e);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.example.bioproject1.service;
+
+/**
+ * FASTA 분석 옵션
+ * @param parallel          레코드를 여러 코어에 나눠 분석할지 여부
+ * @param includeSequence   결과에 sequence 문자열을 포함할지 여부
+ * @param maxSequenceLength sequence를 이 길이로 잘라서 포함 (0 이하 = 자르지 않음)
+ * @param sixFrame          6개 frame 코돈 사용과 ORF 탐색 단계를 추가로 실행할지 여부
+ * @param minOrfLength      결과에 포함할 ORF 최소 길이 (염기 수, 종결 코돈 포함)
+ */
+public record FastaAnalysisOptions(
+        boolean parallel,
+        boolean includeSequence,
+        int maxSequenceLength,
+        boolean sixFrame,
+        int minOrfLength
+) {
+
+    public static final int DEFAULT_MIN_ORF_LENGTH = 300;
+
+    /** 기존 /api/fasta/analyze 동작 (순차, 전체 서열 포함) */
+    public static final FastaAnalysisOptions DEFAULT = new FastaAnalysisOptions(false, true, 0);
+
+    public FastaAnalysisOptions(boolean parallel, boolean includeSequence, int maxSequenceLength) {
+        this(parallel, includeSequence, maxSequenceLength, false, DEFAULT_MIN_ORF_LENGTH);
+    }
+
+    public FastaAnalysisOptions withParallel(boolean parallel) {
+        return new FastaAnalysisOptions(parallel, includeSequence, maxSequenceLength, sixFrame, minOrfLength);
+    }
+
+    public FastaAnalysisOptions withSixFrame(boolean sixFrame, int minOrfLength) {
+        return new FastaAnalysisOptions(parallel, includeSequence, maxSequenceLength, sixFrame, minOrfLength);
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaAnalysisResult;
+import com.example.bioproject1.dto.FastaBatchFileResult;
+import com.example.bioproject1.dto.FastaBatchResult;
+import com.example.bioproject1.dto.FastaBatchTotals;
+import jakarta.annotation.PreDestroy;
+import org.apache.commons.compress.archivers.ArchiveEntry;
+import org.apache.commons.compress.archivers.ArchiveInputStream;
+import org.apache.commons.compress.archivers.tar.TarArchiveInputStream;
+import org.apache.commons.compress.archivers.zip.ZipArchiveInputStream;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.SequenceInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * FASTA 파일 여러 개를 묶은 압축 파일(zip, tar, tar.gz / 안의 파일은 .gz여도 됨) 일괄 분석
+ * - 압축 파일은 임시 파일 없이 스트림으로 한 번만 읽고, 파일마다 작업 풀에서 따로 분석합니다.
+ * - 읽었지만 아직 결과를 거두지 않은 파일은 요청마다 최대 maxInFlight개 (파일 하나는 memberBufferBytes까지만 메모리에 올림)
+ *   그보다 큰 파일은 버퍼에 올린 앞부분 + 남은 스트림을 읽는 스레드에서 바로 분석합니다.
+ * - 모든 요청을 합쳐서도 버퍼에 올린 파일은 bufferSlots개(fasta.batch.max-buffer-mb / member-buffer-kb)까지만 둡니다.
+ *   자리가 없으면 먼저 자기 요청의 가장 오래된 결과를 거두고, 거둘 것이 없을 때만 기다립니다. (요청끼리 서로 기다리지 않음)
+ * - 합계는 파일별 부분 합계(염기 수, GC 수, 코돈 수)를 압축 파일 안의 순서대로 병합해서 만듭니다. (서열을 다시 읽지 않음)
+ */
+@Service
+public class FastaBatchService {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int SIGNATURE_SIZE = 512;
+
+    private final FastaService fastaService;
+    // 파일 단위 분석 풀 (모든 일괄 요청 공통, 요청마다 maxInFlight로 대기 작업 수 제한)
+    private final ExecutorService executor;
+    private final int maxInFlight;
+    private final int memberBufferBytes;
+    // 버퍼에 올려 두고 아직 거두지 않은 파일 자리 (모든 일괄 요청 공통)
+    private final Semaphore bufferSlots;
+
+    public FastaBatchService(FastaService fastaService,
+                             @Value("${fasta.batch.threads:0}") int threads,
+                             @Value("${fasta.batch.max-in-flight:0}") int maxInFlight,
+                             @Value("${fasta.batch.member-buffer-kb:8192}") int memberBufferKb,
+                             @Value("${fasta.batch.max-buffer-mb:512}") int maxBufferMb) {
+        int workers = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.fastaService = fastaService;
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : workers * 2;
+        int bufferKb = Math.max(1, memberBufferKb);
+        this.memberBufferBytes = bufferKb * 1024;
+        this.bufferSlots = new Semaphore(Math.max(1, maxBufferMb * 1024 / bufferKb));
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(workers, r -> {
+            Thread t = new Thread(r, "fasta-batch-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * @param options 레코드별 분석 옵션 (parallel은 무시, 파일 단위로 병렬)
+     * @throws FastaFormatException zip/tar 압축 파일이 아닌 경우 (안의 파일이 FASTA가 아닌 것은 그 파일의 error로)
+     */
+    public FastaBatchResult analyzeArchive(InputStream in, FastaAnalysisOptions options) throws IOException {
+        long started = System.nanoTime();
+        FastaAnalysisOptions perFile = options.withParallel(false);
+        ArchiveInputStream<?> archive = open(decompress(new BufferedInputStream(in, BUFFER_SIZE)));
+
+        List<FastaBatchFileResult> files = new ArrayList<>();
+        Totals totals = new Totals();
+        // window의 파일마다 bufferSlots 자리 하나 (거둘 때 반납)
+        Deque<Future<FileOutcome>> window = new ArrayDeque<>();
+        try (archive) {
+            ArchiveEntry entry;
+            while ((entry = archive.getNextEntry()) != null) {
+                if (entry.isDirectory() || isMetadata(entry.getName())) continue;
+                acquireSlot(window, files, totals);
+                try {
+                    window.addLast(submit(archive, entry, perFile));
+                } catch (IOException | RuntimeException e) {
+                    bufferSlots.release();
+                    throw e;
+                }
+                while (window.size() >= maxInFlight) {
+                    collectOldest(window, files, totals);
+                }
+            }
+            while (!window.isEmpty()) {
+                collectOldest(window, files, totals);
+            }
+        } finally {
+            // 예외로 중단된 경우 남은 작업 취소
+            for (Future<FileOutcome> pending : window) {
+                pending.cancel(true);
+            }
+            bufferSlots.release(window.size());
+        }
+        return new FastaBatchResult(files, totals.toDto(), (System.nanoTime() - started) / 1_000_000);
+    }
+
+    // 압축 파일 안의 파일 하나: 버퍼에 다 들어가면 작업 풀로, 더 크면 이 스레드에서 바로 분석
+    private Future<FileOutcome> submit(ArchiveInputStream<?> archive, ArchiveEntry entry,
+                                       FastaAnalysisOptions options) throws IOException {
+        String name = entry.getName();
+        if (!archive.canReadEntryData(entry)) {
+            return CompletableFuture.completedFuture(FileOutcome.failed(name, "지원하지 않는 압축 방식입니다."));
+        }
+        byte[] head = archive.readNBytes(memberBufferBytes);
+        if (head.length < memberBufferBytes) {
+            return executor.submit(() -> analyzeFile(name, new ByteArrayInputStream(head), options));
+        }
+        // 버퍼보다 큰 파일: 나머지는 압축 파일 스트림에서 바로 읽으며 이 스레드에서 분석
+        InputStream rest = new SequenceInputStream(new ByteArrayInputStream(head), closeShield(archive));
+        return CompletableFuture.completedFuture(analyzeFile(name, rest, options));
+    }
+
+    // 자리가 없으면 이 요청의 가장 오래된 결과부터 거두고, 거둘 것이 없을 때만 다른 요청이 반납하기를 기다림
+    private void acquireSlot(Deque<Future<FileOutcome>> window, List<FastaBatchFileResult> files,
+                             Totals totals) throws IOException {
+        while (!bufferSlots.tryAcquire()) {
+            if (window.isEmpty()) {
+                try {
+                    bufferSlots.acquire();
+                    return;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new InterruptedIOException("FASTA 일괄 분석이 중단되었습니다.");
+                }
+            }
+            collectOldest(window, files, totals);
+        }
+    }
+
+    private void collectOldest(Deque<Future<FileOutcome>> window, List<FastaBatchFileResult> files,
+                               Totals totals) throws IOException {
+        Future<FileOutcome> oldest = window.pollFirst();
+        try {
+            collect(await(oldest), files, totals);
+        } finally {
+            bufferSlots.release();
+        }
+    }
+
+    private static void collect(FileOutcome outcome, List<FastaBatchFileResult> files, Totals totals) {
+        files.add(outcome.result());
+        totals.merge(outcome.totals());
+    }
+
+    // 파일 하나 (작업 풀 또는 큰 파일이면 읽는 스레드): FASTA가 아니거나 읽다 실패하면 그 파일만 error
+    private FileOutcome analyzeFile(String name, InputStream in, FastaAnalysisOptions options) {
+        List<FastaAnalysisResult> results = new ArrayList<>();
+        Totals partial = new Totals();
+        try {
+            fastaService.analyzeFasta(decompress(new BufferedInputStream(in, BUFFER_SIZE)), options, result -> {
+                results.add(result);
+                partial.add(result);
+            });
+        } catch (IOException e) {
+            return FileOutcome.failed(name, String.valueOf(e.getMessage()));
+        }
+        partial.files = 1;
+        FastaBatchFileResult result = new FastaBatchFileResult(name, results.size(), partial.bases,
+                partial.gcContent(), results, null);
+        return new FileOutcome(result, partial);
+    }
+
+    private static FileOutcome await(Future<FileOutcome> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("FASTA 일괄 분석이 중단되었습니다.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+    }
+
+    // 앞부분 서명으로 형식 판단 (확장자와 무관): zip / tar (gzip은 decompress에서 이미 풀림)
+    private static ArchiveInputStream<?> open(BufferedInputStream in) throws IOException {
+        in.mark(SIGNATURE_SIZE);
+        byte[] signature = new byte[SIGNATURE_SIZE];
+        int length = in.readNBytes(signature, 0, SIGNATURE_SIZE);
+        in.reset();
+        if (ZipArchiveInputStream.matches(signature, length)) {
+            // 데이터 서술자가 붙은 STORED 항목도 읽음 (일부 zip 도구가 이렇게 만듦)
+            return new ZipArchiveInputStream(in, StandardCharsets.UTF_8.name(), true, true);
+        }
+        if (TarArchiveInputStream.matches(signature, length)) {
+            return new TarArchiveInputStream(in);
+        }
+        throw new FastaFormatException("zip 또는 tar(.tar.gz) 압축 파일이 아닙니다.");
+    }
+
+    // 앞의 2바이트가 gzip 매직이면 풀어서 읽음 (확장자와 무관)
+    private static BufferedInputStream decompress(BufferedInputStream in) throws IOException {
+        in.mark(2);
+        int b0 = in.read();
+        int b1 = in.read();
+        in.reset();
+        if (b0 == 0x1f && b1 == 0x8b) {
+            return new BufferedInputStream(new GZIPInputStream(in, BUFFER_SIZE), BUFFER_SIZE);
+        }
+        return in;
+    }
+
+    // macOS가 zip에 넣는 메타데이터 파일 (__MACOSX/, ._이름, .DS_Store)
+    private static boolean isMetadata(String name) {
+        String base = name.substring(name.lastIndexOf('/') + 1);
+        return name.startsWith("__MACOSX/") || base.startsWith("._") || base.equals(".DS_Store");
+    }
+
+    // 분석기가 스트림을 닫아도 압축 파일 전체가 닫히지 않도록 close()를 막음
+    private static InputStream closeShield(InputStream in) {
+        return new FilterInputStream(in) {
+            @Override
+            public void close() {
+            }
+        };
+    }
+
+    private record FileOutcome(FastaBatchFileResult result, Totals totals) {
+
+        static FileOutcome failed(String name, String error) {
+            Totals totals = new Totals();
+            totals.failedFiles = 1;
+            return new FileOutcome(new FastaBatchFileResult(name, 0, 0, 0.0, null, error), totals);
+        }
+    }
+
+    /**
+     * 부분 합계 (파일 하나 또는 병합한 여러 파일)
+     * GC 수는 레코드 결과의 GC 비율과 길이로 되돌림 (캐시 적중 레코드도 같은 방식, 길이 2^31 미만이면 정확)
+     */
+    private static final class Totals {
+        private int files;
+        private int failedFiles;
+        private long records;
+        private long bases;
+        private long gcBases;
+        private final Map<String, Long> codonUsage = new TreeMap<>();
+
+        void add(FastaAnalysisResult result) {
+            records++;
+            bases += result.getLength();
+            gcBases += Math.round(result.getGcContent() * result.getLength() / 100);
+            if (result.getCodonUsage() != null) {
+                result.getCodonUsage().forEach((codon, count) -> codonUsage.merge(codon, (long) count, Long::sum));
+            }
+        }
+
+        void merge(Totals other) {
+            files += other.files;
+            failedFiles += other.failedFiles;
+            records += other.records;
+            bases += other.bases;
+            gcBases += other.gcBases;
+            other.codonUsage.forEach((codon, count) -> codonUsage.merge(codon, count, Long::sum));
+        }
+
+        double gcContent() {
+            return bases == 0 ? 0.0 : (double) gcBases / bases * 100;
+        }
+
+        FastaBatchTotals toDto() {
+            return new FastaBatchTotals(files, failedFiles, records, bases, gcBases, gcContent(), codonUsage);
+        }
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bioproject1.service;
+
+import java.io.IOException;
+
+/**
+ * 업로드된 파일이 FASTA 형식이 아닐 때 발생 (잘못된 입력)
+ */
+public class FastaFormatException extends IOException {
+
+    public FastaFormatException(String message) {
+        super(message);
+    }
+}
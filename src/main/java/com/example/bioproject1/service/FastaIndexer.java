@@ -0,0 +1,162 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaIndexEntry;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * samtools faidx 호환 .fai 인덱스를 만들고 읽고 씁니다.
+ * 레코드 안의 모든 줄(마지막 줄 제외)은 염기 수와 바이트 수가 같아야 합니다.
+ */
+public final class FastaIndexer {
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private FastaIndexer() {
+    }
+
+    /**
+     * FASTA 파일을 한 번 스트리밍으로 읽어 인덱스를 만듭니다. (서열 자체는 메모리에 올리지 않음)
+     */
+    public static List<FastaIndexEntry> build(Path fasta) throws IOException {
+        List<FastaIndexEntry> entries = new ArrayList<>();
+        Set<String> names = new HashSet<>();
+
+        byte[] buffer = new byte[BUFFER_SIZE];
+        StringBuilder header = null; // 헤더 줄을 읽는 중이면 non-null
+        String name = null;
+        long offset = 0, length = 0;
+        int lineBases = -1, lineWidth = -1;
+        boolean shortLineSeen = false;
+
+        long position = 0;  // 파일 내 현재 바이트 위치
+        int bases = 0;      // 현재 줄의 염기 수
+        int width = 0;      // 현재 줄의 바이트 수
+        boolean lineStart = true;
+
+        try (InputStream in = Files.newInputStream(fasta)) {
+            int n;
+            while ((n = in.read(buffer)) > 0) {
+                for (int i = 0; i < n; i++, position++) {
+                    byte b = buffer[i];
+                    if (header != null) {
+                        if (b == '\n') {
+                            name = firstWord(header);
+                            if (name.isEmpty() || !names.add(name)) {
+                                throw new FastaFormatException("비어 있거나 중복된 서열 이름: '" + name + "'");
+                            }
+                            header = null;
+                            offset = position + 1;
+                            length = 0;
+                            lineBases = -1;
+                            lineWidth = -1;
+                            shortLineSeen = false;
+                            lineStart = true;
+                        } else if (b != '\r') {
+                            header.append((char) (b & 0xFF));
+                        }
+                        continue;
+                    }
+                    if (lineStart && b == '>') {
+                        if (name != null) entries.add(entry(name, length, offset, lineBases, lineWidth));
+                        header = new StringBuilder();
+                        continue;
+                    }
+                    if (name == null) {
+                        if (b == '\n' || b == '\r' || b == ' ' || b == '\t') continue;
+                        throw new FastaFormatException("FASTA 파일은 '>' 헤더로 시작해야 합니다.");
+                    }
+
+                    width++;
+                    lineStart = false;
+                    if (b == '\n') {
+                        // 한 줄이 끝남: 줄 길이 규칙 확인
+                        if (bases > 0) {
+                            if (shortLineSeen) {
+                                throw new FastaFormatException("서열 '" + name + "'의 줄 길이가 일정하지 않습니다.");
+                            }
+                            if (lineBases < 0) {
+                                lineBases = bases;
+                                lineWidth = width;
+                            } else if (bases != lineBases || width != lineWidth) {
+                                if (bases > lineBases || width - bases != lineWidth - lineBases) {
+                                    throw new FastaFormatException("서열 '" + name + "'의 줄 길이가 일정하지 않습니다.");
+                                }
+                                shortLineSeen = true; // 마지막 줄만 짧을 수 있음
+                            }
+                            length += bases;
+                        } else if (lineBases >= 0) {
+                            shortLineSeen = true; // 빈 줄 뒤에는 더 이상 서열이 오면 안 됨
+                        } else {
+                            offset = position + 1; // 헤더 바로 뒤의 빈 줄은 건너뜀
+                        }
+                        bases = 0;
+                        width = 0;
+                        lineStart = true;
+                    } else if (b != '\r') {
+                        bases++;
+                    }
+                }
+            }
+        }
+        if (header != null) {
+            throw new FastaFormatException("헤더 줄이 개행 없이 끝났습니다.");
+        }
+        if (name != null) {
+            if (bases > 0) { // 개행 없이 끝난 마지막 줄
+                if (shortLineSeen || (lineBases >= 0 && bases > lineBases)) {
+                    throw new FastaFormatException("서열 '" + name + "'의 줄 길이가 일정하지 않습니다.");
+                }
+                if (lineBases < 0) {
+                    lineBases = bases;
+                    lineWidth = width + 1;
+                }
+                length += bases;
+            }
+            entries.add(entry(name, length, offset, lineBases, lineWidth));
+        }
+        return entries;
+    }
+
+    public static void write(List<FastaIndexEntry> entries, Path fai) throws IOException {
+        try (BufferedWriter writer = Files.newBufferedWriter(fai, StandardCharsets.UTF_8)) {
+            for (FastaIndexEntry entry : entries) {
+                writer.write(entry.toFaiLine());
+                writer.write('\n');
+            }
+        }
+    }
+
+    public static List<FastaIndexEntry> read(Path fai) throws IOException {
+        List<FastaIndexEntry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(fai, StandardCharsets.UTF_8)) {
+            if (line.isBlank()) continue;
+            String[] f = line.split("\t");
+            if (f.length < 5) throw new FastaFormatException(".fai 형식 오류: " + line);
+            entries.add(new FastaIndexEntry(f[0], Long.parseLong(f[1]), Long.parseLong(f[2]),
+                    Integer.parseInt(f[3]), Integer.parseInt(f[4])));
+        }
+        return entries;
+    }
+
+    private static FastaIndexEntry entry(String name, long length, long offset, int lineBases, int lineWidth) {
+        // 빈 서열은 samtools와 같이 줄 길이 0으로 기록
+        return new FastaIndexEntry(name, length, offset, Math.max(lineBases, 0), Math.max(lineWidth, 0));
+    }
+
+    private static String firstWord(CharSequence header) {
+        String h = header.toString().trim();
+        int end = 0;
+        while (end < h.length() && !Character.isWhitespace(h.charAt(end))) end++;
+        return h.substring(0, end);
+    }
+}
@@ -0,0 +1,128 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaAnalysisResult;
+import com.example.bioproject1.dto.FastaJobResultPage;
+import com.example.bioproject1.dto.FastaJobStatus;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 비동기 FASTA 분석 작업 하나의 상태/진행률/결과
+ * 상태 전이는 synchronized 메소드로만 일어나며, 종료 상태(COMPLETED/FAILED/CANCELLED)는 바뀌지 않습니다.
+ */
+public class FastaJob {
+
+    public enum State { QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED }
+
+    private final String id;
+    private final String fileName;
+    private final long totalBytes;
+    private final Instant createdAt = Instant.now();
+
+    private final AtomicLong bytesProcessed = new AtomicLong();
+    private final AtomicLong recordsProcessed = new AtomicLong();
+    private final List<FastaAnalysisResult> results = new ArrayList<>(); // guarded by this
+
+    private volatile State state = State.QUEUED;
+    private volatile String errorType;
+    private volatile String errorMessage;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private Future<?> future; // guarded by this
+
+    FastaJob(String id, String fileName, long totalBytes) {
+        this.id = id;
+        this.fileName = fileName;
+        this.totalBytes = totalBytes;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public State getState() {
+        return state;
+    }
+
+    public boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    public boolean isFinished() {
+        return state == State.COMPLETED || state == State.FAILED || state == State.CANCELLED;
+    }
+
+    Instant getFinishedAt() {
+        return finishedAt;
+    }
+
+    synchronized void attach(Future<?> future) {
+        this.future = future;
+    }
+
+    /** @return 이미 취소된 작업이면 false */
+    synchronized boolean markRunning() {
+        if (state != State.QUEUED) return false;
+        state = State.RUNNING;
+        startedAt = Instant.now();
+        return true;
+    }
+
+    synchronized void markCompleted() {
+        finish(State.COMPLETED);
+    }
+
+    synchronized void markFailed(String errorType, String errorMessage) {
+        if (isFinished()) return;
+        this.errorType = errorType;
+        this.errorMessage = errorMessage;
+        finish(State.FAILED);
+    }
+
+    /**
+     * 대기 중이거나 실행 중인 작업을 취소합니다. (실행 중이면 작업 스레드를 interrupt)
+     * @return 취소되었으면 true
+     */
+    public synchronized boolean cancel() {
+        if (isFinished()) return false;
+        finish(State.CANCELLED);
+        if (future != null) future.cancel(true);
+        return true;
+    }
+
+    private void finish(State terminal) {
+        if (isFinished()) return;
+        state = terminal;
+        finishedAt = Instant.now();
+    }
+
+    void addBytes(long bytes) {
+        bytesProcessed.addAndGet(bytes);
+    }
+
+    synchronized void addResult(FastaAnalysisResult result) {
+        results.add(result);
+        recordsProcessed.incrementAndGet();
+    }
+
+    public FastaJobStatus toStatus() {
+        long bytes = bytesProcessed.get();
+        double progress;
+        if (state == State.COMPLETED) progress = 1.0;
+        else progress = totalBytes > 0 ? Math.min(1.0, (double) bytes / totalBytes) : 0.0;
+
+        return new FastaJobStatus(id, state.name(), fileName, totalBytes, bytes, recordsProcessed.get(),
+                progress, errorType, errorMessage, createdAt, startedAt, finishedAt);
+    }
+
+    public synchronized FastaJobResultPage resultPage(int page, int size) {
+        int from = (int) Math.min((long) page * size, results.size());
+        int to = Math.min(from + size, results.size());
+        return new FastaJobResultPage(id, state.name(), page, size, results.size(),
+                new ArrayList<>(results.subList(from, to)));
+    }
+}
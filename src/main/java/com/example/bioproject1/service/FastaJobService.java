@@ -0,0 +1,151 @@
+package com.example.bioproject1.service;
+
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 대용량 FASTA 업로드를 Tomcat 요청 스레드가 아닌 별도 작업 풀에서 분석합니다.
+ * - 작업 풀 크기와 대기열 크기가 고정되어 있어, 대기열이 가득 차면 즉시 거절(RejectedExecutionException)합니다.
+ * - 진행률(레코드 수/바이트 수) 조회, 결과 페이지 조회, 취소를 지원합니다.
+ */
+@Service
+public class FastaJobService {
+
+    private final FastaService fastaService;
+    private final ThreadPoolExecutor executor;
+    private final Duration retention;
+    private final Map<String, FastaJob> jobs = new ConcurrentHashMap<>();
+
+    public FastaJobService(FastaService fastaService,
+                           @Value("${fasta.jobs.workers:2}") int workers,
+                           @Value("${fasta.jobs.queue-capacity:8}") int queueCapacity,
+                           @Value("${fasta.jobs.retention-minutes:60}") long retentionMinutes) {
+        this.fastaService = fastaService;
+        this.retention = Duration.ofMinutes(retentionMinutes);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = new ThreadPoolExecutor(workers, workers, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity),
+                r -> {
+                    Thread t = new Thread(r, "fasta-job-" + threadNumber.incrementAndGet());
+                    t.setDaemon(true);
+                    return t;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    /**
+     * 업로드 파일로 작업을 만들고 대기열에 넣습니다.
+     * 요청이 끝나면 multipart 파일이 지워지므로 작업용 임시 파일로 옮겨 두고, 작업이 끝나면 삭제합니다.
+     * @throws RejectedExecutionException 대기열이 가득 찬 경우
+     */
+    public FastaJob submit(MultipartFile file, FastaAnalysisOptions options) throws IOException {
+        evictExpiredJobs();
+        executor.purge(); // 대기 중에 취소된 작업이 대기열 자리를 차지하지 않도록 제거
+        if (executor.getQueue().remainingCapacity() == 0) {
+            throw new RejectedExecutionException("FASTA 작업 대기열이 가득 찼습니다.");
+        }
+
+        FastaJob job = new FastaJob(UUID.randomUUID().toString(), file.getOriginalFilename(), file.getSize());
+        Path upload = Files.createTempFile("fasta-job-", ".fasta");
+        try {
+            file.transferTo(upload);
+            jobs.put(job.getId(), job);
+            job.attach(executor.submit(() -> run(job, upload, options)));
+        } catch (IOException | RuntimeException e) {
+            jobs.remove(job.getId());
+            Files.deleteIfExists(upload);
+            throw e;
+        }
+        return job;
+    }
+
+    public Optional<FastaJob> find(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    private void run(FastaJob job, Path upload, FastaAnalysisOptions options) {
+        try {
+            if (!job.markRunning()) return; // 대기 중에 취소됨
+            try (InputStream in = new ProgressInputStream(Files.newInputStream(upload), job)) {
+                fastaService.analyzeFasta(in, options, result -> {
+                    if (job.isCancelled()) throw new CancellationException();
+                    job.addResult(result);
+                });
+            }
+            job.markCompleted();
+        } catch (CancellationException e) {
+            // cancel()에서 이미 CANCELLED로 바뀜
+        } catch (FastaFormatException e) {
+            job.markFailed("INVALID_INPUT", e.getMessage());
+        } catch (FastaRecordTooLargeException e) {
+            job.markFailed("RECORD_TOO_LARGE", e.getMessage());
+        } catch (Exception e) {
+            if (!job.isCancelled()) job.markFailed("INTERNAL", e.toString());
+        } finally {
+            try {
+                Files.deleteIfExists(upload);
+            } catch (IOException ignored) {
+                // 임시 디렉터리 정리는 OS에 맡김
+            }
+        }
+    }
+
+    // 보관 기간이 지난 종료 작업(결과 포함)을 메모리에서 제거
+    private void evictExpiredJobs() {
+        Instant cutoff = Instant.now().minus(retention);
+        jobs.values().removeIf(job -> job.isFinished() && job.getFinishedAt().isBefore(cutoff));
+    }
+
+    /**
+     * 읽은 바이트 수를 작업 진행률에 반영하고, 취소되면 읽기를 중단하는 스트림
+     */
+    private static class ProgressInputStream extends FilterInputStream {
+
+        private final FastaJob job;
+
+        ProgressInputStream(InputStream in, FastaJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            checkCancelled();
+            int b = super.read();
+            if (b >= 0) job.addBytes(1);
+            return b;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            checkCancelled();
+            int n = super.read(b, off, len);
+            if (n > 0) job.addBytes(n);
+            return n;
+        }
+
+        private void checkCancelled() {
+            if (job.isCancelled()) throw new CancellationException();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.bioproject1.service;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * FASTA 레코드 하나 (헤더 + 공백/개행이 제거된 서열 바이트)
+ * 서열은 ASCII 바이트 그대로 보관하고, 문자열이 필요할 때만 변환합니다.
+ */
+public record FastaRecord(
+        String id,       // '>' 뒤의 헤더 전체 (BioJava FastaReaderHelper의 key와 동일)
+        byte[] sequence  // 염기 문자 (대소문자 원본 유지)
+) {
+
+    public int length() {
+        return sequence.length;
+    }
+
+    public String sequenceAsString() {
+        return new String(sequence, StandardCharsets.ISO_8859_1);
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.bioproject1.service;
+
+import java.io.IOException;
+
+/**
+ * FASTA 레코드 하나의 서열이 읽을 수 있는 최대 길이를 넘을 때 발생 (413으로 응답)
+ */
+public class FastaRecordTooLargeException extends IOException {
+
+    public FastaRecordTooLargeException(String message) {
+        super(message);
+    }
+}
@@ -1,65 +1,214 @@
 package com.example.bioproject1.service;
 
 import com.example.bioproject1.dto.FastaAnalysisResult;
-import org.biojava.nbio.core.sequence.DNASequence;
-import org.biojava.nbio.core.sequence.io.FastaReaderHelper;
+import com.example.bioproject1.dto.GcProfileResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
-import java.io.File;
-import java.io.FileOutputStream;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.nio.charset.StandardCharsets;
 import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
 
 @Service
 public class FastaService {
 
-    public List<FastaAnalysisResult> analyzeFasta(byte[] fileBytes) throws Exception {
-        // 임시 파일 생성
-        File tempFile = File.createTempFile("upload", ".fasta");
-        try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-            fos.write(fileBytes);
-        }
+    // 병렬 분석용 풀 (레코드 단위 CPU 작업)
+    private final ForkJoinPool analysisPool;
+    // 동시에 메모리에 올라가 있을 수 있는 최대 레코드 수
+    private final int maxInFlight;
+    // 서열 해시 기반 결과 캐시 (null이면 캐시 사용 안 함)
+    private final FastaAnalysisCache cache;
+    // 레코드별 분석 시간, 레코드/염기/입력 바이트 수
+    private final PipelineMetrics metrics;
+
+    public FastaService() {
+        this(Runtime.getRuntime().availableProcessors(), 0);
+    }
+
+    public FastaService(int parallelism, int maxInFlight) {
+        this(parallelism, maxInFlight, null, PipelineMetrics.noop());
+    }
+
+    @Autowired
+    public FastaService(@Value("${fasta.analysis.parallelism:0}") int parallelism,
+                        @Value("${fasta.analysis.max-in-flight:0}") int maxInFlight,
+                        FastaAnalysisCache cache,
+                        PipelineMetrics metrics) {
+        int threads = parallelism > 0 ? parallelism : Runtime.getRuntime().availableProcessors();
+        this.analysisPool = new ForkJoinPool(threads);
+        this.maxInFlight = maxInFlight > 0 ? maxInFlight : threads * 2;
+        this.cache = cache;
+        this.metrics = metrics;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        analysisPool.shutdownNow();
+    }
+
+    public List<FastaAnalysisResult> analyzeFasta(byte[] fileBytes) throws IOException {
+        return analyzeFasta(new ByteArrayInputStream(fileBytes));
+    }
 
-        // FASTA 읽기
-        LinkedHashMap<String, DNASequence> sequences =
-                FastaReaderHelper.readFastaDNASequence(tempFile);
+    public List<FastaAnalysisResult> analyzeFasta(InputStream in) throws IOException {
+        return analyzeFasta(in, FastaAnalysisOptions.DEFAULT);
+    }
 
+    public List<FastaAnalysisResult> analyzeFastaParallel(InputStream in) throws IOException {
+        return analyzeFasta(in, FastaAnalysisOptions.DEFAULT.withParallel(true));
+    }
+
+    public List<FastaAnalysisResult> analyzeFasta(InputStream in, FastaAnalysisOptions options) throws IOException {
         List<FastaAnalysisResult> results = new ArrayList<>();
+        analyzeFasta(in, options, results::add);
+        return results;
+    }
+
+    /**
+     * 스트림에서 레코드를 하나씩 읽어 분석하고, 결과를 바로 sink에 넘깁니다.
+     * (임시 파일 없이, 레코드 하나 분량의 메모리만 사용)
+     */
+    public void analyzeFasta(InputStream in, Consumer<FastaAnalysisResult> sink) throws IOException {
+        analyzeFasta(in, FastaAnalysisOptions.DEFAULT, sink);
+    }
 
-        for (String id : sequences.keySet()) {
-            DNASequence seq = sequences.get(id);
-            String sequence = seq.getSequenceAsString();
-
-            int length = sequence.length();
-            double gcContent = calcGCContent(sequence);
-            Map<String, Integer> codonUsage = calcCodonUsage(sequence);
-
-            //콘솔용 테스트
-            System.out.println("====== FASTA 분석 결과 ======");
-            System.out.println("ID: " + id);
-            System.out.println("Length: " + length);
-            System.out.printf("GC Content: %.2f%%\n", gcContent);
-            System.out.println("Sequence (앞 50bp): " +
-                    (sequence.length() > 50 ? sequence.substring(0, 50) + "..." : sequence));
-            System.out.println("Codon Usage: " + codonUsage);
-            System.out.println("============================");
-
-            results.add(new FastaAnalysisResult(id, length, gcContent, sequence, codonUsage));
+    public void analyzeFasta(InputStream in, FastaAnalysisOptions options, Consumer<FastaAnalysisResult> sink) throws IOException {
+        FastaStreamReader reader = new FastaStreamReader(in);
+        try (reader) {
+            if (options.parallel()) {
+                analyzeParallel(reader, options, sink);
+            } else {
+                FastaRecord record;
+                while ((record = reader.next()) != null) {
+                    sink.accept(analyzeRecord(record, options));
+                }
+            }
+        } finally {
+            metrics.recordFastaInput(reader.bytesRead());
         }
+    }
 
-        return results;
+    /**
+     * 레코드를 여러 코어에 나눠 분석합니다.
+     * - 결과는 입력 순서 그대로 sink에 전달됩니다.
+     * - 읽었지만 아직 내보내지 않은 레코드는 최대 maxInFlight개로 제한되어 메모리가 일정하게 유지됩니다.
+     */
+    private void analyzeParallel(FastaStreamReader reader, FastaAnalysisOptions options,
+                                 Consumer<FastaAnalysisResult> sink) throws IOException {
+        Deque<Future<FastaAnalysisResult>> window = new ArrayDeque<>();
+        try {
+            FastaRecord record;
+            while ((record = reader.next()) != null) {
+                FastaRecord current = record;
+                window.addLast(analysisPool.submit(() -> analyzeRecord(current, options)));
+                if (window.size() >= maxInFlight) {
+                    sink.accept(await(window.pollFirst()));
+                }
+            }
+            while (!window.isEmpty()) {
+                sink.accept(await(window.pollFirst()));
+            }
+        } finally {
+            // 예외로 중단된 경우 남은 작업 취소
+            for (Future<FastaAnalysisResult> pending : window) {
+                pending.cancel(true);
+            }
+        }
+    }
+
+    /**
+     * 레코드마다 슬라이딩 윈도우 GC / GC skew 프로파일을 계산합니다.
+     */
+    public List<GcProfileResult> profileGc(InputStream in, int window, int step, int maxPoints) throws IOException {
+        List<GcProfileResult> profiles = new ArrayList<>();
+        try (FastaStreamReader reader = new FastaStreamReader(in)) {
+            FastaRecord record;
+            while ((record = reader.next()) != null) {
+                profiles.add(GcSkewProfiler.profile(record, window, step, maxPoints));
+            }
+        }
+        return profiles;
+    }
+
+    private static FastaAnalysisResult await(Future<FastaAnalysisResult> future) throws IOException {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("FASTA 분석이 중단되었습니다.");
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
     }
 
-    private double calcGCContent(String seq) {
-        long gcCount = seq.chars().filter(ch -> ch == 'G' || ch == 'C').count();
-        return (double) gcCount / seq.length() * 100;
+    private FastaAnalysisResult analyzeRecord(FastaRecord record, FastaAnalysisOptions options) {
+        long started = System.nanoTime();
+        FastaAnalysisResult result = analyze(record, options);
+        metrics.recordFastaRecord(System.nanoTime() - started, record.length());
+        return result;
+    }
+
+    private FastaAnalysisResult analyze(FastaRecord record, FastaAnalysisOptions options) {
+        String id = record.id();
+
+        FastaAnalysisCache.Stats stats = cachedOrComputeStats(record);
+
+        int length = stats.length();
+        double gcContent = stats.gcContent();
+        Map<String, Integer> codonUsage = stats.codonUsage();
+
+        if (!options.sixFrame()) {
+            return new FastaAnalysisResult(id, length, gcContent, sequenceFor(record, options), codonUsage);
+        }
+        // 6-frame 단계는 minOrfLength에 따라 결과가 달라지므로 캐시하지 않고 매번 계산
+        SixFrameScanner.Result frames = SixFrameScanner.scan(record.sequence(), options.minOrfLength());
+        return new FastaAnalysisResult(id, length, gcContent, sequenceFor(record, options), codonUsage,
+                frames.frameCodonUsage(), frames.orfs());
     }
 
-    private Map<String, Integer> calcCodonUsage(String seq) {
-        Map<String, Integer> codonUsage = new HashMap<>();
-        for (int i = 0; i + 3 <= seq.length(); i += 3) {
-            String codon = seq.substring(i, i + 3);
-            codonUsage.put(codon, codonUsage.getOrDefault(codon, 0) + 1);
+    // 같은 서열을 이미 분석한 적이 있으면 해시만 계산하고 캐시된 값을 사용
+    private FastaAnalysisCache.Stats cachedOrComputeStats(FastaRecord record) {
+        if (cache == null || !cache.isCacheable(record)) {
+            return computeStats(record);
         }
-        return codonUsage;
+        String hash = FastaAnalysisCache.hash(record.sequence());
+        Optional<FastaAnalysisCache.Stats> cached = cache.get(hash);
+        if (cached.isPresent()) return cached.get();
+
+        FastaAnalysisCache.Stats stats = computeStats(record);
+        cache.put(hash, stats);
+        return stats;
+    }
+
+    private static FastaAnalysisCache.Stats computeStats(FastaRecord record) {
+        // 두 번 훑음: 염기 조성(GC)은 원본 바이트 위에서 SIMD 커널로, 코돈은 2비트 압축 서열로 셈 (BaseComposition 참고)
+        NucleotideCounts counts = BaseCountKernel.best().count(record.sequence());
+        BaseComposition composition = new BaseComposition();
+        composition.countCodons(PackedSequence.pack(record.sequence()));
+        return new FastaAnalysisCache.Stats(record.length(), counts.gcContent(), composition.toCodonUsageMap());
+    }
+
+    // 응답에 넣을 sequence (옵션에 따라 생략/잘라냄, 필요한 만큼만 문자열로 변환)
+    private static String sequenceFor(FastaRecord record, FastaAnalysisOptions options) {
+        if (!options.includeSequence()) return null;
+        int limit = options.maxSequenceLength();
+        if (limit > 0 && record.length() > limit) return preview(record, limit);
+        return record.sequenceAsString();
+    }
+
+    private static String preview(FastaRecord record, int length) {
+        return new String(record.sequence(), 0, length, StandardCharsets.ISO_8859_1);
     }
 }
@@ -0,0 +1,170 @@
+package com.example.bioproject1.service;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * InputStream 위에서 FASTA 레코드를 하나씩 읽는 스트리밍 리더
+ * - 임시 파일이나 파일 전체 byte[] 없이 MultipartFile.getInputStream()에서 바로 읽습니다.
+ * - 메모리 사용량은 파일 전체가 아니라 가장 긴 레코드 하나에 비례합니다.
+ */
+public class FastaStreamReader implements Closeable {
+
+    // JVM이 만들 수 있는 가장 큰 byte[] 길이
+    public static final int MAX_RECORD_LENGTH = Integer.MAX_VALUE - 8;
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+    private static final int INITIAL_SEQUENCE_CAPACITY = 8 * 1024;
+
+    private final InputStream in;
+    private final int maxRecordLength;
+    private final byte[] buffer = new byte[BUFFER_SIZE];
+    private int position;
+    private int limit;
+    private long bytesRead;
+
+    // 현재 레코드의 서열을 모으는 작업 버퍼 (레코드마다 재사용)
+    private byte[] scratch = new byte[INITIAL_SEQUENCE_CAPACITY];
+    private byte[] headerScratch = new byte[256];
+
+    // 이전 레코드를 읽다가 만난 다음 레코드의 헤더
+    private String pendingHeader;
+    private boolean started;
+
+    public FastaStreamReader(InputStream in) {
+        this(in, MAX_RECORD_LENGTH);
+    }
+
+    /**
+     * @param maxRecordLength 레코드 하나의 서열 최대 길이, 넘으면 FastaRecordTooLargeException
+     */
+    public FastaStreamReader(InputStream in, int maxRecordLength) {
+        if (maxRecordLength < 1 || maxRecordLength > MAX_RECORD_LENGTH) {
+            throw new IllegalArgumentException("maxRecordLength는 1 이상 " + MAX_RECORD_LENGTH + " 이하여야 합니다.");
+        }
+        this.in = in;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    /**
+     * 다음 레코드를 읽습니다.
+     * @return 더 이상 레코드가 없으면 null
+     */
+    public FastaRecord next() throws IOException {
+        if (!started) {
+            started = true;
+            pendingHeader = readFirstHeader();
+        }
+        String header = pendingHeader;
+        if (header == null) return null;
+        pendingHeader = null;
+
+        int length = 0;
+        boolean lineStart = true;
+        int b;
+        while ((b = read()) >= 0) {
+            if (b == '\n') {
+                lineStart = true;
+                continue;
+            }
+            if (lineStart && b == '>') {
+                pendingHeader = readLine();
+                break;
+            }
+            if (lineStart && b == ';') { // 구형 FASTA 주석 줄
+                skipLine();
+                continue;
+            }
+            if (b == '\r' || b == ' ' || b == '\t') continue;
+            lineStart = false;
+
+            if (!isSequenceByte(b)) {
+                throw new FastaFormatException("FASTA 서열에 허용되지 않는 문자가 있습니다: '" + (char) b
+                        + "' (레코드: " + header + ")");
+            }
+            if (length == scratch.length) {
+                if (length == maxRecordLength) {
+                    throw new FastaRecordTooLargeException("FASTA 레코드 하나가 너무 큽니다. (최대 " + maxRecordLength
+                            + " 염기, 레코드: " + header + ")");
+                }
+                scratch = Arrays.copyOf(scratch, grow(length));
+            }
+            scratch[length++] = (byte) b;
+        }
+        return new FastaRecord(header, Arrays.copyOf(scratch, length));
+    }
+
+    /** 지금까지 입력 스트림에서 읽은 바이트 수 */
+    public long bytesRead() {
+        return bytesRead;
+    }
+
+    @Override
+    public void close() throws IOException {
+        in.close();
+    }
+
+    // 첫 번째 '>' 헤더까지 건너뜀 (앞쪽의 빈 줄/주석은 허용)
+    private String readFirstHeader() throws IOException {
+        int b;
+        while ((b = read()) >= 0) {
+            if (b == '>') return readLine();
+            if (b == ';') {
+                skipLine();
+                continue;
+            }
+            if (b == '\n' || b == '\r' || b == ' ' || b == '\t') continue;
+            throw new FastaFormatException("FASTA 파일은 '>' 헤더로 시작해야 합니다.");
+        }
+        return null;
+    }
+
+    private String readLine() throws IOException {
+        int n = 0;
+        int b;
+        while ((b = read()) >= 0 && b != '\n') {
+            if (n == headerScratch.length) {
+                headerScratch = Arrays.copyOf(headerScratch, n * 2);
+            }
+            headerScratch[n++] = (byte) b;
+        }
+        return new String(headerScratch, 0, n, StandardCharsets.UTF_8).trim();
+    }
+
+    private void skipLine() throws IOException {
+        int b;
+        do {
+            b = read();
+        } while (b >= 0 && b != '\n');
+    }
+
+    private int read() throws IOException {
+        if (position == limit) {
+            limit = in.read(buffer, 0, buffer.length);
+            position = 0;
+            if (limit <= 0) {
+                limit = 0;
+                return -1;
+            }
+            bytesRead += limit;
+        }
+        return buffer[position++] & 0xFF;
+    }
+
+    // IUPAC 염기 코드, gap('-', '.'), 종결('*')
+    private static boolean isSequenceByte(int b) {
+        return (b >= 'A' && b <= 'Z') || (b >= 'a' && b <= 'z') || b == '-' || b == '.' || b == '*';
+    }
+
+    // 1.5배씩 늘리되 maxRecordLength에서 멈춤
+    private int grow(int length) {
+        int newLength = length + (length >> 1);
+        if (newLength < 0 || newLength > maxRecordLength) {
+            newLength = maxRecordLength;
+        }
+        return newLength;
+    }
+}
@@ -0,0 +1,93 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.GcProfileResult;
+import com.example.bioproject1.dto.GcWindow;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * 슬라이딩 윈도우 GC 함량 / GC skew 계산
+ * - 창을 step만큼 옮길 때 빠지는 염기와 들어오는 염기만 반영하므로, 창 크기와 상관없이 O(n)입니다.
+ * - 창 수가 maxPoints를 넘으면 연속한 창을 묶어 평균 낸 점으로 내보냅니다. (전체 창을 저장하지 않음)
+ */
+public final class GcSkewProfiler {
+
+    private static final byte G = 1, C = 2;
+    private static final byte[] GC_CLASS = new byte[256];
+
+    static {
+        GC_CLASS['G'] = G; GC_CLASS['g'] = G;
+        GC_CLASS['C'] = C; GC_CLASS['c'] = C;
+    }
+
+    private GcSkewProfiler() {
+    }
+
+    public static GcProfileResult profile(FastaRecord record, int window, int step, int maxPoints) {
+        if (window < 1 || step < 1 || maxPoints < 1) {
+            throw new IllegalArgumentException("window, step, maxPoints는 1 이상이어야 합니다.");
+        }
+        byte[] seq = record.sequence();
+        int length = seq.length;
+        long windowCount = length < window ? 0 : (long) (length - window) / step + 1;
+        int windowsPerPoint = (int) Math.max(1, (windowCount + maxPoints - 1) / maxPoints);
+        List<GcWindow> points = new ArrayList<>((int) Math.min(windowCount, maxPoints));
+        if (windowCount == 0) {
+            return new GcProfileResult(record.id(), length, window, step, 0, windowsPerPoint, points);
+        }
+
+        long g = 0, c = 0;          // 현재 창 [start, start + window)
+        long cumulative = 0;        // 서열 시작 ~ cumulativeEnd 까지의 (G-C)
+        int cumulativeEnd = 0;
+
+        // 다운샘플링 버킷
+        int inBucket = 0;
+        long bucketStart = 0;
+        double gcSum = 0, skewSum = 0;
+
+        for (int start = 0, w = 0; w < windowCount; w++, start += step) {
+            int end = start + window;
+            if (w == 0 || step >= window) {
+                // 첫 창이거나 창이 겹치지 않으면 새로 셈 (총 비용은 여전히 O(n))
+                g = 0;
+                c = 0;
+                for (int i = start; i < end; i++) {
+                    byte cls = GC_CLASS[seq[i] & 0xFF];
+                    if (cls == G) g++;
+                    else if (cls == C) c++;
+                }
+            } else {
+                // 빠지는 염기 [start - step, start), 들어오는 염기 [end - step, end)
+                for (int i = start - step; i < start; i++) {
+                    byte cls = GC_CLASS[seq[i] & 0xFF];
+                    if (cls == G) g--;
+                    else if (cls == C) c--;
+                }
+                for (int i = end - step; i < end; i++) {
+                    byte cls = GC_CLASS[seq[i] & 0xFF];
+                    if (cls == G) g++;
+                    else if (cls == C) c++;
+                }
+            }
+            for (; cumulativeEnd < end; cumulativeEnd++) {
+                byte cls = GC_CLASS[seq[cumulativeEnd] & 0xFF];
+                if (cls == G) cumulative++;
+                else if (cls == C) cumulative--;
+            }
+
+            if (inBucket == 0) bucketStart = start;
+            gcSum += (double) (g + c) / window * 100;
+            skewSum += g + c == 0 ? 0.0 : (double) (g - c) / (g + c);
+            inBucket++;
+
+            if (inBucket == windowsPerPoint || w == windowCount - 1) {
+                points.add(new GcWindow(bucketStart + 1, end, gcSum / inBucket, skewSum / inBucket, cumulative));
+                inBucket = 0;
+                gcSum = 0;
+                skewSum = 0;
+            }
+        }
+        return new GcProfileResult(record.id(), length, window, step, windowCount, windowsPerPoint, points);
+    }
+}
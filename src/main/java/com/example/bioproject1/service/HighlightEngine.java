@@ -0,0 +1,345 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.HighlightedEntity;
+import com.example.bioproject1.dto.Location;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * 초록 하이라이트 엔진: abstract passage 결합 -> 주석 구간 수집/병합 -> 이스케이프하며 HTML 렌더링
+ * - 구간은 시작/끝/타입 id/식별자를 배열 여러 개(struct-of-arrays)에 담고, (start << 32 | index) long 키를
+ *   Arrays.sort로 정렬 (박싱/비교자 없음). 시작이 같으면 긴 구간(바깥)이 먼저.
+ * - 같은 타입끼리 겹치는 구간만 병합하고 식별자는 ';'로 합침 (접촉은 병합하지 않음)
+ * - 다른 타입끼리 겹치면 안쪽 구간을 중첩하고, 엇갈리면 먼저 닫히는 쪽에서 나머지 구간을 잘라 다시 엶
+ *   예) Disease[0,10) + Gene[5,15) -> <D>..<G>..</G></D><G>..</G>
+ * - 출력은 char[] 버퍼 하나에 원문을 바로 복사하며 이스케이프, 개체 목록은 태그를 열 때 같이 만듦 (텍스트 재순회 없음)
+ * 스크래치 배열을 재사용하므로 스레드마다 하나씩 씁니다. (thread-safe 아님)
+ */
+public final class HighlightEngine {
+
+    public static final String HIGHLIGHT_CLASS = "highlight";
+
+    private static final String MARK_END = "</mark>";
+    // 이보다 커진 스크래치 버퍼는 한 번 쓰고 버림 (아주 긴 문서 하나 때문에 계속 붙잡고 있지 않도록)
+    private static final int MAX_RETAINED_CHARS = 1 << 20;
+
+    /**
+     * 하이라이트 결과 (HTML + 개체 목록)
+     * @param annotationsKept     타입/품질 규칙을 통과한 주석 수 (병합 전)
+     * @param annotationsFiltered 규칙에 걸려 제외한 주석 수
+     */
+    public record Result(String html, List<HighlightedEntity> entities, int annotationsKept, int annotationsFiltered) {}
+
+    private final Spans raw = new Spans();    // 주석 위치 그대로
+    private final Spans merged = new Spans(); // 같은 타입끼리 병합한 결과
+    private int[] lastOfType = new int[16];   // 타입 id -> 그 타입의 마지막 병합 구간
+    private int[] open = new int[16];         // 렌더링 중 열린 구간 스택 (merged 인덱스)
+    private int[] reopen = new int[16];
+    private char[] out = new char[4096];
+    private int pos;
+    private int kept;
+    private int filtered;
+
+    /**
+     * 하이라이트 대상 주석인지 확인 (대량 적재 시 필터 단계도 같은 규칙을 사용)
+     */
+    public static boolean isCandidate(Annotation ann, EntityTypeFilter types) {
+        // (필터링 1) 하이라이트할 타입이 아니면 건너뜀
+        return ann.infons() != null && types.matches(ann.infons().type()) && passesQualityRules(ann);
+    }
+
+    private static boolean passesQualityRules(Annotation ann) {
+        // (필터링 2) 텍스트가 너무 짧으면 건너뜀 (앞뒤 공백 제외 길이)
+        if (trimmedLength(ann.text()) <= 2) return false;
+        // (필터링 3) API가 명시적으로 'invalid'라고 한 것은 건너뜀
+        if (Boolean.FALSE.equals(ann.infons().valid())) return false;
+        // (필터링 4) 식별자가 없는 저품질 주석 건너뜀
+        String identifier = ann.infons().identifier();
+        return identifier != null && !identifier.equals("-");
+    }
+
+    /**
+     * abstract passage들을 공백 하나로 이어 붙이고 주석을 타입별로 하이라이트
+     */
+    public Result highlight(List<BioCPassage> abstractPassages, EntityTypeFilter types) {
+        String text = combine(abstractPassages);
+        collectSpans(abstractPassages, types, text.length());
+        mergeSameType(types.slots());
+        List<HighlightedEntity> entities = new ArrayList<>(merged.count);
+        String html = render(text, types, entities);
+        raw.clear();
+        merged.clear();
+        return new Result(html, entities, kept, filtered);
+    }
+
+    // 텍스트도 주석도 없는 빈 구절은 건너뛰고, 구절 사이에 공백 하나 (구절이 하나면 복사하지 않음)
+    private static String combine(List<BioCPassage> passages) {
+        int included = 0;
+        int length = 0;
+        String only = "";
+        for (BioCPassage passage : passages) {
+            if (isSkipped(passage)) continue;
+            String text = passage.text() != null ? passage.text() : "";
+            if (included > 0) length++;
+            length += text.length();
+            only = text;
+            included++;
+        }
+        if (included <= 1) return only;
+
+        StringBuilder sb = new StringBuilder(length);
+        boolean first = true;
+        for (BioCPassage passage : passages) {
+            if (isSkipped(passage)) continue;
+            if (!first) sb.append(' '); // 구절 사이 공백 (문장 경계 보존)
+            first = false;
+            if (passage.text() != null) sb.append(passage.text());
+        }
+        return sb.toString();
+    }
+
+    private static boolean isSkipped(BioCPassage passage) {
+        boolean emptyText = passage.text() == null || passage.text().isEmpty();
+        return emptyText && (passage.annotations() == null || passage.annotations().isEmpty());
+    }
+
+    // passage 기준 offset을 결합 텍스트 기준으로 보정하고 [0, textLen]으로 잘라서 수집
+    private void collectSpans(List<BioCPassage> passages, EntityTypeFilter types, int textLen) {
+        kept = 0;
+        filtered = 0;
+        int base = 0;
+        boolean first = true;
+        for (BioCPassage passage : passages) {
+            if (isSkipped(passage)) continue;
+            if (!first) base++; // 구절 사이 공백
+            first = false;
+
+            if (passage.annotations() != null) {
+                for (Annotation ann : passage.annotations()) {
+                    int type = ann.infons() != null ? types.indexOf(ann.infons().type()) : -1;
+                    if (type < 0 || ann.locations() == null || !passesQualityRules(ann)) {
+                        filtered++;
+                        continue;
+                    }
+                    kept++;
+                    for (Location loc : ann.locations()) {
+                        if (loc.length() <= 0) continue;
+                        int start = Math.max(0, Math.min(base + loc.offset(), textLen));
+                        int end = Math.max(0, Math.min(base + loc.offset() + loc.length(), textLen));
+                        if (start < end) raw.add(start, end, type, ann.infons().identifier());
+                    }
+                }
+            }
+            base += passage.text() != null ? passage.text().length() : 0;
+        }
+    }
+
+    // 시작 순으로 돌며 같은 타입의 마지막 구간과 겹치면 합침 (그 타입의 앞 구간들은 이미 끝났으므로 마지막만 보면 됨)
+    private void mergeSameType(int typeSlots) {
+        if (lastOfType.length < typeSlots) lastOfType = new int[typeSlots];
+        Arrays.fill(lastOfType, 0, typeSlots, -1);
+        raw.sort();
+        for (int k = 0; k < raw.count; k++) {
+            int r = raw.order[k];
+            int type = raw.types[r];
+            int m = lastOfType[type];
+            if (m >= 0 && raw.starts[r] < merged.ends[m]) {
+                merged.ends[m] = Math.max(merged.ends[m], raw.ends[r]);
+                merged.ids[m] = joinIdentifiers(merged.ids[m], raw.ids[r]);
+            } else {
+                lastOfType[type] = merged.add(raw.starts[r], raw.ends[r], type, raw.ids[r]);
+            }
+        }
+        merged.sort(); // 병합으로 끝이 늘어난 구간이 있으므로 (시작, 긴 것 먼저) 순서를 다시 맞춤
+    }
+
+    private String render(String text, EntityTypeFilter types, List<HighlightedEntity> entities) {
+        if (text.isEmpty()) return "";
+        pos = 0;
+        ensure(text.length() + merged.count * 80 + 16);
+
+        int depth = 0;
+        int next = 0;
+        int cursor = 0;
+        while (true) {
+            int nextOpen = next < merged.count ? merged.starts[merged.order[next]] : Integer.MAX_VALUE;
+            int nextClose = Integer.MAX_VALUE;
+            for (int d = 0; d < depth; d++) nextClose = Math.min(nextClose, merged.ends[open[d]]);
+            if (nextOpen == Integer.MAX_VALUE && nextClose == Integer.MAX_VALUE) break;
+
+            if (nextClose <= nextOpen) {
+                // 닫기가 먼저 (같은 위치면 닫고 나서 엶 -> 접촉한 구간은 따로)
+                appendEscaped(text, cursor, nextClose, false);
+                cursor = nextClose;
+                int lowest = 0;
+                while (merged.ends[open[lowest]] != nextClose) lowest++;
+                int reopenCount = 0;
+                for (int d = depth - 1; d >= lowest; d--) append(MARK_END);
+                for (int d = lowest; d < depth; d++) {
+                    if (merged.ends[open[d]] != nextClose) reopen[reopenCount++] = open[d];
+                }
+                depth = lowest;
+                for (int j = 0; j < reopenCount; j++) {
+                    open[depth++] = reopen[j];
+                    appendOpenTag(reopen[j], types); // 엇갈린 구간은 잘라서 다시 엶
+                }
+            } else {
+                appendEscaped(text, cursor, nextOpen, false);
+                cursor = nextOpen;
+                int s = merged.order[next++];
+                if (depth == open.length) {
+                    open = Arrays.copyOf(open, depth * 2);
+                    reopen = Arrays.copyOf(reopen, depth * 2);
+                }
+                open[depth++] = s;
+                appendOpenTag(s, types);
+                entities.add(new HighlightedEntity(types.name(merged.types[s]), merged.ids[s],
+                        merged.starts[s], merged.ends[s]));
+            }
+        }
+        appendEscaped(text, cursor, text.length(), false);
+
+        String html = new String(out, 0, pos);
+        if (out.length > MAX_RETAINED_CHARS) out = new char[4096];
+        return html;
+    }
+
+    // <mark class='highlight entity-gene' data-type='Gene' data-id='348'>
+    private void appendOpenTag(int span, EntityTypeFilter types) {
+        int type = merged.types[span];
+        append("<mark class='" + HIGHLIGHT_CLASS + " ");
+        append(types.cssClass(type));
+        append("' data-type='");
+        String name = types.name(type);
+        appendEscaped(name, 0, name.length(), true);
+        append("' data-id='");
+        String id = merged.ids[span];
+        appendEscaped(id, 0, id.length(), true);
+        append("'>");
+    }
+
+    // XSS 방지: 바꿀 문자가 없는 구간은 getChars로 한 번에 복사 (속성 값이면 따옴표도 바꿈)
+    private void appendEscaped(String text, int from, int to, boolean attribute) {
+        int run = from;
+        for (int i = from; i < to; i++) {
+            char c = text.charAt(i);
+            String entity = switch (c) {
+                case '&' -> "&amp;";
+                case '<' -> "&lt;";
+                case '>' -> "&gt;";
+                case '\'' -> attribute ? "&#39;" : null;
+                case '"' -> attribute ? "&quot;" : null;
+                default -> null;
+            };
+            if (entity == null) continue;
+            appendRaw(text, run, i);
+            append(entity);
+            run = i + 1;
+        }
+        appendRaw(text, run, to);
+    }
+
+    private void appendRaw(String text, int from, int to) {
+        if (from >= to) return;
+        ensure(pos + to - from);
+        text.getChars(from, to, out, pos);
+        pos += to - from;
+    }
+
+    private void append(String s) {
+        ensure(pos + s.length());
+        s.getChars(0, s.length(), out, pos);
+        pos += s.length();
+    }
+
+    private void ensure(int capacity) {
+        if (capacity > out.length) out = Arrays.copyOf(out, Math.max(capacity, out.length * 2));
+    }
+
+    // 같은 식별자가 이미 있으면 그대로, 아니면 ';'로 이어 붙임 (다를 때만 문자열 생성)
+    private static String joinIdentifiers(String current, String added) {
+        if (added == null || current.equals(added)) return current;
+        int from = 0;
+        while (from <= current.length()) {
+            int to = current.indexOf(';', from);
+            if (to < 0) to = current.length();
+            if (to - from == added.length() && current.regionMatches(from, added, 0, added.length())) return current;
+            from = to + 1;
+        }
+        return current + ";" + added;
+    }
+
+    private static int trimmedLength(String s) {
+        if (s == null) return 0;
+        int start = 0, end = s.length();
+        while (start < end && s.charAt(start) <= ' ') start++;
+        while (end > start && s.charAt(end - 1) <= ' ') end--;
+        return end - start;
+    }
+
+    /**
+     * 구간 목록 (struct-of-arrays, 재사용)
+     */
+    private static final class Spans {
+
+        int[] starts = new int[64];
+        int[] ends = new int[64];
+        int[] types = new int[64];
+        String[] ids = new String[64];
+        long[] keys = new long[64];
+        int[] order = new int[64]; // sort() 후: 시작 오름차순, 같은 시작이면 끝 내림차순(바깥 먼저), 타입 id 순
+        int count;
+
+        int add(int start, int end, int type, String id) {
+            if (count == starts.length) {
+                int capacity = count * 2;
+                starts = Arrays.copyOf(starts, capacity);
+                ends = Arrays.copyOf(ends, capacity);
+                types = Arrays.copyOf(types, capacity);
+                ids = Arrays.copyOf(ids, capacity);
+                keys = new long[capacity];
+                order = new int[capacity];
+            }
+            starts[count] = start;
+            ends[count] = end;
+            types[count] = type;
+            ids[count] = id;
+            return count++;
+        }
+
+        void sort() {
+            for (int i = 0; i < count; i++) keys[i] = (long) starts[i] << 32 | i; // start >= 0
+            Arrays.sort(keys, 0, count);
+            for (int i = 0; i < count; i++) order[i] = (int) keys[i];
+            // 시작이 같은 구간끼리만 (끝 내림차순, 타입 id) 삽입 정렬 (대부분 길이 1~2)
+            int runStart = 0;
+            for (int i = 1; i <= count; i++) {
+                if (i < count && starts[order[i]] == starts[order[runStart]]) continue;
+                for (int j = runStart + 1; j < i; j++) {
+                    int cur = order[j];
+                    int k = j - 1;
+                    while (k >= runStart && comesAfter(order[k], cur)) {
+                        order[k + 1] = order[k];
+                        k--;
+                    }
+                    order[k + 1] = cur;
+                }
+                runStart = i;
+            }
+        }
+
+        private boolean comesAfter(int a, int b) {
+            if (ends[a] != ends[b]) return ends[a] < ends[b];
+            return types[a] > types[b];
+        }
+
+        void clear() {
+            Arrays.fill(ids, 0, count, null); // 문서의 식별자 문자열을 붙잡고 있지 않도록
+            count = 0;
+        }
+    }
+}
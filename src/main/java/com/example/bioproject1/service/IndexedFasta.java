@@ -0,0 +1,103 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaIndexEntry;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+
+/**
+ * .fai 인덱스가 있는 FASTA 파일 하나
+ * 영역 질의 시 필요한 바이트 범위만 MappedByteBuffer로 매핑해서 읽고, 파일 전체를 다시 파싱하지 않습니다.
+ */
+public class IndexedFasta implements Closeable {
+
+    private final Path fasta;
+    private final FileChannel channel;
+    private final Map<String, FastaIndexEntry> entries = new LinkedHashMap<>();
+
+    private IndexedFasta(Path fasta, List<FastaIndexEntry> index) throws IOException {
+        this.fasta = fasta;
+        this.channel = FileChannel.open(fasta, StandardOpenOption.READ);
+        for (FastaIndexEntry entry : index) entries.put(entry.name(), entry);
+    }
+
+    /**
+     * FASTA 파일을 엽니다. 옆에 .fai 파일이 없거나 FASTA보다 오래되었으면 새로 만듭니다.
+     */
+    public static IndexedFasta open(Path fasta) throws IOException {
+        Path fai = faiPath(fasta);
+        List<FastaIndexEntry> index;
+        if (Files.exists(fai) && !Files.getLastModifiedTime(fai).toInstant()
+                .isBefore(Files.getLastModifiedTime(fasta).toInstant())) {
+            index = FastaIndexer.read(fai);
+        } else {
+            index = FastaIndexer.build(fasta);
+            FastaIndexer.write(index, fai);
+        }
+        return new IndexedFasta(fasta, index);
+    }
+
+    public static Path faiPath(Path fasta) {
+        return fasta.resolveSibling(fasta.getFileName() + ".fai");
+    }
+
+    public List<FastaIndexEntry> entries() {
+        return List.copyOf(entries.values());
+    }
+
+    public long fileSize() throws IOException {
+        return channel.size();
+    }
+
+    public Optional<FastaIndexEntry> entry(String name) {
+        return Optional.ofNullable(entries.get(name));
+    }
+
+    /**
+     * 0-based, [start, end) 구간의 염기를 읽습니다. (개행 문자 제외)
+     */
+    public byte[] read(FastaIndexEntry entry, long start, long end) throws IOException {
+        if (start < 0 || end > entry.length() || start > end) {
+            throw new IllegalArgumentException("영역이 서열 범위를 벗어났습니다: " + entry.name()
+                    + " (길이 " + entry.length() + ")");
+        }
+        int length = Math.toIntExact(end - start);
+        byte[] bases = new byte[length];
+        if (length == 0) return bases;
+
+        long from = entry.byteOffset(start);
+        long to = entry.byteOffset(end - 1) + 1;
+        MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, from, to - from);
+
+        // 줄 단위로 염기 부분만 복사 (줄 끝 개행 바이트는 건너뜀)
+        int written = 0;
+        int column = (int) (start % entry.lineBases());
+        int newlineBytes = entry.lineWidth() - entry.lineBases();
+        while (written < length) {
+            int take = Math.min(entry.lineBases() - column, length - written);
+            mapped.get(bases, written, take);
+            written += take;
+            if (written < length) {
+                mapped.position(mapped.position() + newlineBytes);
+            }
+            column = 0;
+        }
+        return bases;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    @Override
+    public String toString() {
+        return "IndexedFasta[" + fasta + "]";
+    }
+}
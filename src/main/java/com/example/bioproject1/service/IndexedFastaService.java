@@ -0,0 +1,160 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.FastaIndexEntry;
+import com.example.bioproject1.dto.FastaReferenceInfo;
+import com.example.bioproject1.dto.FastaRegionResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * 서버에 등록된 참조 FASTA 파일(.fa + .fai)에 대한 영역 질의
+ * - 등록 시 samtools 호환 .fai 인덱스를 만들어 파일 옆에 저장합니다.
+ * - 질의(id:start-end)는 인덱스로 바이트 위치를 계산해 필요한 부분만 읽습니다.
+ */
+@Service
+public class IndexedFastaService {
+
+    private static final Pattern REFERENCE_NAME = Pattern.compile("[A-Za-z0-9._-]{1,100}");
+    private static final Pattern RANGE = Pattern.compile("(\\d+)(?:-(\\d+))?");
+    private static final String EXTENSION = ".fa";
+
+    private final Path directory;
+    private final long maxRegionLength;
+    private final Map<String, IndexedFasta> opened = new ConcurrentHashMap<>();
+
+    public IndexedFastaService(@Value("${fasta.reference.dir:./data/references}") String directory,
+                               @Value("${fasta.reference.max-region-length:10000000}") long maxRegionLength) {
+        this.directory = Paths.get(directory);
+        this.maxRegionLength = maxRegionLength;
+    }
+
+    @PreDestroy
+    public void close() {
+        for (IndexedFasta fasta : opened.values()) {
+            try {
+                fasta.close();
+            } catch (IOException ignored) {
+                // 종료 중
+            }
+        }
+        opened.clear();
+    }
+
+    /**
+     * 업로드한 FASTA 파일을 참조 서열로 등록하고 .fai 인덱스를 만듭니다.
+     */
+    public FastaReferenceInfo register(String name, MultipartFile file) throws IOException {
+        if (!REFERENCE_NAME.matcher(name).matches()) {
+            throw new IllegalArgumentException("참조 이름은 영문/숫자/._- 만 사용할 수 있습니다: " + name);
+        }
+        Files.createDirectories(directory);
+        Path target = directory.resolve(name + EXTENSION);
+        if (Files.exists(target)) {
+            throw new IllegalStateException("이미 등록된 참조입니다: " + name);
+        }
+
+        // 업로드가 끝난 뒤에 최종 위치로 옮겨서, 반쯤 쓰인 파일이 등록되지 않도록 함
+        Path temp = Files.createTempFile(directory, name, ".upload");
+        try {
+            file.transferTo(temp);
+            FastaIndexer.write(FastaIndexer.build(temp), IndexedFasta.faiPath(temp));
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE);
+            Files.move(IndexedFasta.faiPath(temp), IndexedFasta.faiPath(target), StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temp);
+            Files.deleteIfExists(IndexedFasta.faiPath(temp));
+        }
+        return info(name);
+    }
+
+    public List<FastaReferenceInfo> list() throws IOException {
+        if (!Files.isDirectory(directory)) return List.of();
+        List<FastaReferenceInfo> references = new ArrayList<>();
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted()::iterator) {
+                String fileName = path.getFileName().toString();
+                if (fileName.endsWith(EXTENSION)) {
+                    references.add(info(fileName.substring(0, fileName.length() - EXTENSION.length())));
+                }
+            }
+        }
+        return references;
+    }
+
+    public FastaReferenceInfo info(String name) throws IOException {
+        IndexedFasta fasta = open(name);
+        return new FastaReferenceInfo(name, fasta.fileSize(), fasta.entries());
+    }
+
+    /**
+     * 영역 질의 (samtools 형식: "chr1", "chr1:1000", "chr1:1,000-2,000", 1-based 양끝 포함)
+     */
+    public FastaRegionResult queryRegion(String name, String region, boolean includeSequence) throws IOException {
+        IndexedFasta fasta = open(name);
+
+        String sequenceName = region;
+        String range = null;
+        if (fasta.entry(region).isEmpty()) {
+            int colon = region.lastIndexOf(':');
+            if (colon > 0) {
+                sequenceName = region.substring(0, colon);
+                range = region.substring(colon + 1).replace(",", "");
+            }
+        }
+        String finalSequenceName = sequenceName;
+        FastaIndexEntry entry = fasta.entry(sequenceName)
+                .orElseThrow(() -> new NoSuchElementException("서열을 찾을 수 없습니다: " + finalSequenceName));
+
+        long start = 1, end = entry.length();
+        if (range != null) {
+            Matcher m = RANGE.matcher(range);
+            if (!m.matches()) throw new IllegalArgumentException("영역 형식 오류: " + region);
+            start = Long.parseLong(m.group(1));
+            if (m.group(2) != null) end = Math.min(Long.parseLong(m.group(2)), entry.length());
+        }
+        if (start < 1 || start > end) {
+            throw new IllegalArgumentException("영역 형식 오류: " + region);
+        }
+        if (end - start + 1 > maxRegionLength) {
+            throw new IllegalArgumentException("영역이 너무 깁니다 (최대 " + maxRegionLength + "bp): " + region);
+        }
+
+        byte[] bases = fasta.read(entry, start - 1, end);
+        NucleotideCounts counts = BaseCountKernel.best().count(bases);
+        BaseComposition composition = new BaseComposition();
+        composition.countCodons(PackedSequence.pack(bases));
+
+        return new FastaRegionResult(name, entry.name(), start, end, bases.length, counts.gcContent(),
+                composition.toCodonUsageMap(),
+                includeSequence ? new String(bases, StandardCharsets.ISO_8859_1) : null);
+    }
+
+    private IndexedFasta open(String name) {
+        if (!REFERENCE_NAME.matcher(name).matches()) {
+            throw new NoSuchElementException("참조를 찾을 수 없습니다: " + name);
+        }
+        Path path = directory.resolve(name + EXTENSION);
+        if (!Files.exists(path)) {
+            throw new NoSuchElementException("참조를 찾을 수 없습니다: " + name);
+        }
+        return opened.computeIfAbsent(name, key -> {
+            try {
+                return IndexedFasta.open(path);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+    }
+}
@@ -0,0 +1,281 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.KmerCount;
+
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+/**
+ * canonical k-mer 카운터 (k <= 31)
+ * - k-mer를 2비트씩 long에 인코딩하고, 정방향/역상보 중 작은 값을 canonical로 사용합니다.
+ * - 해시의 상위 비트로 파티션을 나누고, 파티션마다 off-heap 표 하나를 스레드 하나가 전담합니다.
+ * - 서열 묶음은 두 단계로 셉니다. (각 k-mer는 한 번만 읽고 한 번만 해시)
+ *   1) 훑기: 서열을 구간으로 나눠 스레드마다 한 구간씩 훑고, k-mer를 파티션별 버퍼로 보냄
+ *   2) 넣기: 파티션마다 스레드 하나가 모든 버퍼의 자기 파티션 몫을 표에 넣음 (잠금이 필요 없음)
+ * - U는 T로 읽고, N 등 ACGT(U)가 아닌 문자를 만나면 k-mer 창을 다시 시작합니다.
+ * - 파티션 표는 요청끼리 공유하는 off-heap 예산(sharedBudgetKb)에서 메모리를 떼어 씁니다. (close에서 반납)
+ */
+public final class KmerCounter implements AutoCloseable {
+
+    public static final int MAX_K = 31;
+
+    // 훑기 작업 하나가 맡는 최대/최소 염기 수 (작업 하나의 버퍼 합계는 최대 염기 수 x 16바이트)
+    private static final int MAX_TASK_BASES = 256 * 1024;
+    private static final int MIN_TASK_BASES = 4 * 1024;
+
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = 0; CODES['a'] = 0;
+        CODES['C'] = 1; CODES['c'] = 1;
+        CODES['G'] = 2; CODES['g'] = 2;
+        CODES['T'] = 3; CODES['t'] = 3;
+        CODES['U'] = 3; CODES['u'] = 3;
+    }
+
+    private final int k;
+    private final long kmerMask;
+    private final int shift; // 역상보 k-mer에서 새 염기가 들어갈 비트 위치
+    private final OffHeapKmerTable[] partitions;
+    // [훑기 작업][파티션] 버퍼, 묶음마다 다시 씀
+    private final KmerBuffer[][] buffers;
+    private final ExecutorService executor;
+    private long totalKmers;
+
+    public KmerCounter(int k, int partitionCount, long maxBytesPerPartition, Semaphore sharedBudgetKb,
+                       ExecutorService executor) {
+        if (k < 1 || k > MAX_K) {
+            throw new IllegalArgumentException("k는 1~" + MAX_K + " 사이여야 합니다: " + k);
+        }
+        this.k = k;
+        this.kmerMask = (1L << (2 * k)) - 1;
+        this.shift = 2 * (k - 1);
+        this.executor = executor;
+        this.partitions = new OffHeapKmerTable[partitionCount];
+        this.buffers = new KmerBuffer[partitionCount][partitionCount];
+        try {
+            for (int p = 0; p < partitionCount; p++) {
+                partitions[p] = new OffHeapKmerTable(1 << 16, maxBytesPerPartition, sharedBudgetKb);
+                for (int q = 0; q < partitionCount; q++) buffers[p][q] = new KmerBuffer();
+            }
+        } catch (RuntimeException e) {
+            close(); // 이미 만든 표의 예산 반납
+            throw e;
+        }
+    }
+
+    /**
+     * 서열 묶음을 카운트합니다. 훑기와 넣기를 각각 파티션 수만큼 나눠 동시에 실행하고 모두 끝날 때까지 기다립니다.
+     */
+    public void addAll(List<byte[]> sequences) throws InterruptedException {
+        List<List<Slice>> tasks = split(sequences);
+        int partitionCount = partitions.length;
+        for (int from = 0; from < tasks.size(); from += partitionCount) {
+            List<List<Slice>> round = tasks.subList(from, Math.min(from + partitionCount, tasks.size()));
+            int scanners = round.size();
+
+            List<Callable<Long>> scans = new ArrayList<>(scanners);
+            for (int s = 0; s < scanners; s++) {
+                List<Slice> slices = round.get(s);
+                KmerBuffer[] out = buffers[s];
+                scans.add(() -> scan(slices, out));
+            }
+            long counted = 0;
+            for (long c : runAll(scans)) counted += c;
+
+            List<Callable<Long>> inserts = new ArrayList<>(partitionCount);
+            for (int p = 0; p < partitionCount; p++) {
+                int partition = p;
+                inserts.add(() -> drain(partition, scanners));
+            }
+            runAll(inserts);
+            totalKmers += counted;
+        }
+    }
+
+    // 묶음을 염기 수가 비슷한 훑기 작업으로 나눔 (긴 서열은 자르고, 짧은 서열은 한 작업에 여러 개)
+    private List<List<Slice>> split(List<byte[]> sequences) {
+        long totalBases = 0;
+        for (byte[] sequence : sequences) totalBases += sequence.length;
+        long perTask = (totalBases + partitions.length - 1) / partitions.length;
+        int taskBases = (int) Math.max(MIN_TASK_BASES, Math.min(MAX_TASK_BASES, perTask));
+
+        List<List<Slice>> tasks = new ArrayList<>();
+        List<Slice> current = new ArrayList<>();
+        int currentBases = 0;
+        for (byte[] sequence : sequences) {
+            int start = 0;
+            while (start < sequence.length) {
+                int end = Math.min(sequence.length, start + (taskBases - currentBases));
+                current.add(new Slice(sequence, start, end));
+                currentBases += end - start;
+                start = end;
+                if (currentBases >= taskBases) {
+                    tasks.add(current);
+                    current = new ArrayList<>();
+                    currentBases = 0;
+                }
+            }
+        }
+        if (!current.isEmpty()) tasks.add(current);
+        return tasks;
+    }
+
+    // 구간마다 k-1개 앞에서부터 읽어 창을 채우고, 구간 안에서 끝나는 k-mer만 파티션 버퍼로 보냄
+    private long scan(List<Slice> slices, KmerBuffer[] out) {
+        int partitionCount = partitions.length;
+        long counted = 0;
+        for (Slice slice : slices) {
+            byte[] sequence = slice.sequence();
+            long forward = 0, reverse = 0;
+            int filled = 0;
+            for (int i = Math.max(0, slice.from() - (k - 1)); i < slice.to(); i++) {
+                int code = CODES[sequence[i] & 0xFF];
+                if (code < 0) {
+                    filled = 0;
+                    continue;
+                }
+                forward = ((forward << 2) | code) & kmerMask;
+                reverse = (reverse >>> 2) | ((long) (3 - code) << shift);
+                if (++filled < k || i < slice.from()) continue;
+
+                long canonical = Math.min(forward, reverse);
+                long hash = mix(canonical);
+                out[(int) ((hash >>> 40) % partitionCount)].add(canonical, hash);
+                counted++;
+            }
+        }
+        return counted;
+    }
+
+    // 모든 훑기 작업이 이 파티션으로 보낸 k-mer를 표에 넣고 버퍼를 비움
+    private long drain(int partition, int scanners) {
+        OffHeapKmerTable table = partitions[partition];
+        long inserted = 0;
+        for (int s = 0; s < scanners; s++) {
+            KmerBuffer buffer = buffers[s][partition];
+            for (int i = 0; i < buffer.size; i++) table.increment(buffer.kmers[i], buffer.hashes[i]);
+            inserted += buffer.size;
+            buffer.size = 0;
+        }
+        return inserted;
+    }
+
+    private List<Long> runAll(List<Callable<Long>> tasks) throws InterruptedException {
+        List<Future<Long>> futures = new ArrayList<>(tasks.size());
+        for (Callable<Long> task : tasks) futures.add(executor.submit(task));
+        List<Long> results = new ArrayList<>(futures.size());
+        try {
+            for (Future<Long> future : futures) results.add(future.get());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IllegalStateException(cause);
+        } finally {
+            for (Future<Long> future : futures) future.cancel(true);
+        }
+        return results;
+    }
+
+    public int k() {
+        return k;
+    }
+
+    public long totalKmers() {
+        return totalKmers;
+    }
+
+    public long distinctKmers() {
+        long distinct = 0;
+        for (OffHeapKmerTable table : partitions) distinct += table.size();
+        return distinct;
+    }
+
+    /** 가장 많이 나온 k-mer 상위 n개 (많은 순) */
+    public List<KmerCount> top(int n) {
+        if (n <= 0) return List.of();
+        // (count, kmer) 최소 힙: 힙 최솟값보다 큰 것만 교체하므로 후보 객체 생성이 적음
+        PriorityQueue<long[]> heap = new PriorityQueue<>(n + 1,
+                (x, y) -> x[0] != y[0] ? Long.compare(x[0], y[0]) : Long.compare(y[1], x[1]));
+        for (OffHeapKmerTable table : partitions) {
+            table.forEach((kmer, count) -> {
+                if (heap.size() < n) {
+                    heap.add(new long[]{count, kmer});
+                } else if (count > heap.peek()[0]) {
+                    heap.poll();
+                    heap.add(new long[]{count, kmer});
+                }
+            });
+        }
+        List<KmerCount> result = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            long[] entry = heap.poll();
+            result.add(new KmerCount(decode(entry[1]), entry[0]));
+        }
+        Collections.reverse(result);
+        return result;
+    }
+
+    /**
+     * k-mer 스펙트럼: histogram[c] = c번 나온 서로 다른 k-mer 수 (c >= maxCount 는 마지막 칸에 합산)
+     */
+    public long[] histogram(int maxCount) {
+        long[] histogram = new long[maxCount + 1];
+        for (OffHeapKmerTable table : partitions) {
+            table.forEach((kmer, count) -> histogram[(int) Math.min(count, maxCount)]++);
+        }
+        return histogram;
+    }
+
+    public String decode(long kmer) {
+        char[] bases = new char[k];
+        for (int i = k - 1; i >= 0; i--) {
+            bases[i] = "ACGT".charAt((int) (kmer & 3));
+            kmer >>>= 2;
+        }
+        return new String(bases);
+    }
+
+    /** murmur3 fmix64 */
+    static long mix(long x) {
+        x ^= x >>> 33;
+        x *= 0xff51afd7ed558ccdL;
+        x ^= x >>> 33;
+        x *= 0xc4ceb9fe1a85ec53L;
+        x ^= x >>> 33;
+        return x;
+    }
+
+    // 서열 하나의 [from, to) 위치에서 끝나는 k-mer
+    private record Slice(byte[] sequence, int from, int to) {}
+
+    // 한 파티션으로 보낼 (canonical k-mer, 해시) 목록, 훑기 스레드 하나만 채우고 넣기 스레드 하나만 비움
+    private static final class KmerBuffer {
+        private long[] kmers = new long[1024];
+        private long[] hashes = new long[1024];
+        private int size;
+
+        void add(long kmer, long hash) {
+            if (size == kmers.length) {
+                kmers = Arrays.copyOf(kmers, size * 2);
+                hashes = Arrays.copyOf(hashes, size * 2);
+            }
+            kmers[size] = kmer;
+            hashes[size] = hash;
+            size++;
+        }
+    }
+
+    @Override
+    public void close() {
+        for (OffHeapKmerTable table : partitions) {
+            if (table != null) table.close();
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bioproject1.service;
+
+/**
+ * 동시에 실행 중인 k-mer 요청들이 공유 off-heap 예산(fasta.kmer.total-memory-mb)을 모두 쓰고 있을 때 발생 (429로 응답)
+ * 한 요청의 한도 초과(KmerTableTooLargeException)와 달리 잠시 뒤 다시 시도하면 성공할 수 있습니다.
+ */
+public class KmerMemoryBusyException extends RuntimeException {
+
+    public KmerMemoryBusyException(String message) {
+        super(message);
+    }
+}
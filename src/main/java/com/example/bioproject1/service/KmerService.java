@@ -0,0 +1,89 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.KmerSpectrumResult;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 업로드된 FASTA의 k-mer 스펙트럼 계산 (오염 검사, 어셈블리 QC용)
+ * 레코드를 스트리밍으로 읽어 일정 크기씩 묶은 뒤 KmerCounter에 넘깁니다.
+ * - 요청 하나의 표는 fasta.kmer.max-memory-mb까지, 모든 요청을 합친 표는 fasta.kmer.total-memory-mb까지만 씁니다.
+ *   합계 예산이 모자라면 KmerMemoryBusyException (429, 기다리지 않음)
+ */
+@Service
+public class KmerService {
+
+    // 한 번에 파티션 작업으로 넘기는 염기 수 (작은 contig가 많을 때 작업 제출 비용을 줄임)
+    private static final long BATCH_BASES = 4L * 1024 * 1024;
+
+    private final ExecutorService executor;
+    private final int threads;
+    private final long maxTableBytes;
+    // 모든 요청이 공유하는 off-heap 표 예산 (KB 단위 허가)
+    private final Semaphore tableBudgetKb;
+
+    public KmerService(@Value("${fasta.kmer.threads:0}") int threads,
+                       @Value("${fasta.kmer.max-memory-mb:2048}") long maxMemoryMb,
+                       @Value("${fasta.kmer.total-memory-mb:4096}") int totalMemoryMb) {
+        this.threads = threads > 0 ? threads : Runtime.getRuntime().availableProcessors();
+        this.maxTableBytes = maxMemoryMb * 1024 * 1024;
+        this.tableBudgetKb = new Semaphore(Math.max(1, totalMemoryMb) * 1024);
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(this.threads, r -> {
+            Thread t = new Thread(r, "kmer-" + threadNumber.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        executor.shutdownNow();
+    }
+
+    public KmerSpectrumResult countKmers(InputStream in, int k, int top, int histogramMax) throws IOException {
+        if (histogramMax < 1) throw new IllegalArgumentException("histogramMax는 1 이상이어야 합니다.");
+        long records = 0;
+        try (FastaStreamReader reader = new FastaStreamReader(in);
+             KmerCounter counter = new KmerCounter(k, threads, maxTableBytes / threads, tableBudgetKb, executor)) {
+            List<byte[]> batch = new ArrayList<>();
+            long batchBases = 0;
+            FastaRecord record;
+            while ((record = reader.next()) != null) {
+                records++;
+                batch.add(record.sequence());
+                batchBases += record.length();
+                if (batchBases >= BATCH_BASES) {
+                    counter.addAll(batch);
+                    batch = new ArrayList<>();
+                    batchBases = 0;
+                }
+            }
+            if (!batch.isEmpty()) counter.addAll(batch);
+
+            long[] histogram = counter.histogram(histogramMax);
+            Map<Integer, Long> spectrum = new LinkedHashMap<>();
+            for (int count = 1; count < histogram.length; count++) {
+                if (histogram[count] > 0) spectrum.put(count, histogram[count]);
+            }
+            return new KmerSpectrumResult(k, records, counter.totalKmers(), counter.distinctKmers(),
+                    counter.top(top), spectrum);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("k-mer 계산이 중단되었습니다.");
+        }
+    }
+}
@@ -0,0 +1,12 @@
+package com.example.bioproject1.service;
+
+/**
+ * 서로 다른 k-mer가 너무 많아 한 요청의 k-mer 표가 메모리 한도(fasta.kmer.max-memory-mb)를 넘을 때 발생 (413으로 응답)
+ * 표에 넣는 작업 스레드에서 던지므로 unchecked 예외입니다.
+ */
+public class KmerTableTooLargeException extends RuntimeException {
+
+    public KmerTableTooLargeException(String message) {
+        super(message);
+    }
+}
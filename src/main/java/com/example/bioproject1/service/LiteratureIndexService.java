@@ -0,0 +1,378 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.EntitySummary;
+import com.example.bioproject1.dto.LocalPaper;
+import com.example.bioproject1.dto.Location;
+import com.example.bioproject1.entity.EntityMention;
+import com.example.bioproject1.entity.EntityPosting;
+import com.example.bioproject1.entity.IndexedPaper;
+import com.example.bioproject1.repository.EntityMentionRepository;
+import com.example.bioproject1.repository.EntityPostingRepository;
+import com.example.bioproject1.repository.IndexedPaperRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * PubTator 문서/주석을 H2에 저장하고 역색인으로 조회하는 로컬 코퍼스
+ * - paper: 논문 (제목, 초록, 원본 BioC JSON)
+ * - entity_mention: 주석 위치 하나당 한 행 ("논문 Y의 개체")
+ * - entity_posting: (식별자 | 정규화된 언급 텍스트) -> PMID 역색인 ("X를 언급한 논문", 키워드 조회)
+ * 같은 PMID를 다시 색인하면 이전 주석/역색인 항목을 지우고 새로 씁니다.
+ * export로 받은 문서와 덤프에서 적재한 문서 모두 같은 주석 규칙(isIndexedAnnotation)을 통과한 주석만 저장합니다.
+ */
+@Service
+public class LiteratureIndexService {
+
+    // 여러 단어 키워드에서 단어 하나로 찾는 최대 논문 수 (교집합 후보)
+    private static final int MAX_WORD_HITS = 20_000;
+
+    private final IndexedPaperRepository paperRepository;
+    private final EntityMentionRepository mentionRepository;
+    private final EntityPostingRepository postingRepository;
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+
+    public LiteratureIndexService(IndexedPaperRepository paperRepository,
+                                  EntityMentionRepository mentionRepository,
+                                  EntityPostingRepository postingRepository,
+                                  ObjectMapper objectMapper,
+                                  @Value("${pubtator.index.enabled:true}") boolean enabled) {
+        this.paperRepository = paperRepository;
+        this.mentionRepository = mentionRepository;
+        this.postingRepository = postingRepository;
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 문서들을 한 트랜잭션으로 색인합니다.
+     * @return 색인한 논문 수 (id가 없는 문서는 건너뜀)
+     */
+    @Transactional
+    public int index(Collection<BioCDocument> documents) {
+        if (!enabled || documents.isEmpty()) return 0;
+
+        Map<String, BioCDocument> byPmid = new LinkedHashMap<>();
+        for (BioCDocument doc : documents) {
+            // 같은 배치 안의 중복은 마지막 것
+            if (doc != null && doc.id() != null) byPmid.put(doc.id(), retainIndexedAnnotations(doc));
+        }
+        if (byPmid.isEmpty()) return 0;
+
+        postingRepository.deleteByPmidIn(byPmid.keySet());
+        mentionRepository.deleteByPmidIn(byPmid.keySet());
+
+        List<IndexedPaper> papers = new ArrayList<>(byPmid.size());
+        List<EntityMention> mentions = new ArrayList<>();
+        List<EntityPosting> postings = new ArrayList<>();
+        for (BioCDocument doc : byPmid.values()) {
+            int before = mentions.size();
+            collectMentions(doc, mentions);
+            postings.addAll(postingsFor(doc.id(), mentions.subList(before, mentions.size())));
+            papers.add(toPaper(doc, mentions.size() - before));
+        }
+        paperRepository.saveAll(papers);
+        mentionRepository.saveAll(mentions);
+        postingRepository.saveAll(postings);
+        return papers.size();
+    }
+
+    /** 식별자(예: 348, MESH:D000544)로 논문 찾기 */
+    @Transactional(readOnly = true)
+    public List<LocalPaper> papersByIdentifier(String identifier, String entityType, int limit) {
+        return toPapers(postingRepository.findPapers(EntityPosting.TermKind.IDENTIFIER, identifier.trim(),
+                blankToNull(entityType), PageRequest.of(0, limit)));
+    }
+
+    /** 언급 텍스트(예: APOE4, 대소문자/공백 무시)로 논문 찾기 */
+    @Transactional(readOnly = true)
+    public List<LocalPaper> papersByMention(String mention, String entityType, int limit) {
+        return toPapers(postingRepository.findPapers(EntityPosting.TermKind.MENTION, normalizeMention(mention),
+                blankToNull(entityType), PageRequest.of(0, limit)));
+    }
+
+    /**
+     * 키워드 조회
+     * - 한 단어: 정규화된 언급 텍스트가 키워드로 시작하거나 식별자가 키워드와 같은 논문
+     * - 여러 단어: 단어마다 역색인을 찾아(언급 텍스트의 어느 단어든 그 단어로 시작하거나 식별자가 같음)
+     *   모든 단어가 나오는 논문만 남기고, 단어별 언급 수 합이 많은 순 (AND/OR는 단어로 보지 않음)
+     *   단어 하나가 MAX_WORD_HITS개 넘는 논문에 나오면 언급이 많은 쪽 MAX_WORD_HITS개까지만 봄
+     */
+    @Transactional(readOnly = true)
+    public List<LocalPaper> search(String keywords, int limit) {
+        List<String> words = keywordWords(keywords);
+        if (words.isEmpty()) return List.of();
+        if (words.size() == 1) {
+            String prefix = escapeLike(normalizeMention(words.get(0))) + "%";
+            return toPapers(postingRepository.searchPapers(EntityPosting.TermKind.MENTION, prefix,
+                    EntityPosting.TermKind.IDENTIFIER, words.get(0), PageRequest.of(0, limit)));
+        }
+
+        List<Map<String, Long>> postings = new ArrayList<>(words.size());
+        for (String word : words) {
+            String escaped = escapeLike(normalizeMention(word));
+            Map<String, Long> hits = new HashMap<>();
+            for (EntityPostingRepository.PaperHits hit : postingRepository.searchPapersByWord(
+                    EntityPosting.TermKind.MENTION, escaped + "%", "% " + escaped + "%",
+                    EntityPosting.TermKind.IDENTIFIER, word, PageRequest.of(0, MAX_WORD_HITS))) {
+                hits.put(hit.getPmid(), hit.getMentions());
+            }
+            if (hits.isEmpty()) return List.of(); // 한 단어라도 없으면 교집합은 비어 있음
+            postings.add(hits);
+        }
+
+        // 가장 적은 논문에 나오는 단어부터 교집합
+        postings.sort(Comparator.comparingInt(Map::size));
+        Map<String, Long> matched = new HashMap<>(postings.get(0));
+        for (Map<String, Long> hits : postings.subList(1, postings.size())) {
+            matched.keySet().retainAll(hits.keySet());
+            matched.replaceAll((pmid, mentions) -> mentions + hits.get(pmid));
+        }
+        List<EntityPostingRepository.PaperHits> ranked = matched.entrySet().stream()
+                .sorted(Map.Entry.<String, Long>comparingByValue().reversed().thenComparing(Map.Entry.comparingByKey()))
+                .limit(limit)
+                .<EntityPostingRepository.PaperHits>map(e -> new WordHits(e.getKey(), e.getValue()))
+                .toList();
+        return toPapers(ranked);
+    }
+
+    // 공백으로 나눈 검색어 단어 (앞뒤 구두점 제거, AND/OR 제외, 정규화 기준 중복 제거)
+    private static List<String> keywordWords(String keywords) {
+        if (keywords == null) return List.of();
+        Map<String, String> words = new LinkedHashMap<>();
+        for (String raw : keywords.trim().split("\\s+")) {
+            String word = raw.replaceAll("^[,;.:\"']+|[,;.:\"']+$", "");
+            if (word.isEmpty() || word.equalsIgnoreCase("and") || word.equalsIgnoreCase("or")) continue;
+            words.putIfAbsent(normalizeMention(word), word);
+        }
+        return List.copyOf(words.values());
+    }
+
+    /**
+     * 논문 하나에 나오는 개체 목록 (타입 + 식별자로 묶고 많이 나온 순)
+     * @return 색인되지 않은 PMID면 empty
+     */
+    @Transactional(readOnly = true)
+    public Optional<List<EntitySummary>> entitiesInPaper(String pmid) {
+        if (!paperRepository.existsById(pmid)) return Optional.empty();
+
+        Map<String, List<EntityMention>> groups = new LinkedHashMap<>();
+        for (EntityMention mention : mentionRepository.findByPmidOrderByStartOffset(pmid)) {
+            String key = mention.getEntityType() + "\u0000" + mention.getIdentifier();
+            groups.computeIfAbsent(key, k -> new ArrayList<>()).add(mention);
+        }
+        List<EntitySummary> entities = new ArrayList<>(groups.size());
+        for (List<EntityMention> group : groups.values()) {
+            Set<String> texts = new LinkedHashSet<>();
+            for (EntityMention mention : group) texts.add(mention.getMentionText());
+            EntityMention first = group.get(0);
+            entities.add(new EntitySummary(first.getEntityType(), first.getIdentifier(),
+                    List.copyOf(texts), group.size()));
+        }
+        entities.sort((a, b) -> Integer.compare(b.count(), a.count()));
+        return Optional.of(entities);
+    }
+
+    /** 저장해 둔 원본 문서 (로컬 코퍼스에서 다시 하이라이트할 때 사용) */
+    @Transactional(readOnly = true)
+    public Optional<BioCDocument> findDocument(String pmid) {
+        return paperRepository.findById(pmid).map(this::toDocument);
+    }
+
+    /** 저장해 둔 원본 문서들 (pmids 순서, 색인되지 않은 PMID는 빠짐) */
+    @Transactional(readOnly = true)
+    public List<BioCDocument> findDocuments(List<String> pmids) {
+        Map<String, IndexedPaper> papers = paperRepository.findAllById(pmids).stream()
+                .collect(Collectors.toMap(IndexedPaper::getPmid, p -> p));
+        List<BioCDocument> documents = new ArrayList<>(papers.size());
+        for (String pmid : pmids) {
+            IndexedPaper paper = papers.get(pmid);
+            if (paper != null) documents.add(toDocument(paper));
+        }
+        return documents;
+    }
+
+    /** pmids 중 이미 색인된 PMID */
+    @Transactional(readOnly = true)
+    public Set<String> indexedPmids(Collection<String> pmids) {
+        if (pmids.isEmpty()) return Set.of();
+        return new HashSet<>(paperRepository.findExistingPmids(pmids));
+    }
+
+    @Transactional(readOnly = true)
+    public long paperCount() {
+        return paperRepository.count();
+    }
+
+    /**
+     * 색인에 남길 주석인지: 하이라이트와 같은 규칙 (기본 타입, 3글자 이상, invalid 아님, 식별자 있음)
+     * BioCIngestionService의 필터 단계도 이 규칙을 씁니다.
+     */
+    public static boolean isIndexedAnnotation(Annotation ann) {
+        return HighlightEngine.isCandidate(ann, EntityTypeFilter.CORE);
+    }
+
+    /**
+     * 언급 텍스트 정규화: 유니코드 호환 정규화(NFKC), 소문자, 연속 공백 하나로
+     */
+    public static String normalizeMention(String text) {
+        if (text == null) return "";
+        String normalized = Normalizer.normalize(text, Normalizer.Form.NFKC).toLowerCase(Locale.ROOT);
+        return normalized.trim().replaceAll("\\s+", " ");
+    }
+
+    // 규칙을 통과하지 못한 주석을 뺀 문서 (빠지는 주석이 없으면 원본 그대로)
+    private static BioCDocument retainIndexedAnnotations(BioCDocument doc) {
+        if (doc.passages() == null) return doc;
+        List<BioCPassage> passages = null;
+        for (int i = 0; i < doc.passages().size(); i++) {
+            BioCPassage passage = doc.passages().get(i);
+            List<Annotation> annotations = passage.annotations();
+            if (annotations == null || annotations.stream().allMatch(LiteratureIndexService::isIndexedAnnotation)) {
+                if (passages != null) passages.add(passage);
+                continue;
+            }
+            if (passages == null) passages = new ArrayList<>(doc.passages().subList(0, i));
+            passages.add(new BioCPassage(passage.infons(), passage.text(),
+                    annotations.stream().filter(LiteratureIndexService::isIndexedAnnotation).toList()));
+        }
+        return passages == null ? doc : new BioCDocument(doc.id(), passages);
+    }
+
+    // retainIndexedAnnotations를 거친 주석을 위치마다 한 행으로
+    private static void collectMentions(BioCDocument doc, List<EntityMention> out) {
+        if (doc.passages() == null) return;
+        for (BioCPassage passage : doc.passages()) {
+            if (passage.annotations() == null) continue;
+            String passageType = passage.infons() != null ? passage.infons().type() : null;
+            for (Annotation ann : passage.annotations()) {
+                String identifier = ann.infons().identifier();
+                if (identifier != null && (identifier.isBlank() || identifier.equals("-"))) identifier = null;
+                String text = truncate(ann.text(), 1000);
+                if (ann.locations() == null || ann.locations().isEmpty()) {
+                    out.add(new EntityMention(doc.id(), ann.infons().type(), truncate(identifier, 512), text, passageType, 0, 0));
+                    continue;
+                }
+                for (Location loc : ann.locations()) {
+                    out.add(new EntityMention(doc.id(), ann.infons().type(), truncate(identifier, 512), text,
+                            passageType, loc.offset(), loc.length()));
+                }
+            }
+        }
+    }
+
+    // 주석들을 (term 종류, term, 타입) 단위로 세어 역색인 항목으로 만듦
+    private static List<EntityPosting> postingsFor(String pmid, List<EntityMention> mentions) {
+        Map<List<Object>, Integer> counts = new LinkedHashMap<>();
+        for (EntityMention mention : mentions) {
+            String type = mention.getEntityType();
+            String text = normalizeMention(mention.getMentionText());
+            if (!text.isEmpty()) {
+                counts.merge(List.of(EntityPosting.TermKind.MENTION, truncate(text, 512), type), 1, Integer::sum);
+            }
+            if (mention.getIdentifier() != null) {
+                // 여러 식별자가 ';'로 이어진 경우(예: tmVar 변이) 각각 색인
+                for (String id : mention.getIdentifier().split(";")) {
+                    String trimmed = id.trim();
+                    if (trimmed.isEmpty() || trimmed.equals("-")) continue;
+                    counts.merge(List.of(EntityPosting.TermKind.IDENTIFIER, truncate(trimmed, 512), type), 1, Integer::sum);
+                }
+            }
+        }
+        List<EntityPosting> postings = new ArrayList<>(counts.size());
+        counts.forEach((key, count) -> postings.add(new EntityPosting(
+                (EntityPosting.TermKind) key.get(0), (String) key.get(1), (String) key.get(2), pmid, count)));
+        return postings;
+    }
+
+    private IndexedPaper toPaper(BioCDocument doc, int mentionCount) {
+        String title = null;
+        List<String> abstracts = new ArrayList<>();
+        if (doc.passages() != null) {
+            for (BioCPassage passage : doc.passages()) {
+                String type = passage.infons() != null ? passage.infons().type() : null;
+                if ("title".equalsIgnoreCase(type) && title == null) title = passage.text();
+                else if ("abstract".equalsIgnoreCase(type) && passage.text() != null) abstracts.add(passage.text());
+            }
+        }
+        try {
+            return new IndexedPaper(doc.id(), truncate(title, 2000), String.join(" ", abstracts),
+                    objectMapper.writeValueAsString(doc), mentionCount);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("문서를 저장할 수 없습니다: " + doc.id(), e);
+        }
+    }
+
+    private BioCDocument toDocument(IndexedPaper paper) {
+        try {
+            return objectMapper.readValue(paper.getDocumentJson(), BioCDocument.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("저장된 문서를 읽을 수 없습니다: " + paper.getPmid(), e);
+        }
+    }
+
+    private List<LocalPaper> toPapers(List<EntityPostingRepository.PaperHits> hits) {
+        Map<String, String> titles = new HashMap<>();
+        if (!hits.isEmpty()) {
+            List<String> pmids = hits.stream().map(EntityPostingRepository.PaperHits::getPmid).toList();
+            titles = paperRepository.findAllById(pmids).stream()
+                    .filter(p -> p.getTitle() != null)
+                    .collect(Collectors.toMap(IndexedPaper::getPmid, IndexedPaper::getTitle));
+        }
+        List<LocalPaper> papers = new ArrayList<>(hits.size());
+        for (EntityPostingRepository.PaperHits hit : hits) {
+            papers.add(new LocalPaper(hit.getPmid(), titles.get(hit.getPmid()), hit.getMentions()));
+        }
+        return papers;
+    }
+
+    private record WordHits(String pmid, Long mentions) implements EntityPostingRepository.PaperHits {
+        @Override
+        public String getPmid() {
+            return pmid;
+        }
+
+        @Override
+        public Long getMentions() {
+            return mentions;
+        }
+    }
+
+    private static String escapeLike(String s) {
+        return s.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    private static String blankToNull(String s) {
+        return s == null || s.isBlank() ? null : s.trim();
+    }
+
+    private static String truncate(String s, int max) {
+        return s == null || s.length() <= max ? s : s.substring(0, max);
+    }
+}
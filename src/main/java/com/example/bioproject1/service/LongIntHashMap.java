@@ -0,0 +1,89 @@
+package com.example.bioproject1.service;
+
+/**
+ * long -> int 오픈 어드레싱 해시 표 (개체 쌍 카운트용, 박싱 없음)
+ * - 키 0은 빈 슬롯 표시로 쓰므로 넣을 수 없습니다. (쌍 키는 a < b 이므로 0이 나오지 않음)
+ * - 선형 탐사, 크기는 2의 거듭제곱, 적재율 0.6을 넘으면 두 배로 늘림
+ * - 스레드 하나만 쓰는 것을 전제로 합니다. (병렬 집계는 분할마다 표를 하나씩 두고 마지막에 합침)
+ */
+final class LongIntHashMap {
+
+    private static final double MAX_LOAD = 0.6;
+
+    private long[] keys;
+    private int[] values;
+    private int size;
+    private int resizeAt;
+
+    LongIntHashMap(int expected) {
+        allocate(Integer.highestOneBit(Math.max(16, (int) (expected / MAX_LOAD) - 1)) << 1);
+    }
+
+    private void allocate(int capacity) {
+        this.keys = new long[capacity];
+        this.values = new int[capacity];
+        this.resizeAt = (int) (capacity * MAX_LOAD);
+    }
+
+    /** key의 값에 delta를 더합니다. (없으면 delta로 추가) */
+    void addTo(long key, int delta) {
+        int mask = keys.length - 1;
+        int i = (int) KmerCounter.mix(key) & mask;
+        while (true) {
+            long stored = keys[i];
+            if (stored == key) {
+                values[i] += delta;
+                return;
+            }
+            if (stored == 0) {
+                keys[i] = key;
+                values[i] = delta;
+                if (++size > resizeAt) grow();
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    /** 없으면 0 */
+    int get(long key) {
+        int mask = keys.length - 1;
+        for (int i = (int) KmerCounter.mix(key) & mask; ; i = (i + 1) & mask) {
+            long stored = keys[i];
+            if (stored == key) return values[i];
+            if (stored == 0) return 0;
+        }
+    }
+
+    private void grow() {
+        long[] oldKeys = keys;
+        int[] oldValues = values;
+        allocate(oldKeys.length << 1);
+        int mask = keys.length - 1;
+        for (int j = 0; j < oldKeys.length; j++) {
+            long key = oldKeys[j];
+            if (key == 0) continue;
+            int i = (int) KmerCounter.mix(key) & mask;
+            while (keys[i] != 0) i = (i + 1) & mask;
+            keys[i] = key;
+            values[i] = oldValues[j];
+        }
+    }
+
+    int size() {
+        return size;
+    }
+
+    /** 슬롯 수 (keyAt/valueAt 순회 범위, 빈 슬롯의 키는 0) */
+    int capacity() {
+        return keys.length;
+    }
+
+    long keyAt(int slot) {
+        return keys[slot];
+    }
+
+    int valueAt(int slot) {
+        return values[slot];
+    }
+}
@@ -0,0 +1,291 @@
+package com.example.bioproject1.service;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+
+/**
+ * NCBI(PubTator3 API)로 나가는 모든 요청의 공통 경로
+ * - 동시 요청 수 상한 (검색 페이지 + export batch, 모든 검색 요청 공통)
+ *   허가는 정해진 시간까지만 기다리고, 재시도 전 대기(백오프, Retry-After) 동안에는 반납했다가 다시 얻음
+ * - 토큰 버킷으로 초당 요청 수 제한 (PubTator3 API 권장: 초당 3회 이하), 429를 받으면 속도를 줄임
+ * - 연결/요청 시간 초과 (HttpClient 기본값은 무제한)
+ * - 429/5xx/시간 초과는 지터를 섞은 지수 백오프로 재시도 (Retry-After가 더 길면 그만큼 기다림)
+ * - 연속 실패가 쌓이면 서킷 브레이커가 열려 잠시 보내지 않고 NcbiUnavailableException으로 바로 실패
+ * 대기는 스레드를 재우지 않고 CompletableFuture 지연 실행으로 처리합니다.
+ * 재시도/429/차단 횟수, 현재 속도, 브레이커 상태는 MeterBinder로 /actuator/prometheus에 노출됩니다.
+ */
+@Service
+public class NcbiClient implements MeterBinder {
+
+    // Retry-After가 아무리 길어도 이 이상은 기다리지 않음 (재시도를 포기하는 편이 나음)
+    private static final long MAX_RETRY_AFTER_NANOS = TimeUnit.SECONDS.toNanos(60);
+    // 재시도 전에 허가를 다시 기다리는 스레드 (대기 중 막혀도 되도록 가상 스레드)
+    private static final Executor PERMIT_WAITER = task -> Thread.ofVirtual().name("ncbi-permit").start(task);
+
+    private final HttpClient httpClient;
+    private final Semaphore upstreamPermits;
+    private final Duration acquireTimeout;
+    private final TokenBucketRateLimiter rateLimiter;
+    private final CircuitBreaker circuitBreaker;
+    private final Duration requestTimeout;
+    private final int maxAttempts;
+    private final long backoffInitialNanos;
+    private final long backoffMaxNanos;
+
+    private final LongAdder retries = new LongAdder();
+    private final LongAdder throttled = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder permitTimeouts = new LongAdder();
+
+    public NcbiClient() {
+        this(NcbiClientProperties.defaults());
+    }
+
+    @Autowired
+    public NcbiClient(NcbiClientProperties properties) {
+        this.httpClient = HttpClient.newBuilder()
+                .connectTimeout(Duration.ofMillis(properties.connectTimeoutMs()))
+                .build();
+        this.upstreamPermits = new Semaphore(Math.max(1, properties.maxConcurrency()));
+        this.acquireTimeout = Duration.ofMillis(Math.max(0, properties.acquireTimeoutMs()));
+        double ratePerSecond = properties.ratePerSecond();
+        this.rateLimiter = new TokenBucketRateLimiter(ratePerSecond, properties.minRatePerSecond(),
+                (int) Math.ceil(ratePerSecond));
+        this.circuitBreaker = new CircuitBreaker(properties.breakerFailureThreshold(),
+                Duration.ofMillis(properties.breakerOpenMs()));
+        this.requestTimeout = Duration.ofMillis(properties.requestTimeoutMs());
+        this.maxAttempts = Math.max(1, properties.maxAttempts());
+        this.backoffInitialNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, properties.backoffInitialMs()));
+        this.backoffMaxNanos = Math.max(backoffInitialNanos, TimeUnit.MILLISECONDS.toNanos(properties.backoffMaxMs()));
+    }
+
+    /**
+     * 동시 요청 상한을 지키며 비동기 전송 (허가를 얻을 때까지 호출 스레드가 acquireTimeout까지 대기)
+     * 허가는 응답 본문 처리(handler)까지 끝난 뒤 반납 (스트리밍 본문도 상한에 포함)
+     * 재시도 전 대기 동안에는 반납해서 다른 요청이 쓰게 하고, 대기가 끝나면 다시 얻은 뒤 보냅니다.
+     * handler는 재시도 대상이 아닌 응답(2xx/4xx)에만 한 번 호출됩니다.
+     * @return 재시도를 다 써도 실패하거나, 브레이커가 열려 있거나, 허가를 시간 안에 못 얻으면
+     *         NcbiUnavailableException으로 완료
+     */
+    public <B, T> CompletableFuture<T> send(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+                                            Function<HttpResponse<B>, T> handler) throws InterruptedException {
+        HttpRequest timed = request.timeout().isPresent()
+                ? request
+                : HttpRequest.newBuilder(request, (name, value) -> true).timeout(requestTimeout).build();
+        Lease lease = new Lease();
+        if (!lease.acquire()) {
+            return CompletableFuture.failedFuture(permitTimeout(timed));
+        }
+        try {
+            return attempt(timed, bodyHandler, 1, lease)
+                    .thenApply(handler)
+                    .whenComplete((result, error) -> lease.release());
+        } catch (RuntimeException e) {
+            lease.release();
+            throw e;
+        }
+    }
+
+    private NcbiUnavailableException permitTimeout(HttpRequest request) {
+        permitTimeouts.increment();
+        return new NcbiUnavailableException("NCBI 요청 허가 대기 시간 초과 (" + acquireTimeout.toMillis() + "ms): "
+                + request.uri(), acquireTimeout, null);
+    }
+
+    private <B> CompletableFuture<HttpResponse<B>> attempt(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+                                                           int attempt, Lease lease) {
+        if (!circuitBreaker.tryAcquire()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new NcbiUnavailableException(
+                    "NCBI 요청 차단 (서킷 브레이커 OPEN): " + request.uri(), circuitBreaker.remainingOpen(), null));
+        }
+        long waitNanos = rateLimiter.reserve();
+        CompletableFuture<HttpResponse<B>> sent = waitNanos > 0
+                ? CompletableFuture.runAsync(() -> {}, after(waitNanos))
+                        .thenCompose(ignored -> httpClient.sendAsync(request, bodyHandler))
+                : httpClient.sendAsync(request, bodyHandler);
+        return sent.handle((response, error) -> onResponse(request, bodyHandler, attempt, lease, response, error))
+                .thenCompose(Function.identity());
+    }
+
+    private <B> CompletableFuture<HttpResponse<B>> onResponse(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+                                                              int attempt, Lease lease, HttpResponse<B> response,
+                                                              Throwable error) {
+        if (error != null) {
+            Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+            circuitBreaker.onFailure();
+            if (!(cause instanceof IOException)) return CompletableFuture.failedFuture(cause);
+            // 연결 실패, HttpTimeoutException(요청 시간 초과) 등
+            return retryOrFail(request, bodyHandler, attempt, lease, 0, cause.toString(), cause);
+        }
+
+        int status = response.statusCode();
+        if (status == 429) {
+            // 속도를 줄이고 다시 시도 (계속 429면 브레이커도 열림)
+            throttled.increment();
+            long retryAfter = retryAfterNanos(response);
+            rateLimiter.onThrottled(retryAfter);
+            circuitBreaker.onFailure();
+            discard(response.body());
+            return retryOrFail(request, bodyHandler, attempt, lease, retryAfter, "429 Too Many Requests", null);
+        }
+        if (status >= 500) {
+            circuitBreaker.onFailure();
+            discard(response.body());
+            return retryOrFail(request, bodyHandler, attempt, lease, retryAfterNanos(response), "HTTP " + status,
+                    null);
+        }
+
+        circuitBreaker.onSuccess();
+        rateLimiter.onSuccess();
+        return CompletableFuture.completedFuture(response);
+    }
+
+    private <B> CompletableFuture<HttpResponse<B>> retryOrFail(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+                                                               int attempt, Lease lease, long retryAfterNanos,
+                                                               String reason, Throwable cause) {
+        if (attempt >= maxAttempts) {
+            return CompletableFuture.failedFuture(new NcbiUnavailableException(
+                    "NCBI 요청 실패 (" + attempt + "회 시도, " + reason + "): " + request.uri(),
+                    Duration.ofNanos(retryAfterNanos), cause));
+        }
+        retries.increment();
+        long delay = Math.max(backoffNanos(attempt), retryAfterNanos);
+        // 기다리는 동안은 허가를 반납, 대기가 끝나면 다시 얻은 뒤 재시도
+        lease.release();
+        return CompletableFuture.runAsync(() -> reacquire(request, lease),
+                        CompletableFuture.delayedExecutor(delay, TimeUnit.NANOSECONDS, PERMIT_WAITER))
+                .thenCompose(ignored -> attempt(request, bodyHandler, attempt + 1, lease));
+    }
+
+    private void reacquire(HttpRequest request, Lease lease) {
+        try {
+            if (lease.acquire()) return;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw new CompletionException(permitTimeout(request));
+    }
+
+    // 지수 백오프 + 지터: [cap/2, cap) 에서 무작위 (cap = initial * 2^(attempt-1), 최대 backoffMax)
+    private long backoffNanos(int attempt) {
+        long cap = backoffInitialNanos << Math.min(attempt - 1, 20);
+        cap = Math.min(cap, backoffMaxNanos);
+        return cap / 2 + ThreadLocalRandom.current().nextLong(cap / 2 + 1);
+    }
+
+    // Retry-After: 초 단위만 지원 (HTTP 날짜 형식은 무시하고 백오프만 사용)
+    private static long retryAfterNanos(HttpResponse<?> response) {
+        String value = response.headers().firstValue("Retry-After").orElse(null);
+        if (value == null) return 0;
+        try {
+            long seconds = Long.parseLong(value.trim());
+            return Math.min(TimeUnit.SECONDS.toNanos(Math.max(0, seconds)), MAX_RETRY_AFTER_NANOS);
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    // 재시도할 응답의 스트리밍 본문은 닫아서 연결을 돌려줌
+    private static void discard(Object body) {
+        if (body instanceof InputStream in) {
+            try {
+                in.close();
+            } catch (IOException ignored) {
+                // 버릴 본문이므로 무시
+            }
+        }
+    }
+
+    private static Executor after(long nanos) {
+        return CompletableFuture.delayedExecutor(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("pubtator.client.retries", retries, LongAdder::sum)
+                .description("429/5xx/시간 초과로 재시도한 NCBI 요청 수")
+                .register(registry);
+        FunctionCounter.builder("pubtator.client.throttled", throttled, LongAdder::sum)
+                .description("NCBI가 429로 응답한 수")
+                .register(registry);
+        FunctionCounter.builder("pubtator.client.rejected", rejected, LongAdder::sum)
+                .description("서킷 브레이커가 열려 있어서 보내지 않은 요청 수")
+                .register(registry);
+        FunctionCounter.builder("pubtator.client.permit.timeouts", permitTimeouts, LongAdder::sum)
+                .description("동시 요청 허가를 시간 안에 얻지 못해 실패한 요청 수")
+                .register(registry);
+        Gauge.builder("pubtator.client.rate", rateLimiter, TokenBucketRateLimiter::currentRate)
+                .description("현재 허용하는 초당 NCBI 요청 수 (429 후에는 설정값보다 작음)")
+                .register(registry);
+        for (CircuitBreaker.State state : CircuitBreaker.State.values()) {
+            Gauge.builder("pubtator.client.circuit.state", circuitBreaker, breaker -> breaker.state() == state ? 1 : 0)
+                    .description("서킷 브레이커 상태 (현재 상태만 1)")
+                    .tags("state", state.name().toLowerCase(Locale.ROOT))
+                    .register(registry);
+        }
+    }
+
+    public CircuitBreaker.State circuitState() {
+        return circuitBreaker.state();
+    }
+
+    /** 현재 초당 요청 수 (429 후에는 설정값보다 작음) */
+    public double currentRate() {
+        return rateLimiter.currentRate();
+    }
+
+    public long retryCount() {
+        return retries.sum();
+    }
+
+    public long throttledCount() {
+        return throttled.sum();
+    }
+
+    /** 브레이커가 열려 있어서 보내지 않은 요청 수 */
+    public long rejectedCount() {
+        return rejected.sum();
+    }
+
+    /** 동시 요청 허가를 시간 안에 얻지 못해 실패한 요청 수 */
+    public long permitTimeoutCount() {
+        return permitTimeouts.sum();
+    }
+
+    // 요청 하나가 쥔 동시 요청 허가 (재시도 대기 중 반납했다가 다시 얻음, 반납은 한 번만)
+    private final class Lease {
+        private final AtomicBoolean held = new AtomicBoolean();
+
+        boolean acquire() throws InterruptedException {
+            if (!upstreamPermits.tryAcquire(acquireTimeout.toNanos(), TimeUnit.NANOSECONDS)) return false;
+            held.set(true);
+            return true;
+        }
+
+        void release() {
+            if (held.compareAndSet(true, false)) upstreamPermits.release();
+        }
+    }
+}
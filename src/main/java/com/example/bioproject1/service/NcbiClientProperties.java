@@ -0,0 +1,42 @@
+package com.example.bioproject1.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * NCBI 요청 설정 (pubtator.http.*)
+ * 설정에 없는 항목(null)은 여기의 기본값을 씁니다. (기본값은 이 클래스에만 둠)
+ */
+@ConfigurationProperties("pubtator.http")
+public record NcbiClientProperties(
+        Integer maxConcurrency,          // 동시 요청 수 상한 (검색 페이지 + export batch, 모든 검색 요청 공통)
+        Long acquireTimeoutMs,          // 동시 요청 허가를 기다리는 최대 시간 (넘으면 NcbiUnavailableException)
+        Double ratePerSecond,           // 초당 요청 수 (PubTator3 API 권장: 초당 3회 이하)
+        Double minRatePerSecond,        // 429를 받아 속도를 줄일 때의 하한
+        Long connectTimeoutMs,
+        Long requestTimeoutMs,          // 응답 헤더까지 (본문 스트리밍 시간은 제외)
+        Integer maxAttempts,            // 첫 시도 포함
+        Long backoffInitialMs,          // 지수 백오프 시작값 (지터 적용 전)
+        Long backoffMaxMs,
+        Integer breakerFailureThreshold, // 연속 실패가 이만큼이면 서킷 브레이커를 엶
+        Long breakerOpenMs              // 열려 있는 동안은 보내지 않고 바로 실패
+) {
+
+    public NcbiClientProperties {
+        if (maxConcurrency == null) maxConcurrency = 3;
+        if (acquireTimeoutMs == null) acquireTimeoutMs = 10_000L;
+        if (ratePerSecond == null) ratePerSecond = 3.0;
+        if (minRatePerSecond == null) minRatePerSecond = 0.5;
+        if (connectTimeoutMs == null) connectTimeoutMs = 5_000L;
+        if (requestTimeoutMs == null) requestTimeoutMs = 30_000L;
+        if (maxAttempts == null) maxAttempts = 4;
+        if (backoffInitialMs == null) backoffInitialMs = 500L;
+        if (backoffMaxMs == null) backoffMaxMs = 8_000L;
+        if (breakerFailureThreshold == null) breakerFailureThreshold = 5;
+        if (breakerOpenMs == null) breakerOpenMs = 30_000L;
+    }
+
+    /** 모든 항목이 기본값 */
+    public static NcbiClientProperties defaults() {
+        return new NcbiClientProperties(null, null, null, null, null, null, null, null, null, null, null);
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.bioproject1.service;
+
+import java.io.IOException;
+import java.time.Duration;
+
+/**
+ * NCBI에 요청을 보낼 수 없을 때 발생 (서킷 브레이커 OPEN, 재시도 후에도 429/5xx/시간 초과)
+ * 호출 쪽은 캐시/로컬 코퍼스 결과로 대체하거나 503으로 응답합니다.
+ */
+public class NcbiUnavailableException extends IOException {
+
+    private final Duration retryAfter;
+
+    public NcbiUnavailableException(String message, Duration retryAfter, Throwable cause) {
+        super(message, cause);
+        this.retryAfter = retryAfter;
+    }
+
+    /** 다시 시도해 볼 만한 시간 (모르면 0) */
+    public Duration retryAfter() {
+        return retryAfter;
+    }
+}
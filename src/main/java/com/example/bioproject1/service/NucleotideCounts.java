@@ -0,0 +1,26 @@
+package com.example.bioproject1.service;
+
+/**
+ * 염기 조성 집계 결과 (대소문자 구분 없음, U는 t에 포함)
+ * other = ACGTN이 아닌 IUPAC 코드, gap 등
+ */
+public record NucleotideCounts(long a, long c, long g, long t, long n, long length) {
+
+    public long gcCount() {
+        return g + c;
+    }
+
+    public long atCount() {
+        return a + t;
+    }
+
+    public long other() {
+        return length - a - c - g - t - n;
+    }
+
+    /** GC 비율(%) = (G+C) / 전체 길이 * 100 (N 포함 길이 기준) */
+    public double gcContent() {
+        if (length == 0) return 0.0;
+        return (double) gcCount() / length * 100;
+    }
+}
@@ -0,0 +1,130 @@
+package com.example.bioproject1.service;
+
+import java.lang.foreign.Arena;
+import java.lang.foreign.MemorySegment;
+import java.lang.foreign.ValueLayout;
+import java.util.concurrent.Semaphore;
+
+/**
+ * 힙 밖(off-heap) 메모리에 둔 long -> long 오픈 어드레싱 해시 표 (k-mer 카운트용)
+ * - 슬롯 하나 = 16바이트 [key | OCCUPIED, count], 선형 탐사
+ * - k <= 31 이면 k-mer는 62비트 이하이므로 최상위 비트를 "사용 중" 표시로 씁니다. (빈 슬롯 = 0)
+ * - 스레드 하나만 쓰는 것을 전제로 합니다. (KmerCounter가 파티션마다 표를 하나씩 두고 넣기 스레드 하나가 전담)
+ * - 구역을 할당할 때마다 요청끼리 공유하는 예산(KB 단위 Semaphore)에서 크기만큼 떼어 두고, 해제할 때 돌려줍니다.
+ *   예산이 모자라면 기다리지 않고 KmerMemoryBusyException (요청끼리 서로의 해제를 기다리지 않음)
+ */
+public final class OffHeapKmerTable implements AutoCloseable {
+
+    private static final long OCCUPIED = 1L << 63;
+    private static final long SLOT_BYTES = 16;
+    private static final double MAX_LOAD = 0.7;
+
+    private final long maxBytes;
+    private final Semaphore sharedBudgetKb;
+    private Arena arena;
+    private MemorySegment slots;
+    private long capacity; // 2의 거듭제곱
+    private long size;
+
+    public OffHeapKmerTable(long initialCapacity, long maxBytes, Semaphore sharedBudgetKb) {
+        this.maxBytes = maxBytes;
+        this.sharedBudgetKb = sharedBudgetKb;
+        allocate(Long.highestOneBit(Math.max(16, initialCapacity - 1)) << 1);
+    }
+
+    private void allocate(long newCapacity) {
+        if (newCapacity * SLOT_BYTES > maxBytes) {
+            throw new KmerTableTooLargeException("k-mer 표가 메모리 한도(" + (maxBytes >> 20) + "MB)를 초과했습니다.");
+        }
+        if (!sharedBudgetKb.tryAcquire(kilobytes(newCapacity))) {
+            throw new KmerMemoryBusyException("k-mer 공유 메모리 예산이 부족합니다. 잠시 후 다시 시도하세요.");
+        }
+        Arena newArena = Arena.ofShared();
+        try {
+            this.slots = newArena.allocate(newCapacity * SLOT_BYTES, 8);
+        } catch (RuntimeException | Error e) {
+            newArena.close();
+            sharedBudgetKb.release(kilobytes(newCapacity));
+            throw e;
+        }
+        this.arena = newArena;
+        this.slots.fill((byte) 0);
+        this.capacity = newCapacity;
+        this.size = 0;
+    }
+
+    /** k-mer 하나의 카운트를 1 올립니다. hash는 호출하는 쪽에서 계산한 mix 값 */
+    public void increment(long kmer, long hash) {
+        long key = kmer | OCCUPIED;
+        long mask = capacity - 1;
+        long i = hash & mask;
+        while (true) {
+            long stored = slots.getAtIndex(ValueLayout.JAVA_LONG, i << 1);
+            if (stored == key) {
+                long countIndex = (i << 1) + 1;
+                slots.setAtIndex(ValueLayout.JAVA_LONG, countIndex, slots.getAtIndex(ValueLayout.JAVA_LONG, countIndex) + 1);
+                return;
+            }
+            if (stored == 0) {
+                slots.setAtIndex(ValueLayout.JAVA_LONG, i << 1, key);
+                slots.setAtIndex(ValueLayout.JAVA_LONG, (i << 1) + 1, 1L);
+                if (++size > capacity * MAX_LOAD) grow();
+                return;
+            }
+            i = (i + 1) & mask;
+        }
+    }
+
+    private static int kilobytes(long capacity) {
+        return (int) ((capacity * SLOT_BYTES + 1023) >> 10);
+    }
+
+    // 두 배 크기의 새 구역으로 옮기고 이전 구역은 바로 해제 (옮기는 동안은 두 구역 모두 예산에 잡힘)
+    private void grow() {
+        Arena oldArena = arena;
+        MemorySegment oldSlots = slots;
+        long oldCapacity = capacity;
+        allocate(oldCapacity << 1);
+        long mask = capacity - 1;
+        for (long j = 0; j < oldCapacity; j++) {
+            long key = oldSlots.getAtIndex(ValueLayout.JAVA_LONG, j << 1);
+            if (key == 0) continue;
+            long count = oldSlots.getAtIndex(ValueLayout.JAVA_LONG, (j << 1) + 1);
+            long i = KmerCounter.mix(key & ~OCCUPIED) & mask;
+            while (slots.getAtIndex(ValueLayout.JAVA_LONG, i << 1) != 0) i = (i + 1) & mask;
+            slots.setAtIndex(ValueLayout.JAVA_LONG, i << 1, key);
+            slots.setAtIndex(ValueLayout.JAVA_LONG, (i << 1) + 1, count);
+            size++;
+        }
+        oldArena.close();
+        sharedBudgetKb.release(kilobytes(oldCapacity));
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /** 사용 중인 슬롯을 순회합니다. (객체 생성 없음) */
+    public void forEach(KmerCountConsumer consumer) {
+        for (long j = 0; j < capacity; j++) {
+            long key = slots.getAtIndex(ValueLayout.JAVA_LONG, j << 1);
+            if (key != 0) {
+                consumer.accept(key & ~OCCUPIED, slots.getAtIndex(ValueLayout.JAVA_LONG, (j << 1) + 1));
+            }
+        }
+    }
+
+    @Override
+    public void close() {
+        if (arena != null) {
+            arena.close();
+            arena = null;
+            sharedBudgetKb.release(kilobytes(capacity));
+        }
+    }
+
+    @FunctionalInterface
+    public interface KmerCountConsumer {
+        void accept(long kmer, long count);
+    }
+}
@@ -0,0 +1,96 @@
+package com.example.bioproject1.service;
+
+/**
+ * 염기 하나를 2비트로 압축한 서열 (A=0, C=1, G=2, T/U=3)
+ * - long 하나에 32염기, i번째 염기는 (i % 32) * 2 비트 위치에 저장
+ * - N과 기타 IUPAC 코드(R, Y, -, ...)는 별도 비트마스크로 표시하고 2비트 값은 0으로 둡니다.
+ * - 대소문자는 구분하지 않습니다.
+ */
+public final class PackedSequence {
+
+    public static final int A = 0, C = 1, G = 2, T = 3;
+
+    static final int BASES_PER_WORD = 32;
+
+    private static final byte AMBIGUOUS = 4;
+    private static final byte[] CODES = new byte[256];
+
+    static {
+        java.util.Arrays.fill(CODES, AMBIGUOUS);
+        CODES['A'] = A; CODES['a'] = A;
+        CODES['C'] = C; CODES['c'] = C;
+        CODES['G'] = G; CODES['g'] = G;
+        CODES['T'] = T; CODES['t'] = T;
+        CODES['U'] = T; CODES['u'] = T;
+    }
+
+    private final long[] bases;      // 2비트 염기 코드
+    private final long[] ambiguous;  // ACGT가 아닌 위치 (N 포함)
+    private final long[] nMask;      // N 위치
+    private final int length;
+
+    private PackedSequence(long[] bases, long[] ambiguous, long[] nMask, int length) {
+        this.bases = bases;
+        this.ambiguous = ambiguous;
+        this.nMask = nMask;
+        this.length = length;
+    }
+
+    /**
+     * ASCII 염기 바이트 배열을 2비트 형식으로 압축합니다.
+     */
+    public static PackedSequence pack(byte[] sequence) {
+        int length = sequence.length;
+        long[] bases = new long[(length + BASES_PER_WORD - 1) / BASES_PER_WORD];
+        long[] ambiguous = new long[(length + 63) >>> 6];
+        long[] nMask = new long[ambiguous.length];
+
+        for (int w = 0; w < bases.length; w++) {
+            int from = w * BASES_PER_WORD;
+            int to = Math.min(from + BASES_PER_WORD, length);
+            long word = 0L;
+            for (int i = from; i < to; i++) {
+                int b = sequence[i] & 0xFF;
+                int code = CODES[b];
+                if (code == AMBIGUOUS) {
+                    ambiguous[i >>> 6] |= 1L << i;
+                    if (b == 'N' || b == 'n') nMask[i >>> 6] |= 1L << i;
+                } else {
+                    word |= (long) code << ((i - from) << 1);
+                }
+            }
+            bases[w] = word;
+        }
+        return new PackedSequence(bases, ambiguous, nMask, length);
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * @return i번째 염기의 2비트 코드, ACGT가 아니면 -1
+     */
+    public int code(int i) {
+        if (isAmbiguous(i)) return -1;
+        return (int) (bases[i >>> 5] >>> ((i & 31) << 1)) & 3;
+    }
+
+    public boolean isAmbiguous(int i) {
+        return (ambiguous[i >>> 6] & (1L << i)) != 0;
+    }
+
+    public boolean isN(int i) {
+        return (nMask[i >>> 6] & (1L << i)) != 0;
+    }
+
+    // --- 카운팅 커널(BaseComposition)용 원시 워드 접근 ---
+
+    long[] baseWords() {
+        return bases;
+    }
+
+    long[] ambiguousWords() {
+        return ambiguous;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.bioproject1.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.composite.CompositeMeterRegistry;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 검색/추출/파싱/하이라이트/동시 출현 집계/FASTA 단계별 지표 (Micrometer, /actuator/prometheus 로 수집)
+ * - 타이머는 모두 히스토그램을 내보내므로 Prometheus에서 단계별 p99를 계산할 수 있습니다.
+ *   예) histogram_quantile(0.99, sum by (le, api) (rate(pubtator_api_request_seconds_bucket[5m])))
+ * - 지표는 생성 시 한 번만 등록해 두고, 기록할 때는 이름/태그 조회 없이 nanoTime 차이만 넘깁니다.
+ */
+@Component
+public class PipelineMetrics {
+
+    private final Timer searchSuccess;
+    private final Timer searchFailure;
+    private final Timer exportSuccess;
+    private final Timer exportFailure;
+    private final Timer parse;
+    private final Timer highlight;
+    private final Timer fastaRecord;
+    private final Timer cooccurrence;
+
+    private final Counter documentsExported;
+    private final Counter documentsFromCache;
+    private final Counter documentsFromLocal;
+    private final Counter annotationsKept;
+    private final Counter annotationsFiltered;
+    private final DistributionSummary exportBytes;
+    private final Counter cooccurrenceDocuments;
+
+    private final Counter fastaRecords;
+    private final Counter fastaBases;
+    private final DistributionSummary fastaBytes;
+
+    public PipelineMetrics(MeterRegistry registry) {
+        this.searchSuccess = apiTimer(registry, "search", "success");
+        this.searchFailure = apiTimer(registry, "search", "failure");
+        this.exportSuccess = apiTimer(registry, "export", "success");
+        this.exportFailure = apiTimer(registry, "export", "failure");
+        this.parse = Timer.builder("pubtator.parse")
+                .description("export 응답 BioC JSON 스트리밍 파싱 시간 (응답 하나, 하이라이트 시간 제외)")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(10))
+                .register(registry);
+        this.highlight = Timer.builder("pubtator.highlight")
+                .description("문서 하나의 초록 결합 + 구간 병합 + HTML 렌더링 시간")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .maximumExpectedValue(Duration.ofMillis(100))
+                .register(registry);
+        this.fastaRecord = Timer.builder("fasta.record.analysis")
+                .description("FASTA 레코드 하나의 분석 시간 (GC/코돈, 6-frame 포함)")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofNanos(1000))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+
+        this.cooccurrence = Timer.builder("pubtator.cooccurrence")
+                .description("검색 결과 문서들의 개체 동시 출현 집계 시간 (병렬 집계 + 병합 + 상위 쌍 선택)")
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(1))
+                .maximumExpectedValue(Duration.ofSeconds(30))
+                .register(registry);
+        this.cooccurrenceDocuments = Counter.builder("pubtator.cooccurrence.documents")
+                .description("동시 출현 집계에 넣은 문서 수")
+                .register(registry);
+
+        this.documentsExported = documentCounter(registry, "export");
+        this.documentsFromCache = documentCounter(registry, "cache");
+        this.documentsFromLocal = documentCounter(registry, "local");
+        this.annotationsKept = annotationCounter(registry, "kept");
+        this.annotationsFiltered = annotationCounter(registry, "filtered");
+        this.exportBytes = DistributionSummary.builder("pubtator.export.response.size")
+                .description("export 응답 본문 크기")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+
+        this.fastaRecords = Counter.builder("fasta.records")
+                .description("분석한 FASTA 레코드 수")
+                .register(registry);
+        this.fastaBases = Counter.builder("fasta.bases")
+                .description("분석한 FASTA 서열 길이 합")
+                .baseUnit("bases")
+                .register(registry);
+        this.fastaBytes = DistributionSummary.builder("fasta.input.size")
+                .description("FASTA 분석 요청 하나의 입력 크기")
+                .baseUnit("bytes")
+                .publishPercentileHistogram()
+                .register(registry);
+    }
+
+    /** 어디에도 내보내지 않는 지표 (스프링 밖에서 서비스를 직접 만들 때) */
+    public static PipelineMetrics noop() {
+        return new PipelineMetrics(new CompositeMeterRegistry());
+    }
+
+    private static Timer apiTimer(MeterRegistry registry, String api, String outcome) {
+        return Timer.builder("pubtator.api.request")
+                .description("NCBI 호출 시간 (동시 요청 대기, 속도 제한, 재시도, 응답 처리 포함)")
+                .tags("api", api, "outcome", outcome)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofSeconds(60))
+                .register(registry);
+    }
+
+    private static Counter documentCounter(MeterRegistry registry, String source) {
+        return Counter.builder("pubtator.documents")
+                .description("하이라이트 대상 문서 수 (export = NCBI에서 받음, cache = 문서 캐시, local = 로컬 코퍼스)")
+                .tags("source", source)
+                .register(registry);
+    }
+
+    private static Counter annotationCounter(MeterRegistry registry, String result) {
+        return Counter.builder("pubtator.annotations")
+                .description("하이라이트 단계의 주석 수 (kept = 타입/품질 규칙 통과, filtered = 제외)")
+                .tags("result", result)
+                .register(registry);
+    }
+
+    public void recordSearchCall(long nanos, boolean success) {
+        (success ? searchSuccess : searchFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordExportCall(long nanos, boolean success) {
+        (success ? exportSuccess : exportFailure).record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void recordParse(long nanos, int documents, long bytes) {
+        parse.record(nanos, TimeUnit.NANOSECONDS);
+        documentsExported.increment(documents);
+        exportBytes.record(bytes);
+    }
+
+    public void recordHighlight(long nanos, int kept, int filtered) {
+        highlight.record(nanos, TimeUnit.NANOSECONDS);
+        if (kept > 0) annotationsKept.increment(kept);
+        if (filtered > 0) annotationsFiltered.increment(filtered);
+    }
+
+    public void recordCachedDocuments(int count) {
+        if (count > 0) documentsFromCache.increment(count);
+    }
+
+    public void recordLocalDocuments(int count) {
+        if (count > 0) documentsFromLocal.increment(count);
+    }
+
+    public void recordCooccurrence(long nanos, int documents) {
+        cooccurrence.record(nanos, TimeUnit.NANOSECONDS);
+        cooccurrenceDocuments.increment(documents);
+    }
+
+    public void recordFastaRecord(long nanos, int length) {
+        fastaRecord.record(nanos, TimeUnit.NANOSECONDS);
+        fastaRecords.increment();
+        fastaBases.increment(length);
+    }
+
+    public void recordFastaInput(long bytes) {
+        fastaBytes.record(bytes);
+    }
+}
@@ -0,0 +1,55 @@
+package com.example.bioproject1.service;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+/**
+ * PubTator 검색 설정 (pubtator.api.*, pubtator.search.*, pubtator.export.*)
+ * 설정에 없는 항목(null)은 여기의 기본값을 씁니다. (기본값은 이 클래스에만 둠)
+ */
+@ConfigurationProperties("pubtator")
+public record PubTatorProperties(Api api, Search search, Export export) {
+
+    public PubTatorProperties {
+        if (api == null) api = new Api(null, null);
+        if (search == null) search = new Search(null, null, null);
+        if (export == null) export = new Export(null);
+    }
+
+    /** 모든 항목이 기본값 */
+    public static PubTatorProperties defaults() {
+        return new PubTatorProperties(null, null, null);
+    }
+
+    /**
+     * @param searchUrl (v3) 1단계 검색 API (키워드 -> PMID)
+     * @param exportUrl (v3) 2단계 추출 API (PMID -> BioC JSON)
+     */
+    public record Api(String searchUrl, String exportUrl) {
+        public Api {
+            if (searchUrl == null) searchUrl = "https://www.ncbi.nlm.nih.gov/research/pubtator3-api/search/";
+            if (exportUrl == null) exportUrl = "https://www.ncbi.nlm.nih.gov/research/pubtator3-api/publications/export/biocjson";
+        }
+    }
+
+    /**
+     * @param defaultLimit limit을 생략한 요청의 논문 수
+     * @param maxLimit 요청 하나가 가져올 수 있는 최대 논문 수
+     * @param source remote = 항상 NCBI, local = 로컬 코퍼스만, auto = 로컬 코퍼스에 결과가 있으면 로컬, 없으면 NCBI
+     */
+    public record Search(Integer defaultLimit, Integer maxLimit, String source) {
+        public Search {
+            if (defaultLimit == null) defaultLimit = 10;
+            if (maxLimit == null) maxLimit = 500;
+            if (source == null) source = "remote";
+        }
+    }
+
+    /**
+     * @param batchSize export 요청 하나에 넣는 PMID 수
+     */
+    public record Export(Integer batchSize) {
+        public Export {
+            if (batchSize == null) batchSize = 20;
+        }
+    }
+}
@@ -4,312 +4,547 @@ import com.example.bioproject1.dto.*; // 모든 DTO 임포트
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.DeserializationFeature; // 추가
 import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
 import java.net.URI;
-import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
 import java.util.*; // List, ArrayList, Comparator, Arrays, LinkedList, Set 사용
-import java.util.stream.Collectors;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Function;
 
 @Service
 public class PubTatorService {
 
-    private static final String HIGHLIGHT_START = "<mark class='highlight'>";
-    private static final String HIGHLIGHT_END = "</mark>";
+    private static final Logger log = LoggerFactory.getLogger(PubTatorService.class);
 
-    // (v3) 1단계: 검색 API (키워드 -> PMID)
-    private static final String SEARCH_API_URL = "https://www.ncbi.nlm.nih.gov/research/pubtator3-api/search/";
-    // (v3) 2단계: 추출 API (PMID -> 상세정보)
-    private static final String EXPORT_API_URL = "https://www.ncbi.nlm.nih.gov/research/pubtator3-api/publications/export/biocjson";
+    // 오류 메시지에 포함할 응답 본문 최대 길이
+    private static final int ERROR_EXCERPT_LENGTH = 300;
+    // export 응답에서 몇 개 문서마다 캐시에 넣고 색인 대기열에 넘길지
+    private static final int STORE_CHUNK = 8;
+    // 대기 중인 로컬 코퍼스 색인 작업 수 (넘치면 그 작업은 건너뜀, 다음 캐시 적중 때 다시 색인)
+    private static final int INDEX_QUEUE_CAPACITY = 256;
 
     private final ObjectMapper objectMapper;
-    private final HttpClient httpClient;
+    private final BioCJsonStreamParser bioCParser;
+    private final ThreadLocal<HighlightEngine> highlighter = ThreadLocal.withInitial(HighlightEngine::new);
+    private final NcbiClient ncbiClient; // 속도 제한 + 시간 초과 + 재시도 + 서킷 브레이커
+    private final PipelineMetrics metrics;
+    private final String searchApiUrl;
+    private final String exportApiUrl;
+
+    private final BioCDocumentCache documentCache; // null이면 매번 export API 호출
+    private final LiteratureIndexService literatureIndex; // null이면 로컬 코퍼스에 저장하지 않음
+    // 로컬 코퍼스 색인 전용 스레드: H2 쓰기가 export 응답 처리(NCBI 동시 요청 허가를 쥔 동안)를 막지 않도록 분리
+    private final ThreadPoolExecutor indexExecutor;
+
+    private final int defaultLimit;
+    private final int maxLimit;
+    private final int exportBatchSize;
+    // 검색 출처: remote = 항상 NCBI, local = 로컬 코퍼스만, auto = 로컬 코퍼스에 결과가 있으면 로컬, 없으면 NCBI
+    private final String searchSource;
 
     public PubTatorService() {
+        this(null, null, new NcbiClient(), PipelineMetrics.noop(), PubTatorProperties.defaults());
+    }
+
+    @Autowired
+    public PubTatorService(BioCDocumentCache documentCache,
+                           LiteratureIndexService literatureIndex,
+                           NcbiClient ncbiClient,
+                           PipelineMetrics metrics,
+                           PubTatorProperties properties) {
+        this.documentCache = documentCache;
+        this.literatureIndex = literatureIndex;
+        this.ncbiClient = ncbiClient;
+        this.metrics = metrics;
+        this.searchApiUrl = properties.api().searchUrl();
+        this.exportApiUrl = properties.api().exportUrl();
         this.objectMapper = new ObjectMapper();
         // DTO에 없는 필드가 JSON에 있어도 에러가 나지 않도록 설정
         this.objectMapper.configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false);
-        this.httpClient = HttpClient.newHttpClient();
+        this.bioCParser = new BioCJsonStreamParser(objectMapper);
+        this.maxLimit = Math.max(1, properties.search().maxLimit());
+        this.defaultLimit = Math.max(1, Math.min(properties.search().defaultLimit(), this.maxLimit));
+        this.exportBatchSize = Math.max(1, properties.export().batchSize());
+        this.searchSource = properties.search().source().trim().toLowerCase(Locale.ROOT);
+        if (!List.of("remote", "local", "auto").contains(this.searchSource)) {
+            throw new IllegalArgumentException("pubtator.search.source는 remote, local, auto 중 하나여야 합니다: "
+                    + properties.search().source());
+        }
+        this.indexExecutor = literatureIndex != null && literatureIndex.isEnabled()
+                ? new ThreadPoolExecutor(1, 1, 0, TimeUnit.MILLISECONDS,
+                        new ArrayBlockingQueue<>(INDEX_QUEUE_CAPACITY), r -> {
+                            Thread t = new Thread(r, "pubtator-index");
+                            t.setDaemon(true);
+                            return t;
+                        })
+                : null;
     }
 
-    /**
-     * 2단계 API 호출 로직 (v3 검색 -> v3 추출)
-     */
-    public List<HighlightedAbstract> searchAndHighlight(String keywords) throws IOException, InterruptedException {
+    // 남은 색인 작업은 잠시 기다려서 마침 (H2가 먼저 닫히지 않도록 종료 시간 제한)
+    @PreDestroy
+    public void shutdown() throws InterruptedException {
+        if (indexExecutor == null) return;
+        indexExecutor.shutdown();
+        if (!indexExecutor.awaitTermination(10, TimeUnit.SECONDS)) {
+            indexExecutor.shutdownNow();
+        }
+    }
 
-        System.out.println("--- (V7 - 접촉 병합 방지(>=) / Identifier 필터) 로직 실행 중 ---");
+    /** 요청한 논문 수를 [1, max-limit] 범위로 맞춤 (null = 기본값) */
+    public int resolveLimit(Integer requested) {
+        if (requested == null) return defaultLimit;
+        return Math.max(1, Math.min(requested, maxLimit));
+    }
 
-        // --- 1단계: 키워드(free text)로 PMID 목록 검색 ---
-        URI searchUri = UriComponentsBuilder.fromHttpUrl(SEARCH_API_URL)
-                .queryParam("text", keywords)
-                .queryParam("limit", "10") // 10개로 제한
-                .build(false)
-                .toUri();
+    public List<HighlightedAbstract> searchAndHighlight(String keywords) throws IOException, InterruptedException {
+        return searchAndHighlight(keywords, defaultLimit);
+    }
 
-        System.out.println("1단계 (검색) API 요청 URI: " + searchUri);
-        HttpRequest searchRequest = HttpRequest.newBuilder().uri(searchUri).GET().build();
-        HttpResponse<String> searchResponse = httpClient.send(searchRequest, HttpResponse.BodyHandlers.ofString());
+    /**
+     * 2단계 API 호출 로직 (v3 검색 -> v3 추출), 결과는 검색 순위 순서
+     */
+    public List<HighlightedAbstract> searchAndHighlight(String keywords, int limit) throws IOException, InterruptedException {
+        return searchAndHighlight(keywords, limit, EntityTypeFilter.CORE);
+    }
 
-        if (searchResponse.statusCode() != 200) {
-            throw new RuntimeException("1단계 (검색) API 호출 실패: " + searchResponse.statusCode() + " - " + searchResponse.body());
-        }
+    /**
+     * @param types 하이라이트할 주석 타입 (요청별 설정, 기본값 EntityTypeFilter.CORE)
+     */
+    public List<HighlightedAbstract> searchAndHighlight(String keywords, int limit, EntityTypeFilter types)
+            throws IOException, InterruptedException {
+        List<HighlightedAbstract> finalResults = new ArrayList<>();
+        SearchSummary summary = searchAndHighlight(keywords, limit, types, finalResults::add);
 
-        PubTatorSearchResponse searchResult = objectMapper.readValue(searchResponse.body(), PubTatorSearchResponse.class);
-        if (searchResult.results() == null || searchResult.results().isEmpty()) {
-            System.out.println("1단계 (검색) 결과 없음.");
-            return new ArrayList<>();
+        if (finalResults.isEmpty()) {
+            if (summary.pmidCount() > 0) {
+                log.debug("API 결과에 documents가 없거나 비어있습니다: {}", keywords);
+            }
+            return finalResults;
         }
+        sortInSearchOrder(finalResults, summary.pmids());
 
-        String pmids = searchResult.results().stream()
-                .map(SearchResult::pmid)
-                .collect(Collectors.joining(","));
+        log.debug("{}로 {}개 논문 처리 완료", keywords, finalResults.size());
+        return finalResults;
+    }
 
-        System.out.println("1단계 성공: 10개 PMID 획득 (" + pmids + ")");
+    /**
+     * 스트리밍 버전: 하이라이트가 끝난 논문을 도착한 순서대로 sink에 넘깁니다.
+     * - 검색은 첫 페이지로 전체 페이지 수를 알아낸 뒤 필요한 나머지 페이지를 동시에 요청
+     * - 캐시 적중분을 먼저 넘기고, 놓친 PMID는 exportBatchSize개씩 나눠 동시에 export
+     * - sink는 항상 호출한 스레드에서만 불리므로 따로 동기화할 필요가 없음
+     */
+    public SearchSummary searchAndHighlight(String keywords, int limit, Consumer<HighlightedAbstract> sink)
+            throws IOException, InterruptedException {
+        return searchAndHighlight(keywords, limit, EntityTypeFilter.CORE, sink);
+    }
 
+    public SearchSummary searchAndHighlight(String keywords, int limit, EntityTypeFilter types,
+                                           Consumer<HighlightedAbstract> sink) throws IOException, InterruptedException {
+        return searchAndHighlight(keywords, limit, types, progress -> {}, sink);
+    }
 
-        // --- 2단계: 획득한 PMID로 상세 정보(BioC JSON) 추출 ---
-        URI exportUri = UriComponentsBuilder.fromHttpUrl(EXPORT_API_URL)
-                .queryParam("pmids", pmids)
-                .build(false)
-                .toUri();
+    /**
+     * @param progress PMID 목록이 정해지면 (첫 결과보다 먼저) 한 번 불림, sink와 같은 스레드
+     */
+    public SearchSummary searchAndHighlight(String keywords, int limit, EntityTypeFilter types,
+                                           Consumer<SearchProgress> progress, Consumer<HighlightedAbstract> sink)
+            throws IOException, InterruptedException {
+        return searchDocuments(keywords, resolveLimit(limit), doc -> highlightDocument(doc, types), progress, sink);
+    }
 
-        System.out.println("2단계 (추출) API 요청 URI: " + exportUri);
-        HttpRequest exportRequest = HttpRequest.newBuilder().uri(exportUri).GET().build();
-        HttpResponse<String> exportResponse = httpClient.send(exportRequest, HttpResponse.BodyHandlers.ofString());
+    /**
+     * 검색 결과 문서마다 perDocument를 적용해 결과(null 제외)를 도착한 순서대로 sink에 넘깁니다.
+     * 하이라이트와 같은 경로(로컬 코퍼스, 캐시, export batch, NCBI 사용 불가 시 대체)를 그대로 씁니다.
+     * perDocument는 export 응답을 파싱하는 스레드에서도 불리므로 스레드 안전해야 합니다. (sink는 호출한 스레드에서만)
+     * @param limit 논문 수 (max-limit으로 자르지 않음, 호출한 쪽에서 정한 값)
+     */
+    public <T> SearchSummary searchDocuments(String keywords, int limit, Function<BioCDocument, T> perDocument,
+                                             Consumer<T> sink) throws IOException, InterruptedException {
+        return searchDocuments(keywords, limit, perDocument, progress -> {}, sink);
+    }
 
-        if (exportResponse.statusCode() != 200) {
-            throw new RuntimeException("2단계 (추출) API 호출 실패: " + exportResponse.statusCode() + " - " + exportResponse.body());
+    /**
+     * @param progress PMID 목록과 캐시 적중 수가 정해지면 sink보다 먼저 한 번 불림 (결과가 없어도 불림)
+     */
+    public <T> SearchSummary searchDocuments(String keywords, int limit, Function<BioCDocument, T> perDocument,
+                                             Consumer<SearchProgress> progress, Consumer<T> sink)
+            throws IOException, InterruptedException {
+        long started = System.nanoTime();
+
+        int resolvedLimit = Math.max(1, limit);
+        if (!searchSource.equals("remote") && literatureIndex != null) {
+            // 대량 적재한 로컬 코퍼스에서 먼저 찾음 (auto는 결과가 없을 때만 NCBI로 넘어감)
+            List<String> local = findLocal(keywords, resolvedLimit);
+            if (searchSource.equals("local") || !local.isEmpty()) {
+                return searchLocal(keywords, resolvedLimit, local, perDocument, progress, sink, started, "local");
+            }
         }
 
-        String exportBody = exportResponse.body();
-        List<BioCDocument> documents;
-
+        // --- 1단계: 키워드(free text)로 PMID 목록 검색 ---
+        List<String> pmids;
         try {
-            // 원본 JSON 구조 {"PubTator3": [...]} 에 맞는 DTO로 파싱
-            PubTator3ExportResponse responseDto = objectMapper.readValue(exportBody, PubTator3ExportResponse.class);
+            pmids = searchPmids(keywords, resolvedLimit);
+        } catch (NcbiUnavailableException e) {
+            // NCBI에 닿지 않으면 로컬 코퍼스(이전에 받은 문서)에서 찾은 결과로 대체, 그것도 없으면 그대로 실패
+            if (literatureIndex == null) throw e;
+            log.warn("1단계 (검색) NCBI 사용 불가, 로컬 코퍼스로 대체: {}", e.getMessage());
+            List<String> local = findLocal(keywords, resolvedLimit);
+            if (local.isEmpty()) throw e;
+            return searchLocal(keywords, resolvedLimit, local, perDocument, progress, sink, started, "fallback");
+        }
+        if (pmids.isEmpty()) {
+            log.debug("1단계 (검색) 결과 없음: {}", keywords);
+            progress.accept(new SearchProgress(keywords, 0, 0, "remote"));
+            return new SearchSummary(keywords, resolvedLimit, pmids, 0, 0, 0, 0, "remote", elapsedMillis(started));
+        }
 
-            // DTO의 필드명(documents)에 맞춰 'documents()' 호출로 변경
-            documents = responseDto.documents();
+        log.debug("1단계 성공: {}개 PMID 획득", pmids.size());
 
-            System.out.println("파싱 성공 (PubTator3ExportResponse DTO)");
 
-        } catch (Exception e) {
-            System.err.println("!!! 2단계 (추출) JSON 파싱 실패: " + e.getMessage());
-            System.out.println("--- 2단계 원본 응답 ---");
-            System.out.println(exportBody);
-            System.out.println("----------------------");
-            documents = new ArrayList<>();
-        }
+        // --- 2단계: 캐시에 없는 PMID만 상세 정보(BioC JSON) 추출 ---
+        Map<String, BioCDocument> cached = documentCache != null ? documentCache.getAll(pmids) : Map.of();
+        List<String> missing = pmids.stream().filter(pmid -> !cached.containsKey(pmid)).toList();
+        log.debug("2단계 캐시 적중: {}개, 추출 필요: {}개", cached.size(), missing.size());
+        metrics.recordCachedDocuments(cached.size());
+        indexMissing(cached.values());
+        progress.accept(new SearchProgress(keywords, pmids.size(), cached.size(), "remote"));
 
-        List<HighlightedAbstract> finalResults = new ArrayList<>();
-        if (documents == null || documents.isEmpty()) {
-            System.out.println("API 결과에 documents가 없거나 비어있습니다. (응답 본문 확인 필요)");
-            return finalResults;
+        // --- (수정) 3단계: 하이라이팅 로직 변경 ---
+        // 캐시 적중분은 export를 기다리지 않고 바로 하이라이트해서 넘김
+        int emitted = 0;
+        for (T result : processAll(cached.values(), perDocument)) {
+            sink.accept(result);
+            emitted++;
         }
 
-        // --- (수정) 3단계: 하이라이팅 로직 변경 ---
-        for (BioCDocument doc : documents) {
-            String title = "";
-            List<BioCPassage> abstractPassages = new ArrayList<>();
-
-            for (BioCPassage passage : doc.passages()) {
-                if (passage.infons() != null && "title".equalsIgnoreCase(passage.infons().type())) {
-                    title = passage.text();
-                } else if (passage.infons() != null && "abstract".equalsIgnoreCase(passage.infons().type())) {
-                    // 초록 구절들을 리스트에 수집 (결합은 나중에)
-                    abstractPassages.add(passage);
+        List<List<String>> batches = new ArrayList<>();
+        for (int from = 0; from < missing.size(); from += exportBatchSize) {
+            batches.add(missing.subList(from, Math.min(from + exportBatchSize, missing.size())));
+        }
+        AtomicInteger unavailable = new AtomicInteger();
+        if (!batches.isEmpty()) {
+            // 전송은 별도 가상 스레드가 동시 요청 허가를 얻는 대로 하고, 이 스레드는 끝난 batch부터 받아서 넘김
+            BlockingQueue<CompletableFuture<List<T>>> arrived = new LinkedBlockingQueue<>();
+            Thread dispatcher = Thread.ofVirtual().name("pubtator-export-dispatch").start(() -> {
+                for (List<String> batch : batches) {
+                    try {
+                        CompletableFuture<List<T>> export = exportAsync(batch, perDocument)
+                                .exceptionally(error -> exportFallback(batch, perDocument, error, unavailable));
+                        export.whenComplete((result, error) -> arrived.add(export));
+                    } catch (InterruptedException | RuntimeException e) {
+                        arrived.add(CompletableFuture.failedFuture(e)); // 받는 쪽이 take()에서 멈추지 않도록
+                        return;
+                    }
                 }
-            }
-
-            if (!abstractPassages.isEmpty()) {
-                // (NEW) 새 헬퍼 메소드 호출
-                MergeResult mergeResult = buildCombinedAbstractAndIntervals(abstractPassages);
-                String highlightedHtml = renderHighlight(mergeResult.combinedText, mergeResult.intervals);
-
-                // (수정) 프론트엔드(index.html)가 사용하는 'abstractHtml' 필드명으로 DTO 생성
-                finalResults.add(new HighlightedAbstract(doc.id(), title, highlightedHtml));
+            });
+            try {
+                for (int received = 0; received < batches.size(); received++) {
+                    for (T result : await(arrived.take())) {
+                        sink.accept(result);
+                        emitted++;
+                    }
+                }
+            } finally {
+                dispatcher.interrupt(); // 실패/중단 시 남은 batch는 보내지 않음 (정상 종료면 이미 끝난 스레드)
             }
         }
         // --- (수정 완료) ---
 
-        System.out.println(keywords + " (사용한 쿼리: " + keywords + ")로 " + finalResults.size() + "개 논문 처리 완료.");
-        return finalResults;
+        return new SearchSummary(keywords, resolvedLimit, pmids, pmids.size(), emitted, cached.size(), unavailable.get(),
+                "remote", elapsedMillis(started));
     }
 
+    // export batch가 NCBI 사용 불가로 실패하면 로컬 코퍼스에 있는 문서만으로 부분 결과를 만듦 (다른 오류는 그대로 실패)
+    private <T> List<T> exportFallback(List<String> batch, Function<BioCDocument, T> perDocument, Throwable error,
+                                       AtomicInteger unavailable) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        if (!(cause instanceof NcbiUnavailableException)) {
+            throw error instanceof CompletionException ce ? ce : new CompletionException(cause);
+        }
+        List<BioCDocument> stored = literatureIndex != null ? literatureIndex.findDocuments(batch) : List.of();
+        unavailable.addAndGet(batch.size() - stored.size());
+        metrics.recordLocalDocuments(stored.size());
+        log.warn("2단계 (추출) NCBI 사용 불가, {}개 중 로컬 코퍼스 {}개로 대체: {}", batch.size(), stored.size(), cause.getMessage());
+        return processAll(stored, perDocument);
+    }
 
-    // XSS 방지
-    private String escapeHtml(String s) {
-        if (s == null) return "";
-        return s.replace("&", "&amp;")
-                .replace("<", "&lt;")
-                .replace(">", "&gt;");
+    // 로컬 코퍼스(H2 역색인)로 PMID를 찾고 저장된 문서를 바로 하이라이트 (NCBI 호출 없음)
+    private <T> SearchSummary searchLocal(String keywords, int limit, List<String> pmids,
+                                          Function<BioCDocument, T> perDocument, Consumer<SearchProgress> progress,
+                                          Consumer<T> sink, long started, String source) {
+        progress.accept(new SearchProgress(keywords, pmids.size(), 0, source));
+        List<BioCDocument> documents = literatureIndex.findDocuments(pmids);
+        metrics.recordLocalDocuments(documents.size());
+        int emitted = 0;
+        for (T result : processAll(documents, perDocument)) {
+            sink.accept(result);
+            emitted++;
+        }
+        log.debug("로컬 코퍼스 검색: {}개 PMID, {}개 논문 하이라이트", pmids.size(), emitted);
+        return new SearchSummary(keywords, limit, pmids, pmids.size(), emitted, 0, 0, source, elapsedMillis(started));
     }
 
-    // --- (NEW) 제안해주신 헬퍼 메소드들 추가 ---
+    private List<String> findLocal(String keywords, int limit) {
+        return literatureIndex.search(keywords, limit).stream().map(LocalPaper::pmid).toList();
+    }
 
-    // 보정된 구간 목록과 결합 텍스트를 담는 간단 DTO
-    static class MergeResult {
-        final String combinedText;
-        final List<int[]> intervals;
-        MergeResult(String t, List<int[]> iv) { this.combinedText = t; this.intervals = iv; }
+    private static long elapsedMillis(long startedNanos) {
+        return (System.nanoTime() - startedNanos) / 1_000_000;
     }
 
     /**
-     * (NEW) abstract passage들을 결합하고, 각 annotation의 offset을 base로 보정
-     * (제안해주신 로직 기반으로 수정)
+     * /search/ 페이지를 돌며 limit개까지 PMID를 모읍니다. (중복 제거, 검색 순위 순서 유지)
+     * 페이지 크기는 API가 정한 값(첫 페이지의 page_size)을 쓰고, limit을 채우는 데 필요한 페이지만 요청합니다.
+     * 중복 PMID 때문에 모자라면 마지막 페이지까지 이어서 요청합니다.
      */
-    private MergeResult buildCombinedAbstractAndIntervals(List<BioCPassage> abstractPassages) {
-        StringBuilder sb = new StringBuilder();
-        List<int[]> allIntervals = new ArrayList<>();
-        int baseOffset = 0;
-        boolean firstPassage = true;
-
-        for (BioCPassage passage : abstractPassages) {
-            String passageText = Optional.ofNullable(passage.text()).orElse("");
-            if (passageText.isEmpty() && (passage.annotations() == null || passage.annotations().isEmpty())) {
-                continue; // 텍스트도 주석도 없는 빈 구절은 건너뜀
+    private List<String> searchPmids(String keywords, int limit) throws IOException, InterruptedException {
+        PubTatorSearchResponse first = await(searchPageAsync(keywords, 1));
+        if (first.results() == null || first.results().isEmpty()) return List.of();
+
+        int pageSize = first.pageSize() != null && first.pageSize() > 0 ? first.pageSize() : first.results().size();
+        int totalPages = first.totalPages() != null ? first.totalPages() : Integer.MAX_VALUE;
+
+        Set<String> pmids = new LinkedHashSet<>();
+        addPmids(first, pmids, limit);
+        int nextPage = 2;
+        while (pmids.size() < limit && nextPage <= totalPages) {
+            int pagesNeeded = (limit - pmids.size() + pageSize - 1) / pageSize;
+            int lastPage = (int) Math.min((long) nextPage + pagesNeeded - 1, totalPages);
+            List<CompletableFuture<PubTatorSearchResponse>> pages = new ArrayList<>();
+            for (int page = nextPage; page <= lastPage; page++) {
+                pages.add(searchPageAsync(keywords, page));
+            }
+            nextPage = lastPage + 1;
+
+            int before = pmids.size();
+            boolean exhausted = false;
+            for (CompletableFuture<PubTatorSearchResponse> page : pages) {
+                PubTatorSearchResponse response = await(page);
+                if (response.results() == null || response.results().isEmpty()) exhausted = true;
+                addPmids(response, pmids, limit);
             }
+            // 빈 페이지(마지막 이후)나 새 PMID가 없는 페이지면 더 요청하지 않음
+            if (exhausted || pmids.size() == before) break;
+        }
+        return new ArrayList<>(pmids);
+    }
 
-            if (!firstPassage) {
-                // passage 사이에 공백 하나 넣어 문장 경계 보존 (offset 보정에 반영)
-                sb.append(" ");
-                baseOffset += 1; // 공백 1칸 추가
+    private static void addPmids(PubTatorSearchResponse page, Set<String> pmids, int limit) {
+        if (page.results() == null) return;
+        for (SearchResult result : page.results()) {
+            if (pmids.size() >= limit) return;
+            if (result.pmid() != null) pmids.add(result.pmid());
+        }
+    }
+
+    private CompletableFuture<PubTatorSearchResponse> searchPageAsync(String keywords, int page)
+            throws InterruptedException {
+        URI searchUri = UriComponentsBuilder.fromHttpUrl(searchApiUrl)
+                .queryParam("text", keywords)
+                .queryParam("page", page)
+                .build(false)
+                .toUri();
+
+        log.debug("1단계 (검색) API 요청 URI: {}", searchUri);
+        HttpRequest searchRequest = HttpRequest.newBuilder().uri(searchUri).GET().build();
+        long started = System.nanoTime();
+        return ncbiClient.send(searchRequest, HttpResponse.BodyHandlers.ofString(), searchResponse -> {
+            if (searchResponse.statusCode() != 200) {
+                throw new RuntimeException("1단계 (검색) API 호출 실패: " + searchResponse.statusCode() + " - " + excerpt(searchResponse.body()));
             }
-            firstPassage = false;
-
-            // 이 passage의 text를 붙이고, 이 순간의 base를 기록
-            int currentPassageBase = baseOffset;
-            sb.append(passageText);
-
-            // 이 passage 내 annotation들을 base로 보정해서 intervals에 추가
-            if (passage.annotations() != null) {
-                for (Annotation ann : passage.annotations()) {
-                    String type = ann.infons() != null ? ann.infons().type() : null;
-                    Boolean valid = (ann.infons() != null && ann.infons().valid() != null) ? ann.infons().valid() : true;
-                    String annText = ann.text();
-                    String identifier = ann.infons() != null ? ann.infons().identifier() : null; // (NEW)
-
-
-                    // (필터링 1) 핵심 타입이 아니면 건너뜀
-                    if (type == null || !isCoreType(type)) continue;
-                    // (필터링 2) 텍스트가 너무 짧으면 건너뜀
-                    if (annText == null || annText.trim().length() <= 2) continue;
-                    // (필터링 3) API가 명시적으로 'invalid'라고 한 것은 건너뜀
-                    if (!valid) continue;
-                    // (필터링 4) (NEW) 식별자가 없는 저품질 주석 건너뜀
-                    if (identifier == null || identifier.equals("-")) continue;
-
-                    if (ann.locations() == null) continue;
-                    for (com.example.bioproject1.dto.Location loc : ann.locations()) {
-                        Integer off = loc.offset();
-                        Integer len = loc.length();
-                        if (off == null || len == null || len <= 0) continue;
-
-                        // ★ passage 기준 offset을 combined 기준으로 보정
-                        int start = currentPassageBase + off;
-                        int end = start + len;
-                        allIntervals.add(new int[]{start, end});
-                    }
+            try {
+                return objectMapper.readValue(searchResponse.body(), PubTatorSearchResponse.class);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }).whenComplete((result, error) -> metrics.recordSearchCall(System.nanoTime() - started, error == null));
+    }
+
+    /**
+     * export API로 PMID 목록의 BioC JSON을 받아 문서 하나씩 파싱/처리(하이라이트 등)합니다.
+     * 응답 본문은 문자열로 올리지 않고 스트림에서 바로 읽으며,
+     * 파싱이 중간에 실패하면 그 전까지 읽은 문서만 사용합니다.
+     */
+    private <T> CompletableFuture<List<T>> exportAsync(List<String> pmids, Function<BioCDocument, T> perDocument)
+            throws InterruptedException {
+        URI exportUri = UriComponentsBuilder.fromHttpUrl(exportApiUrl)
+                .queryParam("pmids", String.join(",", pmids))
+                .build(false)
+                .toUri();
+
+        log.debug("2단계 (추출) API 요청 URI: {}", exportUri);
+        HttpRequest exportRequest = HttpRequest.newBuilder().uri(exportUri).GET().build();
+        long started = System.nanoTime();
+        return ncbiClient.send(exportRequest, HttpResponse.BodyHandlers.ofInputStream(), exportResponse -> {
+            try (CountingInputStream body = new CountingInputStream(exportResponse.body())) {
+                if (exportResponse.statusCode() != 200) {
+                    throw new RuntimeException("2단계 (추출) API 호출 실패: " + exportResponse.statusCode() + " - " + excerpt(body));
+                }
+
+                // 원본 문서는 STORE_CHUNK개씩만 모아 캐시/색인에 넘기고 놓음 (응답 전체를 쥐고 있지 않음)
+                List<BioCDocument> chunk = new ArrayList<>(STORE_CHUNK);
+                List<T> processed = new ArrayList<>();
+                int[] parsed = {0};
+                long parseStarted = System.nanoTime();
+                long[] processNanos = {0}; // 파싱 시간에서 뺄 문서 처리 시간 (하이라이트/저장은 따로 기록)
+                try {
+                    // 원본 JSON 구조 {"PubTator3": [...]} 에서 문서를 하나씩 바인딩하자마자 하이라이트
+                    int count = bioCParser.parse(body, doc -> {
+                        parsed[0]++;
+                        long processStarted = System.nanoTime();
+                        T result = perDocument.apply(doc);
+                        if (result != null) processed.add(result);
+                        chunk.add(doc);
+                        if (chunk.size() >= STORE_CHUNK) store(chunk);
+                        processNanos[0] += System.nanoTime() - processStarted;
+                    });
+                    log.debug("파싱 성공 (BioC JSON 스트리밍, 문서 {}개, {} bytes)", count, body.count());
+                } catch (IOException e) {
+                    // 응답 본문 전체를 출력하지 않고, 오류 위치(메시지에 포함)와 읽은 문서 수만 남김
+                    log.warn("2단계 (추출) JSON 파싱 실패 ({}개 문서까지 사용): {}", parsed[0], e.getMessage());
                 }
+                store(chunk);
+                metrics.recordParse(System.nanoTime() - parseStarted - processNanos[0], parsed[0], body.count());
+                return processed;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
             }
-            // 다음 passage의 base는 현재 텍스트의 총 길이가 됨
-            baseOffset = sb.length();
+        }).whenComplete((result, error) -> metrics.recordExportCall(System.nanoTime() - started, error == null));
+    }
+
+    // 문서 묶음 하나를 캐시에 넣고 색인 대기열에 넘긴 뒤 비움
+    private void store(List<BioCDocument> chunk) {
+        if (chunk.isEmpty()) return;
+        List<BioCDocument> documents = List.copyOf(chunk);
+        chunk.clear();
+        if (documentCache != null) {
+            documentCache.putAll(documents);
         }
+        indexLocally(documents);
+    }
 
-        // 겹치는 구간 병합(접촉은 병합 X)
-        List<int[]> merged = mergeOverlaps(allIntervals, sb.length());
-        return new MergeResult(sb.toString(), merged);
+    // export로 받은 문서를 색인 스레드에서 로컬 코퍼스에 색인 (실패해도 검색 결과는 그대로 반환)
+    private void indexLocally(List<BioCDocument> documents) {
+        if (indexExecutor == null || documents.isEmpty()) return;
+        submitIndex(documents.size(), () -> literatureIndex.index(documents));
     }
 
-    /**
-     * (NEW) 하이라이트할 타입인지 확인
-     * (제안해주신 로직 기반)
-     */
-    private boolean isCoreType(String type) {
-        // PubTator 웹사이트가 하이라이트하는 주요 타입들
-        return "Gene".equalsIgnoreCase(type)
-                || "Disease".equalsIgnoreCase(type)
-                || "Chemical".equalsIgnoreCase(type)
-                || "Species".equalsIgnoreCase(type)
-                || "Phenotype".equalsIgnoreCase(type) // (예: amyloid accumulation)
-                || "Mutation".equalsIgnoreCase(type)
-                || "CellLine".equalsIgnoreCase(type)
-                || "SequenceVariant".equalsIgnoreCase(type)
-                || "Protein".equalsIgnoreCase(type);
+    // 캐시 적중 문서 중 아직 색인되지 않은 것만 색인 (코퍼스를 켜기 전에 캐시된 문서, 대기열이 넘쳐 건너뛴 문서)
+    private void indexMissing(Collection<BioCDocument> documents) {
+        if (indexExecutor == null || documents.isEmpty()) return;
+        List<BioCDocument> candidates = List.copyOf(documents);
+        submitIndex(candidates.size(), () -> {
+            Set<String> indexed = literatureIndex.indexedPmids(candidates.stream().map(BioCDocument::id).toList());
+            List<BioCDocument> missing = candidates.stream().filter(doc -> !indexed.contains(doc.id())).toList();
+            if (!missing.isEmpty()) literatureIndex.index(missing);
+        });
     }
 
-    /**
-     * (NEW) 겹침 병합 (접촉은 병합하지 않음)
-     * (제안해주신 로직 기반 + "접촉 병합" 오류 수정)
-     */
-    private List<int[]> mergeOverlaps(List<int[]> intervals, int textLen) {
-        if (intervals == null || intervals.isEmpty()) return Collections.emptyList();
-
-        intervals.sort(Comparator.comparingInt(a -> a[0]));
-
-        LinkedList<int[]> merged = new LinkedList<>();
-        for (int[] cur : intervals) {
-
-            // --- (수정) "접촉 병합" 버그 수정 ---
-            // 'cur[0] > ...' (겹침만 병합) -> 'cur[0] >= ...' (겹침+접촉 병합)
-            // 아니요, '접촉'을 방지하려면 'cur[0] >'가 맞습니다.
-            // "al. In FAD, mutation"은 '접촉'이 아니라 '겹침' 문제였습니다.
-            // (잘못된 진단 수정)
-            // 'se activity, nd' -> [se activity,] [nd]
-            // "접촉"을 방지하려면 cur[0] >= (X) -> cur[0] > (O)
-
-            // (V6 코드) cur[0] > merged.getLast()[1]
-            // (V5 코드) cur[0] >= merged.getLast()[1]
-
-            // "se activity, nd"가 붙는 문제를 해결하려면
-            // [se activity,] (100, 110)
-            // [ nd] (110, 113)
-            // cur[0] (110) > merged.getLast()[1] (110) -> false -> 병합됨 (V6의 버그)
-
-            // "접촉"을 방지하려면 cur[0] >= merged.getLast()[1]
-            // cur[0] (110) >= merged.getLast()[1] (110) -> true -> 병합 안 됨
-            if (merged.isEmpty() || cur[0] >= merged.getLast()[1]) {
-                merged.add(new int[]{cur[0], cur[1]});
-            } else {
-                // 겹치는 경우 (start < last.end), 마지막 구간의 끝(end)을 더 먼 쪽으로 확장
-                merged.getLast()[1] = Math.max(merged.getLast()[1], cur[1]);
+    private void submitIndex(int documents, Runnable task) {
+        try {
+            indexExecutor.execute(() -> {
+                try {
+                    task.run();
+                } catch (RuntimeException e) {
+                    log.warn("로컬 코퍼스 색인 실패 ({}개 문서): {}", documents, e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("로컬 코퍼스 색인 대기열이 가득 차서 건너뜀 ({}개 문서)", documents);
+        }
+    }
+
+    // 오류 메시지에 넣을 응답 본문 앞부분
+    private static String excerpt(String body) {
+        if (body == null) return "";
+        return body.length() <= ERROR_EXCERPT_LENGTH ? body : body.substring(0, ERROR_EXCERPT_LENGTH) + "...";
+    }
+
+    private static String excerpt(InputStream body) throws IOException {
+        return excerpt(new String(body.readNBytes(ERROR_EXCERPT_LENGTH + 1), StandardCharsets.UTF_8));
+    }
+
+    private static <T> List<T> processAll(Collection<BioCDocument> documents, Function<BioCDocument, T> perDocument) {
+        List<T> processed = new ArrayList<>(documents.size());
+        for (BioCDocument doc : documents) {
+            T result = perDocument.apply(doc);
+            if (result != null) {
+                processed.add(result);
             }
-            // --- (수정 완료) ---
         }
+        return processed;
+    }
 
-        // 범위 방어
-        for (int[] iv : merged) {
-            iv[0] = Math.max(0, Math.min(iv[0], textLen));
-            iv[1] = Math.max(0, Math.min(iv[1], textLen));
+    // 검색 결과(PMID) 순서로 정렬, 검색 결과와 id 표기가 다른 문서는 버리지 않고 뒤에 둠
+    static void sortInSearchOrder(List<HighlightedAbstract> results, List<String> pmids) {
+        Map<String, Integer> rank = new HashMap<>();
+        for (int i = 0; i < pmids.size(); i++) rank.putIfAbsent(pmids.get(i), i);
+        results.sort(Comparator.comparingInt(r -> rank.getOrDefault(r.pmid(), Integer.MAX_VALUE)));
+    }
+
+    private static <T> T await(CompletableFuture<T> future) throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof UncheckedIOException uio) throw uio.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
         }
-        return merged;
     }
 
     /**
-     * (NEW) 병합된 구간 리스트를 HTML로 렌더링
-     * (제안해주신 로직 기반)
+     * 문서 하나의 title/abstract를 분리해 초록을 하이라이트합니다. 초록이 없으면 null.
+     * (네트워크 없이 벤치마크/테스트에서 그대로 호출할 수 있도록 분리)
      */
-    private String renderHighlight(String text, List<int[]> intervals) {
-        if (text == null || text.isEmpty()) return "";
-        if (intervals == null || intervals.isEmpty()) return escapeHtml(text);
-
-        StringBuilder out = new StringBuilder();
-        int last = 0;
-        for (int[] iv : intervals) {
-            int s = iv[0]; // (병합 시 이미 범위 방어 완료됨)
-            int e = iv[1];
-            if (s < last) s = last;
-            if (s >= e) continue;
-
-            out.append(escapeHtml(text.substring(last, s)));
-            out.append(HIGHLIGHT_START).append(escapeHtml(text.substring(s, e))).append(HIGHLIGHT_END);
-            last = e;
+    HighlightedAbstract highlightDocument(BioCDocument doc) {
+        return highlightDocument(doc, EntityTypeFilter.CORE);
+    }
+
+    HighlightedAbstract highlightDocument(BioCDocument doc, EntityTypeFilter types) {
+        String title = "";
+        List<BioCPassage> abstractPassages = new ArrayList<>();
+
+        for (BioCPassage passage : doc.passages()) {
+            if (passage.infons() != null && "title".equalsIgnoreCase(passage.infons().type())) {
+                title = passage.text();
+            } else if (passage.infons() != null && "abstract".equalsIgnoreCase(passage.infons().type())) {
+                // 초록 구절들을 리스트에 수집 (결합은 나중에)
+                abstractPassages.add(passage);
+            }
         }
-        if (last < text.length()) out.append(escapeHtml(text.substring(last)));
-        return out.toString();
+
+        if (abstractPassages.isEmpty()) return null;
+
+        // 결합 -> 구간 병합 -> 렌더링을 한 엔진에서 (스레드별 스크래치 버퍼 재사용, 개체 목록도 같이)
+        long started = System.nanoTime();
+        HighlightEngine.Result highlighted = highlighter.get().highlight(abstractPassages, types);
+        metrics.recordHighlight(System.nanoTime() - started, highlighted.annotationsKept(), highlighted.annotationsFiltered());
+
+        // (수정) 프론트엔드(index.html)가 사용하는 'abstractHtml' 필드명으로 DTO 생성
+        return new HighlightedAbstract(doc.id(), title, highlighted.html(), highlighted.entities());
     }
-}
\ No newline at end of file
+}
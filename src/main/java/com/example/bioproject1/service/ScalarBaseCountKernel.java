@@ -0,0 +1,35 @@
+package com.example.bioproject1.service;
+
+/**
+ * 바이트 단위 룩업 테이블로 염기를 세는 기본 구현 (Vector API가 없을 때의 대체 경로)
+ */
+public class ScalarBaseCountKernel implements BaseCountKernel {
+
+    static final int A = 0, C = 1, G = 2, T = 3, N = 4, OTHER = 5;
+
+    private static final byte[] SLOT = new byte[256];
+
+    static {
+        java.util.Arrays.fill(SLOT, (byte) OTHER);
+        SLOT['A'] = A; SLOT['a'] = A;
+        SLOT['C'] = C; SLOT['c'] = C;
+        SLOT['G'] = G; SLOT['g'] = G;
+        SLOT['T'] = T; SLOT['t'] = T;
+        SLOT['U'] = T; SLOT['u'] = T; // RNA 서열: U는 T로 셈 (PackedSequence, SixFrameScanner, KmerCounter와 같은 규칙)
+        SLOT['N'] = N; SLOT['n'] = N;
+    }
+
+    @Override
+    public NucleotideCounts count(byte[] sequence, int from, int to) {
+        long[] counts = new long[6];
+        countInto(sequence, from, to, counts);
+        return new NucleotideCounts(counts[A], counts[C], counts[G], counts[T], counts[N], to - from);
+    }
+
+    // SIMD 구현의 꼬리 구간 처리에도 사용
+    static void countInto(byte[] sequence, int from, int to, long[] counts) {
+        for (int i = from; i < to; i++) {
+            counts[SLOT[sequence[i] & 0xFF]]++;
+        }
+    }
+}
@@ -0,0 +1,235 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.HighlightedAbstract;
+import com.example.bioproject1.dto.SearchProgress;
+import com.example.bioproject1.dto.SearchSummary;
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+
+/**
+ * 같은 키워드 검색 요청 합치기 (single-flight) + 짧은 TTL 결과 캐시
+ * - 키: 앞뒤 공백 제거, 연속 공백 하나로, 소문자로 정규화한 키워드 + 논문 수(limit) + 하이라이트 타입
+ * - 진행 중인 검색이 있으면 새로 NCBI를 호출하지 않고 같은 결과를 기다립니다.
+ *   스트리밍 요청은 그때까지 도착한 결과를 먼저 받고, 이후 결과도 도착하는 대로 이어서 받습니다.
+ * - 끝난 결과는 TTL 동안 그대로 재사용하고, 실패한 검색은 캐시에 남기지 않습니다.
+ *   NCBI 사용 불가로 일부 PMID를 받지 못한 부분 결과(unavailableCount > 0)도 남기지 않습니다.
+ *   (진행 중에 합류한 요청은 같은 부분 결과를 받고, 그 뒤의 요청은 다시 검색)
+ */
+@Service
+public class SearchCoalescer {
+
+    private final PubTatorService pubTatorService;
+    // 값은 진행 중이거나 완료된 검색 (Caffeine은 완료 시점부터 TTL을 셈)
+    private final AsyncCache<String, SearchSummary> results;
+
+    private final LongAdder executed = new LongAdder();
+    private final LongAdder shared = new LongAdder();
+
+    public SearchCoalescer(PubTatorService pubTatorService,
+                           @Value("${pubtator.search.result-ttl-seconds:60}") long ttlSeconds,
+                           @Value("${pubtator.search.max-entries:1000}") long maxEntries) {
+        this.pubTatorService = pubTatorService;
+        this.results = Caffeine.newBuilder()
+                .maximumSize(maxEntries)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .buildAsync();
+    }
+
+    public List<HighlightedAbstract> search(String keywords) throws IOException, InterruptedException {
+        return search(keywords, null);
+    }
+
+    /**
+     * @param limit 논문 수 (null = 기본값), 같은 키워드라도 limit이 다르면 별도로 검색
+     */
+    public List<HighlightedAbstract> search(String keywords, Integer limit) throws IOException, InterruptedException {
+        return search(keywords, limit, EntityTypeFilter.CORE);
+    }
+
+    /**
+     * @param types 하이라이트할 주석 타입, 타입 집합이 다르면 별도로 검색
+     * @return 검색 순위 순서의 결과 (같은 검색을 공유한 요청은 같은 리스트를 받음)
+     */
+    public List<HighlightedAbstract> search(String keywords, Integer limit, EntityTypeFilter types)
+            throws IOException, InterruptedException {
+        Flight flight = join(keywords, limit, types, progress -> {}, result -> {});
+        return flight.ranked();
+    }
+
+    /**
+     * 스트리밍 버전: 진행 상황과 결과를 도착한 순서대로 넘기고 마지막에 요약을 돌려줍니다.
+     * 진행 중인 같은 검색에 합류하면 이미 도착한 결과부터 다시 받고, 캐시된 검색이면 전부 바로 받습니다.
+     * progress와 sink는 호출한 스레드에서만 불립니다.
+     */
+    public SearchSummary stream(String keywords, Integer limit, EntityTypeFilter types,
+                                Consumer<SearchProgress> progress, Consumer<HighlightedAbstract> sink)
+            throws IOException, InterruptedException {
+        return await(join(keywords, limit, types, progress, sink));
+    }
+
+    private Flight join(String keywords, Integer limit, EntityTypeFilter types,
+                        Consumer<SearchProgress> progress, Consumer<HighlightedAbstract> sink)
+            throws IOException, InterruptedException {
+        int resolvedLimit = pubTatorService.resolveLimit(limit);
+        String key = normalize(keywords) + "#" + resolvedLimit + "#" + types.key();
+        Flight mine = new Flight();
+        CompletableFuture<SearchSummary> existing = results.asMap().putIfAbsent(key, mine);
+        if (existing != null) {
+            shared.increment();
+            Flight flight = (Flight) existing;
+            flight.replay(progress, sink);
+            await(flight);
+            return flight;
+        }
+
+        // 이 요청이 대표로 검색을 실행 (호출한 스레드에서 바로 실행, 별도 스레드풀 없음)
+        // 자기 sink가 실패해도 (예: 클라이언트 연결 끊김) 합류한 다른 요청을 위해 검색은 끝까지 진행
+        executed.increment();
+        RuntimeException[] sinkFailure = new RuntimeException[1];
+        try {
+            SearchSummary summary = pubTatorService.searchAndHighlight(keywords, resolvedLimit, types,
+                    p -> {
+                        mine.publish(p);
+                        sinkFailure[0] = deliver(progress, p, sinkFailure[0]);
+                    },
+                    result -> {
+                        mine.publish(result);
+                        sinkFailure[0] = deliver(sink, result, sinkFailure[0]);
+                    });
+            mine.finish(summary);
+            if (summary.unavailableCount() > 0) results.asMap().remove(key, mine);
+        } catch (Throwable e) {
+            results.asMap().remove(key, mine);
+            mine.completeExceptionally(e);
+        }
+        await(mine);
+        if (sinkFailure[0] != null) throw sinkFailure[0];
+        return mine;
+    }
+
+    // 앞에서 이미 실패한 sink에는 더 넘기지 않음
+    private static <T> RuntimeException deliver(Consumer<T> consumer, T value, RuntimeException failure) {
+        if (failure != null) return failure;
+        try {
+            consumer.accept(value);
+            return null;
+        } catch (RuntimeException e) {
+            return e;
+        }
+    }
+
+    /** 실제로 NCBI 검색을 실행한 횟수 */
+    public long executedCount() {
+        return executed.sum();
+    }
+
+    /** 진행 중이거나 캐시된 결과를 공유받은 횟수 */
+    public long sharedCount() {
+        return shared.sum();
+    }
+
+    static String normalize(String keywords) {
+        return keywords == null ? "" : keywords.trim().replaceAll("\\s+", " ").toLowerCase(Locale.ROOT);
+    }
+
+    private static SearchSummary await(CompletableFuture<SearchSummary> future)
+            throws IOException, InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException io) throw io;
+            if (cause instanceof InterruptedException ie) throw ie;
+            if (cause instanceof RuntimeException re) throw re;
+            if (cause instanceof Error err) throw err;
+            throw new IOException(cause);
+        }
+    }
+
+    /**
+     * 검색 하나 (진행 중이거나 완료): 도착한 진행 상황과 결과를 모아 두고 합류한 요청에 다시 넘김
+     * 완료되면 검색 순위 순서로 정렬한 결과를 한 번만 만들어 모든 요청이 같이 씀
+     */
+    private static final class Flight extends CompletableFuture<SearchSummary> {
+        private final List<HighlightedAbstract> arrived = new ArrayList<>();
+        private SearchProgress progress;
+        private volatile List<HighlightedAbstract> ranked;
+
+        synchronized void publish(SearchProgress progress) {
+            this.progress = progress;
+            notifyAll();
+        }
+
+        synchronized void publish(HighlightedAbstract result) {
+            arrived.add(result);
+            notifyAll();
+        }
+
+        void finish(SearchSummary summary) {
+            List<HighlightedAbstract> sorted;
+            synchronized (this) {
+                sorted = new ArrayList<>(arrived);
+            }
+            PubTatorService.sortInSearchOrder(sorted, summary.pmids());
+            ranked = List.copyOf(sorted);
+            complete(summary);
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+
+        @Override
+        public boolean completeExceptionally(Throwable ex) {
+            boolean done = super.completeExceptionally(ex);
+            synchronized (this) {
+                notifyAll();
+            }
+            return done;
+        }
+
+        List<HighlightedAbstract> ranked() {
+            return ranked;
+        }
+
+        // 검색이 끝날 때까지 도착한 것부터 차례로 넘김 (넘기는 동안은 잠그지 않음)
+        void replay(Consumer<SearchProgress> progressSink, Consumer<HighlightedAbstract> sink)
+                throws InterruptedException {
+            boolean progressSent = false;
+            int next = 0;
+            while (true) {
+                SearchProgress p = null;
+                HighlightedAbstract result = null;
+                synchronized (this) {
+                    while (!isDone() && (progress == null || progressSent) && next == arrived.size()) {
+                        wait();
+                    }
+                    if (progress != null && !progressSent) {
+                        p = progress;
+                        progressSent = true;
+                    } else if (next < arrived.size()) {
+                        result = arrived.get(next++);
+                    } else {
+                        return;
+                    }
+                }
+                if (p != null) {
+                    progressSink.accept(p);
+                } else {
+                    sink.accept(result);
+                }
+            }
+        }
+    }
+}
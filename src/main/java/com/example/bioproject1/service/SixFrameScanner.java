@@ -0,0 +1,149 @@
+package com.example.bioproject1.service;
+
+import com.example.bioproject1.dto.OpenReadingFrame;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * 한 번의 순회로 6개 frame(+1~+3, -1~-3)의 코돈 사용과 ORF를 구합니다.
+ * - 역상보 서열을 따로 만들지 않고, 정방향 코돈을 읽을 때 같은 위치의 역상보 코돈도 함께 계산합니다.
+ * - 번역은 64칸 룩업 표(표준 유전 부호)로 합니다.
+ * - ORF는 frame별로 종결 코돈 사이의 첫 ATG부터 다음 종결 코돈까지 (가장 긴 ORF) 입니다.
+ */
+public final class SixFrameScanner {
+
+    public static final String[] FRAME_NAMES = {"+1", "+2", "+3", "-1", "-2", "-3"};
+
+    private static final byte[] CODES = new byte[256];
+    // 코돈 인덱스(b0 | b1 << 2 | b2 << 4, A=0 C=1 G=2 T=3) -> 아미노산 한 글자
+    private static final char[] AMINO_ACIDS = new char[BaseComposition.CODON_COUNT];
+
+    static {
+        Arrays.fill(CODES, (byte) -1);
+        CODES['A'] = 0; CODES['a'] = 0;
+        CODES['C'] = 1; CODES['c'] = 1;
+        CODES['G'] = 2; CODES['g'] = 2;
+        CODES['T'] = 3; CODES['t'] = 3;
+        CODES['U'] = 3; CODES['u'] = 3;
+
+        // NCBI 표준 유전 부호 (TCAG 순서)
+        String table = "FFLLSSSSYY**CC*WLLLLPPPPHHQQRRRRIIIMTTTTNNKKSSRRVVVVAAAADDEEGGGG";
+        int[] tcag = {2, 1, 3, 0}; // A, C, G, T 의 TCAG 순서상 위치
+        for (int idx = 0; idx < AMINO_ACIDS.length; idx++) {
+            int b0 = idx & 3, b1 = (idx >> 2) & 3, b2 = (idx >> 4) & 3;
+            AMINO_ACIDS[idx] = table.charAt(16 * tcag[b0] + 4 * tcag[b1] + tcag[b2]);
+        }
+    }
+
+    private SixFrameScanner() {
+    }
+
+    public record Result(int[][] frameCodons, List<OpenReadingFrame> orfs) {
+
+        /** frame 이름(+1 ...) -> 코돈 사용 Map */
+        public Map<String, Map<String, Integer>> frameCodonUsage() {
+            Map<String, Map<String, Integer>> usage = new LinkedHashMap<>();
+            for (int f = 0; f < FRAME_NAMES.length; f++) {
+                usage.put(FRAME_NAMES[f], BaseComposition.toCodonUsageMap(frameCodons[f]));
+            }
+            return usage;
+        }
+    }
+
+    public static char translate(int codonIndex) {
+        return AMINO_ACIDS[codonIndex];
+    }
+
+    /**
+     * @param minOrfLength 이 길이(염기 수, 종결 코돈 포함) 이상인 ORF만 결과에 넣음
+     */
+    public static Result scan(byte[] seq, int minOrfLength) {
+        int length = seq.length;
+        int[][] tables = new int[6][BaseComposition.CODON_COUNT];
+        List<OpenReadingFrame> orfs = new ArrayList<>();
+
+        // 정방향 frame 상태: 열린 ORF의 시작 위치(0-based)와 번역 중인 단백질
+        int[] forwardStart = {-1, -1, -1};
+        StringBuilder[] forwardProtein = {new StringBuilder(), new StringBuilder(), new StringBuilder()};
+        // 역방향 frame 상태: 왼쪽(정방향 기준)에서 마지막으로 본 종결 코돈 위치,
+        // 그 뒤 코돈들의 번역(왼쪽 -> 오른쪽 순), 그 안에서 가장 오른쪽 ATG의 인덱스
+        int[] reverseStop = {-1, -1, -1};
+        StringBuilder[] reverseSince = {new StringBuilder(), new StringBuilder(), new StringBuilder()};
+        int[] reverseAtg = {-1, -1, -1};
+
+        int c0 = -1, c1 = -1;
+        int forwardFrame = 0;                                  // (i - 2) % 3
+        int reverseFrame = length >= 3 ? (length - 3) % 3 : 0; // (length - 1 - i) % 3, i = 2 에서 시작
+        for (int i = 0; i < length; i++) {
+            int c2 = CODES[seq[i] & 0xFF];
+            if (i >= 2) {
+                int codonStart = i - 2;
+                char forwardAa = 'X', reverseAa = 'X';
+                if (c0 >= 0 && c1 >= 0 && c2 >= 0) {
+                    int forwardIdx = c0 | c1 << 2 | c2 << 4;
+                    int reverseIdx = (3 - c2) | (3 - c1) << 2 | (3 - c0) << 4;
+                    tables[forwardFrame][forwardIdx]++;
+                    tables[3 + reverseFrame][reverseIdx]++;
+                    forwardAa = AMINO_ACIDS[forwardIdx];
+                    reverseAa = AMINO_ACIDS[reverseIdx];
+                }
+
+                // 정방향: ATG에서 열고 종결 코돈에서 닫음
+                int f = forwardFrame;
+                if (forwardStart[f] < 0) {
+                    if (forwardAa == 'M') {
+                        forwardStart[f] = codonStart;
+                        forwardProtein[f].setLength(0);
+                        forwardProtein[f].append('M');
+                    }
+                } else if (forwardAa == '*') {
+                    int orfLength = i - forwardStart[f] + 1;
+                    if (orfLength >= minOrfLength) {
+                        orfs.add(new OpenReadingFrame(FRAME_NAMES[f], forwardStart[f] + 1L, i + 1L,
+                                orfLength, forwardProtein[f].toString()));
+                    }
+                    forwardStart[f] = -1;
+                } else {
+                    forwardProtein[f].append(forwardAa);
+                }
+
+                // 역방향: 오른쪽에서 왼쪽으로 읽으므로, 종결 코돈 p 다음에 나온 가장 오른쪽 ATG가
+                // 다음 종결 코돈(또는 서열 끝)을 만났을 때 p에서 끝나는 ORF의 시작이 됨
+                int r = reverseFrame;
+                if (reverseAa == '*') {
+                    emitReverse(r, reverseStop, reverseSince, reverseAtg, minOrfLength, orfs);
+                    reverseStop[r] = codonStart;
+                    reverseSince[r].setLength(0);
+                    reverseAtg[r] = -1;
+                } else if (reverseStop[r] >= 0) {
+                    reverseSince[r].append(reverseAa);
+                    if (reverseAa == 'M') reverseAtg[r] = reverseSince[r].length() - 1;
+                }
+
+                forwardFrame = forwardFrame == 2 ? 0 : forwardFrame + 1;
+                reverseFrame = reverseFrame == 0 ? 2 : reverseFrame - 1;
+            }
+            c0 = c1;
+            c1 = c2;
+        }
+        for (int r = 0; r < 3; r++) {
+            emitReverse(r, reverseStop, reverseSince, reverseAtg, minOrfLength, orfs);
+        }
+        return new Result(tables, orfs);
+    }
+
+    private static void emitReverse(int r, int[] reverseStop, StringBuilder[] reverseSince, int[] reverseAtg,
+                                    int minOrfLength, List<OpenReadingFrame> orfs) {
+        if (reverseStop[r] < 0 || reverseAtg[r] < 0) return;
+        int stopStart = reverseStop[r];
+        int atgEnd = stopStart + 3 + 3 * reverseAtg[r] + 2; // ATG 코돈의 오른쪽 끝 (0-based)
+        int orfLength = atgEnd - stopStart + 1;
+        if (orfLength < minOrfLength) return;
+        String protein = new StringBuilder(reverseSince[r].subSequence(0, reverseAtg[r] + 1)).reverse().toString();
+        orfs.add(new OpenReadingFrame(FRAME_NAMES[3 + r], stopStart + 1L, atgEnd + 1L, orfLength, protein));
+    }
+}
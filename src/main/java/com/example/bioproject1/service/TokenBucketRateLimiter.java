@@ -0,0 +1,73 @@
+package com.example.bioproject1.service;
+
+/**
+ * 초당 요청 수를 지키는 토큰 버킷 (NCBI 호출 앞단)
+ * - 요청마다 토큰 하나를 예약하고, 모자라면 채워질 때까지 기다릴 시간(ns)을 돌려줍니다. (호출 스레드를 막지 않음)
+ * - 429를 받으면 속도를 절반으로 줄이고(최소 minRate), 성공할 때마다 원래 속도의 1/10씩 되돌립니다. (AIMD)
+ * - Retry-After가 오면 그 시간 동안은 토큰이 있어도 보내지 않습니다.
+ */
+public final class TokenBucketRateLimiter {
+
+    private static final double NANOS_PER_SECOND = 1_000_000_000.0;
+
+    private final double maxRate;  // 초당 요청 수 (설정값)
+    private final double minRate;
+    private final double capacity; // 한 번에 몰아서 보낼 수 있는 요청 수
+
+    private double rate;
+    private double tokens;
+    private long refilledAt;
+    private long pausedUntil;
+
+    public TokenBucketRateLimiter(double ratePerSecond, double minRatePerSecond, int burst) {
+        if (ratePerSecond <= 0) throw new IllegalArgumentException("ratePerSecond는 0보다 커야 합니다: " + ratePerSecond);
+        this.maxRate = ratePerSecond;
+        this.minRate = Math.max(Math.min(minRatePerSecond, ratePerSecond), ratePerSecond / 1000);
+        this.capacity = Math.max(1, burst);
+        this.rate = ratePerSecond;
+        this.tokens = capacity;
+        this.refilledAt = System.nanoTime();
+        this.pausedUntil = refilledAt;
+    }
+
+    /**
+     * 토큰 하나를 예약합니다.
+     * @return 요청을 보내기 전에 기다려야 할 시간(ns), 0이면 바로 보내도 됨
+     */
+    public synchronized long reserve() {
+        long now = System.nanoTime();
+        refill(now);
+        tokens -= 1; // 음수면 앞선 예약이 끝난 뒤 순서
+        long wait = tokens >= 0 ? 0 : (long) (-tokens / rate * NANOS_PER_SECOND);
+        return Math.max(wait, pausedUntil - now);
+    }
+
+    /** 429 응답: 속도를 절반으로, retryAfterNanos(0 = 없음) 동안은 보내지 않음 */
+    public synchronized void onThrottled(long retryAfterNanos) {
+        long now = System.nanoTime();
+        refill(now);
+        rate = Math.max(minRate, rate / 2);
+        tokens = Math.min(tokens, 0); // 쌓여 있던 버스트도 버림
+        if (retryAfterNanos > 0 && now + retryAfterNanos - pausedUntil > 0) {
+            pausedUntil = now + retryAfterNanos;
+        }
+    }
+
+    /** 성공 응답: 설정 속도까지 조금씩 복구 */
+    public synchronized void onSuccess() {
+        if (rate < maxRate) {
+            refill(System.nanoTime());
+            rate = Math.min(maxRate, rate + maxRate / 10);
+        }
+    }
+
+    /** 현재 초당 요청 수 (429 후에는 설정값보다 작음) */
+    public synchronized double currentRate() {
+        return rate;
+    }
+
+    private void refill(long now) {
+        tokens = Math.min(capacity, tokens + (now - refilledAt) / NANOS_PER_SECOND * rate);
+        refilledAt = now;
+    }
+}
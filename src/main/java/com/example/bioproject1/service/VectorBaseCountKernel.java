@@ -0,0 +1,41 @@
+package com.example.bioproject1.service;
+
+import jdk.incubator.vector.ByteVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Vector API(jdk.incubator.vector)로 한 번에 레인 수만큼 염기를 비교하는 구현
+ * - 0x20을 OR 해서 대문자를 소문자로 접은 뒤 a/c/g/t/u/n과 비교하고 마스크의 trueCount를 누적합니다. (u는 t로 셈)
+ * - 레인 수로 나누어 떨어지지 않는 꼬리 구간은 스칼라 구현으로 처리합니다.
+ * BaseCountKernel.best()에서 모듈이 있을 때만 리플렉션으로 생성됩니다.
+ */
+class VectorBaseCountKernel implements BaseCountKernel {
+
+    private static final VectorSpecies<Byte> SPECIES = ByteVector.SPECIES_PREFERRED;
+    private static final byte CASE_BIT = 0x20;
+
+    @Override
+    public NucleotideCounts count(byte[] sequence, int from, int to) {
+        long a = 0, c = 0, g = 0, t = 0, n = 0;
+        int i = from;
+        int upperBound = from + SPECIES.loopBound(to - from);
+        for (; i < upperBound; i += SPECIES.length()) {
+            ByteVector v = ByteVector.fromArray(SPECIES, sequence, i).or(CASE_BIT);
+            a += v.eq((byte) 'a').trueCount();
+            c += v.eq((byte) 'c').trueCount();
+            g += v.eq((byte) 'g').trueCount();
+            t += v.eq((byte) 't').trueCount() + v.eq((byte) 'u').trueCount();
+            n += v.eq((byte) 'n').trueCount();
+        }
+
+        long[] tail = new long[6];
+        ScalarBaseCountKernel.countInto(sequence, i, to, tail);
+        return new NucleotideCounts(
+                a + tail[ScalarBaseCountKernel.A],
+                c + tail[ScalarBaseCountKernel.C],
+                g + tail[ScalarBaseCountKernel.G],
+                t + tail[ScalarBaseCountKernel.T],
+                n + tail[ScalarBaseCountKernel.N],
+                to - from);
+    }
+}
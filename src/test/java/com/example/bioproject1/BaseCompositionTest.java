@@ -0,0 +1,67 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.service.BaseComposition;
+import com.example.bioproject1.service.BaseCountKernel;
+import com.example.bioproject1.service.NucleotideCounts;
+import com.example.bioproject1.service.PackedSequence;
+import com.example.bioproject1.service.ScalarBaseCountKernel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 2비트 압축 서열과 조성/코돈 카운터 단위 테스트
+ */
+class BaseCompositionTest {
+
+    private static BaseComposition countCodons(String seq) {
+        BaseComposition composition = new BaseComposition();
+        composition.countCodons(PackedSequence.pack(seq.getBytes(StandardCharsets.US_ASCII)));
+        return composition;
+    }
+
+    @Test
+    @DisplayName("대소문자 구분 없이 A/C/G/T/N을 세고, N이 섞인 코돈은 제외한다")
+    void countsBasesAndCodons() {
+        String seq = "ATGgccNNNATGtaA";
+        NucleotideCounts counts = BaseCountKernel.best().count(seq.getBytes(StandardCharsets.US_ASCII));
+
+        assertEquals(15, counts.length());
+        assertEquals(5, counts.gcCount());
+        assertEquals(7, counts.atCount());
+        assertEquals(3, counts.n());
+        assertEquals(5.0 / 15 * 100, counts.gcContent());
+
+        Map<String, Integer> codons = countCodons(seq).toCodonUsageMap();
+        assertEquals(Map.of("ATG", 2, "GCC", 1, "TAA", 1), codons);
+    }
+
+    @Test
+    @DisplayName("워드(32염기) 경계를 넘는 코돈도 정확히 센다")
+    void codonsAcrossWordBoundaries() {
+        String seq = "ACG".repeat(100) + "T";
+        BaseComposition composition = countCodons(seq);
+
+        assertEquals(Map.of("ACG", 100), composition.toCodonUsageMap());
+
+        PackedSequence packed = PackedSequence.pack(seq.getBytes(StandardCharsets.US_ASCII));
+        assertEquals(PackedSequence.T, packed.code(300));
+        assertEquals(PackedSequence.G, packed.code(65));
+    }
+
+    @Test
+    @DisplayName("RNA 서열의 U/u는 염기 조성과 코돈 모두에서 T로 센다")
+    void countsUracilAsThymine() {
+        byte[] rna = "AUGgcuUAA".getBytes(StandardCharsets.US_ASCII);
+        byte[] dna = "ATGgctTAA".getBytes(StandardCharsets.US_ASCII);
+
+        assertEquals(new ScalarBaseCountKernel().count(dna), new ScalarBaseCountKernel().count(rna));
+        assertEquals(BaseCountKernel.best().count(dna), BaseCountKernel.best().count(rna));
+        assertEquals(0, BaseCountKernel.best().count(rna).other());
+        assertEquals(Map.of("ATG", 1, "GCT", 1, "TAA", 1), countCodons("AUGgcuUAA").toCodonUsageMap());
+    }
+}
@@ -0,0 +1,40 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.service.BaseCountKernel;
+import com.example.bioproject1.service.NucleotideCounts;
+import com.example.bioproject1.service.ScalarBaseCountKernel;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * SIMD 커널과 스칼라 커널의 결과 일치 테스트
+ * (test 태스크는 jdk.incubator.vector 모듈을 켠 상태로 실행됨)
+ */
+class BaseCountKernelTest {
+
+    @Test
+    @DisplayName("SIMD 커널과 스칼라 커널의 카운트와 GC 비율이 정확히 같다")
+    void vectorMatchesScalar() {
+        BaseCountKernel best = BaseCountKernel.best();
+        BaseCountKernel scalar = new ScalarBaseCountKernel();
+
+        Random random = new Random(7);
+        String alphabet = "ACGTacgtUuNnRYSW-";
+        for (int iteration = 0; iteration < 500; iteration++) {
+            byte[] seq = new byte[random.nextInt(1000)];
+            for (int i = 0; i < seq.length; i++) {
+                seq[i] = (byte) alphabet.charAt(random.nextInt(alphabet.length()));
+            }
+            int from = seq.length == 0 ? 0 : random.nextInt(seq.length);
+
+            NucleotideCounts expected = scalar.count(seq, from, seq.length);
+            NucleotideCounts actual = best.count(seq, from, seq.length);
+            assertEquals(expected, actual);
+            assertEquals(Double.doubleToRawLongBits(expected.gcContent()), Double.doubleToRawLongBits(actual.gcContent()));
+        }
+    }
+}
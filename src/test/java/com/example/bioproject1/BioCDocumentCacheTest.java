@@ -0,0 +1,117 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.DocumentCacheStats;
+import com.example.bioproject1.dto.Infons;
+import com.example.bioproject1.entity.BioCDocumentCacheEntry;
+import com.example.bioproject1.repository.BioCDocumentCacheRepository;
+import com.example.bioproject1.service.BioCDocumentCache;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * PMID 문서 캐시 테스트 (메모리에서 밀려난 문서는 H2에서 다시 읽음, 깨진 H2 항목은 그 PMID만 미스로 보고 지움)
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:bioc-document-cache;DB_CLOSE_DELAY=-1")
+class BioCDocumentCacheTest {
+
+    @Autowired
+    private BioCDocumentCacheRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clear() {
+        repository.deleteAll();
+    }
+
+    // 메모리 maxWeightMb, TTL 24시간, H2 30일
+    private BioCDocumentCache cache(long maxWeightMb) {
+        return new BioCDocumentCache(repository, objectMapper, true, maxWeightMb, 24, true, 30);
+    }
+
+    private static BioCDocument document(String pmid, int abstractLength) {
+        return new BioCDocument(pmid, List.of(
+                new BioCPassage(new Infons("title", null, null), "Paper " + pmid, List.of()),
+                new BioCPassage(new Infons("abstract", null, null), "A".repeat(abstractLength), List.of())));
+    }
+
+    @Test
+    @DisplayName("메모리 한도를 넘겨 밀려난 문서는 H2에서 다시 읽어서 돌려준다")
+    void servesEvictedDocumentsFromDisk() throws InterruptedException {
+        BioCDocumentCache cache = cache(1);
+        List<BioCDocument> documents = new ArrayList<>();
+        List<String> pmids = new ArrayList<>();
+        for (int i = 0; i < 30; i++) {
+            documents.add(document(String.valueOf(1000 + i), 50_000)); // 문서 하나 약 100KB -> 메모리에는 10개 정도
+            pmids.add(String.valueOf(1000 + i));
+        }
+        cache.putAll(documents);
+        assertEquals(30, repository.count());
+        // 메모리 계층의 크기 제한은 Caffeine 유지보수 작업에서 비동기로 적용됨
+        for (int i = 0; i < 200 && cache.stats().evictions() == 0; i++) {
+            Thread.sleep(10);
+        }
+
+        Map<String, BioCDocument> found = cache.getAll(pmids);
+
+        assertEquals(Set.copyOf(pmids), found.keySet());
+        assertEquals(documents.get(0), found.get("1000"));
+        DocumentCacheStats stats = cache.stats();
+        assertTrue(stats.evictions() > 0, "메모리 계층에서 밀려난 문서가 있어야 함: " + stats);
+        assertTrue(stats.diskHits() > 0, "밀려난 문서는 H2에서 읽어야 함: " + stats);
+        assertEquals(30, stats.memoryHits() + stats.diskHits());
+        assertEquals(0, stats.misses());
+    }
+
+    @Test
+    @DisplayName("재시작(새 인스턴스) 후에도 H2에 남은 문서는 적중으로 센다")
+    void reloadsDocumentsAfterRestart() {
+        cache(64).putAll(List.of(document("1", 10), document("2", 10)));
+
+        BioCDocumentCache restarted = cache(64);
+        assertEquals(Set.of("1", "2"), restarted.getAll(List.of("1", "2", "3")).keySet());
+        assertEquals(Set.of("1", "2"), restarted.getAll(List.of("1", "2")).keySet());
+
+        DocumentCacheStats stats = restarted.stats();
+        assertEquals(2, stats.diskHits());
+        assertEquals(2, stats.memoryHits());
+        assertEquals(1, stats.misses());
+    }
+
+    @Test
+    @DisplayName("깨지거나 잘린 H2 항목은 그 PMID만 미스로 보고 지우며, 같은 batch의 나머지 문서는 그대로 읽는다")
+    void skipsAndEvictsCorruptEntries() {
+        cache(64).putAll(List.of(document("1", 10), document("3", 10)));
+        repository.save(new BioCDocumentCacheEntry("2", "{\"id\":\"2\",\"passages\":[{\"infons\":"));
+        repository.save(new BioCDocumentCacheEntry("4", "not json"));
+
+        BioCDocumentCache cache = cache(64);
+        Map<String, BioCDocument> found = cache.getAll(List.of("1", "2", "3", "4"));
+
+        assertEquals(Set.of("1", "3"), found.keySet());
+        assertEquals(document("3", 10), found.get("3"));
+        assertEquals(2, cache.stats().diskHits());
+        assertEquals(2, cache.stats().misses());
+        assertFalse(repository.existsById("2"));
+        assertFalse(repository.existsById("4"));
+        assertTrue(repository.existsById("1"));
+
+        // export로 다시 받으면 새 내용으로 저장됨
+        cache.putAll(List.of(document("2", 10)));
+        assertEquals(Set.of("2"), cache(64).getAll(List.of("2")).keySet());
+    }
+}
@@ -0,0 +1,202 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.IngestionStatus;
+import com.example.bioproject1.dto.LocalPaper;
+import com.example.bioproject1.entity.IngestionCheckpoint;
+import com.example.bioproject1.repository.IngestionCheckpointRepository;
+import com.example.bioproject1.service.BioCIngestionService;
+import com.example.bioproject1.service.LiteratureIndexService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BioC 덤프 적재 파이프라인 테스트 (메모리 H2, 임시 덤프 디렉터리)
+ */
+@SpringBootTest(properties = {
+        "spring.datasource.url=jdbc:h2:mem:bioc-ingest;DB_CLOSE_DELAY=-1",
+        "pubtator.ingest.filter-threads=3",
+        "pubtator.ingest.queue-capacity=16",
+        "pubtator.ingest.batch-size=25"
+})
+class BioCIngestionServiceTest {
+
+    private static final Path DUMP_DIR = createDumpDir();
+
+    @DynamicPropertySource
+    static void dumpDir(DynamicPropertyRegistry registry) {
+        registry.add("pubtator.ingest.dir", DUMP_DIR::toString);
+    }
+
+    @Autowired
+    private BioCIngestionService ingestionService;
+
+    @Autowired
+    private LiteratureIndexService literatureIndex;
+
+    @Autowired
+    private IngestionCheckpointRepository checkpointRepository;
+
+    private static Path createDumpDir() {
+        try {
+            return Files.createTempDirectory("bioc-dumps-");
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String document(int pmid) {
+        return document(pmid, "348");
+    }
+
+    private static String document(int pmid, String geneId) {
+        return """
+                {"id":"%d","passages":[{"infons":{"type":"title"},"text":"Paper %d","annotations":[]},
+                 {"infons":{"type":"abstract"},"text":"APOE4 and AD.","annotations":[
+                  {"text":"APOE4","infons":{"type":"Gene","identifier":"%s","valid":true},"locations":[{"offset":0,"length":5}]},
+                  {"text":"AD","infons":{"type":"Disease","identifier":"MESH:D000544"},"locations":[{"offset":10,"length":2}]}]}]}
+                """.formatted(pmid, pmid, geneId);
+    }
+
+    private static void writeDump(String name, int firstPmid, int count, String geneId) throws IOException {
+        StringBuilder json = new StringBuilder("{\"source\":\"PubTator\",\"documents\":[");
+        for (int i = 0; i < count; i++) {
+            if (i > 0) json.append(',');
+            json.append(document(firstPmid + i, geneId));
+        }
+        json.append("]}");
+        try (OutputStream out = new GZIPOutputStream(Files.newOutputStream(DUMP_DIR.resolve(name)))) {
+            out.write(json.toString().getBytes(StandardCharsets.UTF_8));
+        }
+    }
+
+    /**
+     * 실제 색인 서비스로 넘기면서 PMID별 색인 횟수를 세고, 지정한 번째 batch 커밋에서 release될 때까지 멈추는 색인
+     */
+    static class GatedLiteratureIndex extends LiteratureIndexService {
+        final LiteratureIndexService delegate;
+        final int blockAtCommit;
+        final CountDownLatch reached = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Map<String, Integer> indexedTimes = new ConcurrentHashMap<>();
+        private final AtomicInteger commits = new AtomicInteger();
+
+        GatedLiteratureIndex(LiteratureIndexService delegate, int blockAtCommit) {
+            super(null, null, null, null, true);
+            this.delegate = delegate;
+            this.blockAtCommit = blockAtCommit;
+        }
+
+        @Override
+        public int index(Collection<BioCDocument> documents) {
+            if (commits.incrementAndGet() == blockAtCommit) {
+                reached.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            documents.forEach(doc -> indexedTimes.merge(doc.id(), 1, Integer::sum));
+            return delegate.index(documents);
+        }
+    }
+
+    private static IngestionStatus awaitFinished(BioCIngestionService service) throws InterruptedException {
+        for (int i = 0; i < 500; i++) {
+            IngestionStatus status = service.status();
+            if (status.finishedAt() != null) return status;
+            Thread.sleep(20);
+        }
+        fail("적재가 끝나지 않았습니다.");
+        return null;
+    }
+
+    @Test
+    @DisplayName("gzip BioC JSON 덤프를 적재하고, 다시 실행하면 끝난 파일은 건너뛴다")
+    void ingestsAndSkipsCompletedFiles() throws Exception {
+        writeDump("dump.json.gz", 7_000_000, 200, "348");
+
+        ingestionService.start("dump.json.gz");
+        IngestionStatus first = awaitFinished(ingestionService);
+        assertEquals("COMPLETED", first.state(), first.errorMessage());
+        assertEquals(200, first.documentsIndexed());
+        assertEquals(200, first.annotationsKept());
+        assertEquals(200, first.annotationsDropped()); // 짧은 텍스트(AD)는 색인 규칙에서 제외
+
+        List<LocalPaper> papers = literatureIndex.papersByIdentifier("348", "Gene", 500);
+        assertEquals(200, papers.size());
+        assertTrue(literatureIndex.papersByIdentifier("MESH:D000544", null, 10).isEmpty());
+
+        ingestionService.start("dump.json.gz");
+        IngestionStatus second = awaitFinished(ingestionService);
+        assertEquals("COMPLETED", second.state());
+        assertEquals(0, second.documentsParsed());
+    }
+
+    @Test
+    @DisplayName("체크포인트 뒤에서 멈췄다가 다시 시작하면 watermark만큼 건너뛰고, 빠지거나 두 번 색인된 문서가 없다")
+    void resumesFromCheckpointWithoutLossOrDuplicates() throws Exception {
+        int total = 400;
+        writeDump("resume.json.gz", 8_000_000, total, "5663");
+        GatedLiteratureIndex gated = new GatedLiteratureIndex(literatureIndex, 3);
+        BioCIngestionService service = new BioCIngestionService(gated, checkpointRepository,
+                DUMP_DIR.toString(), 3, 16, 25);
+
+        // 세 번째 batch 커밋에서 멈춘 사이에 중지 요청 -> 이미 파싱한 문서까지 커밋하고 체크포인트를 남김
+        service.start("resume.json.gz");
+        assertTrue(gated.reached.await(10, TimeUnit.SECONDS));
+        service.stop();
+        gated.release.countDown();
+        IngestionStatus first = awaitFinished(service);
+        assertEquals("STOPPED", first.state(), first.errorMessage());
+
+        IngestionCheckpoint checkpoint = checkpointRepository.findById("resume.json.gz").orElseThrow();
+        long watermark = checkpoint.getDocumentsCommitted();
+        assertFalse(checkpoint.isCompleted());
+        assertTrue(watermark >= 75 && watermark < total, "watermark=" + watermark);
+        assertEquals(watermark, first.documentsIndexed());
+
+        // 다시 시작: watermark 앞은 파싱만 하고 건너뛰고 나머지를 색인
+        service.start("resume.json.gz");
+        IngestionStatus second = awaitFinished(service);
+        assertEquals("COMPLETED", second.state(), second.errorMessage());
+        assertEquals(watermark, second.documentsSkipped());
+        assertEquals(total, second.documentsParsed());
+        assertEquals(total - watermark, second.documentsIndexed());
+        assertTrue(checkpointRepository.findById("resume.json.gz").orElseThrow().isCompleted());
+
+        // 모든 문서가 정확히 한 번씩 색인됨
+        assertEquals(total, gated.indexedTimes.size());
+        assertTrue(gated.indexedTimes.values().stream().allMatch(times -> times == 1), gated.indexedTimes.toString());
+        assertEquals(total, literatureIndex.papersByIdentifier("5663", "Gene", 1000).size());
+    }
+
+    @Test
+    @DisplayName("덤프 디렉터리 밖이나 없는 파일은 시작하지 않는다")
+    void rejectsInvalidPaths() {
+        assertThrows(IllegalArgumentException.class, () -> ingestionService.start("../outside.json"));
+        assertThrows(java.util.NoSuchElementException.class, () -> ingestionService.start("missing.json"));
+    }
+}
@@ -0,0 +1,67 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.service.BioCJsonStreamParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * export 응답 스트리밍 파서 단위 테스트
+ */
+class BioCJsonStreamParserTest {
+
+    private final BioCJsonStreamParser parser = new BioCJsonStreamParser(
+            new ObjectMapper().configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false));
+
+    private static final String DOC_1 = """
+            {"_id":"1|None","id":"1","passages":[{"infons":{"type":"title"},"offset":0,"text":"APOE4 and AD",
+             "annotations":[{"id":"1","infons":{"identifier":"348","type":"Gene","valid":true},"text":"APOE4",
+             "locations":[{"offset":0,"length":5}]}]}],"relations":[]}""";
+    private static final String DOC_2 = """
+            {"id":"2","passages":[{"infons":{"type":"abstract"},"text":"Tau.","annotations":[]}]}""";
+
+    private List<BioCDocument> parse(String json) throws IOException {
+        List<BioCDocument> documents = new ArrayList<>();
+        parser.parse(new ByteArrayInputStream(json.getBytes(StandardCharsets.UTF_8)), documents::add);
+        return documents;
+    }
+
+    @Test
+    @DisplayName("PubTator3 배열 앞뒤의 다른 필드는 건너뛰고 문서를 하나씩 바인딩한다")
+    void readsDocumentsFromPubTator3Array() throws IOException {
+        List<BioCDocument> documents = parse(
+                "{\"meta\":{\"x\":[1,2]},\"PubTator3\":[" + DOC_1 + "," + DOC_2 + "],\"tail\":null}");
+
+        assertEquals(2, documents.size());
+        assertEquals("1", documents.get(0).id());
+        assertEquals("Gene", documents.get(0).passages().get(0).annotations().get(0).infons().type());
+        assertEquals("Tau.", documents.get(1).passages().get(0).text());
+    }
+
+    @Test
+    @DisplayName("최상위가 배열인 응답도 읽는다")
+    void readsTopLevelArray() throws IOException {
+        assertEquals(2, parse("[" + DOC_1 + "," + DOC_2 + "]").size());
+    }
+
+    @Test
+    @DisplayName("중간에 끊긴 응답은 예외를 내지만 그 전까지의 문서는 이미 넘겨져 있다")
+    void truncatedBodyKeepsEarlierDocuments() {
+        List<BioCDocument> documents = new ArrayList<>();
+        String truncated = "{\"PubTator3\":[" + DOC_1 + "," + DOC_2.substring(0, 20);
+
+        assertThrows(IOException.class, () -> parser.parse(
+                new ByteArrayInputStream(truncated.getBytes(StandardCharsets.UTF_8)), documents::add));
+        assertEquals(1, documents.size());
+    }
+}
@@ -0,0 +1,79 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.service.BioCXmlStreamParser;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * BioC XML(대량 덤프) 스트리밍 파서 단위 테스트
+ */
+class BioCXmlStreamParserTest {
+
+    private static final String COLLECTION = """
+            <?xml version="1.0" encoding="UTF-8"?>
+            <!DOCTYPE collection SYSTEM "BioC.dtd">
+            <collection><source>PubTator</source><date>2024</date><key>BioC.key</key>
+              <document><id>1</id>
+                <passage><infon key="type">title</infon><offset>0</offset><text>APOE4 &amp; AD</text>
+                  <annotation id="1"><infon key="identifier">348</infon><infon key="type">Gene</infon>
+                    <location offset="0" length="5"/><text>APOE4</text></annotation>
+                </passage>
+                <passage><infon key="type">abstract</infon><offset>13</offset><text>Tau.</text>
+                  <annotation id="2"><infon key="type">Gene</infon><infon key="valid">false</infon>
+                    <location offset="13" length="3"/><text>Tau</text></annotation>
+                </passage>
+                <relation id="R1"><infon key="type">Association</infon></relation>
+              </document>
+              <document><id>2</id></document>
+            </collection>
+            """;
+
+    private static List<BioCDocument> parse(String xml) throws IOException {
+        List<BioCDocument> documents = new ArrayList<>();
+        new BioCXmlStreamParser().parse(new ByteArrayInputStream(xml.getBytes(StandardCharsets.UTF_8)), documents::add);
+        return documents;
+    }
+
+    @Test
+    @DisplayName("document마다 passage/annotation/infon/location을 BioCDocument로 바인딩한다")
+    void readsDocuments() throws IOException {
+        List<BioCDocument> documents = parse(COLLECTION);
+
+        assertEquals(2, documents.size());
+        BioCDocument first = documents.get(0);
+        assertEquals("1", first.id());
+        assertEquals("title", first.passages().get(0).infons().type());
+        assertEquals("APOE4 & AD", first.passages().get(0).text());
+
+        Annotation gene = first.passages().get(0).annotations().get(0);
+        assertEquals("APOE4", gene.text());
+        assertEquals("348", gene.infons().identifier());
+        assertEquals(5, gene.locations().get(0).length());
+
+        Annotation invalid = first.passages().get(1).annotations().get(0);
+        assertFalse(invalid.infons().valid());
+        assertNull(invalid.infons().identifier());
+
+        assertTrue(documents.get(1).passages().isEmpty());
+    }
+
+    @Test
+    @DisplayName("중간에 끊긴 XML은 IOException, 그 전까지의 문서는 이미 넘어간다")
+    void truncatedInput() {
+        String truncated = COLLECTION.substring(0, COLLECTION.indexOf("<document><id>2"));
+        List<BioCDocument> documents = new ArrayList<>();
+        assertThrows(IOException.class, () -> new BioCXmlStreamParser().parse(
+                new ByteArrayInputStream(truncated.getBytes(StandardCharsets.UTF_8)), documents::add));
+        assertEquals(1, documents.size());
+    }
+}
@@ -0,0 +1,176 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.CooccurrenceLevel;
+import com.example.bioproject1.dto.CooccurrencePair;
+import com.example.bioproject1.dto.Infons;
+import com.example.bioproject1.dto.Location;
+import com.example.bioproject1.dto.SearchSummary;
+import com.example.bioproject1.service.CooccurrenceCounter;
+import com.example.bioproject1.service.CooccurrenceCounter.Level;
+import com.example.bioproject1.service.CooccurrenceService;
+import com.example.bioproject1.service.EntityTypeFilter;
+import com.example.bioproject1.service.PipelineMetrics;
+import com.example.bioproject1.service.PubTatorService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 개체 동시 출현 집계 단위 테스트 (문장/구절/문서 단위 횟수, PMI, 병렬 분할 병합, 논문 수 설정)
+ */
+class CooccurrenceCounterTest {
+
+    private static Annotation ann(String type, String identifier, String text, int offset) {
+        return new Annotation(List.of(new Location(offset, text.length())), text, new Infons(type, identifier, null));
+    }
+
+    private static BioCPassage passage(String type, String text, Annotation... annotations) {
+        return new BioCPassage(new Infons(type, null, null), text, List.of(annotations));
+    }
+
+    private static List<BioCDocument> sample() {
+        BioCDocument first = new BioCDocument("1", List.of(
+                passage("title", "APOE and Alzheimer disease",
+                        ann("Gene", "348", "APOE", 0),
+                        ann("Disease", "MESH:D000544", "Alzheimer disease", 9)),
+                passage("abstract", "APOE4 raises risk. MAPT tangles mark Alzheimer.",
+                        ann("Gene", "348", "APOE4", 0),
+                        ann("Gene", "-", "risk", 13),                 // 식별자 없음 -> 제외
+                        ann("Gene", "4137", "MAPT", 19),
+                        ann("Disease", " mesh:D000544", "Alzheimer", 37))));
+        BioCDocument second = new BioCDocument("2", List.of(passage("abstract", "Nothing here.")));
+        return List.of(first, second);
+    }
+
+    @Test
+    @DisplayName("문장/구절/문서 단위로 함께 나온 횟수를 세고, 같은 단위 안의 반복은 한 번으로 센다")
+    void countsPerLevel() {
+        CooccurrenceCounter counter = new CooccurrenceCounter(EntityTypeFilter.CORE, false);
+        sample().forEach(counter::add);
+
+        assertEquals(2, counter.documentCount());
+        assertEquals(3, counter.entityCount()); // 348, 4137, MESH:D000544 ("mesh:" 접두어 통일)
+        assertEquals(4, counter.units(Level.SENTENCE));
+        assertEquals(3, counter.units(Level.PASSAGE));
+        assertEquals(2, counter.units(Level.DOCUMENT));
+
+        // 제목 문장 1번 + 초록 두 번째 문장의 MAPT-Alzheimer
+        assertEquals(1, counter.count(Level.SENTENCE, "Gene", "348", "Disease", "MESH:D000544"));
+        assertEquals(0, counter.count(Level.SENTENCE, "Gene", "348", "Gene", "4137"));
+        assertEquals(1, counter.count(Level.SENTENCE, "Gene", "4137", "Disease", "MESH:D000544"));
+        assertEquals(2, counter.count(Level.PASSAGE, "Gene", "348", "Disease", "MESH:D000544"));
+        assertEquals(1, counter.count(Level.PASSAGE, "Gene", "348", "Gene", "4137"));
+        assertEquals(1, counter.count(Level.DOCUMENT, "Disease", "MESH:D000544", "Gene", "348"));
+        assertEquals(3, counter.distinctPairs(Level.DOCUMENT));
+    }
+
+    @Test
+    @DisplayName("상위 쌍은 횟수 순과 PMI 순으로 돌려주고, PMI 순위는 minCount 미만인 쌍을 뺀다")
+    void ranksByCountAndPmi() {
+        CooccurrenceCounter counter = new CooccurrenceCounter(EntityTypeFilter.CORE, false);
+        sample().forEach(counter::add);
+
+        CooccurrenceLevel passage = counter.summarize(Level.PASSAGE, 2, 2);
+        assertEquals("passage", passage.level());
+        assertEquals(2, passage.topByCount().size());
+        CooccurrencePair best = passage.topByCount().get(0);
+        assertEquals(List.of("Disease", "MESH:D000544", "Alzheimer disease", "Gene", "348", "APOE"),
+                List.of(best.typeA(), best.identifierA(), best.nameA(), best.typeB(), best.identifierB(), best.nameB()));
+        assertEquals(2, best.count());
+        // N = 3 구절, APOE 2구절, Alzheimer 2구절, 함께 2구절
+        assertEquals(Math.log(2 * 3.0 / (2 * 2)) / Math.log(2), best.pmi(), 1e-12);
+        assertEquals(List.of(best), passage.topByPmi());
+    }
+
+    @Test
+    @DisplayName("crossType이면 타입이 같은 쌍은 세지 않는다")
+    void skipsSameTypePairs() {
+        CooccurrenceCounter counter = new CooccurrenceCounter(EntityTypeFilter.CORE, true);
+        sample().forEach(counter::add);
+
+        assertEquals(0, counter.count(Level.PASSAGE, "Gene", "348", "Gene", "4137"));
+        assertEquals(2, counter.count(Level.PASSAGE, "Gene", "348", "Disease", "MESH:D000544"));
+        assertEquals(2, counter.distinctPairs(Level.DOCUMENT));
+    }
+
+    /** 요청받은 논문 수만 기록하고 문서는 돌려주지 않는 검색 */
+    static class RecordingPubTatorService extends PubTatorService {
+        final List<Integer> limits = new ArrayList<>();
+
+        @Override
+        public <T> SearchSummary searchDocuments(String keywords, int limit, Function<BioCDocument, T> perDocument,
+                                                 Consumer<T> sink) {
+            limits.add(limit);
+            return new SearchSummary(keywords, limit, List.of(), 0, 0, 0, 0, "remote", 0);
+        }
+    }
+
+    @Test
+    @DisplayName("기본/최대 논문 수 설정이 0 이하이거나 뒤바뀌어도 [1, max] 범위로 맞춘다")
+    void clampsLimitSettings() throws Exception {
+        RecordingPubTatorService search = new RecordingPubTatorService();
+        CooccurrenceService inverted = new CooccurrenceService(search, PipelineMetrics.noop(), 1, 500, 100);
+        CooccurrenceService nonPositive = new CooccurrenceService(search, PipelineMetrics.noop(), 1, 0, -5);
+        try {
+            inverted.aggregate("apoe", null, EntityTypeFilter.CORE, false, 5, 2);
+            inverted.aggregate("apoe", 1000, EntityTypeFilter.CORE, false, 5, 2);
+            inverted.aggregate("apoe", 0, EntityTypeFilter.CORE, false, 5, 2);
+            nonPositive.aggregate("apoe", null, EntityTypeFilter.CORE, false, 5, 2);
+            nonPositive.aggregate("apoe", 50, EntityTypeFilter.CORE, false, 5, 2);
+            assertEquals(List.of(100, 100, 1, 1, 1), search.limits);
+        } finally {
+            inverted.shutdown();
+            nonPositive.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("병렬로 나눠 센 뒤 합친 결과는 순서대로 한 번에 센 결과와 같다")
+    void mergedCountsMatchSerial() throws Exception {
+        Random random = new Random(7);
+        String[] types = {"Gene", "Disease", "Chemical", "Species"};
+        List<BioCDocument> documents = new ArrayList<>();
+        for (int d = 0; d < 3000; d++) {
+            List<BioCPassage> passages = new ArrayList<>();
+            for (int p = 0; p < 2; p++) {
+                StringBuilder text = new StringBuilder();
+                List<Annotation> annotations = new ArrayList<>();
+                for (int s = 0; s < 1 + random.nextInt(4); s++) {
+                    for (int m = 0; m < random.nextInt(4); m++) {
+                        String type = types[random.nextInt(types.length)];
+                        String id = type.substring(0, 1) + random.nextInt(40);
+                        annotations.add(ann(type, id, "X" + id, text.length()));
+                        text.append("X").append(id).append(' ');
+                    }
+                    text.append("end. ");
+                }
+                passages.add(new BioCPassage(new Infons("abstract", null, null), text.toString(), annotations));
+            }
+            documents.add(new BioCDocument(String.valueOf(d), passages));
+        }
+
+        CooccurrenceCounter serial = new CooccurrenceCounter(EntityTypeFilter.CORE, false);
+        documents.forEach(serial::add);
+        CooccurrenceService service = new CooccurrenceService(null, PipelineMetrics.noop(), 4, 10, 100);
+        try {
+            CooccurrenceCounter parallel = service.count(documents, EntityTypeFilter.CORE, false);
+            assertEquals(serial.documentCount(), parallel.documentCount());
+            assertEquals(serial.entityCount(), parallel.entityCount());
+            for (Level level : Level.values()) {
+                assertEquals(serial.summarize(level, 25, 3), parallel.summarize(level, 25, 3));
+            }
+        } finally {
+            service.shutdown();
+        }
+    }
+}
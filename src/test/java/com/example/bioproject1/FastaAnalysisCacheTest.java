@@ -0,0 +1,135 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.FastaAnalysisResult;
+import com.example.bioproject1.dto.FastaCacheStats;
+import com.example.bioproject1.repository.FastaAnalysisCacheRepository;
+import com.example.bioproject1.service.FastaAnalysisCache;
+import com.example.bioproject1.service.FastaRecord;
+import com.example.bioproject1.service.FastaService;
+import com.example.bioproject1.service.PipelineMetrics;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 서열 내용 기반 FASTA 분석 캐시 테스트 (메모리/H2 적중, 인스턴스를 새로 만들어도 H2에서 다시 읽음, 캐시 대상 길이)
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:fasta-analysis-cache;DB_CLOSE_DELAY=-1")
+class FastaAnalysisCacheTest {
+
+    @Autowired
+    private FastaAnalysisCacheRepository repository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @BeforeEach
+    void clear() {
+        repository.deleteAll();
+    }
+
+    // 최소 길이 100 염기, 메모리 100개
+    private FastaAnalysisCache cache() {
+        return new FastaAnalysisCache(repository, objectMapper, true, 100, 100);
+    }
+
+    private static String random(long seed, int length) {
+        Random random = new Random(seed);
+        StringBuilder sequence = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sequence.append("ACGT".charAt(random.nextInt(4)));
+        return sequence.toString();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    @DisplayName("같은 서열(대소문자 무관)을 다시 분석하면 메모리에서 꺼내고, 결과는 새로 계산한 값과 같다")
+    void servesRepeatedSequencesFromMemory() throws IOException {
+        String sequence = random(1, 600);
+        FastaAnalysisCache cache = cache();
+        FastaService cached = new FastaService(1, 0, cache, PipelineMetrics.noop());
+        FastaService uncached = new FastaService(1, 0);
+        try {
+            String fasta = ">a\n" + sequence + "\n>b copy\n" + sequence.toLowerCase() + "\n>short\nATGATG\n";
+            List<FastaAnalysisResult> results = cached.analyzeFasta(ascii(fasta));
+            List<FastaAnalysisResult> expected = uncached.analyzeFasta(ascii(fasta));
+
+            assertEquals(3, results.size());
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(expected.get(i).getLength(), results.get(i).getLength());
+                assertEquals(expected.get(i).getGcContent(), results.get(i).getGcContent(), 1e-12);
+                assertEquals(expected.get(i).getCodonUsage(), results.get(i).getCodonUsage());
+            }
+            assertEquals("b copy", results.get(1).getId());
+
+            // a: 미스 후 저장, b: 메모리 적중, short: 캐시 대상 아님 (통계에 안 잡힘)
+            FastaCacheStats stats = cache.stats();
+            assertEquals(1, stats.misses());
+            assertEquals(1, stats.memoryHits());
+            assertEquals(0, stats.databaseHits());
+            assertEquals(0.5, stats.hitRate(), 1e-12);
+            assertEquals(1, repository.count());
+        } finally {
+            cached.shutdown();
+            uncached.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("저장한 값은 H2에 남아서, 새 캐시 인스턴스(재시작)에서도 DB 적중 후 메모리로 올라온다")
+    void reloadsFromDatabaseAcrossInstances() {
+        String hash = FastaAnalysisCache.hash(ascii(random(2, 300)));
+        FastaAnalysisCache.Stats stats = new FastaAnalysisCache.Stats(300, 51.5, Map.of("ATG", 3, "TAA", 1));
+        cache().put(hash, stats);
+        assertTrue(repository.existsById(hash));
+
+        FastaAnalysisCache restarted = cache();
+        Optional<FastaAnalysisCache.Stats> reloaded = restarted.get(hash);
+        assertEquals(Optional.of(stats), reloaded);
+        assertEquals(Optional.of(stats), restarted.get(hash));
+        assertTrue(restarted.get(FastaAnalysisCache.hash(ascii("ACGT"))).isEmpty());
+
+        FastaCacheStats counted = restarted.stats();
+        assertEquals(1, counted.databaseHits());
+        assertEquals(1, counted.memoryHits());
+        assertEquals(1, counted.misses());
+
+        // 같은 해시를 다시 넣어도 행은 하나
+        restarted.put(hash, stats);
+        assertEquals(1, repository.count());
+    }
+
+    @Test
+    @DisplayName("최소 길이 미만이거나 캐시가 꺼져 있으면 캐시 대상이 아니다")
+    void cachesOnlyLongEnoughRecords() {
+        FastaAnalysisCache cache = cache();
+        assertFalse(cache.isCacheable(new FastaRecord("r", ascii(random(3, 99)))));
+        assertTrue(cache.isCacheable(new FastaRecord("r", ascii(random(3, 100)))));
+
+        FastaAnalysisCache disabled = new FastaAnalysisCache(repository, objectMapper, false, 100, 100);
+        assertFalse(disabled.isCacheable(new FastaRecord("r", ascii(random(3, 5000)))));
+    }
+
+    @Test
+    @DisplayName("해시는 대소문자를 구분하지 않고, 내용이 다르면 달라진다")
+    void hashesNormalizedSequence() {
+        String sequence = random(4, 20_000); // 해시 버퍼(8KB)보다 긴 서열
+        assertEquals(FastaAnalysisCache.hash(ascii(sequence)), FastaAnalysisCache.hash(ascii(sequence.toLowerCase())));
+        assertNotEquals(FastaAnalysisCache.hash(ascii(sequence)), FastaAnalysisCache.hash(ascii(sequence + "A")));
+        assertEquals(64, FastaAnalysisCache.hash(new byte[0]).length());
+    }
+}
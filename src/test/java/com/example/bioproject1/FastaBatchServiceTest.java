@@ -0,0 +1,188 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.FastaBatchFileResult;
+import com.example.bioproject1.dto.FastaBatchResult;
+import com.example.bioproject1.dto.FastaBatchTotals;
+import com.example.bioproject1.service.FastaAnalysisOptions;
+import com.example.bioproject1.service.FastaBatchService;
+import com.example.bioproject1.service.FastaFormatException;
+import com.example.bioproject1.service.FastaService;
+import org.apache.commons.compress.archivers.tar.TarArchiveEntry;
+import org.apache.commons.compress.archivers.tar.TarArchiveOutputStream;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+import java.util.zip.ZipEntry;
+import java.util.zip.ZipOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FASTA 압축 파일 일괄 분석 테스트 (zip / tar.gz, gzip 멤버, 파일별 오류, 합계 병합)
+ */
+class FastaBatchServiceTest {
+
+    private static final FastaAnalysisOptions OPTIONS = new FastaAnalysisOptions(false, false, 0);
+
+    private final FastaService fastaService = new FastaService(2, 4);
+    // 파일 하나를 메모리에 올리는 한도 1KB (큰 파일은 읽는 스레드에서 스트림으로 분석)
+    private final FastaBatchService batchService = new FastaBatchService(fastaService, 3, 2, 1, 512);
+    // 모든 요청을 합쳐 버퍼 자리 1개 (1MB / 1024KB)
+    private final FastaBatchService singleSlotService = new FastaBatchService(fastaService, 2, 4, 1024, 1);
+
+    @AfterEach
+    void shutdown() {
+        batchService.shutdown();
+        singleSlotService.shutdown();
+        fastaService.shutdown();
+    }
+
+    private static byte[] ascii(String text) {
+        return text.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    private static byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(data);
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] zip(Map<String, byte[]> members) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ZipOutputStream out = new ZipOutputStream(bytes)) {
+            for (Map.Entry<String, byte[]> member : members.entrySet()) {
+                out.putNextEntry(new ZipEntry(member.getKey()));
+                out.write(member.getValue());
+                out.closeEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    private static byte[] tarGz(Map<String, byte[]> members) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (TarArchiveOutputStream out = new TarArchiveOutputStream(new GZIPOutputStream(bytes))) {
+            for (Map.Entry<String, byte[]> member : members.entrySet()) {
+                TarArchiveEntry entry = new TarArchiveEntry(member.getKey());
+                entry.setSize(member.getValue().length);
+                out.putArchiveEntry(entry);
+                out.write(member.getValue());
+                out.closeArchiveEntry();
+            }
+        }
+        return bytes.toByteArray();
+    }
+
+    // 순서가 있는 Map (압축 파일 안의 순서)
+    private static Map<String, byte[]> members(Object... nameAndData) {
+        Map<String, byte[]> members = new LinkedHashMap<>();
+        for (int i = 0; i < nameAndData.length; i += 2) {
+            members.put((String) nameAndData[i], (byte[]) nameAndData[i + 1]);
+        }
+        return members;
+    }
+
+    @Test
+    @DisplayName("zip 안의 파일(gzip 포함)을 순서대로 분석하고, 합계는 파일별 결과를 병합한 값과 같다")
+    void analyzesZipMembers() throws IOException {
+        String big = ">big\n" + "ATGC".repeat(600) + "\n"; // 1KB 초과 -> 스트림으로 분석
+        byte[] archive = zip(members(
+                "run/a.fa", ascii(">a\nATGATG\n>b\nGGGCCCAA\n"),
+                "run/", new byte[0],
+                "__MACOSX/run/._a.fa", ascii("junk"),
+                "run/b.fa.gz", gzip(ascii(">c\nATGAAATTT\n")),
+                "run/big.fa", ascii(big),
+                "run/notes.txt", ascii("not a fasta file\n")));
+
+        FastaBatchResult result = batchService.analyzeArchive(new ByteArrayInputStream(archive), OPTIONS);
+
+        assertEquals(List.of("run/a.fa", "run/b.fa.gz", "run/big.fa", "run/notes.txt"),
+                result.files().stream().map(FastaBatchFileResult::name).toList());
+        FastaBatchFileResult first = result.files().get(0);
+        assertEquals(2, first.records());
+        assertEquals(14, first.bases());
+        assertEquals(8 * 100.0 / 14, first.gcContent(), 1e-9); // G+C: a 2개, b 6개
+        assertNull(first.results().get(0).getSequence());
+        assertNotNull(result.files().get(3).error());
+        assertNull(result.files().get(3).results());
+
+        FastaBatchTotals totals = result.totals();
+        assertEquals(3, totals.files());
+        assertEquals(1, totals.failedFiles());
+        assertEquals(4, totals.records());
+        assertEquals(14 + 9 + 2400, totals.totalBases());
+        assertEquals(8 + 1 + 1200, totals.gcBases());
+        assertEquals(1209 * 100.0 / 2423, totals.gcContent(), 1e-9);
+        // 코돈 합계 = 파일별 코돈 사용의 합 (a 2 + b 2 + c 3 + big 800)
+        long atg = result.files().stream().filter(f -> f.results() != null)
+                .flatMap(f -> f.results().stream())
+                .mapToLong(r -> r.getCodonUsage().getOrDefault("ATG", 0)).sum();
+        assertEquals(atg, (long) totals.codonUsage().get("ATG"));
+        assertEquals(2 + 2 + 3 + 2400 / 3, totals.codonUsage().values().stream().mapToLong(Long::longValue).sum());
+    }
+
+    @Test
+    @DisplayName("tar.gz도 같은 결과를 내고, 압축 파일이 아니면 FastaFormatException")
+    void analyzesTarGzAndRejectsOtherInput() throws IOException {
+        Map<String, byte[]> members = members(
+                "a.fa", ascii(">a\nATGATG\n>b\nGGGCCCAA\n"),
+                "b.fa.gz", gzip(ascii(">c\nATGAAATTT\n")));
+        FastaBatchResult fromZip = batchService.analyzeArchive(new ByteArrayInputStream(zip(members)), OPTIONS);
+        FastaBatchResult fromTar = batchService.analyzeArchive(new ByteArrayInputStream(tarGz(members)), OPTIONS);
+
+        assertEquals(fromZip.totals(), fromTar.totals());
+        assertEquals(2, fromTar.totals().files());
+
+        assertThrows(FastaFormatException.class, () -> batchService.analyzeArchive(
+                new ByteArrayInputStream(ascii(">a\nATGC\n")), OPTIONS));
+    }
+
+    @Test
+    @DisplayName("전체 버퍼 자리가 1개여도 동시 요청이 서로 막히지 않고, 실패한 요청도 자리를 돌려준다")
+    void sharesGlobalBufferSlotsAcrossRequests() throws Exception {
+        Map<String, byte[]> files = new LinkedHashMap<>();
+        for (int i = 0; i < 6; i++) {
+            files.put("f" + i + ".fa", ascii(">r" + i + "\n" + "ATGC".repeat(i + 1) + "\n"));
+        }
+        byte[] archive = zip(files);
+
+        ExecutorService clients = Executors.newFixedThreadPool(3);
+        try {
+            List<Future<FastaBatchResult>> requests = new ArrayList<>();
+            for (int i = 0; i < 3; i++) {
+                requests.add(clients.submit(() -> singleSlotService.analyzeArchive(new ByteArrayInputStream(archive), OPTIONS)));
+            }
+            for (Future<FastaBatchResult> request : requests) {
+                FastaBatchResult result = request.get(10, TimeUnit.SECONDS);
+                assertEquals(List.copyOf(files.keySet()), result.files().stream().map(FastaBatchFileResult::name).toList());
+                assertEquals(4 * (1 + 2 + 3 + 4 + 5 + 6), result.totals().totalBases());
+            }
+
+            // 중간에 잘린 압축 파일: 예외로 끝나도 잡았던 자리는 반납
+            byte[] truncated = Arrays.copyOf(archive, archive.length / 2);
+            assertThrows(IOException.class, () -> singleSlotService.analyzeArchive(new ByteArrayInputStream(truncated), OPTIONS));
+            FastaBatchResult after = clients.submit(() -> singleSlotService.analyzeArchive(new ByteArrayInputStream(archive), OPTIONS))
+                    .get(10, TimeUnit.SECONDS);
+            assertEquals(6, after.totals().files());
+        } finally {
+            clients.shutdownNow();
+        }
+    }
+}
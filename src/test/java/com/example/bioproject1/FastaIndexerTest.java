@@ -0,0 +1,114 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.FastaIndexEntry;
+import com.example.bioproject1.service.FastaFormatException;
+import com.example.bioproject1.service.FastaIndexer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * .fai 인덱스 생성 테스트 (LF/CRLF, 마지막 개행 없음, 빈 줄, 줄 길이가 다른 레코드 거부)
+ */
+class FastaIndexerTest {
+
+    private Path directory;
+
+    @BeforeEach
+    void createDirectory() throws IOException {
+        directory = Files.createTempDirectory("fasta-index-");
+    }
+
+    @AfterEach
+    void deleteDirectory() throws IOException {
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private List<FastaIndexEntry> build(String fasta) throws IOException {
+        Path path = directory.resolve("test.fa");
+        Files.writeString(path, fasta, StandardCharsets.US_ASCII);
+        return FastaIndexer.build(path);
+    }
+
+    @Test
+    @DisplayName("LF 파일: 이름은 헤더의 첫 단어, 오프셋은 첫 염기 위치, 줄 길이는 samtools faidx와 같다")
+    void indexesLfFile() throws IOException {
+        List<FastaIndexEntry> entries = build(">s1 desc\nACGTA\nCGTAC\nGT\n>s2\nTTTT\n");
+
+        assertEquals(List.of(
+                new FastaIndexEntry("s1", 12, 9, 5, 6),
+                new FastaIndexEntry("s2", 4, 28, 4, 5)), entries);
+    }
+
+    @Test
+    @DisplayName("CRLF 파일은 줄 바이트 수에 \\r을 포함하고, 마지막 줄에 개행이 없어도 염기를 센다")
+    void indexesCrlfFileWithoutTrailingNewline() throws IOException {
+        List<FastaIndexEntry> entries = build(">s1\r\nACGTA\r\nCGTAC\r\nGT\r\n>s2\r\nTTCCGG\r\nTT");
+
+        assertEquals(new FastaIndexEntry("s1", 12, 5, 5, 7), entries.get(0));
+        assertEquals(new FastaIndexEntry("s2", 8, 28, 6, 8), entries.get(1));
+    }
+
+    @Test
+    @DisplayName("개행 없이 끝난 한 줄짜리 마지막 레코드도 줄 길이를 기록한다")
+    void indexesSingleLineWithoutTrailingNewline() throws IOException {
+        assertEquals(List.of(new FastaIndexEntry("s1", 7, 4, 5, 6)), build(">s1\nACGTA\nCG"));
+        assertEquals(List.of(new FastaIndexEntry("s1", 4, 4, 4, 5)), build(">s1\nACGT"));
+    }
+
+    @Test
+    @DisplayName("파일 앞, 헤더 바로 뒤, 레코드 끝의 빈 줄은 건너뛰고, 빈 서열은 길이 0으로 기록한다")
+    void skipsBlankLines() throws IOException {
+        List<FastaIndexEntry> entries = build("\n\n>s1\n\nACGTA\nCG\n\n>empty\n>s2\nAAA\n");
+
+        assertEquals(List.of(
+                new FastaIndexEntry("s1", 7, 7, 5, 6),
+                new FastaIndexEntry("empty", 0, 24, 0, 0),
+                new FastaIndexEntry("s2", 3, 28, 3, 4)), entries);
+    }
+
+    @Test
+    @DisplayName("마지막 줄이 아닌 줄의 길이가 다르거나 레코드 중간에 빈 줄이 있으면 거부한다")
+    void rejectsUnequalLineLengths() {
+        assertThrows(FastaFormatException.class, () -> build(">s1\nACGTA\nACG\nACGTA\n"));
+        assertThrows(FastaFormatException.class, () -> build(">s1\nACG\nACGTA\n"));
+        assertThrows(FastaFormatException.class, () -> build(">s1\nACG\nACGTA"));
+        assertThrows(FastaFormatException.class, () -> build(">s1\nACGTA\n\nACGTA\n"));
+        // LF와 CRLF가 섞여 줄 바이트 수가 다른 경우
+        assertThrows(FastaFormatException.class, () -> build(">s1\nACGTA\r\nACGTA\nAC\n"));
+    }
+
+    @Test
+    @DisplayName("헤더로 시작하지 않거나 이름이 중복되면 거부한다")
+    void rejectsMalformedHeaders() {
+        assertThrows(FastaFormatException.class, () -> build("ACGT\n>s1\nACGT\n"));
+        assertThrows(FastaFormatException.class, () -> build(">s1\nACGT\n>s1 again\nACGT\n"));
+        assertThrows(FastaFormatException.class, () -> build(">s1"));
+    }
+
+    @Test
+    @DisplayName(".fai로 쓰고 다시 읽으면 같은 인덱스")
+    void writesAndReadsFai() throws IOException {
+        List<FastaIndexEntry> entries = build(">s1 desc\nACGTA\nCGTAC\nGT\n>s2\nTTTT\n");
+        Path fai = directory.resolve("test.fa.fai");
+        FastaIndexer.write(entries, fai);
+
+        assertEquals("s1\t12\t9\t5\t6\ns2\t4\t28\t4\t5\n", Files.readString(fai));
+        assertEquals(entries, FastaIndexer.read(fai));
+    }
+}
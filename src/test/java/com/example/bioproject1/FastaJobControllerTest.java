@@ -0,0 +1,67 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.controller.FastaJobController;
+import com.example.bioproject1.service.FastaJobService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.multipart;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 비동기 FASTA 작업 API 테스트 (등록 202, 대기열이 가득 차면 429 + Retry-After)
+ */
+class FastaJobControllerTest {
+
+    private FastaJobServiceTest.GatedFastaService fastaService;
+    private FastaJobService jobService;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        fastaService = new FastaJobServiceTest.GatedFastaService();
+        // 작업 스레드 1개, 대기열 1칸
+        jobService = new FastaJobService(fastaService, 1, 1, 60);
+        mockMvc = MockMvcBuilders.standaloneSetup(new FastaJobController(jobService)).build();
+    }
+
+    @AfterEach
+    void shutdown() {
+        fastaService.release.countDown();
+        jobService.shutdown();
+        fastaService.shutdown();
+    }
+
+    private static MockMultipartFile fasta() {
+        return new MockMultipartFile("file", "test.fa", "text/plain",
+                ">r1\nATGC\n>r2\nGGCC\n".getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Test
+    @DisplayName("실행 중 1개 + 대기 1개로 대기열이 가득 차면 POST /api/fasta/jobs 는 429와 Retry-After를 돌려준다")
+    void returnsTooManyRequestsWhenQueueIsFull() throws Exception {
+        mockMvc.perform(multipart("/api/fasta/jobs").file(fasta()))
+                .andExpect(status().isAccepted())
+                .andExpect(header().exists("Location"))
+                .andExpect(jsonPath("$.fileName").value("test.fa"));
+        assertTrue(fastaService.started.await(5, TimeUnit.SECONDS));
+        mockMvc.perform(multipart("/api/fasta/jobs").file(fasta()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.state").value("QUEUED"));
+
+        mockMvc.perform(multipart("/api/fasta/jobs").file(fasta()))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "30"));
+    }
+}
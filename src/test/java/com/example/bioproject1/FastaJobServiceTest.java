@@ -0,0 +1,177 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.FastaAnalysisResult;
+import com.example.bioproject1.dto.FastaJobResultPage;
+import com.example.bioproject1.service.FastaAnalysisOptions;
+import com.example.bioproject1.service.FastaJob;
+import com.example.bioproject1.service.FastaJobService;
+import com.example.bioproject1.service.FastaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 비동기 FASTA 작업 테스트 (대기열 가득 참, 대기/실행 중 취소, 결과 페이지, 보관 기간 만료)
+ */
+class FastaJobServiceTest {
+
+    private static final FastaAnalysisOptions OPTIONS = new FastaAnalysisOptions(false, false, 0);
+
+    /** 첫 레코드 결과를 넘긴 뒤 release될 때까지 멈추는 분석 (멈춘 동안 interrupt되면 중단) */
+    static class GatedFastaService extends FastaService {
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+
+        GatedFastaService() {
+            super(1, 0);
+        }
+
+        @Override
+        public void analyzeFasta(InputStream in, FastaAnalysisOptions options, Consumer<FastaAnalysisResult> sink)
+                throws IOException {
+            boolean[] first = {true};
+            super.analyzeFasta(in, options, result -> {
+                sink.accept(result);
+                if (!first[0]) return;
+                first[0] = false;
+                started.countDown();
+                try {
+                    release.await(10, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new UncheckedIOException(new InterruptedIOException("분석이 중단되었습니다."));
+                }
+            });
+        }
+    }
+
+    private final GatedFastaService fastaService = new GatedFastaService();
+    private final List<FastaJobService> services = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() {
+        fastaService.release.countDown();
+        services.forEach(FastaJobService::shutdown);
+        fastaService.shutdown();
+    }
+
+    // 작업 스레드 1개, 대기열 1칸
+    private FastaJobService service(long retentionMinutes) {
+        FastaJobService service = new FastaJobService(fastaService, 1, 1, retentionMinutes);
+        services.add(service);
+        return service;
+    }
+
+    private static MockMultipartFile fasta(int records) {
+        StringBuilder fasta = new StringBuilder();
+        for (int i = 1; i <= records; i++) {
+            fasta.append(">r").append(i).append('\n').append("ATGC".repeat(i)).append('\n');
+        }
+        return new MockMultipartFile("file", "test.fa", "text/plain", fasta.toString().getBytes(StandardCharsets.US_ASCII));
+    }
+
+    private static FastaJob.State awaitFinished(FastaJob job) throws InterruptedException {
+        for (int i = 0; i < 500 && !job.isFinished(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(job.isFinished(), "작업이 끝나지 않았습니다: " + job.getState());
+        return job.getState();
+    }
+
+    @Test
+    @DisplayName("실행 중 1개 + 대기 1개로 대기열이 가득 차면 다음 작업은 바로 거절하고, 자리가 나면 다시 받는다")
+    void rejectsWhenQueueIsFull() throws Exception {
+        FastaJobService service = service(60);
+        FastaJob running = service.submit(fasta(3), OPTIONS);
+        assertTrue(fastaService.started.await(5, TimeUnit.SECONDS));
+        FastaJob queued = service.submit(fasta(2), OPTIONS);
+
+        assertThrows(RejectedExecutionException.class, () -> service.submit(fasta(1), OPTIONS));
+        assertEquals(FastaJob.State.QUEUED, queued.getState());
+
+        fastaService.release.countDown();
+        assertEquals(FastaJob.State.COMPLETED, awaitFinished(running));
+        assertEquals(FastaJob.State.COMPLETED, awaitFinished(queued));
+        FastaJob next = service.submit(fasta(1), OPTIONS);
+        assertEquals(FastaJob.State.COMPLETED, awaitFinished(next));
+    }
+
+    @Test
+    @DisplayName("실행 중인 작업을 취소하면 분석 스레드를 멈추고 CANCELLED로 남으며, 대기 중이던 작업은 실행되지 않는다")
+    void cancelsRunningAndQueuedJobs() throws Exception {
+        FastaJobService service = service(60);
+        FastaJob running = service.submit(fasta(5), OPTIONS);
+        assertTrue(fastaService.started.await(5, TimeUnit.SECONDS));
+        FastaJob queued = service.submit(fasta(2), OPTIONS);
+
+        assertTrue(queued.cancel());
+        assertTrue(running.cancel());
+        assertFalse(running.cancel()); // 이미 종료 상태
+
+        assertEquals(FastaJob.State.CANCELLED, awaitFinished(running));
+        assertEquals(FastaJob.State.CANCELLED, queued.getState());
+        assertEquals(1, running.toStatus().recordsProcessed()); // 멈춘 뒤의 레코드는 분석하지 않음
+        assertEquals(0, queued.toStatus().recordsProcessed());
+        assertNull(running.toStatus().errorType());
+
+        // 작업 스레드가 풀려나서 다음 작업을 처리
+        fastaService.release.countDown();
+        FastaJob next = service.submit(fasta(1), OPTIONS);
+        assertEquals(FastaJob.State.COMPLETED, awaitFinished(next));
+        assertNull(queued.toStatus().startedAt());
+    }
+
+    @Test
+    @DisplayName("결과는 레코드 순서대로 페이지 단위로 돌려주고, 범위를 넘는 페이지는 비어 있다")
+    void pagesResults() throws Exception {
+        fastaService.release.countDown();
+        FastaJobService service = service(60);
+        FastaJob job = service.submit(fasta(5), OPTIONS);
+        assertEquals(FastaJob.State.COMPLETED, awaitFinished(job));
+
+        FastaJobResultPage first = job.resultPage(0, 2);
+        assertEquals(5, first.totalRecords());
+        assertEquals(List.of("r1", "r2"), first.results().stream().map(FastaAnalysisResult::getId).toList());
+        assertEquals(List.of("r3", "r4"), job.resultPage(1, 2).results().stream().map(FastaAnalysisResult::getId).toList());
+        assertEquals(List.of("r5"), job.resultPage(2, 2).results().stream().map(FastaAnalysisResult::getId).toList());
+        assertTrue(job.resultPage(3, 2).results().isEmpty());
+        assertTrue(job.resultPage(Integer.MAX_VALUE, 1000).results().isEmpty());
+        assertEquals(1.0, job.toStatus().progress());
+        assertEquals(fasta(5).getSize(), job.toStatus().bytesProcessed());
+    }
+
+    @Test
+    @DisplayName("보관 기간이 지난 종료 작업은 다음 등록 때 지워지고, 보관 기간 안이면 남아 있다")
+    void evictsFinishedJobsAfterRetention() throws Exception {
+        fastaService.release.countDown();
+        FastaJobService expiring = service(0);
+        FastaJob old = expiring.submit(fasta(1), OPTIONS);
+        awaitFinished(old);
+        Thread.sleep(5);
+
+        FastaJob fresh = expiring.submit(fasta(1), OPTIONS);
+        assertTrue(expiring.find(old.getId()).isEmpty());
+        assertTrue(expiring.find(fresh.getId()).isPresent());
+
+        FastaJobService keeping = service(60);
+        FastaJob kept = keeping.submit(fasta(1), OPTIONS);
+        awaitFinished(kept);
+        keeping.submit(fasta(1), OPTIONS);
+        assertTrue(keeping.find(kept.getId()).isPresent());
+    }
+}
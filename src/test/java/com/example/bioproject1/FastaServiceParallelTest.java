@@ -0,0 +1,63 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.FastaAnalysisResult;
+import com.example.bioproject1.service.FastaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * 순차 분석과 병렬 분석의 결과 일치 (입력 순서 유지)
+ */
+class FastaServiceParallelTest {
+
+    private final FastaService fastaService = new FastaService(4, 8);
+
+    @AfterEach
+    void tearDown() {
+        fastaService.shutdown();
+    }
+
+    // 레코드 수가 많은 multi-FASTA (전사체 형태, 길이가 제각각이라 병렬 작업이 끝나는 순서는 입력 순서와 다름)
+    private static byte[] syntheticMultiFasta(int records, int maxRecordLength) {
+        Random random = new Random(42);
+        StringBuilder sb = new StringBuilder();
+        for (int r = 0; r < records; r++) {
+            sb.append(">contig_").append(r).append('\n');
+            int recordLength = 1 + random.nextInt(maxRecordLength);
+            for (int i = 0; i < recordLength; i++) {
+                sb.append("ACGT".charAt(random.nextInt(4)));
+                if (i % 60 == 59) sb.append('\n');
+            }
+            sb.append('\n');
+        }
+        return sb.toString().getBytes(StandardCharsets.US_ASCII);
+    }
+
+    @Test
+    @DisplayName("병렬 분석 결과는 순차 분석 결과와 같고 입력 순서를 유지한다")
+    void parallelMatchesSequential() throws Exception {
+        byte[] fasta = syntheticMultiFasta(500, 20_000);
+
+        List<FastaAnalysisResult> sequential = fastaService.analyzeFasta(new ByteArrayInputStream(fasta));
+        List<FastaAnalysisResult> parallel = fastaService.analyzeFastaParallel(new ByteArrayInputStream(fasta));
+
+        assertEquals(500, sequential.size());
+        assertEquals(sequential.size(), parallel.size());
+        for (int i = 0; i < sequential.size(); i++) {
+            assertEquals("contig_" + i, parallel.get(i).getId());
+            assertEquals(sequential.get(i).getId(), parallel.get(i).getId());
+            assertEquals(sequential.get(i).getLength(), parallel.get(i).getLength());
+            assertEquals(sequential.get(i).getGcContent(), parallel.get(i).getGcContent());
+            assertEquals(sequential.get(i).getCodonUsage(), parallel.get(i).getCodonUsage());
+            assertEquals(sequential.get(i).getSequence(), parallel.get(i).getSequence());
+        }
+    }
+}
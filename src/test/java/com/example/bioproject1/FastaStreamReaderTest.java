@@ -0,0 +1,64 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.service.FastaFormatException;
+import com.example.bioproject1.service.FastaRecord;
+import com.example.bioproject1.service.FastaRecordTooLargeException;
+import com.example.bioproject1.service.FastaStreamReader;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * FastaStreamReader 단위 테스트 (스프링 컨텍스트 없이 실행)
+ */
+class FastaStreamReaderTest {
+
+    private static FastaStreamReader reader(String fasta) {
+        return new FastaStreamReader(new ByteArrayInputStream(fasta.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    @DisplayName("여러 줄/CRLF/빈 레코드를 레코드 단위로 읽는다")
+    void readsRecordsOneByOne() throws Exception {
+        FastaStreamReader reader = reader(";comment\n>seq1 human\nACGT\r\nacgt\n>seq2\n\n>seq3\nNNNAAA");
+
+        FastaRecord first = reader.next();
+        assertEquals("seq1 human", first.id());
+        assertEquals("ACGTacgt", first.sequenceAsString());
+
+        FastaRecord second = reader.next();
+        assertEquals("seq2", second.id());
+        assertEquals(0, second.length());
+
+        FastaRecord third = reader.next();
+        assertEquals("seq3", third.id());
+        assertEquals("NNNAAA", third.sequenceAsString());
+
+        assertNull(reader.next());
+    }
+
+    @Test
+    @DisplayName("헤더 없이 시작하거나 서열에 잘못된 문자가 있으면 FastaFormatException")
+    void rejectsMalformedInput() {
+        assertThrows(FastaFormatException.class, () -> reader("ACGT\n").next());
+        assertThrows(FastaFormatException.class, () -> reader(">x\nAC1GT\n").next());
+    }
+
+    @Test
+    @DisplayName("서열이 최대 길이를 넘는 레코드는 FastaRecordTooLargeException, 정확히 최대 길이면 읽는다")
+    void rejectsRecordsOverMaxLength() throws Exception {
+        String fasta = ">fits\n" + "ACGT".repeat(5_000) + "\n>big\n" + "ACGT".repeat(5_000) + "A\n";
+        FastaStreamReader reader = new FastaStreamReader(
+                new ByteArrayInputStream(fasta.getBytes(StandardCharsets.US_ASCII)), 20_000);
+
+        assertEquals(20_000, reader.next().length());
+        FastaRecordTooLargeException e = assertThrows(FastaRecordTooLargeException.class, reader::next);
+        assertTrue(e.getMessage().contains("big"));
+        assertThrows(IllegalArgumentException.class, () -> new FastaStreamReader(InputStream.nullInputStream(), 0));
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.GcProfileResult;
+import com.example.bioproject1.dto.GcWindow;
+import com.example.bioproject1.service.FastaRecord;
+import com.example.bioproject1.service.GcSkewProfiler;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 슬라이딩 윈도우 GC / GC skew 테스트 (창 수/좌표 계산, 남는 꼬리, maxPoints 다운샘플링, 창마다 새로 센 기준값과 비교)
+ */
+class GcSkewProfilerTest {
+
+    private static FastaRecord record(String sequence) {
+        return new FastaRecord("r", sequence.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    // 기준값: 창마다 처음부터 새로 셈 (1-based 시작/끝, GC %, skew, 서열 시작부터 끝까지 누적 G-C)
+    private static List<GcWindow> reference(String sequence, int window, int step) {
+        String upper = sequence.toUpperCase();
+        List<GcWindow> windows = new ArrayList<>();
+        for (int start = 0; start + window <= upper.length(); start += step) {
+            int g = 0, c = 0;
+            for (int i = start; i < start + window; i++) {
+                if (upper.charAt(i) == 'G') g++;
+                else if (upper.charAt(i) == 'C') c++;
+            }
+            long cumulative = 0;
+            for (int i = 0; i < start + window; i++) {
+                if (upper.charAt(i) == 'G') cumulative++;
+                else if (upper.charAt(i) == 'C') cumulative--;
+            }
+            windows.add(new GcWindow(start + 1, start + window, (double) (g + c) / window * 100,
+                    g + c == 0 ? 0.0 : (double) (g - c) / (g + c), cumulative));
+        }
+        return windows;
+    }
+
+    private static void assertSameWindow(GcWindow expected, GcWindow actual) {
+        assertEquals(expected.start(), actual.start());
+        assertEquals(expected.end(), actual.end());
+        assertEquals(expected.gcContent(), actual.gcContent(), 1e-9);
+        assertEquals(expected.gcSkew(), actual.gcSkew(), 1e-9);
+        assertEquals(expected.cumulativeGcSkew(), actual.cumulativeGcSkew());
+    }
+
+    private static String random(long seed, int length) {
+        Random random = new Random(seed);
+        StringBuilder sequence = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sequence.append("ACGTacgtN".charAt(random.nextInt(9)));
+        return sequence.toString();
+    }
+
+    @Test
+    @DisplayName("창 수는 (길이 - window) / step + 1, 창에 다 들어가지 않는 꼬리는 버린다")
+    void computesWindowCoordinates() {
+        GcProfileResult exact = GcSkewProfiler.profile(record("GGGCCCAAAT"), 4, 3, 100);
+        assertEquals(3, exact.windowCount());
+        assertEquals(List.of(1L, 4L, 7L), exact.points().stream().map(GcWindow::start).toList());
+        assertEquals(List.of(4L, 7L, 10L), exact.points().stream().map(GcWindow::end).toList());
+
+        // 한 염기가 남아도 마지막 창은 10에서 끝남
+        GcProfileResult tail = GcSkewProfiler.profile(record("GGGCCCAAATG"), 4, 3, 100);
+        assertEquals(3, tail.windowCount());
+        assertEquals(10, tail.points().get(2).end());
+        assertEquals(11, tail.length());
+
+        // step > window: 창 사이의 염기는 건너뜀
+        GcProfileResult gaps = GcSkewProfiler.profile(record("GGAACCAATTGG"), 2, 5, 100);
+        assertEquals(List.of(1L, 6L, 11L), gaps.points().stream().map(GcWindow::start).toList());
+        assertEquals(List.of(100.0, 50.0, 100.0), gaps.points().stream().map(GcWindow::gcContent).toList());
+    }
+
+    @Test
+    @DisplayName("서열이 window보다 짧으면 창이 없고, 정확히 같으면 창 하나")
+    void handlesShortSequences() {
+        GcProfileResult none = GcSkewProfiler.profile(record("GCG"), 4, 1, 10);
+        assertEquals(0, none.windowCount());
+        assertTrue(none.points().isEmpty());
+
+        GcProfileResult one = GcSkewProfiler.profile(record("GGCA"), 4, 1, 10);
+        assertEquals(1, one.windowCount());
+        assertSameWindow(new GcWindow(1, 4, 75.0, 1.0 / 3, 1), one.points().get(0));
+
+        GcWindow noGc = GcSkewProfiler.profile(record("ATNA"), 4, 1, 10).points().get(0);
+        assertEquals(0.0, noGc.gcContent());
+        assertEquals(0.0, noGc.gcSkew());
+    }
+
+    @Test
+    @DisplayName("창을 옮기며 갱신한 값이 창마다 새로 센 기준값과 같다 (겹침/맞닿음/간격)")
+    void matchesReferenceForOverlappingAndDisjointWindows() {
+        String sequence = random(11, 5_003);
+        int[][] windowAndStep = {{100, 1}, {100, 7}, {100, 100}, {100, 150}, {1, 1}, {5_003, 1}};
+        for (int[] ws : windowAndStep) {
+            List<GcWindow> expected = reference(sequence, ws[0], ws[1]);
+            GcProfileResult result = GcSkewProfiler.profile(record(sequence), ws[0], ws[1], Integer.MAX_VALUE);
+            assertEquals(expected.size(), result.windowCount(), "window=" + ws[0] + ", step=" + ws[1]);
+            assertEquals(1, result.windowsPerPoint());
+            for (int i = 0; i < expected.size(); i++) {
+                assertSameWindow(expected.get(i), result.points().get(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("창 수가 maxPoints를 넘으면 연속한 창을 묶어 평균 내고, 마지막 점은 남은 창만 평균 낸다")
+    void downsamplesToMaxPoints() {
+        String sequence = random(12, 1_000);
+        List<GcWindow> windows = reference(sequence, 100, 10); // 91개 창
+        GcProfileResult result = GcSkewProfiler.profile(record(sequence), 100, 10, 10);
+
+        assertEquals(91, result.windowCount());
+        assertEquals(10, result.windowsPerPoint()); // ceil(91 / 10)
+        assertEquals(10, result.points().size());   // 창 10개씩 9점 + 마지막 1개
+        for (int p = 0; p < result.points().size(); p++) {
+            List<GcWindow> bucket = windows.subList(p * 10, Math.min(p * 10 + 10, windows.size()));
+            GcWindow point = result.points().get(p);
+            assertEquals(bucket.get(0).start(), point.start());
+            assertEquals(bucket.get(bucket.size() - 1).end(), point.end());
+            assertEquals(bucket.stream().mapToDouble(GcWindow::gcContent).average().orElseThrow(), point.gcContent(), 1e-9);
+            assertEquals(bucket.stream().mapToDouble(GcWindow::gcSkew).average().orElseThrow(), point.gcSkew(), 1e-9);
+            assertEquals(bucket.get(bucket.size() - 1).cumulativeGcSkew(), point.cumulativeGcSkew());
+        }
+        assertSameWindow(windows.get(90), result.points().get(9));
+
+        // 나누어떨어지면 모든 점이 같은 수의 창
+        GcProfileResult even = GcSkewProfiler.profile(record(sequence), 100, 100, 5);
+        assertEquals(10, even.windowCount());
+        assertEquals(2, even.windowsPerPoint());
+        assertEquals(List.of(200L, 400L, 600L, 800L, 1000L), even.points().stream().map(GcWindow::end).toList());
+    }
+
+    @Test
+    @DisplayName("window, step, maxPoints가 1보다 작으면 거부한다")
+    void rejectsInvalidArguments() {
+        assertThrows(IllegalArgumentException.class, () -> GcSkewProfiler.profile(record("ACGT"), 0, 1, 1));
+        assertThrows(IllegalArgumentException.class, () -> GcSkewProfiler.profile(record("ACGT"), 1, 0, 1));
+        assertThrows(IllegalArgumentException.class, () -> GcSkewProfiler.profile(record("ACGT"), 1, 1, 0));
+    }
+}
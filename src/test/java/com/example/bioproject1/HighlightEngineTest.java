@@ -0,0 +1,144 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.HighlightedEntity;
+import com.example.bioproject1.dto.Infons;
+import com.example.bioproject1.dto.Location;
+import com.example.bioproject1.service.EntityTypeFilter;
+import com.example.bioproject1.service.HighlightEngine;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 하이라이트 엔진 단위 테스트 (타입별 마크업, 중첩/분할, 개체 목록)
+ */
+class HighlightEngineTest {
+
+    private final HighlightEngine engine = new HighlightEngine();
+
+    private static Annotation ann(String type, String identifier, String text, int offset, int length) {
+        return new Annotation(List.of(new Location(offset, length)), text, new Infons(type, identifier, null));
+    }
+
+    private static String open(String cssType, String type, String id) {
+        return "<mark class='highlight entity-" + cssType + "' data-type='" + type + "' data-id='" + id + "'>";
+    }
+
+    private static BioCPassage passage(String text, Annotation... annotations) {
+        return new BioCPassage(new Infons("abstract", null, null), text, List.of(annotations));
+    }
+
+    @Test
+    @DisplayName("겹치는 구간은 병합하고 접촉한 구간은 따로 두며, 구절 사이 공백만큼 offset을 보정한다")
+    void mergesAndShiftsIntervals() {
+        List<BioCPassage> passages = List.of(
+                passage("APOE4 & <tau> in AD",
+                        ann("Gene", "348", "APOE4", 0, 5),
+                        ann("gene", "348", "APOE", 0, 4),       // 겹침 -> 병합
+                        ann("Disease", "D1", "<tau>", 8, 5),
+                        ann("Disease", "D2", " in AD", 13, 6)),  // 접촉 -> 따로
+                passage(""),                                      // 빈 구절은 건너뜀
+                passage("Late onset", ann("Disease", "D3", "onset", 5, 5)));
+
+        HighlightEngine.Result result = engine.highlight(passages, EntityTypeFilter.CORE);
+        assertEquals(open("gene", "Gene", "348") + "APOE4</mark> &amp; "
+                        + open("disease", "Disease", "D1") + "&lt;tau&gt;</mark>"
+                        + open("disease", "Disease", "D2") + " in AD</mark> "
+                        + "Late " + open("disease", "Disease", "D3") + "onset</mark>",
+                result.html());
+        assertEquals(List.of(
+                new HighlightedEntity("Gene", "348", 0, 5),
+                new HighlightedEntity("Disease", "D1", 8, 13),
+                new HighlightedEntity("Disease", "D2", 13, 19),
+                new HighlightedEntity("Disease", "D3", 25, 30)), result.entities());
+    }
+
+    @Test
+    @DisplayName("다른 타입이 겹치면 중첩하고, 엇갈리면 먼저 닫히는 쪽에서 잘라 다시 열며, 같은 타입은 식별자를 합친다")
+    void nestsAndSplitsDifferentTypes() {
+        List<BioCPassage> passages = List.of(passage("APOE4 carriers with Alzheimer disease",
+                ann("Species", "9606", "carriers", 6, 8),
+                ann("Gene", "348", "APOE4 carriers", 0, 14),      // 바깥 Gene 안에 Species 중첩
+                ann("Disease", "D1", "with Alzheimer", 15, 14),
+                ann("Chemical", "C1", "Alzheimer disease", 20, 17), // Disease와 엇갈림
+                ann("Disease", "D2", "Alzheimer disease", 20, 17),  // 같은 타입 병합 -> D1;D2
+                ann("Disease", "D1", "disease", 30, 7)));
+
+        HighlightEngine.Result result = engine.highlight(passages, EntityTypeFilter.CORE);
+        assertEquals(open("gene", "Gene", "348") + "APOE4 " + open("species", "Species", "9606") + "carriers</mark></mark> "
+                        + open("disease", "Disease", "D1;D2") + "with "
+                        + open("chemical", "Chemical", "C1") + "Alzheimer disease</mark></mark>",
+                result.html());
+        assertEquals(List.of(
+                new HighlightedEntity("Gene", "348", 0, 14),
+                new HighlightedEntity("Species", "9606", 6, 14),
+                new HighlightedEntity("Disease", "D1;D2", 15, 37),
+                new HighlightedEntity("Chemical", "C1", 20, 37)), result.entities());
+
+        List<BioCPassage> crossing = List.of(passage("abcdefghij",
+                ann("Disease", "D1", "abcdef", 0, 6),
+                ann("Gene", "G1", "defghij", 3, 7)));
+        assertEquals(open("disease", "Disease", "D1") + "abc" + open("gene", "Gene", "G1") + "def</mark></mark>"
+                        + open("gene", "Gene", "G1") + "ghij</mark>",
+                engine.highlight(crossing, EntityTypeFilter.CORE).html());
+        assertEquals(2, engine.highlight(crossing, EntityTypeFilter.CORE).entities().size()); // 잘린 구간도 개체는 하나
+    }
+
+    @Test
+    @DisplayName("속성 값의 따옴표와 꺾쇠는 이스케이프한다")
+    void escapesAttributes() {
+        List<BioCPassage> passages = List.of(passage("p53 gene", ann("Gene", "a'b\"<c>", "p53", 0, 3)));
+        assertEquals(open("gene", "Gene", "a&#39;b&quot;&lt;c&gt;") + "p53</mark> gene",
+                engine.highlight(passages, EntityTypeFilter.CORE).html());
+    }
+
+    @Test
+    @DisplayName("타입/텍스트 길이/valid/식별자 규칙에 걸린 주석과 범위 밖 구간은 하이라이트하지 않는다")
+    void filtersAnnotations() {
+        List<BioCPassage> passages = List.of(passage("BRCA1 tp53 ab cells",
+                ann("Gene", "-", "BRCA1", 0, 5),                 // 식별자 없음
+                new Annotation(List.of(new Location(6, 4)), "tp53", new Infons("Gene", "7157", false)),
+                ann("Gene", "1", " ab ", 11, 2),                 // 공백 제외 2글자
+                ann("Cell", "C1", "cells", 14, 5),               // 기본 타입 아님
+                ann("Gene", "2", "cells", 14, 50)));             // 텍스트 끝에서 자름
+
+        HighlightEngine.Result core = engine.highlight(passages, EntityTypeFilter.CORE);
+        assertEquals("BRCA1 tp53 ab " + open("gene", "Gene", "2") + "cells</mark>", core.html());
+        assertEquals(1, core.annotationsKept());
+        assertEquals(4, core.annotationsFiltered());
+        assertEquals("BRCA1 tp53 ab " + open("cell", "Cell", "C1") + "cells</mark>",
+                engine.highlight(passages, EntityTypeFilter.parse("Cell")).html());
+        HighlightEngine.Result none = engine.highlight(passages, EntityTypeFilter.parse("Disease"));
+        assertEquals("BRCA1 tp53 ab cells", none.html());
+        assertTrue(none.entities().isEmpty());
+    }
+
+    @Test
+    @DisplayName("타입 필터는 대소문자/순서/공백을 무시하고, 기본 타입 목록과 같으면 CORE를 돌려준다")
+    void typeFilter() {
+        EntityTypeFilter filter = EntityTypeFilter.parse(" gene ,DISEASE");
+        assertTrue(filter.matches("Gene"));
+        assertTrue(filter.matches("disease"));
+        assertFalse(filter.matches("Chemical"));
+        assertFalse(filter.matches(null));
+        assertEquals("disease,gene", filter.key());
+        assertEquals(filter, EntityTypeFilter.parse("Disease,Gene"));
+
+        int gene = filter.indexOf("GENE");
+        assertTrue(gene >= 0 && gene < filter.slots());
+        assertEquals(-1, filter.indexOf("Chemical"));
+        assertEquals("Gene", filter.name(gene));               // 기본 타입 표기로 맞춤
+        assertEquals("entity-gene", filter.cssClass(gene));
+        EntityTypeFilter custom = EntityTypeFilter.parse("Cell Line");
+        assertEquals("entity-cell-line", custom.cssClass(custom.indexOf("cell line")));
+
+        assertSame(EntityTypeFilter.CORE, EntityTypeFilter.parse(null));
+        assertSame(EntityTypeFilter.CORE, EntityTypeFilter.parse(String.join(",", EntityTypeFilter.CORE_TYPES).toUpperCase()));
+        for (String type : EntityTypeFilter.CORE_TYPES) assertTrue(EntityTypeFilter.CORE.matches(type.toLowerCase()));
+    }
+}
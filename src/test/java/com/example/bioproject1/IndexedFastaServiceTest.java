@@ -0,0 +1,114 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.FastaReferenceInfo;
+import com.example.bioproject1.dto.FastaRegionResult;
+import com.example.bioproject1.service.IndexedFastaService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 참조 FASTA 영역 질의 테스트 (줄 경계를 넘는 영역, 레코드 끝, LF/CRLF/마지막 개행 없음/빈 줄이 섞인 파일)
+ */
+class IndexedFastaServiceTest {
+
+    // s1 = ACGTA GGCCT TA (12bp), s2 = GGGCC CAAAT T (11bp), 한 줄 5염기
+    private static final String S1 = "ACGTAGGCCTTA";
+    private static final String S2 = "GGGCCCAAATT";
+
+    private Path directory;
+    private IndexedFastaService service;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        directory = Files.createTempDirectory("fasta-references-");
+        write("lf", ">s1 chromosome\nACGTA\nGGCCT\nTA\n>s2\nGGGCC\nCAAAT\nT\n");
+        write("crlf", ">s1 chromosome\r\nACGTA\r\nGGCCT\r\nTA\r\n>s2\r\nGGGCC\r\nCAAAT\r\nT\r\n");
+        write("no-newline", ">s1 chromosome\nACGTA\nGGCCT\nTA\n>s2\nGGGCC\nCAAAT\nT");
+        write("blank-lines", "\n>s1 chromosome\n\nACGTA\nGGCCT\nTA\n\n>s2\nGGGCC\nCAAAT\nT\n\n");
+        service = new IndexedFastaService(directory.toString(), 1000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        service.close();
+        try (Stream<Path> files = Files.walk(directory)) {
+            for (Path path : (Iterable<Path>) files.sorted(Comparator.reverseOrder())::iterator) {
+                Files.delete(path);
+            }
+        }
+    }
+
+    private void write(String name, String fasta) throws IOException {
+        Files.writeString(directory.resolve(name + ".fa"), fasta, StandardCharsets.US_ASCII);
+    }
+
+    private String sequence(String reference, String region) throws IOException {
+        return service.queryRegion(reference, region, true).sequence();
+    }
+
+    @Test
+    @DisplayName("줄 경계를 넘는 영역과 레코드 끝까지의 영역을 파일 형식과 관계없이 같게 읽는다")
+    void readsRegionsAcrossLineBoundaries() throws IOException {
+        for (String reference : List.of("lf", "crlf", "no-newline", "blank-lines")) {
+            assertEquals(S1, sequence(reference, "s1"), reference);
+            assertEquals("TAGG", sequence(reference, "s1:4-7"), reference);     // 1줄 끝 -> 2줄 앞
+            assertEquals("ACGTA", sequence(reference, "s1:1-5"), reference);    // 정확히 한 줄
+            assertEquals("GGCCT", sequence(reference, "s1:6-10"), reference);
+            assertEquals("AGGCCTT", sequence(reference, "s1:5-11"), reference); // 세 줄에 걸침
+            assertEquals("TA", sequence(reference, "s1:11-12"), reference);     // 짧은 마지막 줄
+            assertEquals(S2, sequence(reference, "s2"), reference);
+            assertEquals("CCAAATT", sequence(reference, "s2:5-11"), reference); // 파일 끝 (개행 없음 포함)
+            assertEquals("T", sequence(reference, "s2:11"), reference);
+        }
+    }
+
+    @Test
+    @DisplayName("끝 좌표가 서열 길이를 넘으면 서열 끝까지로 자르고, GC 비율은 읽은 영역 기준")
+    void clampsRegionToRecordEnd() throws IOException {
+        FastaRegionResult result = service.queryRegion("crlf", "s1:9-1,000", true);
+
+        assertEquals("s1", result.sequenceName());
+        assertEquals(9, result.start());
+        assertEquals(12, result.end());
+        assertEquals(4, result.length());
+        assertEquals("CTTA", result.sequence());
+        assertEquals(25.0, result.gcContent(), 1e-9);
+        assertNull(service.queryRegion("crlf", "s1:9-1000", false).sequence());
+    }
+
+    @Test
+    @DisplayName("등록된 참조의 인덱스는 samtools faidx와 같은 값을 .fai로 남긴다")
+    void writesFaiNextToReference() throws IOException {
+        service.info("crlf");
+
+        assertEquals("s1\t12\t16\t5\t7\ns2\t11\t39\t5\t7\n",
+                Files.readString(directory.resolve("crlf.fa.fai")));
+        assertEquals(List.of("blank-lines", "crlf", "lf", "no-newline"),
+                service.list().stream().map(FastaReferenceInfo::name).toList());
+    }
+
+    @Test
+    @DisplayName("서열 범위를 벗어나거나 뒤집힌 영역, 없는 서열/참조는 거부한다")
+    void rejectsInvalidRegions() {
+        assertThrows(IllegalArgumentException.class, () -> service.queryRegion("lf", "s1:0-3", true));
+        assertThrows(IllegalArgumentException.class, () -> service.queryRegion("lf", "s1:8-3", true));
+        assertThrows(IllegalArgumentException.class, () -> service.queryRegion("lf", "s1:13-20", true));
+        assertThrows(IllegalArgumentException.class, () -> service.queryRegion("lf", "s1:a-b", true));
+        assertThrows(NoSuchElementException.class, () -> service.queryRegion("lf", "s3:1-2", true));
+        assertThrows(NoSuchElementException.class, () -> service.queryRegion("missing", "s1", true));
+        assertThrows(NoSuchElementException.class, () -> service.queryRegion("../lf", "s1", true));
+    }
+}
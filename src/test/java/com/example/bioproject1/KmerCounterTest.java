@@ -0,0 +1,160 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.KmerCount;
+import com.example.bioproject1.service.KmerCounter;
+import com.example.bioproject1.service.KmerMemoryBusyException;
+import com.example.bioproject1.service.KmerTableTooLargeException;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * canonical k-mer 카운트 테스트 (HashMap으로 센 기준값과 비교, N 구간, 역상보 회문, 구간 경계, 메모리 한도와 공유 예산)
+ */
+class KmerCounterTest {
+
+    private final ExecutorService executor = Executors.newFixedThreadPool(4);
+    private final Semaphore budgetKb = new Semaphore(1 << 20);
+
+    @AfterEach
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private static String reverseComplement(String kmer) {
+        StringBuilder rc = new StringBuilder(kmer.length());
+        for (int i = kmer.length() - 1; i >= 0; i--) {
+            rc.append(switch (kmer.charAt(i)) {
+                case 'A' -> 'T';
+                case 'C' -> 'G';
+                case 'G' -> 'C';
+                default -> 'A';
+            });
+        }
+        return rc.toString();
+    }
+
+    // 기준값: ACGT만으로 된 창마다 정방향/역상보 중 사전순으로 작은 쪽을 셈
+    private static Map<String, Long> reference(List<String> sequences, int k) {
+        Map<String, Long> counts = new HashMap<>();
+        for (String sequence : sequences) {
+            String upper = sequence.toUpperCase();
+            for (int i = 0; i + k <= upper.length(); i++) {
+                String kmer = upper.substring(i, i + k);
+                if (!kmer.matches("[ACGT]+")) continue;
+                String rc = reverseComplement(kmer);
+                counts.merge(kmer.compareTo(rc) <= 0 ? kmer : rc, 1L, Long::sum);
+            }
+        }
+        return counts;
+    }
+
+    private static String random(Random random, int length) {
+        StringBuilder sequence = new StringBuilder(length);
+        for (int i = 0; i < length; i++) sequence.append("ACGT".charAt(random.nextInt(4)));
+        return sequence.toString();
+    }
+
+    private static List<String> sample() {
+        Random random = new Random(42);
+        List<String> sequences = new ArrayList<>();
+        // 여러 훑기 구간으로 잘리는 긴 서열 (중간에 N 구간, 소문자 구간)
+        String longSequence = random(random, 60_000);
+        sequences.add(longSequence.substring(0, 20_000) + "N".repeat(40)
+                + longSequence.substring(20_000, 40_000).toLowerCase() + "NNRYN" + longSequence.substring(40_000));
+        // 역상보 서열: 같은 canonical k-mer를 한 번 더 셈
+        sequences.add(reverseComplement(longSequence.substring(0, 5_000)));
+        // 역상보 회문 (GAATTC, ACGT) 반복과 k보다 짧은 contig, 빈 서열
+        sequences.add("GAATTC".repeat(50) + "N" + "ACGT".repeat(30));
+        sequences.add("ACG");
+        sequences.add("");
+        for (int i = 0; i < 300; i++) sequences.add(random(random, 1 + random.nextInt(80)));
+        return sequences;
+    }
+
+    private Map<String, Long> count(List<String> sequences, int k, int partitions, int batchSize) throws Exception {
+        try (KmerCounter counter = new KmerCounter(k, partitions, 64L << 20, budgetKb, executor)) {
+            for (int from = 0; from < sequences.size(); from += batchSize) {
+                List<byte[]> batch = new ArrayList<>();
+                for (String sequence : sequences.subList(from, Math.min(from + batchSize, sequences.size()))) {
+                    batch.add(sequence.getBytes(StandardCharsets.US_ASCII));
+                }
+                counter.addAll(batch);
+            }
+            Map<String, Long> counts = new HashMap<>();
+            for (KmerCount kmer : counter.top((int) counter.distinctKmers())) {
+                counts.put(kmer.kmer(), kmer.count());
+            }
+            assertEquals(counter.distinctKmers(), counts.size());
+            assertEquals(counts.values().stream().mapToLong(Long::longValue).sum(), counter.totalKmers());
+            return counts;
+        }
+    }
+
+    @Test
+    @DisplayName("k=5/11/31 canonical 카운트가 HashMap 기준값과 같다 (파티션 수, 묶음 크기와 무관)")
+    void matchesReferenceCounts() throws Exception {
+        List<String> sequences = sample();
+        for (int k : new int[]{5, 11, 31}) {
+            Map<String, Long> expected = reference(sequences, k);
+            assertEquals(expected, count(sequences, k, 4, sequences.size()), "k=" + k);
+            assertEquals(expected, count(sequences, k, 3, 7), "k=" + k + ", 작은 묶음");
+            assertEquals(expected, count(sequences, k, 1, sequences.size()), "k=" + k + ", 파티션 1개");
+        }
+    }
+
+    @Test
+    @DisplayName("역상보 회문 k-mer는 한 번씩만 세고, N이 낀 창은 세지 않는다")
+    void countsPalindromesOnceAndSkipsAmbiguousBases() throws Exception {
+        // GAATTC는 자기 자신이 역상보 -> 6번 나오면 6
+        Map<String, Long> counts = count(List.of("GAATTCNGAATTCnnGAATTC", "gaattcGAATTCGAATTC"), 6, 2, 1);
+        assertEquals(6, (long) counts.get("GAATTC"));
+        assertEquals(reference(List.of("GAATTCNGAATTCnnGAATTC", "gaattcGAATTCGAATTC"), 6), counts);
+        assertTrue(count(List.of("ACGTNACGT"), 5, 2, 1).isEmpty());
+        // RNA의 U는 T로 읽음
+        assertEquals(count(List.of("GAATTCACGT"), 4, 2, 1), count(List.of("GAAUUCacgu"), 4, 2, 1));
+    }
+
+    @Test
+    @DisplayName("표가 메모리 한도를 넘으면 KmerTableTooLargeException (작업 스레드 예외가 그대로 전달됨)")
+    void throwsDedicatedExceptionWhenTableExceedsLimit() throws Exception {
+        // 파티션당 2MB = 131072 슬롯, 0.7 채움에서 두 배로 늘리려다 한도 초과
+        byte[] sequence = random(new Random(7), 200_000).getBytes(StandardCharsets.US_ASCII);
+        try (KmerCounter counter = new KmerCounter(21, 1, 2L << 20, budgetKb, executor)) {
+            assertThrows(KmerTableTooLargeException.class, () -> counter.addAll(List.of(sequence)));
+        }
+    }
+
+    @Test
+    @DisplayName("공유 예산이 모자라면 KmerMemoryBusyException, close 후에는 예산을 모두 돌려받는다")
+    void reservesAndReleasesSharedBudget() throws Exception {
+        // 표 하나의 첫 구역 = 65536 슬롯 x 16바이트 = 1024KB, 두 배로 늘리면 2048KB
+        Semaphore budget = new Semaphore(3 * 1024);
+        byte[] sequence = random(new Random(11), 60_000).getBytes(StandardCharsets.US_ASCII);
+        try (KmerCounter first = new KmerCounter(21, 1, 64L << 20, budget, executor)) {
+            assertEquals(2 * 1024, budget.availablePermits());
+            // 두 번째 카운터의 첫 구역은 남은 예산에 들어가지만, 늘리려면 모자람
+            try (KmerCounter second = new KmerCounter(21, 1, 64L << 20, budget, executor)) {
+                assertThrows(KmerMemoryBusyException.class, () -> second.addAll(List.of(sequence)));
+            }
+            assertEquals(2 * 1024, budget.availablePermits());
+            // 파티션 3개 중 세 번째에서 실패해도 앞의 두 표는 반납
+            assertThrows(KmerMemoryBusyException.class, () -> new KmerCounter(21, 3, 64L << 20, budget, executor));
+            assertEquals(2 * 1024, budget.availablePermits());
+            first.addAll(List.of(sequence)); // 60k k-mer: 한 번만 늘어남 (1024KB -> 2048KB)
+        }
+        assertEquals(3 * 1024, budget.availablePermits());
+    }
+}
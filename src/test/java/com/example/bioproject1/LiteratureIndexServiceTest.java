@@ -0,0 +1,136 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.EntitySummary;
+import com.example.bioproject1.dto.Infons;
+import com.example.bioproject1.dto.LocalPaper;
+import com.example.bioproject1.dto.Location;
+import com.example.bioproject1.service.LiteratureIndexService;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 로컬 코퍼스 색인/조회 테스트 (메모리 H2, NCBI 호출 없음)
+ */
+@SpringBootTest(properties = "spring.datasource.url=jdbc:h2:mem:literature-index;DB_CLOSE_DELAY=-1")
+class LiteratureIndexServiceTest {
+
+    @Autowired
+    private LiteratureIndexService literatureIndex;
+
+    private static Annotation ann(String text, String type, String identifier, int offset) {
+        return new Annotation(List.of(new Location(offset, text.length())), text, new Infons(type, identifier, true));
+    }
+
+    private static BioCDocument doc(String pmid, String title, List<Annotation> annotations) {
+        return new BioCDocument(pmid, List.of(
+                new BioCPassage(new Infons("title", null, null), title, List.of()),
+                new BioCPassage(new Infons("abstract", null, null), "abstract of " + pmid, annotations)));
+    }
+
+    @Test
+    @DisplayName("식별자/언급 텍스트/키워드로 논문을 찾고, 논문의 개체를 묶어서 돌려준다")
+    void indexesAndQueries() {
+        literatureIndex.index(List.of(
+                doc("9000001", "APOE and AD", List.of(
+                        ann("APOE4", "Gene", "348", 0),
+                        ann("apoE4", "Gene", "348", 20),
+                        ann("Alzheimer's disease", "Disease", "MESH:D000544", 40))),
+                doc("9000002", "Other", List.of(
+                        ann("APOE", "Gene", "348", 0),
+                        ann("tau", "Gene", "4137;-", 10)))));
+
+        List<LocalPaper> byGene = literatureIndex.papersByIdentifier("348", "gene", 10);
+        assertEquals(List.of("9000001", "9000002"), byGene.stream().map(LocalPaper::pmid).toList());
+        assertEquals(2, byGene.get(0).mentions());
+        assertEquals("APOE and AD", byGene.get(0).title());
+
+        assertTrue(literatureIndex.papersByIdentifier("348", "Disease", 10).isEmpty());
+        assertEquals(List.of("9000002"),
+                literatureIndex.papersByIdentifier("4137", null, 10).stream().map(LocalPaper::pmid).toList());
+        assertEquals(List.of("9000001"),
+                literatureIndex.papersByMention("  APOE4 ", null, 10).stream().map(LocalPaper::pmid).toList());
+        assertEquals(2, literatureIndex.search("apoe", 10).size());
+        assertEquals(List.of("9000001"),
+                literatureIndex.search("MESH:D000544", 10).stream().map(LocalPaper::pmid).toList());
+
+        List<EntitySummary> entities = literatureIndex.entitiesInPaper("9000001").orElseThrow();
+        assertEquals(2, entities.size());
+        assertEquals(new EntitySummary("Gene", "348", List.of("APOE4", "apoE4"), 2), entities.get(0));
+        assertTrue(literatureIndex.entitiesInPaper("0").isEmpty());
+    }
+
+    @Test
+    @DisplayName("여러 단어 키워드는 단어마다 역색인을 찾아 모든 단어가 나오는 논문만 언급 수 순으로 돌려준다")
+    void multiWordSearchIntersectsPostings() {
+        literatureIndex.index(List.of(
+                doc("9000020", "BRCA2 in breast cancer", List.of(
+                        ann("BRCA2", "Gene", "675", 0),
+                        ann("BRCA2", "Gene", "675", 10),
+                        ann("hereditary breast cancer", "Disease", "MESH:D001943", 20))),
+                doc("9000021", "BRCA2 in ovarian cancer", List.of(
+                        ann("BRCA2", "Gene", "675", 0),
+                        ann("ovarian cancer", "Disease", "MESH:D010051", 10))),
+                doc("9000022", "Breast cancer screening", List.of(
+                        ann("breast cancer", "Disease", "MESH:D001943", 0),
+                        ann("BRCA2", "Gene", "675", 20)))));
+
+        // 구절 안의 단어(breast)도 찾고, 세 논문 중 두 단어가 모두 나오는 두 편만 (언급 많은 순)
+        assertEquals(List.of("9000020", "9000022"),
+                literatureIndex.search("brca2 breast", 10).stream().map(LocalPaper::pmid).toList());
+        assertEquals(List.of("9000021"),
+                literatureIndex.search("BRCA2 AND ovarian cancer", 10).stream().map(LocalPaper::pmid).toList());
+        assertEquals(List.of("9000020"),
+                literatureIndex.search("hereditary, 675", 10).stream().map(LocalPaper::pmid).toList());
+        assertEquals(1, literatureIndex.search("brca2 breast", 1).size());
+        assertTrue(literatureIndex.search("brca2 pancreatic", 10).isEmpty());
+        assertTrue(literatureIndex.search("  ", 10).isEmpty());
+    }
+
+    @Test
+    @DisplayName("같은 PMID를 다시 색인하면 이전 주석을 대체한다")
+    void reindexReplacesPreviousEntries() {
+        literatureIndex.index(List.of(doc("9000010", "v1", List.of(ann("BRCA1", "Gene", "672", 0)))));
+        literatureIndex.index(List.of(doc("9000010", "v2", List.of(ann("TP53", "Gene", "7157", 0)))));
+
+        assertTrue(literatureIndex.papersByIdentifier("672", null, 10).isEmpty());
+        assertEquals(1, literatureIndex.papersByIdentifier("7157", null, 10).size());
+        assertEquals(1, literatureIndex.entitiesInPaper("9000010").orElseThrow().size());
+        assertEquals("v2", literatureIndex.findDocument("9000010").orElseThrow().passages().get(0).text());
+    }
+
+    @Test
+    @DisplayName("export로 받은 문서도 덤프 적재와 같은 규칙으로 주석을 거른다 (짧은 텍스트, 기본 타입 아님, 식별자 없음, invalid)")
+    void appliesIngestionAnnotationPolicy() {
+        Annotation invalid = new Annotation(List.of(new Location(40, 5)), "BRCA1", new Infons("Gene", "672", false));
+        literatureIndex.index(List.of(doc("9000030", "Policy", List.of(
+                ann("APOE4", "Gene", "348", 0),
+                ann("AD", "Disease", "MESH:D000544", 10),
+                ann("chr19", "Chromosome", "19", 20),
+                ann("amyloid", "Chemical", null, 30),
+                invalid))));
+
+        assertEquals(List.of(new EntitySummary("Gene", "348", List.of("APOE4"), 1)),
+                literatureIndex.entitiesInPaper("9000030").orElseThrow());
+        assertTrue(literatureIndex.papersByIdentifier("MESH:D000544", null, 10).isEmpty());
+        assertTrue(literatureIndex.papersByMention("amyloid", null, 10).isEmpty());
+        // 저장한 원본 문서에도 남긴 주석만
+        assertEquals(1, literatureIndex.findDocument("9000030").orElseThrow().passages().get(1).annotations().size());
+        assertFalse(LiteratureIndexService.isIndexedAnnotation(invalid));
+    }
+
+    @Test
+    @DisplayName("언급 텍스트는 NFKC + 소문자 + 공백 정리로 정규화한다")
+    void normalizesMentions() {
+        assertEquals("tnf alpha", LiteratureIndexService.normalizeMention(" TNF  \tALPHA "));
+        assertEquals("il-6", LiteratureIndexService.normalizeMention("ＩＬ-6"));
+    }
+}
@@ -0,0 +1,355 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.HighlightedAbstract;
+import com.example.bioproject1.dto.SearchSummary;
+import com.example.bioproject1.service.CircuitBreaker;
+import com.example.bioproject1.service.NcbiClient;
+import com.example.bioproject1.service.NcbiClientProperties;
+import com.example.bioproject1.service.NcbiUnavailableException;
+import com.example.bioproject1.service.PipelineMetrics;
+import com.example.bioproject1.service.PubTatorProperties;
+import com.example.bioproject1.service.PubTatorService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NCBI 클라이언트 계층 테스트 (실제 API 대신 로컬 HTTP 스텁 서버로 지연/429/5xx를 흉내)
+ */
+class NcbiClientTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private String baseUrl;
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+        baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    // 동시 요청 수/허가 대기, rate, 최소 rate, 연결/요청 시간 초과, 시도 횟수, 백오프, 브레이커 임계값/열림 시간
+    private static NcbiClient client(int maxAttempts, long requestTimeoutMs, int breakerThreshold, long breakerOpenMs) {
+        return new NcbiClient(new NcbiClientProperties(3, 1000L, 50.0, 1.0, 1000L, requestTimeoutMs, maxAttempts,
+                10L, 40L, breakerThreshold, breakerOpenMs));
+    }
+
+    // 동시 요청 maxConcurrency개, 허가 대기 acquireTimeoutMs
+    private static NcbiClient limitedClient(int maxConcurrency, long acquireTimeoutMs) {
+        return new NcbiClient(new NcbiClientProperties(maxConcurrency, acquireTimeoutMs, 50.0, 1.0, 1000L, 5000L, 2,
+                10L, 40L, 10, 1000L));
+    }
+
+    private CompletableFuture<String> sendAsync(NcbiClient client, String path) throws InterruptedException {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        return client.send(request, HttpResponse.BodyHandlers.ofString(), HttpResponse::body);
+    }
+
+    // 테스트 서버를 가리키는 검색 설정 (기본 10편, 최대 100편)
+    private PubTatorProperties properties(int exportBatchSize) {
+        return new PubTatorProperties(new PubTatorProperties.Api(baseUrl + "/search/", baseUrl + "/export"),
+                new PubTatorProperties.Search(10, 100, "remote"), new PubTatorProperties.Export(exportBatchSize));
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(status, bytes.length == 0 ? -1 : bytes.length);
+        if (bytes.length > 0) exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    private String get(NcbiClient client, String path) throws Exception {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build();
+        CompletableFuture<String> future = client.send(request, HttpResponse.BodyHandlers.ofString(), HttpResponse::body);
+        return future.get();
+    }
+
+    private static Throwable failure(ThrowingCall call) {
+        ExecutionException e = assertThrows(ExecutionException.class, call::run);
+        return e.getCause();
+    }
+
+    private interface ThrowingCall {
+        void run() throws Exception;
+    }
+
+    @Test
+    @DisplayName("429를 받으면 Retry-After를 지키며 재시도하고, 요청 속도를 줄인다")
+    void retriesThrottledRequests() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/search", exchange -> {
+            if (hits.incrementAndGet() <= 2) {
+                exchange.getResponseHeaders().add("Retry-After", "0");
+                respond(exchange, 429, "slow down");
+            } else {
+                respond(exchange, 200, "ok");
+            }
+        });
+        NcbiClient client = client(4, 1000, 10, 1000);
+
+        assertEquals("ok", get(client, "/search"));
+        assertEquals(3, hits.get());
+        assertEquals(2, client.retryCount());
+        assertEquals(2, client.throttledCount());
+        assertTrue(client.currentRate() < 50, "429 후에는 설정 속도보다 느려야 함: " + client.currentRate());
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+    }
+
+    @Test
+    @DisplayName("응답이 요청 시간 초과보다 늦으면 재시도 후 NcbiUnavailableException으로 실패한다")
+    void timesOutSlowResponses() {
+        AtomicInteger hits = new AtomicInteger();
+        server.createContext("/slow", exchange -> {
+            hits.incrementAndGet();
+            try {
+                Thread.sleep(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "late");
+        });
+        NcbiClient client = client(2, 100, 10, 1000);
+
+        long started = System.nanoTime();
+        Throwable cause = failure(() -> get(client, "/slow"));
+        assertInstanceOf(NcbiUnavailableException.class, cause);
+        assertTrue(System.nanoTime() - started < 900_000_000L, "느린 응답을 끝까지 기다리면 안 됨");
+        assertEquals(2, hits.get());
+    }
+
+    @Test
+    @DisplayName("연속 5xx로 브레이커가 열리면 요청을 보내지 않고, 열림 시간이 지나면 시험 요청 하나로 닫힌다")
+    void opensAndClosesCircuit() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        AtomicInteger failuresLeft = new AtomicInteger(2);
+        server.createContext("/export", exchange -> {
+            hits.incrementAndGet();
+            if (failuresLeft.getAndDecrement() > 0) respond(exchange, 503, "");
+            else respond(exchange, 200, "ok");
+        });
+        NcbiClient client = client(1, 1000, 2, 200);
+
+        assertInstanceOf(NcbiUnavailableException.class, failure(() -> get(client, "/export")));
+        assertInstanceOf(NcbiUnavailableException.class, failure(() -> get(client, "/export")));
+        assertEquals(CircuitBreaker.State.OPEN, client.circuitState());
+
+        // 열려 있는 동안은 서버에 닿지 않고 바로 실패
+        NcbiUnavailableException rejected = assertInstanceOf(NcbiUnavailableException.class,
+                failure(() -> get(client, "/export")));
+        assertTrue(rejected.retryAfter().toMillis() > 0);
+        assertEquals(2, hits.get());
+        assertEquals(1, client.rejectedCount());
+
+        Thread.sleep(250);
+        assertEquals("ok", get(client, "/export"));
+        assertEquals(CircuitBreaker.State.CLOSED, client.circuitState());
+        assertEquals(3, hits.get());
+    }
+
+    @Test
+    @DisplayName("동시 요청 허가를 시간 안에 못 얻으면 기다리지 않고 NcbiUnavailableException으로 실패한다")
+    void failsWhenPermitIsNotAvailable() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        server.createContext("/busy", exchange -> {
+            try {
+                release.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, 200, "done");
+        });
+        NcbiClient client = limitedClient(1, 100);
+
+        CompletableFuture<String> holder = sendAsync(client, "/busy");
+        long started = System.nanoTime();
+        assertInstanceOf(NcbiUnavailableException.class, failure(() -> get(client, "/busy")));
+        assertTrue(System.nanoTime() - started < 2_000_000_000L, "허가 대기는 시간 초과에서 끝나야 함");
+        assertEquals(1, client.permitTimeoutCount());
+
+        release.countDown();
+        assertEquals("done", holder.get(5, TimeUnit.SECONDS));
+        // 반납된 허가로 다음 요청은 바로 나감
+        assertEquals("done", get(client, "/busy"));
+    }
+
+    @Test
+    @DisplayName("Retry-After를 기다리는 동안에는 허가를 반납해서 다른 요청이 먼저 나간다")
+    void releasesPermitWhileWaitingToRetry() throws Exception {
+        AtomicInteger hits = new AtomicInteger();
+        CountDownLatch throttled = new CountDownLatch(1);
+        server.createContext("/throttled", exchange -> {
+            if (hits.incrementAndGet() == 1) {
+                exchange.getResponseHeaders().add("Retry-After", "1");
+                respond(exchange, 429, "slow down");
+                throttled.countDown();
+            } else {
+                respond(exchange, 200, "retried");
+            }
+        });
+        server.createContext("/other", exchange -> respond(exchange, 200, "other"));
+        NcbiClient client = limitedClient(1, 500);
+
+        CompletableFuture<String> retrying = sendAsync(client, "/throttled");
+        assertTrue(throttled.await(5, TimeUnit.SECONDS));
+        assertEquals("other", get(client, "/other"));
+        assertFalse(retrying.isDone(), "다른 요청은 Retry-After(1초)가 끝나기 전에 나가야 함");
+
+        assertEquals("retried", retrying.get(5, TimeUnit.SECONDS));
+        assertEquals(0, client.permitTimeoutCount());
+    }
+
+    @Test
+    @DisplayName("export batch 하나가 계속 실패해도 나머지 batch의 결과는 그대로 받고, 빠진 PMID 수를 알려준다")
+    void servesPartialResultsWhenExportFails() throws Exception {
+        server.createContext("/search/", exchange -> respond(exchange, 200, """
+                {"results": [{"pmid": "111"}, {"pmid": "222"}], "page_size": 10, "total_pages": 1}
+                """));
+        server.createContext("/export", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            if (query.contains("222")) {
+                respond(exchange, 503, "");
+                return;
+            }
+            respond(exchange, 200, """
+                    {"PubTator3": [{"id": "111", "passages": [
+                      {"infons": {"type": "title"}, "text": "APOE and AD", "annotations": []},
+                      {"infons": {"type": "abstract"}, "text": "APOE4 raises risk.", "annotations": [
+                        {"text": "APOE4", "infons": {"type": "Gene", "identifier": "348"},
+                         "locations": [{"offset": 0, "length": 5}]}]}]}]}
+                    """);
+        });
+        NcbiClient client = client(2, 1000, 10, 1000);
+        PubTatorService service = new PubTatorService(null, null, client, PipelineMetrics.noop(), properties(1));
+
+        List<HighlightedAbstract> results = new ArrayList<>();
+        SearchSummary summary = service.searchAndHighlight("apoe", 10, results::add);
+
+        assertEquals(2, summary.pmidCount());
+        assertEquals(1, summary.resultCount());
+        assertEquals(1, summary.unavailableCount());
+        assertEquals("111", results.get(0).pmid());
+        assertTrue(results.get(0).abstractHtml().contains("data-id='348'>APOE4</mark>"));
+    }
+
+    // 검색 페이지 p: PMID p*100 ~ p*100+9 (페이지 크기 10, 전체 totalPages쪽), 2쪽 첫 PMID는 1쪽과 중복
+    private void searchPages(int totalPages, List<String> queries) {
+        server.createContext("/search/", exchange -> {
+            String query = exchange.getRequestURI().getQuery();
+            queries.add(query);
+            int page = Integer.parseInt(query.replaceAll(".*\\bpage=(\\d+).*", "$1"));
+            List<String> results = new ArrayList<>();
+            for (int i = 0; i < 10; i++) {
+                int pmid = page == 2 && i == 0 ? 100 : page * 100 + i;
+                results.add("{\"pmid\": \"" + pmid + "\"}");
+            }
+            respond(exchange, 200, "{\"results\": [" + String.join(",", results) + "], \"page_size\": 10, "
+                    + "\"total_pages\": " + totalPages + "}");
+        });
+    }
+
+    private static List<Integer> pages(List<String> queries) {
+        return queries.stream().map(q -> Integer.parseInt(q.replaceAll(".*\\bpage=(\\d+).*", "$1"))).sorted().toList();
+    }
+
+    @Test
+    @DisplayName("검색은 API의 페이지 크기로 limit을 채울 만큼만 요청하고, 중복으로 모자라면 다음 페이지를 더 요청한다")
+    void paginatesSearchWithApiPageSize() throws Exception {
+        List<String> queries = new CopyOnWriteArrayList<>();
+        searchPages(5, queries);
+        server.createContext("/export", exchange -> respond(exchange, 200, "{\"PubTator3\": []}"));
+        PubTatorService service = new PubTatorService(null, null, client(2, 1000, 10, 1000), PipelineMetrics.noop(),
+                properties(20));
+
+        // 25편: 1~3쪽이면 충분 (2쪽의 중복 하나를 빼도 29개)
+        SearchSummary summary = service.searchAndHighlight("apoe", 25, result -> {});
+        assertEquals(25, summary.pmidCount());
+        assertEquals(List.of("100", "101"), summary.pmids().subList(0, 2));
+        assertEquals("109", summary.pmids().get(9));
+        assertEquals("201", summary.pmids().get(10)); // 2쪽의 중복(100)은 건너뜀
+        assertEquals(List.of(1, 2, 3), pages(queries));
+        assertTrue(queries.stream().noneMatch(q -> q.contains("limit=")), "페이지 크기는 API가 정함: " + queries);
+
+        // 30편: 1~3쪽은 중복 때문에 29개 -> 4쪽을 더 요청해서 채움
+        queries.clear();
+        summary = service.searchAndHighlight("tau", 30, result -> {});
+        assertEquals(30, summary.pmidCount());
+        assertEquals("400", summary.pmids().get(29));
+        assertEquals(List.of(1, 2, 3, 4), pages(queries));
+
+        // 100편: 마지막 페이지(5쪽)에서 멈춤
+        queries.clear();
+        summary = service.searchAndHighlight("app", 100, result -> {});
+        assertEquals(49, summary.pmidCount());
+        assertEquals(List.of(1, 2, 3, 4, 5), pages(queries));
+    }
+
+    @Test
+    @DisplayName("export batch들은 동시에 보내되 동시 요청 수 상한을 넘지 않는다")
+    void exportsBatchesConcurrentlyWithinPermitLimit() throws Exception {
+        searchPages(1, new CopyOnWriteArrayList<>());
+        AtomicInteger inFlight = new AtomicInteger();
+        AtomicInteger maxInFlight = new AtomicInteger();
+        List<String> exported = new CopyOnWriteArrayList<>();
+        server.createContext("/export", exchange -> {
+            maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+            try {
+                Thread.sleep(50);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            exported.add(exchange.getRequestURI().getQuery());
+            inFlight.decrementAndGet();
+            respond(exchange, 200, "{\"PubTator3\": []}");
+        });
+        PubTatorService service = new PubTatorService(null, null, limitedClient(2, 5000), PipelineMetrics.noop(),
+                properties(1));
+
+        SearchSummary summary = service.searchAndHighlight("apoe", 10, result -> {});
+
+        assertEquals(10, summary.pmidCount());
+        assertEquals(10, exported.size()); // batch 크기 1 -> PMID마다 한 번
+        assertEquals(0, summary.unavailableCount());
+        assertEquals(2, maxInFlight.get());
+    }
+
+    @Test
+    @DisplayName("검색 단계에서 NCBI를 쓸 수 없고 대체할 로컬 코퍼스도 없으면 NcbiUnavailableException을 던진다")
+    void failsSearchWithoutFallback() {
+        server.createContext("/search/", exchange -> respond(exchange, 502, ""));
+        PubTatorService service = new PubTatorService(null, null, client(2, 1000, 10, 1000), PipelineMetrics.noop(),
+                properties(20));
+
+        assertThrows(NcbiUnavailableException.class, () -> service.searchAndHighlight("apoe", 10));
+    }
+}
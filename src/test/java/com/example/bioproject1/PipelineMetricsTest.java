@@ -0,0 +1,101 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.SearchSummary;
+import com.example.bioproject1.service.FastaService;
+import com.example.bioproject1.service.NcbiClient;
+import com.example.bioproject1.service.NcbiClientProperties;
+import com.example.bioproject1.service.PipelineMetrics;
+import com.example.bioproject1.service.PubTatorProperties;
+import com.example.bioproject1.service.PubTatorService;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 단계별 지표 기록 테스트 (SimpleMeterRegistry, NCBI 대신 로컬 HTTP 스텁 서버)
+ */
+class PipelineMetricsTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final PipelineMetrics metrics = new PipelineMetrics(registry);
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.sendResponseHeaders(200, bytes.length);
+        exchange.getResponseBody().write(bytes);
+        exchange.close();
+    }
+
+    @Test
+    @DisplayName("FASTA 분석은 레코드마다 분석 시간과 레코드/염기 수를, 요청마다 입력 바이트 수를 기록한다")
+    void recordsFastaMetrics() throws IOException {
+        byte[] fasta = ">a\nACGTACGTAC\n>b\nGGGCCC\n".getBytes(StandardCharsets.US_ASCII);
+        FastaService fastaService = new FastaService(1, 1, null, metrics);
+        try {
+            assertEquals(2, fastaService.analyzeFasta(new ByteArrayInputStream(fasta)).size());
+        } finally {
+            fastaService.shutdown();
+        }
+
+        assertEquals(2, registry.get("fasta.record.analysis").timer().count());
+        assertTrue(registry.get("fasta.record.analysis").timer().totalTime(TimeUnit.NANOSECONDS) > 0);
+        assertEquals(2.0, registry.get("fasta.records").counter().count());
+        assertEquals(16.0, registry.get("fasta.bases").counter().count());
+        assertEquals(fasta.length, registry.get("fasta.input.size").summary().totalAmount());
+    }
+
+    @Test
+    @DisplayName("검색 한 번에 search/export 호출, 파싱, 하이라이트 시간과 문서/주석/바이트 수를 기록한다")
+    void recordsSearchMetrics() throws Exception {
+        String export = """
+                {"PubTator3": [{"id": "111", "passages": [
+                  {"infons": {"type": "abstract"}, "text": "APOE4 raises risk.", "annotations": [
+                    {"text": "APOE4", "infons": {"type": "Gene", "identifier": "348"},
+                     "locations": [{"offset": 0, "length": 5}]},
+                    {"text": "risk", "infons": {"type": "Gene", "identifier": "-"},
+                     "locations": [{"offset": 13, "length": 4}]}]}]}]}
+                """;
+        HttpServer server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.createContext("/search/", exchange -> respond(exchange, """
+                {"results": [{"pmid": "111"}], "page_size": 10, "total_pages": 1}
+                """));
+        server.createContext("/export", exchange -> respond(exchange, export));
+        server.start();
+        try {
+            String baseUrl = "http://127.0.0.1:" + server.getAddress().getPort();
+            NcbiClient client = new NcbiClient(new NcbiClientProperties(3, 1000L, 50.0, 1.0, 1000L, 1000L, 1,
+                    10L, 40L, 5, 1000L));
+            client.bindTo(registry);
+            PubTatorService service = new PubTatorService(null, null, client, metrics, new PubTatorProperties(
+                    new PubTatorProperties.Api(baseUrl + "/search/", baseUrl + "/export"), null, null));
+
+            SearchSummary summary = service.searchAndHighlight("apoe", 10, result -> {});
+            assertEquals(1, summary.resultCount());
+        } finally {
+            server.stop(0);
+        }
+
+        assertEquals(1, registry.get("pubtator.api.request").tag("api", "search").tag("outcome", "success").timer().count());
+        assertEquals(1, registry.get("pubtator.api.request").tag("api", "export").tag("outcome", "success").timer().count());
+        assertEquals(0, registry.get("pubtator.api.request").tag("api", "export").tag("outcome", "failure").timer().count());
+        assertEquals(1, registry.get("pubtator.parse").timer().count());
+        assertEquals(1, registry.get("pubtator.highlight").timer().count());
+        assertEquals(1.0, registry.get("pubtator.documents").tag("source", "export").counter().count());
+        assertEquals(1.0, registry.get("pubtator.annotations").tag("result", "kept").counter().count());
+        assertEquals(1.0, registry.get("pubtator.annotations").tag("result", "filtered").counter().count());
+        assertEquals(export.getBytes(StandardCharsets.UTF_8).length,
+                registry.get("pubtator.export.response.size").summary().totalAmount());
+        assertEquals(1.0, registry.get("pubtator.client.circuit.state").tag("state", "closed").gauge().value());
+        assertEquals(0.0, registry.get("pubtator.client.retries").functionCounter().count());
+    }
+}
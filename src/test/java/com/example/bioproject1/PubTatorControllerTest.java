@@ -0,0 +1,139 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.controller.PubTatorController;
+import com.example.bioproject1.dto.HighlightedAbstract;
+import com.example.bioproject1.dto.SearchProgress;
+import com.example.bioproject1.dto.SearchSummary;
+import com.example.bioproject1.service.EntityTypeFilter;
+import com.example.bioproject1.service.PubTatorService;
+import com.example.bioproject1.service.SearchCoalescer;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * 스트리밍(SSE) 검색 엔드포인트 테스트 (실제 API 대신 정해진 이벤트를 내는 가짜 서비스, SearchCoalescer 경유)
+ */
+class PubTatorControllerTest {
+
+    private static final Pattern EVENT = Pattern.compile("^event: (\\w+)$", Pattern.MULTILINE);
+
+    /** progress -> result 2개 -> summary, "broken" 키워드는 progress 뒤에 실패 */
+    static class ScriptedPubTatorService extends PubTatorService {
+        final AtomicInteger calls = new AtomicInteger();
+
+        @Override
+        public SearchSummary searchAndHighlight(String keywords, int limit, EntityTypeFilter types,
+                                               Consumer<SearchProgress> progress, Consumer<HighlightedAbstract> sink)
+                throws IOException {
+            calls.incrementAndGet();
+            progress.accept(new SearchProgress(keywords, 2, 1, "remote"));
+            if (keywords.equals("broken")) {
+                throw new IOException("upstream 500");
+            }
+            sink.accept(new HighlightedAbstract("2", "cached", "<p>cached</p>"));
+            sink.accept(new HighlightedAbstract("1", "exported", "<p>exported</p>"));
+            return new SearchSummary(keywords, limit, List.of("1", "2"), 2, 2, 1, 0, "remote", 0);
+        }
+    }
+
+    private ScriptedPubTatorService upstream;
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void setUp() {
+        upstream = new ScriptedPubTatorService();
+        SearchCoalescer coalescer = new SearchCoalescer(upstream, 60, 100);
+        // 전역 async 타임아웃 (spring.mvc.async.request-timeout)
+        mockMvc = MockMvcBuilders.standaloneSetup(
+                        new PubTatorController(coalescer, null, null, new ObjectMapper()))
+                .setAsyncRequestTimeout(60_000)
+                .build();
+    }
+
+    private static List<String> eventNames(String body) {
+        List<String> names = new ArrayList<>();
+        Matcher matcher = EVENT.matcher(body);
+        while (matcher.find()) names.add(matcher.group(1));
+        return names;
+    }
+
+    private String stream(String path, String keywords) throws Exception {
+        MvcResult started = mockMvc.perform(get(path).param("keywords", keywords).accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MvcResult done = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(content().contentTypeCompatibleWith(MediaType.TEXT_EVENT_STREAM))
+                .andReturn();
+        return done.getResponse().getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    @Test
+    @DisplayName("/api/search/stream 은 progress -> result(도착 순서) -> summary 순서로 이벤트를 보낸다")
+    void streamsEventsInOrder() throws Exception {
+        String body = stream("/api/search/stream", "tau");
+
+        assertEquals(List.of("progress", "result", "result", "summary"), eventNames(body));
+        assertTrue(body.contains("\"pmidCount\":2"));
+        assertTrue(body.indexOf("\"pmid\":\"2\"") < body.indexOf("\"pmid\":\"1\""));
+        assertTrue(body.contains("\"resultCount\":2"));
+    }
+
+    @Test
+    @DisplayName("Accept: text/event-stream 으로 /api/search 를 부르면 같은 스트림을 받고, TTL 안의 재검색은 캐시에서 다시 보낸다")
+    void acceptHeaderSelectsStreamAndReusesCoalescedResult() throws Exception {
+        String first = stream("/api/search", "Tau");
+        String second = stream("/api/search/stream", " tau ");
+
+        assertEquals(List.of("progress", "result", "result", "summary"), eventNames(first));
+        assertEquals(eventNames(first), eventNames(second));
+        assertEquals(1, upstream.calls.get());
+    }
+
+    @Test
+    @DisplayName("도중에 실패하면 마지막 이벤트로 failure를 보내고 summary는 보내지 않는다")
+    void streamsFailureEvent() throws Exception {
+        String body = stream("/api/search/stream", "broken");
+
+        assertEquals(List.of("progress", "failure"), eventNames(body));
+        assertTrue(body.contains("upstream 500"));
+
+        // 실패는 캐시에 남지 않으므로 다시 실행
+        stream("/api/search/stream", "broken");
+        assertEquals(2, upstream.calls.get());
+    }
+
+    @Test
+    @DisplayName("전역 async 타임아웃이 있어도 SSE 스트림은 타임아웃 없이 시작한다")
+    void streamHasNoAsyncTimeout() throws Exception {
+        MvcResult started = mockMvc.perform(get("/api/search/stream").param("keywords", "tau")
+                        .accept(MediaType.TEXT_EVENT_STREAM))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        assertEquals(-1, started.getRequest().getAsyncContext().getTimeout());
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,198 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.Annotation;
+import com.example.bioproject1.dto.BioCDocument;
+import com.example.bioproject1.dto.BioCPassage;
+import com.example.bioproject1.dto.HighlightedAbstract;
+import com.example.bioproject1.dto.Infons;
+import com.example.bioproject1.dto.LocalPaper;
+import com.example.bioproject1.dto.Location;
+import com.example.bioproject1.dto.SearchSummary;
+import com.example.bioproject1.service.LiteratureIndexService;
+import com.example.bioproject1.service.NcbiClient;
+import com.example.bioproject1.service.NcbiUnavailableException;
+import com.example.bioproject1.service.PipelineMetrics;
+import com.example.bioproject1.service.PubTatorProperties;
+import com.example.bioproject1.service.PubTatorService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.net.ssl.SSLSession;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpHeaders;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * NCBI를 쓸 수 없을 때 로컬 코퍼스로 대체하는 경로 테스트
+ * (NcbiClient는 NcbiUnavailableException을 내는 가짜, 로컬 코퍼스는 메모리에 둔 문서)
+ */
+class PubTatorServiceFallbackTest {
+
+    /** 검색은 searchResponse(null이면 실패)로 답하고, export는 항상 NcbiUnavailableException */
+    static class UnavailableNcbiClient extends NcbiClient {
+        final String searchResponse;
+        final AtomicInteger searchCalls = new AtomicInteger();
+        final AtomicInteger exportCalls = new AtomicInteger();
+
+        UnavailableNcbiClient(String searchResponse) {
+            this.searchResponse = searchResponse;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <B, T> CompletableFuture<T> send(HttpRequest request, HttpResponse.BodyHandler<B> bodyHandler,
+                                                Function<HttpResponse<B>, T> handler) {
+            boolean search = request.uri().getPath().startsWith("/search");
+            (search ? searchCalls : exportCalls).incrementAndGet();
+            if (search && searchResponse != null) {
+                return CompletableFuture.completedFuture(handler.apply((HttpResponse<B>) ok(request, searchResponse)));
+            }
+            return CompletableFuture.failedFuture(new NcbiUnavailableException(
+                    "NCBI 요청 차단 (서킷 브레이커 OPEN): " + request.uri(), Duration.ofSeconds(30), null));
+        }
+    }
+
+    /** 메모리에 둔 로컬 코퍼스 (검색은 제목에 키워드가 들어간 문서, 저장 순서) */
+    static class InMemoryLiteratureIndex extends LiteratureIndexService {
+        final Map<String, BioCDocument> documents = new LinkedHashMap<>();
+
+        InMemoryLiteratureIndex(BioCDocument... stored) {
+            super(null, null, null, null, true);
+            for (BioCDocument document : stored) documents.put(document.id(), document);
+        }
+
+        @Override
+        public List<LocalPaper> search(String keywords, int limit) {
+            return documents.values().stream()
+                    .filter(doc -> doc.passages().get(0).text().toLowerCase().contains(keywords.toLowerCase()))
+                    .limit(limit)
+                    .map(doc -> new LocalPaper(doc.id(), doc.passages().get(0).text(), 1))
+                    .toList();
+        }
+
+        @Override
+        public List<BioCDocument> findDocuments(List<String> pmids) {
+            List<BioCDocument> found = new ArrayList<>();
+            for (String pmid : pmids) {
+                if (documents.containsKey(pmid)) found.add(documents.get(pmid));
+            }
+            return found;
+        }
+
+        @Override
+        public Set<String> indexedPmids(Collection<String> pmids) {
+            return Set.copyOf(pmids.stream().filter(documents::containsKey).toList());
+        }
+
+        @Override
+        public int index(Collection<BioCDocument> stored) {
+            return 0;
+        }
+    }
+
+    private final List<PubTatorService> services = new ArrayList<>();
+
+    @AfterEach
+    void shutdown() throws InterruptedException {
+        for (PubTatorService service : services) service.shutdown();
+    }
+
+    private PubTatorService service(NcbiClient client, LiteratureIndexService literatureIndex) {
+        PubTatorService service = new PubTatorService(null, literatureIndex, client, PipelineMetrics.noop(),
+                new PubTatorProperties(new PubTatorProperties.Api("http://ncbi.test/search/", "http://ncbi.test/export"),
+                        null, new PubTatorProperties.Export(2)));
+        services.add(service);
+        return service;
+    }
+
+    private static BioCDocument document(String pmid, String title) {
+        String text = "APOE4 raises risk.";
+        Annotation gene = new Annotation(List.of(new Location(0, 5)), "APOE4",
+                new Infons("Gene", "348", null));
+        return new BioCDocument(pmid, List.of(
+                new BioCPassage(new Infons("title", null, null), title, List.of()),
+                new BioCPassage(new Infons("abstract", null, null), text, List.of(gene))));
+    }
+
+    private static HttpResponse<String> ok(HttpRequest request, String body) {
+        return new HttpResponse<>() {
+            public int statusCode() { return 200; }
+            public HttpRequest request() { return request; }
+            public Optional<HttpResponse<String>> previousResponse() { return Optional.empty(); }
+            public HttpHeaders headers() { return HttpHeaders.of(Map.of(), (name, value) -> true); }
+            public String body() { return body; }
+            public Optional<SSLSession> sslSession() { return Optional.empty(); }
+            public URI uri() { return request.uri(); }
+            public HttpClient.Version version() { return HttpClient.Version.HTTP_1_1; }
+        };
+    }
+
+    @Test
+    @DisplayName("검색 단계에서 NCBI를 쓸 수 없으면 로컬 코퍼스에서 찾은 문서로 대체하고 source는 fallback")
+    void fallsBackToLocalCorpusWhenSearchIsUnavailable() throws Exception {
+        UnavailableNcbiClient client = new UnavailableNcbiClient(null);
+        InMemoryLiteratureIndex corpus = new InMemoryLiteratureIndex(
+                document("111", "APOE and Alzheimer disease"), document("222", "Tau tangles"),
+                document("333", "APOE in the brain"));
+        PubTatorService service = service(client, corpus);
+
+        List<HighlightedAbstract> results = new ArrayList<>();
+        SearchSummary summary = service.searchAndHighlight("apoe", 10, results::add);
+
+        assertEquals("fallback", summary.source());
+        assertEquals(List.of("111", "333"), summary.pmids());
+        assertEquals(List.of("111", "333"), results.stream().map(HighlightedAbstract::pmid).toList());
+        assertTrue(results.get(0).abstractHtml().contains("data-id='348'>APOE4</mark>"));
+        assertEquals(0, summary.unavailableCount());
+        assertEquals(1, client.searchCalls.get());
+        assertEquals(0, client.exportCalls.get());
+    }
+
+    @Test
+    @DisplayName("로컬 코퍼스에도 결과가 없으면 NcbiUnavailableException을 그대로 던진다")
+    void rethrowsWhenLocalCorpusHasNoMatch() {
+        PubTatorService service = service(new UnavailableNcbiClient(null),
+                new InMemoryLiteratureIndex(document("222", "Tau tangles")));
+
+        NcbiUnavailableException e = assertThrows(NcbiUnavailableException.class,
+                () -> service.searchAndHighlight("apoe", 10, result -> {}));
+        assertEquals(Duration.ofSeconds(30), e.retryAfter());
+    }
+
+    @Test
+    @DisplayName("export 단계에서 NCBI를 쓸 수 없으면 로컬 코퍼스에 있는 문서만 돌려주고 나머지는 unavailable로 센다")
+    void servesStoredDocumentsWhenExportIsUnavailable() throws Exception {
+        UnavailableNcbiClient client = new UnavailableNcbiClient("""
+                {"results": [{"pmid": "111"}, {"pmid": "444"}, {"pmid": "333"}], "page_size": 10, "total_pages": 1}
+                """);
+        InMemoryLiteratureIndex corpus = new InMemoryLiteratureIndex(
+                document("111", "APOE and Alzheimer disease"), document("333", "APOE in the brain"));
+        PubTatorService service = service(client, corpus);
+
+        List<HighlightedAbstract> results = new ArrayList<>();
+        SearchSummary summary = service.searchAndHighlight("apoe", 10, results::add);
+
+        assertEquals("remote", summary.source());
+        assertEquals(3, summary.pmidCount());
+        assertEquals(2, summary.resultCount());
+        assertEquals(1, summary.unavailableCount());
+        assertEquals(Set.of("111", "333"), Set.copyOf(results.stream().map(HighlightedAbstract::pmid).toList()));
+        assertEquals(2, client.exportCalls.get()); // batch 크기 2 -> [111, 444], [333]
+    }
+}
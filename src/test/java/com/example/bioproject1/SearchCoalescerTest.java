@@ -0,0 +1,168 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.HighlightedAbstract;
+import com.example.bioproject1.dto.SearchProgress;
+import com.example.bioproject1.dto.SearchSummary;
+import com.example.bioproject1.service.EntityTypeFilter;
+import com.example.bioproject1.service.PubTatorService;
+import com.example.bioproject1.service.SearchCoalescer;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 같은 키워드 동시 검색 합치기 테스트 (실제 API 대신 호출 횟수를 세는 가짜 서비스 사용)
+ */
+class SearchCoalescerTest {
+
+    /** 첫 호출이 release 될 때까지 막혀 있는 가짜 PubTatorService */
+    static class BlockingPubTatorService extends PubTatorService {
+        final AtomicInteger calls = new AtomicInteger();
+        final CountDownLatch release = new CountDownLatch(1);
+        volatile boolean failNext;
+        volatile int unavailable; // 받지 못한 PMID 수 (부분 결과)
+
+        @Override
+        public SearchSummary searchAndHighlight(String keywords, int limit, EntityTypeFilter types,
+                                               Consumer<SearchProgress> progress, Consumer<HighlightedAbstract> sink)
+                throws IOException, InterruptedException {
+            calls.incrementAndGet();
+            progress.accept(new SearchProgress(keywords, 2, 0, "remote"));
+            sink.accept(new HighlightedAbstract("2", keywords, "<p>second</p>")); // 검색 순위는 1, 2
+            release.await(5, TimeUnit.SECONDS);
+            if (failNext) {
+                failNext = false;
+                throw new IOException("upstream 503");
+            }
+            sink.accept(new HighlightedAbstract("1", keywords, "<p>" + keywords + "</p>"));
+            return new SearchSummary(keywords, limit, List.of("1", "2"), 2, 2, 0, unavailable, "remote", 0);
+        }
+    }
+
+    @Test
+    @DisplayName("동시에 들어온 같은 검색(공백/대소문자 차이 포함)은 upstream 호출 한 번을 공유한다")
+    void concurrentIdenticalSearchesShareOneCall() throws Exception {
+        BlockingPubTatorService upstream = new BlockingPubTatorService();
+        SearchCoalescer coalescer = new SearchCoalescer(upstream, 60, 100);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<List<HighlightedAbstract>>> futures = new ArrayList<>();
+            for (int i = 0; i < 8; i++) {
+                String keywords = i % 2 == 0 ? "Alzheimer's Disease" : "  alzheimer's   disease ";
+                futures.add(pool.submit(() -> coalescer.search(keywords)));
+            }
+            // 나머지 7개 요청이 진행 중인 검색에 합류할 때까지 대기 후 upstream 응답
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (coalescer.sharedCount() < 7 && System.nanoTime() < deadline) Thread.sleep(5);
+            upstream.release.countDown();
+
+            List<HighlightedAbstract> first = futures.get(0).get(5, TimeUnit.SECONDS);
+            for (Future<List<HighlightedAbstract>> future : futures) {
+                assertSame(first, future.get(5, TimeUnit.SECONDS));
+            }
+            assertEquals(1, upstream.calls.get());
+
+            // TTL 안의 재검색도 캐시된 결과를 그대로 사용
+            assertSame(first, coalescer.search("ALZHEIMER'S DISEASE"));
+            assertEquals(1, upstream.calls.get());
+            assertEquals(List.of("1", "2"), first.stream().map(HighlightedAbstract::pmid).toList());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("실패한 검색은 캐시에 남기지 않고 다음 요청에서 다시 시도한다")
+    void failuresAreNotCached() throws Exception {
+        BlockingPubTatorService upstream = new BlockingPubTatorService();
+        upstream.release.countDown();
+        upstream.failNext = true;
+        SearchCoalescer coalescer = new SearchCoalescer(upstream, 60, 100);
+
+        assertThrows(IOException.class, () -> coalescer.search("tau"));
+        assertEquals(2, coalescer.search("tau").size());
+        assertEquals(2, upstream.calls.get());
+    }
+
+    @Test
+    @DisplayName("일부 PMID를 받지 못한 부분 결과는 캐시에 남기지 않고, 완전한 결과부터 캐시한다")
+    void partialResultsAreNotCached() throws Exception {
+        BlockingPubTatorService upstream = new BlockingPubTatorService();
+        upstream.release.countDown();
+        upstream.unavailable = 1;
+        SearchCoalescer coalescer = new SearchCoalescer(upstream, 60, 100);
+
+        coalescer.search("tau");
+        coalescer.search("tau");
+        assertEquals(2, upstream.calls.get());
+
+        upstream.unavailable = 0;
+        List<HighlightedAbstract> complete = coalescer.search("tau");
+        assertSame(complete, coalescer.search("tau"));
+        assertEquals(3, upstream.calls.get());
+    }
+
+    @Test
+    @DisplayName("진행 중인 검색에 합류한 스트리밍 요청은 이미 도착한 결과부터 같은 순서로 받는다")
+    void streamingSubscriberReplaysArrivedResults() throws Exception {
+        BlockingPubTatorService upstream = new BlockingPubTatorService();
+        SearchCoalescer coalescer = new SearchCoalescer(upstream, 60, 100);
+        ExecutorService pool = Executors.newFixedThreadPool(2);
+        try {
+            List<String> ownerEvents = new CopyOnWriteArrayList<>();
+            List<String> joinedEvents = new CopyOnWriteArrayList<>();
+            Future<SearchSummary> owner = pool.submit(() -> coalescer.stream("tau", null, EntityTypeFilter.CORE,
+                    p -> ownerEvents.add("progress:" + p.pmidCount()), r -> ownerEvents.add("result:" + r.pmid())));
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (ownerEvents.size() < 2 && System.nanoTime() < deadline) Thread.sleep(5);
+
+            // 첫 결과가 도착한 뒤 합류 -> 그 결과를 먼저 받고 나머지는 도착하는 대로
+            Future<SearchSummary> joined = pool.submit(() -> coalescer.stream(" TAU ", null, EntityTypeFilter.CORE,
+                    p -> joinedEvents.add("progress:" + p.pmidCount()), r -> joinedEvents.add("result:" + r.pmid())));
+            while (coalescer.sharedCount() < 1 && System.nanoTime() < deadline) Thread.sleep(5);
+            while (joinedEvents.size() < 2 && System.nanoTime() < deadline) Thread.sleep(5);
+            assertEquals(List.of("progress:2", "result:2"), joinedEvents);
+            upstream.release.countDown();
+
+            assertSame(owner.get(5, TimeUnit.SECONDS), joined.get(5, TimeUnit.SECONDS));
+            assertEquals(List.of("progress:2", "result:2", "result:1"), ownerEvents);
+            assertEquals(ownerEvents, joinedEvents);
+            assertEquals(1, upstream.calls.get());
+
+            // 끝난 검색은 TTL 동안 캐시에서 전부 바로 다시 받음
+            List<String> cachedEvents = new ArrayList<>();
+            coalescer.stream("tau", null, EntityTypeFilter.CORE,
+                    p -> cachedEvents.add("progress:" + p.pmidCount()), r -> cachedEvents.add("result:" + r.pmid()));
+            assertEquals(ownerEvents, cachedEvents);
+            assertEquals(1, upstream.calls.get());
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    @Test
+    @DisplayName("대표 요청의 sink가 실패해도 검색은 끝까지 진행되어 합류한 요청은 결과를 받는다")
+    void ownerSinkFailureDoesNotAbortSharedSearch() throws Exception {
+        BlockingPubTatorService upstream = new BlockingPubTatorService();
+        upstream.release.countDown();
+        SearchCoalescer coalescer = new SearchCoalescer(upstream, 60, 100);
+
+        assertThrows(IllegalStateException.class, () -> coalescer.stream("tau", null, EntityTypeFilter.CORE,
+                p -> {}, r -> { throw new IllegalStateException("client gone"); }));
+        assertEquals(2, coalescer.search("tau").size());
+        assertEquals(1, upstream.calls.get());
+    }
+}
@@ -0,0 +1,54 @@
+package com.example.bioproject1;
+
+import com.example.bioproject1.dto.OpenReadingFrame;
+import com.example.bioproject1.service.SixFrameScanner;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * 6-frame 코돈 사용 / ORF 탐색 단위 테스트
+ */
+class SixFrameScannerTest {
+
+    private static SixFrameScanner.Result scan(String seq, int minOrfLength) {
+        return SixFrameScanner.scan(seq.getBytes(StandardCharsets.US_ASCII), minOrfLength);
+    }
+
+    @Test
+    @DisplayName("정방향 ORF는 첫 ATG부터 종결 코돈까지, 단백질은 종결 코돈을 제외하고 번역한다")
+    void findsForwardOrf() {
+        // +2 frame: ATG GCC TGG TAA
+        List<OpenReadingFrame> orfs = scan("CATGGCCTGGTAAC", 12).orfs();
+
+        assertEquals(List.of(new OpenReadingFrame("+2", 2, 13, 12, "MAW")), orfs);
+    }
+
+    @Test
+    @DisplayName("역방향 ORF는 역상보 서열을 만들지 않고 찾으며 좌표는 정방향 기준이다")
+    void findsReverseOrf() {
+        // 역상보 CATGGCCTGGTAAC 의 -2 frame 에서 ATG GCC TGG TAA
+        String reverseComplementOfOrf = "TTACCAGGCCAT";
+        List<OpenReadingFrame> orfs = scan("G" + reverseComplementOfOrf + "G", 12).orfs();
+
+        assertEquals(List.of(new OpenReadingFrame("-2", 2, 13, 12, "MAW")), orfs);
+    }
+
+    @Test
+    @DisplayName("각 frame의 코돈 사용을 한 번에 센다")
+    void countsCodonsPerFrame() {
+        Map<String, Map<String, Integer>> usage = scan("AAAC", 0).frameCodonUsage();
+
+        assertEquals(Map.of("AAA", 1), usage.get("+1"));
+        assertEquals(Map.of("AAC", 1), usage.get("+2"));
+        assertEquals(Map.of(), usage.get("+3"));
+        assertEquals(Map.of("GTT", 1), usage.get("-1"));
+        assertEquals(Map.of("TTT", 1), usage.get("-2"));
+        assertEquals('M', SixFrameScanner.translate(0 | 3 << 2 | 2 << 4));
+    }
+}